@@ -0,0 +1,111 @@
+package com.ionic.sdk.addon.jdbc.usecase2.benchmark;
+
+import com.ionic.sdk.addon.jdbc.usecase2.cipher.ChunkCipherV2Local;
+import com.ionic.sdk.addon.jdbc.usecase2.cipher.CipherProvider;
+import com.ionic.sdk.addon.jdbc.usecase2.cipher.PooledCipherProvider;
+import com.ionic.sdk.addon.jdbc.usecase2.cipher.ThreadLocalCipherProvider;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.IonicTypes;
+import com.ionic.sdk.addon.jdbc.usecase2.key.ProtectionKey;
+import com.ionic.sdk.error.IonicException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.Cipher;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for concurrent use of {@link ChunkCipherV2Local}, comparing the strategies for obtaining JCE ciphers.
+ * The "none" strategy obtains a new cipher from the JCE for each operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(Threads.MAX)
+public class CipherProviderBenchmark {
+
+    /**
+     * The strategy for obtaining JCE ciphers: "none", "threadlocal", or "pooled".
+     */
+    @Param({"none", "threadlocal", "pooled"})
+    public String provider;
+
+    /**
+     * The source of JCE ciphers.
+     */
+    private CipherProvider cipherProvider;
+
+    /**
+     * The key used to protect the sample value.
+     */
+    private ProtectionKey key;
+
+    /**
+     * The byte[] representation of the sample value.
+     */
+    private byte[] plainText;
+
+    /**
+     * The Ionic-protected representation of the sample value.
+     */
+    private String cipherText;
+
+    /**
+     * Set up the benchmark state.
+     *
+     * @throws IonicException on failure to Ionic protect the sample value
+     */
+    @Setup
+    public void setUp() throws IonicException {
+        if ("threadlocal".equals(provider)) {
+            cipherProvider = new ThreadLocalCipherProvider();
+        } else if ("pooled".equals(provider)) {
+            cipherProvider = new PooledCipherProvider(Runtime.getRuntime().availableProcessors());
+        } else {
+            cipherProvider = new CipherProvider() {
+                @Override
+                public Cipher acquire() throws IonicException {
+                    return ChunkCipherV2Local.createCipher();
+                }
+
+                @Override
+                public void release(final Cipher cipher) {
+                }
+            };
+        }
+        key = new FixedKeySource(1).createKeys(1).iterator().next();
+        plainText = IonicTypes.toBytes(EmployeeUtil.SALARY);
+        cipherText = ChunkCipherV2Local.encrypt(key, plainText, cipherProvider);
+    }
+
+    /**
+     * @return the Ionic-protected representation of the sample value
+     * @throws IonicException on cryptography failures
+     */
+    @Benchmark
+    public String encrypt() throws IonicException {
+        return ChunkCipherV2Local.encrypt(key, plainText, cipherProvider);
+    }
+
+    /**
+     * @return the byte[] representation of the sample value
+     * @throws IonicException on cryptography failures
+     */
+    @Benchmark
+    public byte[] decrypt() throws IonicException {
+        return ChunkCipherV2Local.decryptToBytes(key, cipherText, cipherProvider);
+    }
+}
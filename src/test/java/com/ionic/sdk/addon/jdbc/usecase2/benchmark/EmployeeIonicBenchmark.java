@@ -0,0 +1,82 @@
+package com.ionic.sdk.addon.jdbc.usecase2.benchmark;
+
+import com.ionic.sdk.addon.jdbc.usecase2.employee.Employee;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonic;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonicFields;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonicUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.key.KeySource;
+import com.ionic.sdk.error.IonicException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the conversion of employee records to/from their Ionic-protected representation.  Keys are supplied
+ * by a local stand-in for the key service, so that only the local cost of each conversion is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EmployeeIonicBenchmark {
+
+    /**
+     * The key source; used to provide keys for cryptography operations.
+     */
+    private KeySource keySource;
+
+    /**
+     * An employee record to be Ionic-protected.
+     */
+    private Employee employee;
+
+    /**
+     * An Ionic-protected employee record to be unprotected.
+     */
+    private EmployeeIonic employeeIonic;
+
+    /**
+     * Set up the benchmark state.
+     *
+     * @throws IonicException on failure to Ionic protect the sample record
+     */
+    @Setup
+    public void setUp() throws IonicException {
+        keySource = new FixedKeySource(KEYS);
+        employee = EmployeeUtil.generate();
+        final EmployeeIonicFields ionicFields = EmployeeIonicUtil.toEmployeeIonicFields(employee, keySource);
+        employeeIonic = new EmployeeIonic(employee, ionicFields);
+    }
+
+    /**
+     * @return the Ionic-protected representation of the sample record
+     * @throws IonicException on cryptography failures
+     */
+    @Benchmark
+    public EmployeeIonicFields toEmployeeIonicFields() throws IonicException {
+        return EmployeeIonicUtil.toEmployeeIonicFields(employee, keySource);
+    }
+
+    /**
+     * @return the unprotected representation of the sample record
+     * @throws IonicException on cryptography failures
+     */
+    @Benchmark
+    public Employee toEmployee() throws IonicException {
+        return EmployeeIonicUtil.toEmployee(employeeIonic, keySource);
+    }
+
+    private static final int KEYS = 1024;
+}
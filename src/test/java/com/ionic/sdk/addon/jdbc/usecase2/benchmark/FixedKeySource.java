@@ -0,0 +1,72 @@
+package com.ionic.sdk.addon.jdbc.usecase2.benchmark;
+
+import com.ionic.sdk.addon.jdbc.usecase2.key.KeySource;
+import com.ionic.sdk.addon.jdbc.usecase2.key.LocalKeySource;
+import com.ionic.sdk.addon.jdbc.usecase2.key.ProtectionKey;
+import com.ionic.sdk.error.IonicException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link KeySource} implementation that hands out keys from a fixed, preallocated set.  Used by the benchmarks to
+ * isolate the cost of local cryptography and data mapping from the cost of key creation, and to keep the benchmark
+ * memory footprint constant over an arbitrary number of invocations.
+ */
+public class FixedKeySource implements KeySource {
+
+    /**
+     * The preallocated keys.
+     */
+    private final List<ProtectionKey> keys;
+
+    /**
+     * The preallocated keys, indexed by key id.
+     */
+    private final Map<String, ProtectionKey> keysById;
+
+    /**
+     * The position of the next key to hand out.
+     */
+    private final AtomicInteger position;
+
+    /**
+     * Constructor.
+     *
+     * @param size the number of keys to preallocate
+     * @throws IonicException on failure to create the keys
+     */
+    public FixedKeySource(final int size) throws IonicException {
+        this.keys = new LocalKeySource(0L).createKeys(size);
+        this.keysById = new HashMap<String, ProtectionKey>();
+        for (ProtectionKey key : keys) {
+            keysById.put(key.getId(), key);
+        }
+        this.position = new AtomicInteger();
+    }
+
+    @Override
+    public List<ProtectionKey> createKeys(final int quantity) {
+        final List<ProtectionKey> keysCreated = new ArrayList<ProtectionKey>(quantity);
+        for (int i = 0; (i < quantity); ++i) {
+            keysCreated.add(keys.get((position.getAndIncrement() & Integer.MAX_VALUE) % keys.size()));
+        }
+        return keysCreated;
+    }
+
+    @Override
+    public Map<String, ProtectionKey> getKeys(final Collection<String> keyIds) {
+        final Map<String, ProtectionKey> keysFetched = new HashMap<String, ProtectionKey>();
+        for (String keyId : keyIds) {
+            final ProtectionKey key = keysById.get(keyId);
+            if (key != null) {
+                keysFetched.put(keyId, key);
+            }
+        }
+        return keysFetched;
+    }
+}
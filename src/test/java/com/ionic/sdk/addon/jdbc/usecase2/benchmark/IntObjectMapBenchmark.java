@@ -0,0 +1,105 @@
+package com.ionic.sdk.addon.jdbc.usecase2.benchmark;
+
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonicFields;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.DenseIntObjectMap;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.OpenAddressingIntObjectMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the in-memory index of table EmployeeIonic by database id, comparing {@link TreeMap} with the
+ * primitive int-keyed maps.  Each operation builds the index from a set of contiguous ids, then looks up every id, as
+ * is done when joining the records of table Employee to those of table EmployeeIonic.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class IntObjectMapBenchmark {
+
+    /**
+     * The number of records in the index.
+     */
+    @Param({"100000"})
+    public int records;
+
+    /**
+     * The records to index.
+     */
+    private EmployeeIonicFields[] ionicFields;
+
+    /**
+     * Set up the benchmark state.
+     */
+    @Setup
+    public void setUp() {
+        ionicFields = new EmployeeIonicFields[records];
+        for (int i = 0; (i < records); ++i) {
+            ionicFields[i] = new EmployeeIonicFields(i + 1, null, null);
+        }
+    }
+
+    /**
+     * @return the number of records found in the index
+     */
+    @Benchmark
+    public int treeMap() {
+        final Map<Integer, EmployeeIonicFields> map = new TreeMap<Integer, EmployeeIonicFields>();
+        for (EmployeeIonicFields eif : ionicFields) {
+            map.put(eif.getId(), eif);
+        }
+        int found = 0;
+        for (EmployeeIonicFields eif : ionicFields) {
+            found += (map.get(eif.getId()) == null) ? 0 : 1;
+        }
+        return found;
+    }
+
+    /**
+     * @return the number of records found in the index
+     */
+    @Benchmark
+    public int openAddressing() {
+        final OpenAddressingIntObjectMap<EmployeeIonicFields> map =
+                new OpenAddressingIntObjectMap<EmployeeIonicFields>();
+        for (EmployeeIonicFields eif : ionicFields) {
+            map.put(eif.getId(), eif);
+        }
+        int found = 0;
+        for (EmployeeIonicFields eif : ionicFields) {
+            found += (map.get(eif.getId()) == null) ? 0 : 1;
+        }
+        return found;
+    }
+
+    /**
+     * @return the number of records found in the index
+     */
+    @Benchmark
+    public int dense() {
+        final DenseIntObjectMap<EmployeeIonicFields> map = new DenseIntObjectMap<EmployeeIonicFields>();
+        for (EmployeeIonicFields eif : ionicFields) {
+            map.put(eif.getId(), eif);
+        }
+        int found = 0;
+        for (EmployeeIonicFields eif : ionicFields) {
+            found += (map.get(eif.getId()) == null) ? 0 : 1;
+        }
+        return found;
+    }
+}
@@ -0,0 +1,163 @@
+package com.ionic.sdk.addon.jdbc.usecase2.benchmark;
+
+import com.ionic.sdk.addon.jdbc.usecase2.employee.Employee;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.ColumnarResultSetHandler;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.ColumnarRowSet;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.RecordConsumer;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.RowMapper;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.RowMappers;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.RowSet;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.SampleResultSetHandler;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.StreamingResultSetHandler;
+import org.apache.commons.dbutils.QueryRunner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the mapping of JDBC result sets into their in-memory representation.  An embedded in-memory database
+ * (H2) holds a copy of table Employee, so that only the local cost of the mapping is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ResultSetHandlerBenchmark {
+
+    /**
+     * The number of records in the benchmark table.
+     */
+    @Param({"1000"})
+    public int records;
+
+    /**
+     * The connection to the embedded database.
+     */
+    private Connection connection;
+
+    /**
+     * The benchmark query, prepared once.
+     */
+    private PreparedStatement statement;
+
+    /**
+     * The converter of each row of the benchmark query, compiled once.
+     */
+    private RowMapper<Employee> mapper;
+
+    /**
+     * Set up the benchmark state.
+     *
+     * @throws SQLException on failure to populate the embedded database
+     */
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(URL);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(SQL_CREATE);
+        }
+        final QueryRunner queryRunner = new QueryRunner();
+        final Object[][] params = new Object[records][];
+        for (int i = 0; (i < records); ++i) {
+            final Employee e = EmployeeUtil.generate();
+            params[i] = new Object[]{e.getFirstName(), e.getLastName(), e.getPersonalIdentifier(),
+                    e.getSalary(), e.getCountry()};
+        }
+        queryRunner.batch(connection, SQL_INSERT, params);
+        statement = connection.prepareStatement(SQL_SELECT);
+        try (ResultSet resultSet = statement.executeQuery()) {
+            mapper = RowMappers.employee(resultSet.getMetaData());
+        }
+    }
+
+    /**
+     * Release the benchmark state.
+     *
+     * @throws SQLException on failure to release the embedded database
+     */
+    @TearDown
+    public void tearDown() throws SQLException {
+        statement.close();
+        connection.close();
+    }
+
+    /**
+     * @return the in-memory representation of the benchmark table
+     * @throws SQLException on failure to read from the embedded database
+     */
+    @Benchmark
+    public RowSet handle() throws SQLException {
+        return new QueryRunner().query(connection, SQL_SELECT, new SampleResultSetHandler());
+    }
+
+    /**
+     * @return the column-oriented in-memory representation of the benchmark table
+     * @throws SQLException on failure to read from the embedded database
+     */
+    @Benchmark
+    public ColumnarRowSet handleColumnar() throws SQLException {
+        return new QueryRunner().query(connection, SQL_SELECT, new ColumnarResultSetHandler());
+    }
+
+    /**
+     * @param blackhole the sink for each row of the benchmark table
+     * @return the number of rows processed
+     * @throws SQLException on failure to read from the embedded database
+     */
+    @Benchmark
+    public Integer handleStreaming(final Blackhole blackhole) throws SQLException {
+        return new QueryRunner().query(connection, SQL_SELECT, new StreamingResultSetHandler(
+                new RecordConsumer<Object[]>() {
+                    @Override
+                    public void accept(final Object[] row) {
+                        blackhole.consume(row);
+                    }
+                }));
+    }
+
+    /**
+     * @param blackhole the sink for each record of the benchmark table
+     * @return the number of records processed
+     * @throws SQLException on failure to read from the embedded database
+     */
+    @Benchmark
+    public int handleMapper(final Blackhole blackhole) throws SQLException {
+        int rows = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                blackhole.consume(mapper.map(resultSet));
+                ++rows;
+            }
+        }
+        return rows;
+    }
+
+    private static final String URL = "jdbc:h2:mem:benchmark";
+    private static final String SQL_CREATE = "CREATE TABLE IF NOT EXISTS employee(id serial PRIMARY KEY, "
+            + "firstname VARCHAR(24), lastname VARCHAR(24), personalidentifier VARCHAR(9), salary INTEGER, "
+            + "country VARCHAR(3))";
+    private static final String SQL_INSERT = "INSERT INTO employee "
+            + "(firstname, lastname, personalidentifier, salary, country) VALUES (?, ?, ?, ?, ?)";
+    private static final String SQL_SELECT = "SELECT * FROM employee";
+}
@@ -0,0 +1,96 @@
+package com.ionic.sdk.addon.jdbc.usecase2.benchmark;
+
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.IonicTypes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the per-record data conversions applied around the Ionic cryptography operations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TypeConversionBenchmark {
+
+    /**
+     * An integer value to be converted.
+     */
+    private int value;
+
+    /**
+     * The byte[] representation of "value".
+     */
+    private byte[] bytes;
+
+    /**
+     * A reusable buffer, for the conversions which write to a caller-supplied buffer.
+     */
+    private byte[] buffer;
+
+    /**
+     * Set up the benchmark state.
+     */
+    @Setup
+    public void setUp() {
+        value = EmployeeUtil.SALARY;
+        bytes = IonicTypes.toBytes(value);
+        buffer = new byte[bytes.length];
+    }
+
+    /**
+     * @return the byte[] representation of the sample value
+     */
+    @Benchmark
+    public byte[] toBytes() {
+        return IonicTypes.toBytes(value);
+    }
+
+    /**
+     * @return the int representation of the sample value
+     */
+    @Benchmark
+    public int toInt() {
+        return IonicTypes.toInt(bytes);
+    }
+
+    /**
+     * @return the position in the reusable buffer following the byte[] representation of the sample value
+     */
+    @Benchmark
+    public int putInt() {
+        return IonicTypes.putInt(buffer, 0, value);
+    }
+
+    /**
+     * @return the int representation of the sample value, read in place
+     */
+    @Benchmark
+    public int getInt() {
+        return IonicTypes.getInt(bytes, 0);
+    }
+
+    /**
+     * @return the personal identifier derived from a sample name
+     */
+    @Benchmark
+    public String getPersonalIdentifier() {
+        return EmployeeUtil.getPersonalIdentifier(FIRST_NAME, LAST_NAME);
+    }
+
+    private static final String FIRST_NAME = "Jennifer";
+    private static final String LAST_NAME = "Johnson";
+}
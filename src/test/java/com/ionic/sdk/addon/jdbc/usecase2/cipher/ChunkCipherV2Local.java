@@ -0,0 +1,322 @@
+package com.ionic.sdk.addon.jdbc.usecase2.cipher;
+
+import com.ionic.sdk.addon.jdbc.usecase2.key.ProtectionKey;
+import com.ionic.sdk.addon.jdbc.usecase2.metrics.Metrics;
+import com.ionic.sdk.addon.jdbc.usecase2.metrics.Stage;
+import com.ionic.sdk.core.codec.Transcoder;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.error.SdkError;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+
+/**
+ * Local implementation of the {@link com.ionic.sdk.agent.cipher.chunk.ChunkCipherV2} data format, using keys which
+ * have already been obtained from a {@link com.ionic.sdk.addon.jdbc.usecase2.key.KeySource}.
+ * <p>
+ * The ChunkCipherV2 representation of a protected value is "~!2!{key id}!{base64(iv + ciphertext)}!", where the
+ * ciphertext is produced by AES in CTR mode, and the base64 padding is omitted.  Values protected by this class may be
+ * unprotected by ChunkCipherV2, and vice versa.
+ * <p>
+ * The JCE cipher objects are obtained from a {@link CipherProvider}, so that they are reused across operations.
+ * Unless a provider is specified, one cipher is held for each calling thread.  Each thread also holds its own source
+ * of initialization vectors.
+ */
+public class ChunkCipherV2Local {
+
+    /**
+     * Protect the input text.
+     *
+     * @param key       the key to use for the encryption
+     * @param plainText the data to be protected
+     * @return the ChunkCipherV2 representation of "plainText"
+     * @throws IonicException on cryptography failures
+     */
+    public static String encrypt(final ProtectionKey key, final String plainText) throws IonicException {
+        return encrypt(key, Transcoder.utf8().decode(plainText), CIPHERS);
+    }
+
+    /**
+     * Protect the input text.
+     *
+     * @param key            the key to use for the encryption
+     * @param plainText      the data to be protected
+     * @param cipherProvider the source of the JCE cipher used for the encryption
+     * @return the ChunkCipherV2 representation of "plainText"
+     * @throws IonicException on cryptography failures
+     */
+    public static String encrypt(final ProtectionKey key, final String plainText,
+                                 final CipherProvider cipherProvider) throws IonicException {
+        return encrypt(key, Transcoder.utf8().decode(plainText), cipherProvider);
+    }
+
+    /**
+     * Protect the input bytes.
+     *
+     * @param key       the key to use for the encryption
+     * @param plainText the data to be protected
+     * @return the ChunkCipherV2 representation of "plainText"
+     * @throws IonicException on cryptography failures
+     */
+    public static String encrypt(final ProtectionKey key, final byte[] plainText) throws IonicException {
+        return encrypt(key, plainText, CIPHERS);
+    }
+
+    /**
+     * Protect the input bytes.
+     *
+     * @param key            the key to use for the encryption
+     * @param plainText      the data to be protected
+     * @param cipherProvider the source of the JCE cipher used for the encryption
+     * @return the ChunkCipherV2 representation of "plainText"
+     * @throws IonicException on cryptography failures
+     */
+    public static String encrypt(final ProtectionKey key, final byte[] plainText,
+                                 final CipherProvider cipherProvider) throws IonicException {
+        return encrypt(key, plainText, 0, plainText.length, cipherProvider);
+    }
+
+    /**
+     * Protect a range of the input buffer.  The buffer may be reused by the caller once this call returns.
+     *
+     * @param key            the key to use for the encryption
+     * @param buffer         the buffer holding the data to be protected
+     * @param offset         the position in "buffer" of the data to be protected
+     * @param length         the number of bytes to be protected
+     * @param cipherProvider the source of the JCE cipher used for the encryption
+     * @return the ChunkCipherV2 representation of the data
+     * @throws IonicException on cryptography failures
+     */
+    public static String encrypt(final ProtectionKey key, final byte[] buffer, final int offset, final int length,
+                                 final CipherProvider cipherProvider) throws IonicException {
+        final long start = Metrics.start();
+        final byte[] iv = new byte[SIZE_IV];
+        RANDOM.get().nextBytes(iv);
+        final byte[] ivCipherText = new byte[SIZE_IV + length];
+        System.arraycopy(iv, 0, ivCipherText, 0, SIZE_IV);
+        final Cipher cipher = cipherProvider.acquire();
+        try {
+            cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key.getKey(), ALGORITHM), new IvParameterSpec(iv));
+            cipher.doFinal(buffer, offset, length, ivCipherText, SIZE_IV);
+        } catch (GeneralSecurityException e) {
+            throw new IonicException(SdkError.ISCRYPTO_ERROR, e);
+        } finally {
+            cipherProvider.release(cipher);
+        }
+        final String cipherText = PREFIX + key.getId() + DELIMITER + toBase64(ivCipherText) + DELIMITER;
+        Metrics.stop(Stage.ENCRYPT, start);
+        return cipherText;
+    }
+
+    /**
+     * Unprotect the input ChunkCipherV2 text.
+     *
+     * @param key        the key associated with "cipherText"
+     * @param cipherText the ChunkCipherV2 representation of the protected data
+     * @return the plaintext string
+     * @throws IonicException on cryptography failures, or if "key" does not match the key id in "cipherText"
+     */
+    public static String decrypt(final ProtectionKey key, final String cipherText) throws IonicException {
+        return Transcoder.utf8().encode(decryptToBytes(key, cipherText, CIPHERS));
+    }
+
+    /**
+     * Unprotect the input ChunkCipherV2 text.
+     *
+     * @param key            the key associated with "cipherText"
+     * @param cipherText     the ChunkCipherV2 representation of the protected data
+     * @param cipherProvider the source of the JCE cipher used for the decryption
+     * @return the plaintext string
+     * @throws IonicException on cryptography failures, or if "key" does not match the key id in "cipherText"
+     */
+    public static String decrypt(final ProtectionKey key, final String cipherText,
+                                 final CipherProvider cipherProvider) throws IonicException {
+        return Transcoder.utf8().encode(decryptToBytes(key, cipherText, cipherProvider));
+    }
+
+    /**
+     * Unprotect the input ChunkCipherV2 text.
+     *
+     * @param key        the key associated with "cipherText"
+     * @param cipherText the ChunkCipherV2 representation of the protected data
+     * @return the plaintext bytes
+     * @throws IonicException on cryptography failures, or if "key" does not match the key id in "cipherText"
+     */
+    public static byte[] decryptToBytes(final ProtectionKey key, final String cipherText) throws IonicException {
+        return decryptToBytes(key, cipherText, CIPHERS);
+    }
+
+    /**
+     * Unprotect the input ChunkCipherV2 text.
+     *
+     * @param key            the key associated with "cipherText"
+     * @param cipherText     the ChunkCipherV2 representation of the protected data
+     * @param cipherProvider the source of the JCE cipher used for the decryption
+     * @return the plaintext bytes
+     * @throws IonicException on cryptography failures, or if "key" does not match the key id in "cipherText"
+     */
+    public static byte[] decryptToBytes(final ProtectionKey key, final String cipherText,
+                                        final CipherProvider cipherProvider) throws IonicException {
+        final long start = Metrics.start();
+        final byte[] ivCipherText = parse(key, cipherText);
+        final Cipher cipher = cipherProvider.acquire();
+        try {
+            cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(key.getKey(), ALGORITHM),
+                    new IvParameterSpec(ivCipherText, 0, SIZE_IV));
+            final byte[] plainText = cipher.doFinal(ivCipherText, SIZE_IV, ivCipherText.length - SIZE_IV);
+            Metrics.stop(Stage.DECRYPT, start);
+            return plainText;
+        } catch (GeneralSecurityException e) {
+            throw new IonicException(SdkError.ISCRYPTO_ERROR, e);
+        } finally {
+            cipherProvider.release(cipher);
+        }
+    }
+
+    /**
+     * Unprotect the input ChunkCipherV2 text into a caller-supplied buffer.
+     *
+     * @param key            the key associated with "cipherText"
+     * @param cipherText     the ChunkCipherV2 representation of the protected data
+     * @param buffer         the buffer to receive the plaintext bytes
+     * @param offset         the position in "buffer" at which to write the plaintext bytes
+     * @param cipherProvider the source of the JCE cipher used for the decryption
+     * @return the number of plaintext bytes written to "buffer"
+     * @throws IonicException on cryptography failures; if "key" does not match the key id in "cipherText"; if the
+     *                        plaintext does not fit in "buffer"
+     */
+    public static int decryptToBytes(final ProtectionKey key, final String cipherText, final byte[] buffer,
+                                     final int offset, final CipherProvider cipherProvider) throws IonicException {
+        final long start = Metrics.start();
+        final byte[] ivCipherText = parse(key, cipherText);
+        final Cipher cipher = cipherProvider.acquire();
+        try {
+            cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(key.getKey(), ALGORITHM),
+                    new IvParameterSpec(ivCipherText, 0, SIZE_IV));
+            final int length = cipher.doFinal(ivCipherText, SIZE_IV, ivCipherText.length - SIZE_IV, buffer, offset);
+            Metrics.stop(Stage.DECRYPT, start);
+            return length;
+        } catch (GeneralSecurityException e) {
+            throw new IonicException(SdkError.ISCRYPTO_ERROR, e);
+        } finally {
+            cipherProvider.release(cipher);
+        }
+    }
+
+    /**
+     * @return the source of JCE ciphers used when none is specified by the caller (one cipher for each thread)
+     */
+    public static CipherProvider getCipherProvider() {
+        return CIPHERS;
+    }
+
+    /**
+     * Create a JCE cipher of the type used by the ChunkCipherV2 format.  This is a relatively costly operation; see
+     * {@link CipherProvider}.
+     *
+     * @return a new, uninitialized cipher
+     * @throws IonicException if the cipher is not available from the JCE
+     */
+    public static Cipher createCipher() throws IonicException {
+        try {
+            return Cipher.getInstance(TRANSFORMATION);
+        } catch (GeneralSecurityException e) {
+            throw new IonicException(SdkError.ISCRYPTO_ERROR, e);
+        }
+    }
+
+    /**
+     * Extract the key id from the input ChunkCipherV2 text, without decrypting it.
+     *
+     * @param cipherText the ChunkCipherV2 representation of the protected data
+     * @return the id of the key needed to unprotect "cipherText"
+     * @throws IonicException if "cipherText" is not in the ChunkCipherV2 format
+     */
+    public static String getKeyId(final String cipherText) throws IonicException {
+        final int end = ((cipherText == null) || !cipherText.startsWith(PREFIX) || !cipherText.endsWith(DELIMITER))
+                ? -1 : cipherText.indexOf(DELIMITER, PREFIX.length());
+        if ((end <= PREFIX.length()) || (end == cipherText.length() - DELIMITER.length())) {
+            throw new IonicException(SdkError.ISCHUNKCRYPTO_PARSEERROR, cipherText);
+        }
+        return cipherText.substring(PREFIX.length(), end);
+    }
+
+    /**
+     * Extract the initialization vector and ciphertext from the input ChunkCipherV2 text.
+     *
+     * @param key        the key associated with "cipherText"
+     * @param cipherText the ChunkCipherV2 representation of the protected data
+     * @return the initialization vector, followed by the ciphertext
+     * @throws IonicException if "cipherText" is not in the ChunkCipherV2 format, or if "key" does not match the key
+     *                        id in "cipherText"
+     */
+    private static byte[] parse(final ProtectionKey key, final String cipherText) throws IonicException {
+        final String keyId = getKeyId(cipherText);
+        if (!keyId.equals(key.getId())) {
+            throw new IonicException(SdkError.ISAGENT_INVALIDVALUE, keyId);
+        }
+        final String base64 = cipherText.substring(
+                PREFIX.length() + keyId.length() + DELIMITER.length(), cipherText.length() - DELIMITER.length());
+        final byte[] ivCipherText = fromBase64(base64);
+        if (ivCipherText.length < SIZE_IV) {
+            throw new IonicException(SdkError.ISCHUNKCRYPTO_PARSEERROR, cipherText);
+        }
+        return ivCipherText;
+    }
+
+    /**
+     * ChunkCipherV2 omits the base64 padding characters.
+     *
+     * @param bytes the binary data to encode
+     * @return the unpadded base64 representation of "bytes"
+     */
+    private static String toBase64(final byte[] bytes) {
+        final String base64 = Transcoder.base64().encode(bytes);
+        int length = base64.length();
+        while ((length > 0) && (base64.charAt(length - 1) == PAD)) {
+            --length;
+        }
+        return base64.substring(0, length);
+    }
+
+    /**
+     * ChunkCipherV2 omits the base64 padding characters; restore them before decoding.
+     *
+     * @param base64 the unpadded base64 representation of some binary data
+     * @return the binary data
+     */
+    private static byte[] fromBase64(final String base64) {
+        final StringBuilder buffer = new StringBuilder(base64);
+        while ((buffer.length() % SIZE_BASE64_BLOCK) != 0) {
+            buffer.append(PAD);
+        }
+        return Transcoder.base64().decode(buffer.toString());
+    }
+
+    /**
+     * The source of initialization vectors of each thread; a single shared instance would serialize concurrent
+     * encryptions on its internal lock.
+     */
+    private static final ThreadLocal<SecureRandom> RANDOM = new ThreadLocal<SecureRandom>() {
+        @Override
+        protected SecureRandom initialValue() {
+            return new SecureRandom();
+        }
+    };
+
+    /**
+     * The source of JCE ciphers, when none is specified by the caller.
+     */
+    private static final CipherProvider CIPHERS = new ThreadLocalCipherProvider();
+
+    private static final String PREFIX = "~!2!";
+    private static final String DELIMITER = "!";
+    private static final char PAD = '=';
+    private static final int SIZE_BASE64_BLOCK = 4;
+    private static final int SIZE_IV = 16;
+    private static final String ALGORITHM = "AES";
+    private static final String TRANSFORMATION = "AES/CTR/NoPadding";
+}
@@ -0,0 +1,31 @@
+package com.ionic.sdk.addon.jdbc.usecase2.cipher;
+
+import com.ionic.sdk.error.IonicException;
+
+import javax.crypto.Cipher;
+
+/**
+ * Source of the JCE {@link Cipher} objects used by {@link ChunkCipherV2Local}.
+ * <p>
+ * Obtaining a {@link Cipher} from the JCE involves a provider lookup and object setup which is costly relative to the
+ * encryption of a single small value.  Implementations hold long-lived instances, which are re-initialized with the
+ * needed key for each operation.  A {@link Cipher} is not safe for concurrent use; each instance obtained using
+ * {@link #acquire()} is used by the calling thread only, until it is handed back using {@link #release(Cipher)}.
+ */
+public interface CipherProvider {
+
+    /**
+     * Obtain a cipher for exclusive use by the calling thread.
+     *
+     * @return an uninitialized (or previously used) "AES/CTR/NoPadding" cipher
+     * @throws IonicException on failure to create the cipher
+     */
+    Cipher acquire() throws IonicException;
+
+    /**
+     * Hand back a cipher previously obtained using {@link #acquire()}.
+     *
+     * @param cipher the cipher, which is no longer in use by the calling thread
+     */
+    void release(Cipher cipher);
+}
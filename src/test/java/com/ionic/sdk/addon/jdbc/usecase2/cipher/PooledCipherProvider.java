@@ -0,0 +1,67 @@
+package com.ionic.sdk.addon.jdbc.usecase2.cipher;
+
+import com.ionic.sdk.error.IonicException;
+
+import javax.crypto.Cipher;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link CipherProvider} implementation which holds a bounded pool of idle ciphers, shared by all threads.  This suits
+ * short-lived or numerous threads, for which per-thread instances would be created often, or would accumulate.
+ * <p>
+ * If no idle cipher is available, a new one is created; the caller never waits.  Ciphers handed back while the pool
+ * is full are discarded.
+ */
+public class PooledCipherProvider implements CipherProvider {
+
+    /**
+     * The idle ciphers.
+     */
+    private final BlockingQueue<Cipher> idle;
+
+    /**
+     * The number of ciphers created by this provider.
+     */
+    private final AtomicLong created;
+
+    /**
+     * Constructor.
+     *
+     * @param maxIdle the maximum number of idle ciphers to hold
+     */
+    public PooledCipherProvider(final int maxIdle) {
+        this.idle = new ArrayBlockingQueue<Cipher>(maxIdle);
+        this.created = new AtomicLong();
+    }
+
+    @Override
+    public Cipher acquire() throws IonicException {
+        final Cipher cipher = idle.poll();
+        if (cipher == null) {
+            created.incrementAndGet();
+            return ChunkCipherV2Local.createCipher();
+        }
+        return cipher;
+    }
+
+    @Override
+    public void release(final Cipher cipher) {
+        idle.offer(cipher);
+    }
+
+    /**
+     * @return the number of idle ciphers currently held
+     */
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * @return the number of ciphers created by this provider
+     */
+    public long getCreatedCount() {
+        return created.get();
+    }
+}
@@ -0,0 +1,41 @@
+package com.ionic.sdk.addon.jdbc.usecase2.cipher;
+
+import com.ionic.sdk.error.IonicException;
+
+import javax.crypto.Cipher;
+
+/**
+ * {@link CipherProvider} implementation which holds one cipher for each thread.  This suits a fixed set of long-lived
+ * worker threads; no coordination between threads is needed.
+ */
+public class ThreadLocalCipherProvider implements CipherProvider {
+
+    /**
+     * The cipher held for each thread.
+     */
+    private final ThreadLocal<Cipher> ciphers;
+
+    /**
+     * Constructor.
+     */
+    public ThreadLocalCipherProvider() {
+        this.ciphers = new ThreadLocal<Cipher>();
+    }
+
+    @Override
+    public Cipher acquire() throws IonicException {
+        Cipher cipher = ciphers.get();
+        if (cipher == null) {
+            cipher = ChunkCipherV2Local.createCipher();
+            ciphers.set(cipher);
+        }
+        return cipher;
+    }
+
+    /**
+     * The cipher remains associated with the calling thread, for use by its next operation.
+     */
+    @Override
+    public void release(final Cipher cipher) {
+    }
+}
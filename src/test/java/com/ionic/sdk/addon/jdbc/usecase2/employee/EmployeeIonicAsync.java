@@ -0,0 +1,204 @@
+package com.ionic.sdk.addon.jdbc.usecase2.employee;
+
+import com.ionic.sdk.addon.jdbc.usecase2.cipher.CipherProvider;
+import com.ionic.sdk.addon.jdbc.usecase2.key.KeyScope;
+import com.ionic.sdk.addon.jdbc.usecase2.key.KeySource;
+import com.ionic.sdk.error.IonicException;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous variants of the bulk conversions in {@link EmployeeIonicUtil}.
+ * <p>
+ * Each conversion is run on the configured executor, and its result is delivered through a {@link CompletableFuture},
+ * so that a caller may have many key service round trips in flight at once, and may compose them with other work
+ * (such as database reads).  If a conversion fails, the future completes exceptionally, with the
+ * {@link IonicException} as the cause.
+ */
+public class EmployeeIonicAsync {
+
+    /**
+     * The key source; used to provide keys for cryptography operations.
+     */
+    private final KeySource keySource;
+
+    /**
+     * The source of the JCE ciphers used for the cryptography operations.
+     */
+    private final CipherProvider cipherProvider;
+
+    /**
+     * The executor on which the conversions are run.
+     */
+    private final Executor executor;
+
+    /**
+     * Constructor.
+     *
+     * @param keySource      the key source; used to provide keys for cryptography operations
+     * @param cipherProvider the source of the JCE ciphers used for the cryptography operations
+     * @param executor       the executor on which the conversions are run
+     */
+    public EmployeeIonicAsync(final KeySource keySource, final CipherProvider cipherProvider,
+                              final Executor executor) {
+        this.keySource = keySource;
+        this.cipherProvider = cipherProvider;
+        this.executor = executor;
+    }
+
+    /**
+     * Calculate Ionic-protected representations of sensitive employee fields.
+     *
+     * @param employee the employee needing to be Ionic-protected
+     * @return a future holding the Ionic-protected values
+     */
+    public CompletableFuture<EmployeeIonicFields> toEmployeeIonicFields(final Employee employee) {
+        return toEmployeeIonicFields(Collections.singletonList(employee), KeyScope.CELL)
+                .thenApply(ionicFields -> ionicFields.iterator().next());
+    }
+
+    /**
+     * Calculate Ionic-protected representations of sensitive employee fields, for many employees at once.
+     *
+     * @param employees the employees needing to be Ionic-protected
+     * @param keyScope  the extent of data protected using a single key
+     * @return a future holding the Ionic-protected values, in the same order as "employees"
+     */
+    public CompletableFuture<List<EmployeeIonicFields>> toEmployeeIonicFields(
+            final List<Employee> employees, final KeyScope keyScope) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return EmployeeIonicUtil.toEmployeeIonicFields(employees, keySource,
+                        new ProtectionOptions(keyScope).withCipherProvider(cipherProvider));
+            } catch (IonicException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Unprotect Ionic representation of an employee record.
+     *
+     * @param employeeIonic the employee needing to be Ionic-unprotected
+     * @return a future holding the plaintext values
+     */
+    public CompletableFuture<Employee> toEmployee(final EmployeeIonic employeeIonic) {
+        return toEmployees(Collections.singletonList(employeeIonic))
+                .thenApply(employees -> employees.iterator().next());
+    }
+
+    /**
+     * Unprotect Ionic representations of many employee records at once, using a single key source call.
+     *
+     * @param employeesIonic the employees needing to be Ionic-unprotected
+     * @return a future holding the plaintext values, in the same order as "employeesIonic"
+     */
+    public CompletableFuture<List<Employee>> toEmployees(final List<EmployeeIonic> employeesIonic) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return EmployeeIonicUtil.toEmployees(employeesIonic, keySource, cipherProvider);
+            } catch (IonicException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Unprotect Ionic representations of many employee records, divided into slices which are unprotected
+     * concurrently.  This bounds the size of each key source call, while keeping the overall latency close to that of
+     * a single call.
+     *
+     * @param employeesIonic the employees needing to be Ionic-unprotected
+     * @param sliceSize      the maximum number of records in each slice
+     * @return a future holding the plaintext values, in the same order as "employeesIonic"
+     */
+    public CompletableFuture<List<Employee>> toEmployees(
+            final List<EmployeeIonic> employeesIonic, final int sliceSize) {
+        final List<CompletableFuture<List<Employee>>> futures = new ArrayList<>();
+        for (int i = 0; (i < employeesIonic.size()); i += sliceSize) {
+            futures.add(toEmployees(employeesIonic.subList(i, Math.min(employeesIonic.size(), i + sliceSize))));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()])).thenApply(v -> {
+            final List<Employee> employees = new ArrayList<>(employeesIonic.size());
+            for (CompletableFuture<List<Employee>> future : futures) {
+                employees.addAll(future.join());
+            }
+            return employees;
+        });
+    }
+
+    /**
+     * Create the executor for asynchronous conversions, as configured by the sample project property "async.executor":
+     * <ul>
+     * <li>"virtual": a new virtual thread for each conversion, where the JVM supports virtual threads; otherwise, as
+     * "cached" (the default)</li>
+     * <li>"cached": a pool of daemon threads, grown as needed</li>
+     * <li>"fixed:N": a pool of N daemon threads</li>
+     * </ul>
+     * Conversions spend most of their time waiting on key service round trips, so an executor which allows many of
+     * them to be in flight at once is preferred.
+     *
+     * @param properties the sample project test properties
+     * @return the executor; the caller is responsible for shutting it down
+     */
+    public static ExecutorService newExecutor(final Properties properties) {
+        final String value = properties.getProperty("async.executor", EXECUTOR_VIRTUAL).trim();
+        if (value.startsWith(EXECUTOR_FIXED)) {
+            return Executors.newFixedThreadPool(
+                    Integer.parseInt(value.substring(EXECUTOR_FIXED.length())), new DaemonThreadFactory());
+        } else if (EXECUTOR_VIRTUAL.equals(value)) {
+            final ExecutorService executor = newVirtualThreadExecutor();
+            return (executor == null) ? Executors.newCachedThreadPool(new DaemonThreadFactory()) : executor;
+        } else {
+            return Executors.newCachedThreadPool(new DaemonThreadFactory());
+        }
+    }
+
+    /**
+     * Virtual threads are available from Java 21.  This project targets earlier JVMs, so the factory method is
+     * located at runtime.
+     *
+     * @return an executor which starts a new virtual thread for each task, or null if the JVM does not support them
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            final Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Thread factory for platform thread pools.  Daemon threads do not prevent JVM exit if the caller neglects to
+     * shut down the executor.
+     */
+    private static class DaemonThreadFactory implements ThreadFactory {
+
+        /**
+         * The number of threads created by this factory.
+         */
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "ionic-async-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    private static final String EXECUTOR_VIRTUAL = "virtual";
+    private static final String EXECUTOR_FIXED = "fixed:";
+}
@@ -24,6 +24,16 @@ public class EmployeeIonicFields {
      */
     private final String salary;
 
+    /**
+     * The blind index of the personal identifier for the employee; or null if the record is not indexed.
+     */
+    private final String personalIdentifierIndex;
+
+    /**
+     * The tag of the salary range into which the salary for the employee falls; or null if the record is not tagged.
+     */
+    private final String salaryBucket;
+
     /**
      * Constructor.
      *
@@ -32,9 +42,37 @@ public class EmployeeIonicFields {
      * @param salary             the employee salary (Ionic-protected representation)
      */
     public EmployeeIonicFields(int id, String personalIdentifier, String salary) {
+        this(id, personalIdentifier, salary, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param id                      the database id
+     * @param personalIdentifier      the employee personal identifier (Ionic-protected representation)
+     * @param salary                  the employee salary (Ionic-protected representation)
+     * @param personalIdentifierIndex the blind index of the employee personal identifier; or null
+     */
+    public EmployeeIonicFields(int id, String personalIdentifier, String salary, String personalIdentifierIndex) {
+        this(id, personalIdentifier, salary, personalIdentifierIndex, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param id                      the database id
+     * @param personalIdentifier      the employee personal identifier (Ionic-protected representation)
+     * @param salary                  the employee salary (Ionic-protected representation)
+     * @param personalIdentifierIndex the blind index of the employee personal identifier; or null
+     * @param salaryBucket            the tag of the salary range of the employee; or null
+     */
+    public EmployeeIonicFields(int id, String personalIdentifier, String salary, String personalIdentifierIndex,
+                               String salaryBucket) {
         this.id = id;
         this.personalIdentifier = personalIdentifier;
         this.salary = salary;
+        this.personalIdentifierIndex = personalIdentifierIndex;
+        this.salaryBucket = salaryBucket;
     }
 
     /**
@@ -57,4 +95,18 @@ public class EmployeeIonicFields {
     public String getSalary() {
         return salary;
     }
+
+    /**
+     * @return the blind index of the employee personal identifier; or null if the record is not indexed
+     */
+    public String getPersonalIdentifierIndex() {
+        return personalIdentifierIndex;
+    }
+
+    /**
+     * @return the tag of the salary range of the employee; or null if the record is not tagged
+     */
+    public String getSalaryBucket() {
+        return salaryBucket;
+    }
 }
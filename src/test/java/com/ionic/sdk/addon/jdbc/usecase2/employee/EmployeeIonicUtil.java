@@ -1,9 +1,27 @@
 package com.ionic.sdk.addon.jdbc.usecase2.employee;
 
+import com.ionic.sdk.addon.jdbc.usecase2.cipher.ChunkCipherV2Local;
+import com.ionic.sdk.addon.jdbc.usecase2.cipher.CipherProvider;
 import com.ionic.sdk.addon.jdbc.usecase2.jdbc.IonicTypes;
+import com.ionic.sdk.addon.jdbc.usecase2.key.BlindIndex;
+import com.ionic.sdk.addon.jdbc.usecase2.key.BucketIndex;
+import com.ionic.sdk.addon.jdbc.usecase2.key.KeyScope;
+import com.ionic.sdk.addon.jdbc.usecase2.key.KeySource;
+import com.ionic.sdk.addon.jdbc.usecase2.key.ProtectionKey;
+import com.ionic.sdk.addon.jdbc.usecase2.metrics.Metrics;
+import com.ionic.sdk.addon.jdbc.usecase2.metrics.Stage;
 import com.ionic.sdk.agent.Agent;
 import com.ionic.sdk.agent.cipher.chunk.ChunkCipherV2;
 import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.error.SdkError;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Utility class for conversion of Employee record to/from Ionic-protected representation.
@@ -20,10 +38,108 @@ public class EmployeeIonicUtil {
      */
     public static EmployeeIonicFields toEmployeeIonicFields(
             final Employee employee, final Agent agent) throws IonicException {
-        final ChunkCipherV2 cipher = new ChunkCipherV2(agent);
-        return new EmployeeIonicFields(employee.getId(),
-                cipher.encrypt(employee.getPersonalIdentifier()),
-                cipher.encrypt(IonicTypes.toBytes(employee.getSalary())));
+        return toEmployeeIonicFields(employee, new ChunkCipherV2(agent));
+    }
+
+    /**
+     * Calculate Ionic-protected representations of sensitive employee fields.  The cipher may be held by the caller,
+     * and used for any number of records.
+     *
+     * @param employee the employee needing to be Ionic-protected
+     * @param cipher   the Ionic cipher; used to protect the sensitive fields
+     * @return an object holding the Ionic-protected values
+     * @throws IonicException on cryptography failures
+     */
+    public static EmployeeIonicFields toEmployeeIonicFields(
+            final Employee employee, final ChunkCipherV2 cipher) throws IonicException {
+        // each ChunkCipherV2 operation includes its key service round trip
+        long start = Metrics.start();
+        final String personalIdentifier = cipher.encrypt(employee.getPersonalIdentifier());
+        Metrics.stop(Stage.KEY_AND_CIPHER, start);
+        // the SDK cipher takes the whole array; it cannot be given a range of a reused buffer
+        start = Metrics.start();
+        final String salary = cipher.encrypt(IonicTypes.toBytes(employee.getSalary()));
+        Metrics.stop(Stage.KEY_AND_CIPHER, start);
+        return new EmployeeIonicFields(employee.getId(), personalIdentifier, salary);
+    }
+
+    /**
+     * Calculate Ionic-protected representations of sensitive employee fields.
+     *
+     * @param employee  the employee needing to be Ionic-protected
+     * @param keySource the key source; used to provide keys for cryptography operations
+     * @return an object holding the Ionic-protected values
+     * @throws IonicException on cryptography failures
+     */
+    public static EmployeeIonicFields toEmployeeIonicFields(
+            final Employee employee, final KeySource keySource) throws IonicException {
+        return toEmployeeIonicFields(Collections.singletonList(employee), keySource).iterator().next();
+    }
+
+    /**
+     * Calculate Ionic-protected representations of sensitive employee fields, for many employees at once.
+     * <p>
+     * All keys needed to protect the input records are requested from the key source up front, so that the number of
+     * key service round trips does not depend on the number of records.  The encryption itself is then done locally.
+     *
+     * @param employees the employees needing to be Ionic-protected
+     * @param keySource the key source; used to provide keys for cryptography operations
+     * @return objects holding the Ionic-protected values, in the same order as "employees"
+     * @throws IonicException on cryptography failures
+     */
+    public static List<EmployeeIonicFields> toEmployeeIonicFields(
+            final List<Employee> employees, final KeySource keySource) throws IonicException {
+        return toEmployeeIonicFields(employees, keySource, new ProtectionOptions(KeyScope.CELL));
+    }
+
+    /**
+     * Calculate Ionic-protected representations of sensitive employee fields, for many employees at once, sharing
+     * keys across the protected fields as specified by the key scope of "options".  If the options specify a blind
+     * index, the blind index of each personal identifier is also calculated, so that records may later be found by
+     * personal identifier.  If the options specify a bucket index, the tag of the salary range of each employee is
+     * also calculated, so that records may later be selected by salary range.
+     *
+     * @param employees the employees needing to be Ionic-protected
+     * @param keySource the key source; used to provide keys for cryptography operations
+     * @param options   the key scope, cipher provider, and (optional) index calculators to use
+     * @return objects holding the Ionic-protected values, in the same order as "employees"
+     * @throws IonicException on cryptography failures
+     */
+    public static List<EmployeeIonicFields> toEmployeeIonicFields(
+            final List<Employee> employees, final KeySource keySource, final ProtectionOptions options)
+            throws IonicException {
+        final KeyScope keyScope = options.getKeyScope();
+        final CipherProvider cipherProvider = options.getCipherProvider();
+        final BlindIndex blindIndex = options.getBlindIndex();
+        final BucketIndex bucketIndex = options.getBucketIndex();
+        final int quantity = keyScope.getKeyCount(employees.size(), employees.size() * FIELDS_PROTECTED);
+        final List<ProtectionKey> keys = keySource.createKeys(quantity);
+        if (keys.size() != quantity) {
+            throw new IonicException(SdkError.ISAGENT_INVALIDVALUE, String.format(
+                    "requested %d keys, received %d", quantity, keys.size()));
+        }
+        final List<EmployeeIonicFields> ionicFields = new ArrayList<EmployeeIonicFields>(employees.size());
+        final Iterator<ProtectionKey> iterator = keys.iterator();
+        final byte[] scratch = IonicTypes.getScratchBuffer();
+        for (int i = 0; (i < employees.size()); ++i) {
+            final Employee employee = employees.get(i);
+            final ProtectionKey keyPersonalIdentifier;
+            final ProtectionKey keySalary;
+            if (keyScope.isCell()) {
+                keyPersonalIdentifier = iterator.next();
+                keySalary = iterator.next();
+            } else {
+                keyPersonalIdentifier = keys.get(keyScope.getKeyIndex(i));
+                keySalary = keyPersonalIdentifier;
+            }
+            final int lengthSalary = IonicTypes.putInt(scratch, 0, employee.getSalary());
+            ionicFields.add(new EmployeeIonicFields(employee.getId(),
+                    ChunkCipherV2Local.encrypt(keyPersonalIdentifier, employee.getPersonalIdentifier(), cipherProvider),
+                    ChunkCipherV2Local.encrypt(keySalary, scratch, 0, lengthSalary, cipherProvider),
+                    (blindIndex == null) ? null : blindIndex.compute(employee.getPersonalIdentifier()),
+                    (bucketIndex == null) ? null : bucketIndex.tag(employee.getSalary())));
+        }
+        return ionicFields;
     }
 
     /**
@@ -36,10 +152,133 @@ public class EmployeeIonicUtil {
      */
     public static Employee toEmployee(
             final EmployeeIonic employeeIonic, final Agent agent) throws IonicException {
-        final ChunkCipherV2 cipher = new ChunkCipherV2(agent);
+        return toEmployee(employeeIonic, new ChunkCipherV2(agent));
+    }
+
+    /**
+     * Unprotect Ionic representation of an employee record.  The cipher may be held by the caller, and used for any
+     * number of records.
+     *
+     * @param employeeIonic the employee needing to be Ionic-unprotected
+     * @param cipher        the Ionic cipher; used to unprotect the sensitive fields
+     * @return an object holding the plaintext values
+     * @throws IonicException on cryptography failures
+     */
+    public static Employee toEmployee(
+            final EmployeeIonic employeeIonic, final ChunkCipherV2 cipher) throws IonicException {
+        // each ChunkCipherV2 operation includes its key service round trip
+        long start = Metrics.start();
+        final String personalIdentifier = cipher.decrypt(employeeIonic.getIonicFields().getPersonalIdentifier());
+        Metrics.stop(Stage.KEY_AND_CIPHER, start);
+        start = Metrics.start();
+        final byte[] salary = cipher.decryptToBytes(employeeIonic.getIonicFields().getSalary());
+        Metrics.stop(Stage.KEY_AND_CIPHER, start);
         return new Employee(employeeIonic.getId(), employeeIonic.getFirstName(), employeeIonic.getLastName(),
-                cipher.decrypt(employeeIonic.getIonicFields().getPersonalIdentifier()),
-                IonicTypes.toInt(cipher.decryptToBytes(employeeIonic.getIonicFields().getSalary())),
-                employeeIonic.getCountry());
+                personalIdentifier, IonicTypes.toInt(salary), employeeIonic.getCountry());
+    }
+
+    /**
+     * Unprotect Ionic representation of an employee record.
+     *
+     * @param employeeIonic the employee needing to be Ionic-unprotected
+     * @param keySource     the key source; used to provide keys for cryptography operations
+     * @return an object holding the plaintext values
+     * @throws IonicException on cryptography failures; if any needed key is not available
+     */
+    public static Employee toEmployee(
+            final EmployeeIonic employeeIonic, final KeySource keySource) throws IonicException {
+        return toEmployees(Collections.singletonList(employeeIonic), keySource).iterator().next();
+    }
+
+    /**
+     * Unprotect Ionic representations of many employee records at once.
+     * <p>
+     * The key ids are first parsed out of each of the Ionic-protected values.  The unique set of keys is then fetched
+     * from the key source, so that the number of key service round trips does not depend on the number of records.
+     * The decryption itself is then done locally.
+     *
+     * @param employeesIonic the employees needing to be Ionic-unprotected
+     * @param keySource      the key source; used to provide keys for cryptography operations
+     * @return objects holding the plaintext values, in the same order as "employeesIonic"
+     * @throws IonicException on cryptography failures; if any needed key is not available
+     */
+    public static List<Employee> toEmployees(
+            final List<EmployeeIonic> employeesIonic, final KeySource keySource) throws IonicException {
+        return toEmployees(employeesIonic, keySource, ChunkCipherV2Local.getCipherProvider());
     }
+
+    /**
+     * Unprotect Ionic representations of many employee records at once.
+     *
+     * @param employeesIonic the employees needing to be Ionic-unprotected
+     * @param keySource      the key source; used to provide keys for cryptography operations
+     * @param cipherProvider the source of the JCE ciphers used for the decryption
+     * @return objects holding the plaintext values, in the same order as "employeesIonic"
+     * @throws IonicException on cryptography failures; if any needed key is not available
+     */
+    public static List<Employee> toEmployees(
+            final List<EmployeeIonic> employeesIonic, final KeySource keySource,
+            final CipherProvider cipherProvider) throws IonicException {
+        final Set<String> keyIds = new LinkedHashSet<String>();
+        for (EmployeeIonic employeeIonic : employeesIonic) {
+            keyIds.add(ChunkCipherV2Local.getKeyId(employeeIonic.getIonicFields().getPersonalIdentifier()));
+            keyIds.add(ChunkCipherV2Local.getKeyId(employeeIonic.getIonicFields().getSalary()));
+        }
+        final Map<String, ProtectionKey> keys = keySource.getKeys(keyIds);
+        final List<Employee> employees = new ArrayList<Employee>(employeesIonic.size());
+        final byte[] scratch = IonicTypes.getScratchBuffer();
+        for (EmployeeIonic employeeIonic : employeesIonic) {
+            final String personalIdentifier = employeeIonic.getIonicFields().getPersonalIdentifier();
+            final String salary = employeeIonic.getIonicFields().getSalary();
+            final int lengthSalary =
+                    ChunkCipherV2Local.decryptToBytes(getKey(keys, salary), salary, scratch, 0, cipherProvider);
+            employees.add(new Employee(
+                    employeeIonic.getId(), employeeIonic.getFirstName(), employeeIonic.getLastName(),
+                    ChunkCipherV2Local.decrypt(getKey(keys, personalIdentifier), personalIdentifier, cipherProvider),
+                    IonicTypes.toInt(scratch, lengthSalary), employeeIonic.getCountry()));
+        }
+        return employees;
+    }
+
+    /**
+     * Wrap Ionic representations of many employee records, so that their sensitive fields are unprotected only when
+     * (and if) they are used.  No cryptography work is done by this call.
+     *
+     * @param employeesIonic the employees needing to be Ionic-unprotected
+     * @param keySource      the key source; used to provide keys for cryptography operations
+     * @param cipherProvider the source of the JCE ciphers used for the decryption
+     * @return the wrapped records, in the same order as "employeesIonic"
+     */
+    public static List<LazyEmployee> toLazyEmployees(
+            final List<EmployeeIonic> employeesIonic, final KeySource keySource,
+            final CipherProvider cipherProvider) {
+        final List<LazyEmployee> employees = new ArrayList<LazyEmployee>(employeesIonic.size());
+        for (EmployeeIonic employeeIonic : employeesIonic) {
+            employees.add(new LazyEmployee(employeeIonic, keySource, cipherProvider));
+        }
+        return employees;
+    }
+
+    /**
+     * Find the key needed to unprotect an Ionic-protected value.
+     *
+     * @param keys       the keys fetched from the key source, indexed by key id
+     * @param cipherText the Ionic-protected value
+     * @return the key associated with "cipherText"
+     * @throws IonicException if the key was not fetched
+     */
+    private static ProtectionKey getKey(
+            final Map<String, ProtectionKey> keys, final String cipherText) throws IonicException {
+        final String keyId = ChunkCipherV2Local.getKeyId(cipherText);
+        final ProtectionKey key = keys.get(keyId);
+        if (key == null) {
+            throw new IonicException(SdkError.ISAGENT_KEY_DENIED, keyId);
+        }
+        return key;
+    }
+
+    /**
+     * The number of Ionic-protected fields in an employee record.
+     */
+    private static final int FIELDS_PROTECTED = 2;
 }
@@ -1,9 +1,5 @@
 package com.ionic.sdk.addon.jdbc.usecase2.employee;
 
-import com.ionic.sdk.addon.jdbc.usecase2.jdbc.IonicTypes;
-import com.ionic.sdk.core.codec.Transcoder;
-import com.ionic.sdk.crypto.CryptoUtils;
-
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -62,15 +58,14 @@ public class EmployeeUtil {
      * The generation of a new employee record includes a personal identifier, which is then encrypted.  The plaintext
      * personal identifier is never stored.  So an out-of-band means of verifying the decryption of the personal
      * identifier is needed.  The strategy in use here is to derive the identifier from data which is not protected.
+     * See {@link PersonalIdentifiers}.
      *
      * @param firstName input to the identifier hash calculation
      * @param lastName  input to the identifier hash calculation
      * @return a recoverable personal identifier
      */
     public static String getPersonalIdentifier(final String firstName, final String lastName) {
-        final byte[] bytes = CryptoUtils.sha256ToBytes(Transcoder.utf8().decode(firstName + lastName));
-        final int value = IonicTypes.toInt(bytes);
-        return Integer.toString((value & Integer.MAX_VALUE) % 1000000000);
+        return PersonalIdentifiers.get(firstName, lastName);
         //final int personalIdentifier = new Random().nextInt(1000000000);
         //return Integer.toString(personalIdentifier);
     }
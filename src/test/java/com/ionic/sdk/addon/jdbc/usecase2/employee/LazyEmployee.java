@@ -0,0 +1,236 @@
+package com.ionic.sdk.addon.jdbc.usecase2.employee;
+
+import com.ionic.sdk.addon.jdbc.usecase2.cipher.ChunkCipherV2Local;
+import com.ionic.sdk.addon.jdbc.usecase2.cipher.CipherProvider;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.IonicTypes;
+import com.ionic.sdk.addon.jdbc.usecase2.key.KeySource;
+import com.ionic.sdk.addon.jdbc.usecase2.key.ProtectionKey;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.error.SdkError;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * View of an {@link EmployeeIonic} record whose sensitive fields are unprotected on demand.
+ * <p>
+ * The Ionic-protected record is held as read from the database.  Each sensitive field is unprotected on first
+ * access, and the plaintext value is remembered for later accesses.  Callers which use only the unprotected fields
+ * (such as names and country) cause no cryptography work at all.  Callers which will use a sensitive field of many
+ * records should first call {@link #materialize(List, Set, KeySource, CipherProvider)}, which fetches all of the
+ * needed keys in a single key source call; otherwise, each first access makes its own key source call.
+ * <p>
+ * This view wraps the record rather than extending it.  The code which stores an {@link EmployeeIonic} writes its
+ * personal identifier and salary accessors into table Employee; a view whose accessors return plaintext must not be
+ * usable in its place.
+ * <p>
+ * The accessors do not declare exceptions; a failure to unprotect a field on access is reported as an
+ * {@link IllegalStateException}, with the {@link IonicException} as the cause.
+ */
+public class LazyEmployee {
+
+    /**
+     * The sensitive fields of an employee record.
+     */
+    public enum Field {
+        /**
+         * The employee personal identifier.
+         */
+        PERSONAL_IDENTIFIER,
+        /**
+         * The employee salary.
+         */
+        SALARY
+    }
+
+    /**
+     * The Ionic-protected employee record.
+     */
+    private final EmployeeIonic employeeIonic;
+
+    /**
+     * The key source; used to provide keys for cryptography operations on first access.
+     */
+    private final KeySource keySource;
+
+    /**
+     * The source of the JCE ciphers used for the cryptography operations.
+     */
+    private final CipherProvider cipherProvider;
+
+    /**
+     * The unprotected personal identifier, or null if not yet unprotected.
+     */
+    private volatile String personalIdentifier;
+
+    /**
+     * The unprotected salary, or null if not yet unprotected.
+     */
+    private volatile Integer salary;
+
+    /**
+     * Constructor.
+     *
+     * @param employeeIonic  the Ionic-protected employee record
+     * @param keySource      the key source; used to provide keys for cryptography operations on first access
+     * @param cipherProvider the source of the JCE ciphers used for the cryptography operations
+     */
+    public LazyEmployee(final EmployeeIonic employeeIonic, final KeySource keySource,
+                        final CipherProvider cipherProvider) {
+        this.employeeIonic = employeeIonic;
+        this.keySource = keySource;
+        this.cipherProvider = cipherProvider;
+    }
+
+    /**
+     * @return the Ionic-protected employee record
+     */
+    public EmployeeIonic getEmployeeIonic() {
+        return employeeIonic;
+    }
+
+    /**
+     * @return the Ionic representations of the protected record fields
+     */
+    private EmployeeIonicFields getIonicFields() {
+        return employeeIonic.getIonicFields();
+    }
+
+    /**
+     * @return the database id
+     */
+    public int getId() {
+        return employeeIonic.getId();
+    }
+
+    /**
+     * @return the employee first name
+     */
+    public String getFirstName() {
+        return employeeIonic.getFirstName();
+    }
+
+    /**
+     * @return the employee last name
+     */
+    public String getLastName() {
+        return employeeIonic.getLastName();
+    }
+
+    /**
+     * @return the employee residency country
+     */
+    public String getCountry() {
+        return employeeIonic.getCountry();
+    }
+
+    /**
+     * @return the employee personal identifier, unprotected on first access
+     */
+    public String getPersonalIdentifier() {
+        if (personalIdentifier == null) {
+            materialize(Collections.singletonList(this), EnumSet.of(Field.PERSONAL_IDENTIFIER));
+        }
+        return personalIdentifier;
+    }
+
+    /**
+     * @return the employee salary, unprotected on first access
+     */
+    public int getSalary() {
+        if (salary == null) {
+            materialize(Collections.singletonList(this), EnumSet.of(Field.SALARY));
+        }
+        return salary;
+    }
+
+    /**
+     * @param field a sensitive field of the record
+     * @return true, if the field has already been unprotected
+     */
+    public boolean isMaterialized(final Field field) {
+        return ((field == Field.PERSONAL_IDENTIFIER) ? personalIdentifier : salary) != null;
+    }
+
+    /**
+     * Unprotect a single field on access, using the key source and cipher provider of the record.
+     *
+     * @param employees the records to unprotect
+     * @param fields    the fields to unprotect
+     */
+    private void materialize(final List<LazyEmployee> employees, final Set<Field> fields) {
+        try {
+            materialize(employees, fields, keySource, cipherProvider);
+        } catch (IonicException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Unprotect the requested sensitive fields of many records at once.  Fields which have already been unprotected
+     * are skipped.  All needed keys are fetched from the key source in a single call.  Salaries are unprotected
+     * into the buffer held by the calling thread ({@link IonicTypes#getScratchBuffer()}), so that no byte[] is
+     * allocated per record.
+     *
+     * @param employees      the records to unprotect
+     * @param fields         the fields to unprotect
+     * @param keySource      the key source; used to provide keys for cryptography operations
+     * @param cipherProvider the source of the JCE ciphers used for the cryptography operations
+     * @throws IonicException on cryptography failures; if any needed key is not available
+     */
+    public static void materialize(final List<LazyEmployee> employees, final Set<Field> fields,
+                                   final KeySource keySource, final CipherProvider cipherProvider)
+            throws IonicException {
+        final boolean doPersonalIdentifier = fields.contains(Field.PERSONAL_IDENTIFIER);
+        final boolean doSalary = fields.contains(Field.SALARY);
+        final Set<String> keyIds = new LinkedHashSet<>();
+        for (LazyEmployee employee : employees) {
+            if (doPersonalIdentifier && (employee.personalIdentifier == null)) {
+                keyIds.add(ChunkCipherV2Local.getKeyId(employee.getIonicFields().getPersonalIdentifier()));
+            }
+            if (doSalary && (employee.salary == null)) {
+                keyIds.add(ChunkCipherV2Local.getKeyId(employee.getIonicFields().getSalary()));
+            }
+        }
+        if (keyIds.isEmpty()) {
+            return;
+        }
+        final Map<String, ProtectionKey> keys = keySource.getKeys(keyIds);
+        final byte[] scratch = IonicTypes.getScratchBuffer();
+        for (LazyEmployee employee : employees) {
+            if (doPersonalIdentifier && (employee.personalIdentifier == null)) {
+                final String cipherText = employee.getIonicFields().getPersonalIdentifier();
+                employee.personalIdentifier = ChunkCipherV2Local.decrypt(
+                        getKey(keys, cipherText), cipherText, cipherProvider);
+            }
+            if (doSalary && (employee.salary == null)) {
+                final String cipherText = employee.getIonicFields().getSalary();
+                final int length = ChunkCipherV2Local.decryptToBytes(
+                        getKey(keys, cipherText), cipherText, scratch, 0, cipherProvider);
+                employee.salary = IonicTypes.toInt(scratch, length);
+            }
+        }
+    }
+
+    /**
+     * Find the key needed to unprotect an Ionic-protected value.
+     *
+     * @param keys       the keys fetched from the key source, indexed by key id
+     * @param cipherText the Ionic-protected value
+     * @return the key associated with "cipherText"
+     * @throws IonicException if the key was not fetched
+     */
+    private static ProtectionKey getKey(
+            final Map<String, ProtectionKey> keys, final String cipherText) throws IonicException {
+        final String keyId = ChunkCipherV2Local.getKeyId(cipherText);
+        final ProtectionKey key = keys.get(keyId);
+        if (key == null) {
+            throw new IonicException(SdkError.ISAGENT_KEY_DENIED, keyId);
+        }
+        return key;
+    }
+}
@@ -0,0 +1,291 @@
+package com.ionic.sdk.addon.jdbc.usecase2.employee;
+
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.IonicTypes;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Derivation of the recoverable personal identifier of an employee record from the (unprotected) employee name.
+ * <p>
+ * The identifier is the SHA-256 hash of the UTF-8 encoding of the first name followed by the last name, reduced to
+ * nine decimal digits.  Each thread reuses its own {@link MessageDigest} and {@link CharsetEncoder}, and its own
+ * buffers for the names, their encoding and the hash output, so that the derivation does not allocate beyond the
+ * resulting string.  As the same names recur
+ * across many records, derived identifiers are also remembered in a bounded cache.  The cache is divided into
+ * independently locked stripes (by name hash), each discarding its least recently used entries first, so that
+ * concurrent lookups seldom contend.
+ */
+public class PersonalIdentifiers {
+
+    /**
+     * @param firstName input to the identifier hash calculation
+     * @param lastName  input to the identifier hash calculation
+     * @return a recoverable personal identifier
+     */
+    public static String get(final String firstName, final String lastName) {
+        final Name name = new Name(firstName, lastName);
+        final int hash = name.hashCode();
+        final Map<Name, String> stripe = MEMO[((hash ^ (hash >>> HASH_SPREAD)) & Integer.MAX_VALUE) % MEMO.length];
+        String personalIdentifier;
+        synchronized (stripe) {
+            personalIdentifier = stripe.get(name);
+        }
+        if (personalIdentifier == null) {
+            personalIdentifier = derive(firstName, lastName);
+            synchronized (stripe) {
+                stripe.put(name, personalIdentifier);
+            }
+        }
+        return personalIdentifier;
+    }
+
+    /**
+     * Calculate the personal identifier, bypassing the cache.
+     *
+     * @param firstName input to the identifier hash calculation
+     * @param lastName  input to the identifier hash calculation
+     * @return a recoverable personal identifier
+     */
+    public static String derive(final String firstName, final String lastName) {
+        final Digest digest = DIGEST.get();
+        digest.update(firstName, lastName);
+        try {
+            digest.messageDigest.digest(digest.hash, 0, digest.hash.length);
+        } catch (DigestException e) {
+            throw new IllegalStateException(e);
+        }
+        // the trailing four bytes of the hash are used, as with IonicTypes.toInt()
+        final int value = IonicTypes.getInt(digest.hash, digest.hash.length - (Integer.SIZE / Byte.SIZE));
+        return Integer.toString((value & Integer.MAX_VALUE) % MODULUS);
+    }
+
+    /**
+     * Verify the personal identifiers of many unprotected employee records.  The records are divided into slices,
+     * which are verified concurrently using the supplied executor.
+     *
+     * @param employees the records to verify
+     * @param executor  the executor on which to verify the slices of the input
+     * @param slices    the number of slices into which to divide the input
+     * @return the records whose personal identifier does not match the one derived from the employee name
+     * @throws InterruptedException if interrupted while waiting for the verification to complete
+     */
+    public static List<Employee> verify(final List<Employee> employees, final ExecutorService executor,
+                                        final int slices) throws InterruptedException {
+        final int sliceSize = Math.max(1, (employees.size() + slices - 1) / Math.max(1, slices));
+        final List<Future<List<Employee>>> futures = new ArrayList<Future<List<Employee>>>();
+        for (int i = 0; (i < employees.size()); i += sliceSize) {
+            final List<Employee> slice = employees.subList(i, Math.min(employees.size(), i + sliceSize));
+            futures.add(executor.submit(new Callable<List<Employee>>() {
+                @Override
+                public List<Employee> call() {
+                    return verify(slice);
+                }
+            }));
+        }
+        final List<Employee> mismatches = new ArrayList<Employee>();
+        for (Future<List<Employee>> future : futures) {
+            try {
+                mismatches.addAll(future.get());
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        return mismatches;
+    }
+
+    /**
+     * Verify the personal identifiers of many unprotected employee records, on the calling thread.
+     *
+     * @param employees the records to verify
+     * @return the records whose personal identifier does not match the one derived from the employee name
+     */
+    public static List<Employee> verify(final List<Employee> employees) {
+        final List<Employee> mismatches = new ArrayList<Employee>();
+        for (Employee employee : employees) {
+            final String personalIdentifier = get(employee.getFirstName(), employee.getLastName());
+            if (!personalIdentifier.equals(employee.getPersonalIdentifier())) {
+                mismatches.add(employee);
+            }
+        }
+        return mismatches;
+    }
+
+    /**
+     * Cache key; the pair of names from which a personal identifier is derived.
+     */
+    private static class Name {
+
+        /**
+         * The employee first name.
+         */
+        private final String firstName;
+
+        /**
+         * The employee last name.
+         */
+        private final String lastName;
+
+        /**
+         * Constructor.
+         *
+         * @param firstName the employee first name
+         * @param lastName  the employee last name
+         */
+        Name(final String firstName, final String lastName) {
+            this.firstName = firstName;
+            this.lastName = lastName;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (!(o instanceof Name)) {
+                return false;
+            }
+            final Name name = (Name) o;
+            return Objects.equals(firstName, name.firstName) && Objects.equals(lastName, name.lastName);
+        }
+
+        @Override
+        public int hashCode() {
+            return (Objects.hashCode(firstName) * HASH_MULTIPLIER) + Objects.hashCode(lastName);
+        }
+    }
+
+    /**
+     * Per-thread hash calculation state.
+     */
+    private static class Digest {
+
+        /**
+         * The reusable hash calculator.
+         */
+        private final MessageDigest messageDigest;
+
+        /**
+         * The reusable hash output buffer.
+         */
+        private final byte[] hash;
+
+        /**
+         * The reusable UTF-8 encoder of the hash input.
+         */
+        private final CharsetEncoder encoder;
+
+        /**
+         * The reusable buffer for the hash input; grown as needed.
+         */
+        private CharBuffer text;
+
+        /**
+         * The reusable buffer for the UTF-8 encoding of the hash input; grown as needed.
+         */
+        private ByteBuffer bytes;
+
+        /**
+         * Constructor.
+         *
+         * @param messageDigest the hash calculator
+         */
+        Digest(final MessageDigest messageDigest) {
+            this.messageDigest = messageDigest;
+            this.hash = new byte[messageDigest.getDigestLength()];
+            this.encoder = StandardCharsets.UTF_8.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            this.text = CharBuffer.allocate(TEXT_SIZE_INITIAL);
+            this.bytes = ByteBuffer.allocate(TEXT_SIZE_INITIAL * UTF8_BYTES_MAX);
+        }
+
+        /**
+         * Feed the UTF-8 encoding of the concatenated names to the hash calculation.  The input is that of the
+         * original calculation, <code>(firstName + lastName).getBytes(UTF_8)</code>: a null name contributes "null",
+         * a surrogate pair split across the two names is encoded as one character, and unpaired surrogates are
+         * replaced by '?'.
+         *
+         * @param firstName the employee first name
+         * @param lastName  the employee last name
+         */
+        void update(final String firstName, final String lastName) {
+            final String first = String.valueOf(firstName);
+            final String last = String.valueOf(lastName);
+            final int length = first.length() + last.length();
+            // no char encodes to more than three bytes (a surrogate pair encodes to four)
+            if (text.capacity() < length) {
+                text = CharBuffer.allocate(length);
+                bytes = ByteBuffer.allocate(length * UTF8_BYTES_MAX);
+            }
+            text.clear();
+            text.put(first).put(last).flip();
+            bytes.clear();
+            encoder.reset();
+            // the output buffer holds the encoding of any input of this length, so it cannot overflow
+            final CoderResult result = encoder.encode(text, bytes, true);
+            if (result.isOverflow() || encoder.flush(bytes).isOverflow()) {
+                throw new IllegalStateException(result.toString());
+            }
+            messageDigest.update(bytes.array(), 0, bytes.position());
+        }
+    }
+
+    /**
+     * The hash calculation state of each thread.
+     */
+    private static final ThreadLocal<Digest> DIGEST = new ThreadLocal<Digest>() {
+        @Override
+        protected Digest initialValue() {
+            try {
+                return new Digest(MessageDigest.getInstance("SHA-256"));
+            } catch (NoSuchAlgorithmException e) {
+                // every Java platform implementation is required to support SHA-256
+                throw new IllegalStateException(e);
+            }
+        }
+    };
+
+    /**
+     * Previously derived personal identifiers; the independently locked partitions of the cache.
+     */
+    private static final Map<Name, String>[] MEMO = createMemo();
+
+    /**
+     * @return the partitions of the cache of derived personal identifiers, each in least recently used order
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<Name, String>[] createMemo() {
+        final Map<Name, String>[] stripes = new Map[MEMO_STRIPES];
+        for (int i = 0; (i < stripes.length); ++i) {
+            stripes[i] = new LinkedHashMap<Name, String>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<Name, String> eldest) {
+                    return (size() > MEMO_SIZE / MEMO_STRIPES);
+                }
+            };
+        }
+        return stripes;
+    }
+
+    private static final int MEMO_SIZE = 10000;
+    private static final int MEMO_STRIPES = 16;
+    private static final int HASH_SPREAD = 16;
+    private static final int MODULUS = 1000000000;
+    private static final int HASH_MULTIPLIER = 31;
+    private static final int TEXT_SIZE_INITIAL = 64;
+    private static final int UTF8_BYTES_MAX = 3;
+}
@@ -0,0 +1,135 @@
+package com.ionic.sdk.addon.jdbc.usecase2.employee;
+
+import com.ionic.sdk.addon.jdbc.usecase2.cipher.ChunkCipherV2Local;
+import com.ionic.sdk.addon.jdbc.usecase2.cipher.CipherProvider;
+import com.ionic.sdk.addon.jdbc.usecase2.key.BlindIndex;
+import com.ionic.sdk.addon.jdbc.usecase2.key.BucketIndex;
+import com.ionic.sdk.addon.jdbc.usecase2.key.KeyScope;
+import com.ionic.sdk.addon.jdbc.usecase2.key.KeySource;
+import com.ionic.sdk.error.IonicException;
+
+import java.util.Properties;
+
+/**
+ * The choices made when Ionic-protecting employee records in bulk; see
+ * {@link EmployeeIonicUtil#toEmployeeIonicFields(java.util.List, KeySource, ProtectionOptions)}.
+ * <p>
+ * Instances are immutable; each "with" method returns a copy, differing only in the named option.
+ */
+public class ProtectionOptions {
+
+    /**
+     * The extent of data protected using a single key.
+     */
+    private final KeyScope keyScope;
+
+    /**
+     * The source of the JCE ciphers used for the encryption.
+     */
+    private final CipherProvider cipherProvider;
+
+    /**
+     * The blind index calculator for the personal identifier; or null, if no blind index is calculated.
+     */
+    private final BlindIndex blindIndex;
+
+    /**
+     * The range tag calculator for the salary; or null, if no salary range tag is calculated.
+     */
+    private final BucketIndex bucketIndex;
+
+    /**
+     * Constructor.  The default cipher provider is used, and no blind index or salary range tag is calculated.
+     *
+     * @param keyScope the extent of data protected using a single key
+     */
+    public ProtectionOptions(final KeyScope keyScope) {
+        this(keyScope, ChunkCipherV2Local.getCipherProvider(), null, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param keyScope       the extent of data protected using a single key
+     * @param cipherProvider the source of the JCE ciphers used for the encryption
+     * @param blindIndex     the blind index calculator for the personal identifier; or null
+     * @param bucketIndex    the range tag calculator for the salary; or null
+     */
+    private ProtectionOptions(final KeyScope keyScope, final CipherProvider cipherProvider,
+                              final BlindIndex blindIndex, final BucketIndex bucketIndex) {
+        this.keyScope = keyScope;
+        this.cipherProvider = cipherProvider;
+        this.blindIndex = blindIndex;
+        this.bucketIndex = bucketIndex;
+    }
+
+    /**
+     * Create the options configured in the sample project properties.  If a blind index HMAC key is configured
+     * ("blindindex.key.id"), the blind index of the personal identifier and the salary range tag are calculated, as
+     * the database insert then stores both.
+     *
+     * @param keySource  the key source; used to provide the HMAC key
+     * @param properties the sample project test properties
+     * @param keyScope   the extent of data protected using a single key
+     * @return the configured options
+     * @throws IonicException if the configured HMAC key is not available
+     */
+    public static ProtectionOptions get(final KeySource keySource, final Properties properties,
+                                        final KeyScope keyScope) throws IonicException {
+        return new ProtectionOptions(keyScope)
+                .withBlindIndex(BlindIndex.get(keySource, properties, BlindIndex.CONTEXT_PERSONAL_IDENTIFIER))
+                .withBucketIndex(BucketIndex.get(keySource, properties));
+    }
+
+    /**
+     * @return the extent of data protected using a single key
+     */
+    public KeyScope getKeyScope() {
+        return keyScope;
+    }
+
+    /**
+     * @return the source of the JCE ciphers used for the encryption
+     */
+    public CipherProvider getCipherProvider() {
+        return cipherProvider;
+    }
+
+    /**
+     * @return the blind index calculator for the personal identifier; or null
+     */
+    public BlindIndex getBlindIndex() {
+        return blindIndex;
+    }
+
+    /**
+     * @return the range tag calculator for the salary; or null
+     */
+    public BucketIndex getBucketIndex() {
+        return bucketIndex;
+    }
+
+    /**
+     * @param cipherProviderIn the source of the JCE ciphers used for the encryption
+     * @return a copy of these options, using "cipherProviderIn"
+     */
+    public ProtectionOptions withCipherProvider(final CipherProvider cipherProviderIn) {
+        return new ProtectionOptions(keyScope, cipherProviderIn, blindIndex, bucketIndex);
+    }
+
+    /**
+     * @param blindIndexIn the blind index calculator for the personal identifier; or null
+     * @return a copy of these options, using "blindIndexIn"
+     */
+    public ProtectionOptions withBlindIndex(final BlindIndex blindIndexIn) {
+        return new ProtectionOptions(keyScope, cipherProvider, blindIndexIn, bucketIndex);
+    }
+
+    /**
+     * @param bucketIndexIn the range tag calculator for the salary; or null
+     * @return a copy of these options, using "bucketIndexIn"
+     */
+    public ProtectionOptions withBucketIndex(final BucketIndex bucketIndexIn) {
+        return new ProtectionOptions(keyScope, cipherProvider, blindIndex, bucketIndexIn);
+    }
+}
@@ -0,0 +1,31 @@
+package com.ionic.sdk.addon.jdbc.usecase2.jdbc;
+
+import org.apache.commons.dbutils.ResultSetHandler;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Implementation of commons-dbutils interface {@link ResultSetHandler}.
+ * <p>
+ * Like {@link SampleResultSetHandler}, all rows are loaded into memory; the rows are held in the compact
+ * column-oriented form of {@link ColumnarRowSet}.
+ */
+public class ColumnarResultSetHandler implements ResultSetHandler<ColumnarRowSet> {
+
+    /**
+     * Turn the ResultSet into an Object.
+     *
+     * @param resultSet the JDBC {@link ResultSet} from the database
+     * @return the column-oriented representation of the input {@link ResultSet}
+     * @throws SQLException on errors reading from the {@link ResultSet}
+     */
+    @Override
+    public ColumnarRowSet handle(final ResultSet resultSet) throws SQLException {
+        final ColumnarRowSet rowSet = new ColumnarRowSet(resultSet.getMetaData());
+        while (resultSet.next()) {
+            rowSet.addRow(resultSet);
+        }
+        return rowSet;
+    }
+}
@@ -0,0 +1,637 @@
+package com.ionic.sdk.addon.jdbc.usecase2.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Column-oriented container for data loaded from a {@link java.sql.ResultSet}; a compact alternative to
+ * {@link RowSet}.
+ * <p>
+ * Each column is held in a single array, with a storage type chosen from the result set metadata.  Integral columns
+ * are held as int[] or long[], without boxing.  Character columns are dictionary-encoded: each distinct value is held
+ * once, and each row holds an int code.  (If a character column turns out to have many distinct values, it reverts to
+ * holding the values directly.)  Other column types are held as Object[].
+ * <p>
+ * Row-oriented access is available through {@link #getRow(int)} and {@link #asRows()}, for callers written against
+ * {@link RowSet}.  Aggregations over a single column (such as {@link #sum(int)} and {@link #countBy(int)}) scan the
+ * column array directly.
+ */
+public class ColumnarRowSet {
+
+    /**
+     * Metadata associated with the source result set of this row set; null if the row set was not loaded from a
+     * result set.
+     */
+    private final ResultSetMetaData metaData;
+
+    /**
+     * The labels of the columns.
+     */
+    private final String[] labels;
+
+    /**
+     * The storage of each column.
+     */
+    private final Column[] columns;
+
+    /**
+     * The number of rows held.
+     */
+    private int size;
+
+    /**
+     * Constructor.
+     *
+     * @param metaData metadata associated with the source result set of this row set
+     * @throws SQLException on failure to read the result set metadata
+     */
+    public ColumnarRowSet(final ResultSetMetaData metaData) throws SQLException {
+        final int columnCount = metaData.getColumnCount();
+        this.metaData = metaData;
+        this.labels = new String[columnCount];
+        this.columns = new Column[columnCount];
+        for (int i = 0; (i < columnCount); ++i) {
+            labels[i] = metaData.getColumnLabel(i + 1);
+            columns[i] = createColumn(metaData.getColumnType(i + 1));
+        }
+    }
+
+    /**
+     * Constructor, for row sets which are not loaded from a result set.
+     *
+     * @param labels   the labels of the columns
+     * @param sqlTypes the JDBC types of the columns (see {@link Types})
+     */
+    public ColumnarRowSet(final String[] labels, final int[] sqlTypes) {
+        this.metaData = null;
+        this.labels = labels.clone();
+        this.columns = new Column[labels.length];
+        for (int i = 0; (i < labels.length); ++i) {
+            columns[i] = createColumn(sqlTypes[i]);
+        }
+    }
+
+    /**
+     * @return metadata associated with the source result set of this row set (null if not loaded from a result set)
+     */
+    public ResultSetMetaData getMetaData() {
+        return metaData;
+    }
+
+    /**
+     * @return the number of rows held
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of columns in each row
+     */
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    /**
+     * @param label the (case-insensitive) label of a column
+     * @return the (zero-based) index of the column, or -1 if there is no such column
+     */
+    public int getColumnIndex(final String label) {
+        for (int i = 0; (i < labels.length); ++i) {
+            if (labels[i].toLowerCase(Locale.ENGLISH).equals(label.toLowerCase(Locale.ENGLISH))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Append the current row of a result set.
+     *
+     * @param resultSet the result set, positioned on the row to append
+     * @throws SQLException on errors reading from the result set
+     */
+    public void addRow(final ResultSet resultSet) throws SQLException {
+        for (int i = 0; (i < columns.length); ++i) {
+            columns[i].read(resultSet, i + 1, size);
+        }
+        ++size;
+    }
+
+    /**
+     * Append a row.
+     *
+     * @param row the column values of the row
+     */
+    public void addRow(final Object[] row) {
+        for (int i = 0; (i < columns.length); ++i) {
+            columns[i].set(size, row[i]);
+        }
+        ++size;
+    }
+
+    /**
+     * @param row    the (zero-based) index of the row
+     * @param column the (zero-based) index of the column
+     * @return the value at the given position (boxed, for primitive columns), or null
+     */
+    public Object get(final int row, final int column) {
+        checkRow(row);
+        return columns[column].get(row);
+    }
+
+    /**
+     * @param row the (zero-based) index of the row
+     * @return a new array holding the column values of the row, as it would be held by {@link RowSet}
+     */
+    public Object[] getRow(final int row) {
+        checkRow(row);
+        final Object[] values = new Object[columns.length];
+        for (int i = 0; (i < columns.length); ++i) {
+            values[i] = columns[i].get(row);
+        }
+        return values;
+    }
+
+    /**
+     * @return a read-only, row-oriented view of the row set; each row is assembled on access
+     */
+    public List<Object[]> asRows() {
+        return new AbstractList<Object[]>() {
+            @Override
+            public Object[] get(final int index) {
+                return getRow(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Sum the non-null values of an integral column.
+     *
+     * @param column the (zero-based) index of an int or long column
+     * @return the sum of the non-null values of the column
+     */
+    public long sum(final int column) {
+        return getNumericColumn(column).sum(size);
+    }
+
+    /**
+     * @param column the (zero-based) index of an int or long column
+     * @return the smallest non-null value of the column, or null if there is none
+     */
+    public Long min(final int column) {
+        return getNumericColumn(column).min(size);
+    }
+
+    /**
+     * @param column the (zero-based) index of an int or long column
+     * @return the largest non-null value of the column, or null if there is none
+     */
+    public Long max(final int column) {
+        return getNumericColumn(column).max(size);
+    }
+
+    /**
+     * @param column the (zero-based) index of a column
+     * @return the number of non-null values in the column
+     */
+    public int count(final int column) {
+        return size - columns[column].nulls.cardinality();
+    }
+
+    /**
+     * Count the rows having each distinct value of a character column.
+     *
+     * @param column the (zero-based) index of a character column
+     * @return the number of rows having each distinct (non-null) value, in order of first appearance
+     */
+    public Map<String, Integer> countBy(final int column) {
+        final StringColumn stringColumn = getStringColumn(column);
+        final Map<String, Integer> counts = new LinkedHashMap<String, Integer>();
+        if (stringColumn.isDictionary()) {
+            final int[] countsByCode = new int[stringColumn.dictionary.size()];
+            for (int row = 0; (row < size); ++row) {
+                final int code = stringColumn.codes[row];
+                if (code >= 0) {
+                    ++countsByCode[code];
+                }
+            }
+            for (int code = 0; (code < countsByCode.length); ++code) {
+                counts.put(stringColumn.dictionary.get(code), countsByCode[code]);
+            }
+        } else {
+            for (int row = 0; (row < size); ++row) {
+                final String value = stringColumn.values[row];
+                if (value != null) {
+                    final Integer count = counts.get(value);
+                    counts.put(value, (count == null) ? 1 : (count + 1));
+                }
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Sum the non-null values of an integral column, grouped by the distinct values of a character column.
+     *
+     * @param column    the (zero-based) index of an int or long column
+     * @param columnKey the (zero-based) index of a character column
+     * @return the sum of the values for each distinct (non-null) key, in order of first appearance
+     */
+    public Map<String, Long> sumBy(final int column, final int columnKey) {
+        final NumericColumn numericColumn = getNumericColumn(column);
+        final StringColumn stringColumn = getStringColumn(columnKey);
+        final Map<String, Long> sums = new LinkedHashMap<String, Long>();
+        if (stringColumn.isDictionary()) {
+            final long[] sumsByCode = new long[stringColumn.dictionary.size()];
+            final boolean[] present = new boolean[sumsByCode.length];
+            for (int row = 0; (row < size); ++row) {
+                final int code = stringColumn.codes[row];
+                if (code >= 0) {
+                    present[code] = true;
+                    if (!numericColumn.nulls.get(row)) {
+                        sumsByCode[code] += numericColumn.getLong(row);
+                    }
+                }
+            }
+            for (int code = 0; (code < sumsByCode.length); ++code) {
+                if (present[code]) {
+                    sums.put(stringColumn.dictionary.get(code), sumsByCode[code]);
+                }
+            }
+        } else {
+            for (int row = 0; (row < size); ++row) {
+                final String key = stringColumn.values[row];
+                if (key != null) {
+                    final Long sum = sums.get(key);
+                    final long value = numericColumn.nulls.get(row) ? 0L : numericColumn.getLong(row);
+                    sums.put(key, (sum == null) ? value : (sum + value));
+                }
+            }
+        }
+        return sums;
+    }
+
+    /**
+     * @param row the (zero-based) index of a row
+     */
+    private void checkRow(final int row) {
+        if ((row < 0) || (row >= size)) {
+            throw new IndexOutOfBoundsException(Integer.toString(row));
+        }
+    }
+
+    /**
+     * @param column the (zero-based) index of a column
+     * @return the column storage, if it holds integral values
+     */
+    private NumericColumn getNumericColumn(final int column) {
+        if (!(columns[column] instanceof NumericColumn)) {
+            throw new IllegalArgumentException(labels[column]);
+        }
+        return (NumericColumn) columns[column];
+    }
+
+    /**
+     * @param column the (zero-based) index of a column
+     * @return the column storage, if it holds character values
+     */
+    private StringColumn getStringColumn(final int column) {
+        if (!(columns[column] instanceof StringColumn)) {
+            throw new IllegalArgumentException(labels[column]);
+        }
+        return (StringColumn) columns[column];
+    }
+
+    /**
+     * @param sqlType the JDBC type of a column
+     * @return storage suitable for values of the column
+     */
+    private static Column createColumn(final int sqlType) {
+        switch (sqlType) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+                return new IntColumn();
+            case Types.BIGINT:
+                return new LongColumn();
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+                return new StringColumn();
+            default:
+                return new ObjectColumn();
+        }
+    }
+
+    /**
+     * @param capacity the current capacity of a column array
+     * @param index    the index at which a value is to be stored, beyond the current capacity
+     * @return the new capacity of the column array
+     */
+    private static int grow(final int capacity, final int index) {
+        return Math.max(index + 1, Math.max(CAPACITY_INITIAL, capacity * 2));
+    }
+
+    /**
+     * The storage of a single column.
+     */
+    private abstract static class Column {
+
+        /**
+         * The rows in which the column value is null.
+         */
+        protected final BitSet nulls = new BitSet();
+
+        /**
+         * Store the value of the column in the current row of a result set.
+         *
+         * @param resultSet the result set, positioned on the row
+         * @param index     the (one-based) index of the column in the result set
+         * @param row       the (zero-based) index of the row in this row set
+         * @throws SQLException on errors reading from the result set
+         */
+        abstract void read(ResultSet resultSet, int index, int row) throws SQLException;
+
+        /**
+         * @param row   the (zero-based) index of the row
+         * @param value the value to store, or null
+         */
+        abstract void set(int row, Object value);
+
+        /**
+         * @param row the (zero-based) index of the row
+         * @return the stored value (boxed, for primitive columns), or null
+         */
+        abstract Object get(int row);
+    }
+
+    /**
+     * Storage of a column holding integral values.
+     */
+    private abstract static class NumericColumn extends Column {
+
+        /**
+         * @param row the (zero-based) index of a row holding a non-null value
+         * @return the stored value
+         */
+        abstract long getLong(int row);
+
+        /**
+         * @param size the number of rows held
+         * @return the sum of the non-null values
+         */
+        long sum(final int size) {
+            long sum = 0L;
+            for (int row = 0; (row < size); ++row) {
+                sum += getLong(row);  // null values are stored as zero
+            }
+            return sum;
+        }
+
+        /**
+         * @param size the number of rows held
+         * @return the smallest non-null value, or null if there is none
+         */
+        Long min(final int size) {
+            Long min = null;
+            for (int row = nulls.nextClearBit(0); (row < size); row = nulls.nextClearBit(row + 1)) {
+                final long value = getLong(row);
+                min = ((min == null) || (value < min)) ? value : min;
+            }
+            return min;
+        }
+
+        /**
+         * @param size the number of rows held
+         * @return the largest non-null value, or null if there is none
+         */
+        Long max(final int size) {
+            Long max = null;
+            for (int row = nulls.nextClearBit(0); (row < size); row = nulls.nextClearBit(row + 1)) {
+                final long value = getLong(row);
+                max = ((max == null) || (value > max)) ? value : max;
+            }
+            return max;
+        }
+    }
+
+    /**
+     * Storage of a column holding int values.
+     */
+    private static class IntColumn extends NumericColumn {
+
+        /**
+         * The column values; zero for null values.
+         */
+        private int[] values = new int[0];
+
+        @Override
+        void read(final ResultSet resultSet, final int index, final int row) throws SQLException {
+            final int value = resultSet.getInt(index);
+            set(row, resultSet.wasNull() ? null : value);
+        }
+
+        @Override
+        void set(final int row, final Object value) {
+            if (row >= values.length) {
+                values = Arrays.copyOf(values, grow(values.length, row));
+            }
+            if (value == null) {
+                nulls.set(row);
+            } else {
+                values[row] = ((Number) value).intValue();
+            }
+        }
+
+        @Override
+        Object get(final int row) {
+            return nulls.get(row) ? null : values[row];
+        }
+
+        @Override
+        long getLong(final int row) {
+            return values[row];
+        }
+    }
+
+    /**
+     * Storage of a column holding long values.
+     */
+    private static class LongColumn extends NumericColumn {
+
+        /**
+         * The column values; zero for null values.
+         */
+        private long[] values = new long[0];
+
+        @Override
+        void read(final ResultSet resultSet, final int index, final int row) throws SQLException {
+            final long value = resultSet.getLong(index);
+            set(row, resultSet.wasNull() ? null : value);
+        }
+
+        @Override
+        void set(final int row, final Object value) {
+            if (row >= values.length) {
+                values = Arrays.copyOf(values, grow(values.length, row));
+            }
+            if (value == null) {
+                nulls.set(row);
+            } else {
+                values[row] = ((Number) value).longValue();
+            }
+        }
+
+        @Override
+        Object get(final int row) {
+            return nulls.get(row) ? null : values[row];
+        }
+
+        @Override
+        long getLong(final int row) {
+            return values[row];
+        }
+    }
+
+    /**
+     * Storage of a column holding character values.  Values are dictionary-encoded, until the number of distinct
+     * values exceeds {@link #DICTIONARY_MAX}; from then on, values are held directly.
+     */
+    private static class StringColumn extends Column {
+
+        /**
+         * The distinct values, indexed by code; null once the column reverts to holding values directly.
+         */
+        private List<String> dictionary = new ArrayList<String>();
+
+        /**
+         * The code of each distinct value.
+         */
+        private Map<String, Integer> dictionaryCodes = new HashMap<String, Integer>();
+
+        /**
+         * The code of the value in each row; -1 for null values.
+         */
+        private int[] codes = new int[0];
+
+        /**
+         * The value in each row, once the column reverts to holding values directly.
+         */
+        private String[] values;
+
+        /**
+         * @return true, if values are dictionary-encoded
+         */
+        boolean isDictionary() {
+            return (dictionary != null);
+        }
+
+        @Override
+        void read(final ResultSet resultSet, final int index, final int row) throws SQLException {
+            set(row, resultSet.getString(index));
+        }
+
+        @Override
+        void set(final int row, final Object value) {
+            if (value == null) {
+                nulls.set(row);
+            }
+            if (isDictionary()) {
+                if (row >= codes.length) {
+                    codes = Arrays.copyOf(codes, grow(codes.length, row));
+                }
+                codes[row] = (value == null) ? -1 : encode((String) value);
+                if (dictionary.size() > DICTIONARY_MAX) {
+                    values = new String[codes.length];
+                    for (int i = 0; (i <= row); ++i) {
+                        values[i] = (codes[i] < 0) ? null : dictionary.get(codes[i]);
+                    }
+                    dictionary = null;
+                    dictionaryCodes = null;
+                    codes = null;
+                }
+            } else {
+                if (row >= values.length) {
+                    values = Arrays.copyOf(values, grow(values.length, row));
+                }
+                values[row] = (String) value;
+            }
+        }
+
+        /**
+         * @param value a (non-null) column value
+         * @return the dictionary code of the value, adding the value to the dictionary if needed
+         */
+        private int encode(final String value) {
+            Integer code = dictionaryCodes.get(value);
+            if (code == null) {
+                code = dictionary.size();
+                dictionary.add(value);
+                dictionaryCodes.put(value, code);
+            }
+            return code;
+        }
+
+        @Override
+        Object get(final int row) {
+            if (isDictionary()) {
+                return (codes[row] < 0) ? null : dictionary.get(codes[row]);
+            } else {
+                return values[row];
+            }
+        }
+    }
+
+    /**
+     * Storage of a column holding values of any other type.
+     */
+    private static class ObjectColumn extends Column {
+
+        /**
+         * The column values.
+         */
+        private Object[] values = new Object[0];
+
+        @Override
+        void read(final ResultSet resultSet, final int index, final int row) throws SQLException {
+            set(row, resultSet.getObject(index));
+        }
+
+        @Override
+        void set(final int row, final Object value) {
+            if (row >= values.length) {
+                values = Arrays.copyOf(values, grow(values.length, row));
+            }
+            if (value == null) {
+                nulls.set(row);
+            }
+            values[row] = value;
+        }
+
+        @Override
+        Object get(final int row) {
+            return values[row];
+        }
+    }
+
+    private static final int CAPACITY_INITIAL = 64;
+    private static final int DICTIONARY_MAX = 4096;
+}
@@ -0,0 +1,163 @@
+package com.ionic.sdk.addon.jdbc.usecase2.jdbc;
+
+/**
+ * {@link IntObjectMap} implementation backed by a single array, indexed by the offset of the key from the lowest key
+ * in the map.  A lookup is one array access, and the memory cost is one reference for each key in the covered range.
+ * <p>
+ * This implementation is suited to keys which densely cover a range, such as the ids generated by a database serial
+ * column.  For sparse keys, the array may be much larger than the number of associations; see
+ * {@link #isSparse()} and {@link OpenAddressingIntObjectMap}.  Keys are iterated in ascending order.
+ *
+ * @param <V> the type of the mapped values
+ */
+public class DenseIntObjectMap<V> implements IntObjectMap<V> {
+
+    /**
+     * The key associated with the first element of "values".
+     */
+    private int base;
+
+    /**
+     * The value associated with each key in the covered range; null for a key with no value.
+     */
+    private Object[] values;
+
+    /**
+     * The number of key-value associations in the map.
+     */
+    private int size;
+
+    /**
+     * Constructor.
+     */
+    public DenseIntObjectMap() {
+        this(CAPACITY_DEFAULT);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param expectedSize the number of associations which the map should hold without resizing
+     */
+    public DenseIntObjectMap(final int expectedSize) {
+        this.base = 0;
+        this.values = new Object[Math.max(1, expectedSize)];
+        this.size = 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(final int key) {
+        final long index = (long) key - base;
+        return ((index >= 0) && (index < values.length)) ? (V) values[(int) index] : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(final int key, final V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("null values are not supported");
+        }
+        if (size == 0) {
+            base = key;
+        }
+        final long index = (long) key - base;
+        if (index < 0) {
+            // key is below the covered range; move the content up
+            final long length = values.length - index;
+            // the new base may not go below the lowest int key
+            final long shift = Math.min(length + (length >> 1) - values.length, (long) base - Integer.MIN_VALUE);
+            final Object[] valuesNew = new Object[checkLength(values.length + shift)];
+            System.arraycopy(values, 0, valuesNew, (int) shift, values.length);
+            values = valuesNew;
+            base -= shift;
+        } else if (index >= values.length) {
+            // key is above the covered range
+            final long length = Math.max(index + 1, values.length + (values.length >> 1));
+            final Object[] valuesNew = new Object[checkLength(length)];
+            System.arraycopy(values, 0, valuesNew, 0, values.length);
+            values = valuesNew;
+        }
+        final int slot = key - base;
+        final V previous = (V) values[slot];
+        values[slot] = value;
+        if (previous == null) {
+            ++size;
+        }
+        return previous;
+    }
+
+    @Override
+    public boolean containsKey(final int key) {
+        return (get(key) != null);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int[] keys() {
+        final int[] keys = new int[size];
+        int index = 0;
+        for (int slot = 0; (slot < values.length); ++slot) {
+            if (values[slot] != null) {
+                keys[index++] = base + slot;
+            }
+        }
+        return keys;
+    }
+
+    @Override
+    public int[] sortedKeys() {
+        return keys();
+    }
+
+    /**
+     * @return true if fewer than a quarter of the elements of the backing array are in use, in which case an
+     * {@link OpenAddressingIntObjectMap} would be the more compact representation
+     */
+    public boolean isSparse() {
+        return (values.length > CAPACITY_DEFAULT) && (size < values.length / SPARSE_RATIO);
+    }
+
+    /**
+     * Check the density of the map before a put, so that an outlying key does not cause the allocation of a backing
+     * array which is mostly empty (or too large to allocate at all).
+     *
+     * @param key the key about to be put
+     * @return true if the backing array would need to grow to cover "key", and fewer than a quarter of its elements
+     * would then be in use; an {@link OpenAddressingIntObjectMap} should be used instead
+     */
+    public boolean isSparse(final int key) {
+        if (size == 0) {
+            return false;
+        }
+        final long index = (long) key - base;
+        final long length;
+        if (index < 0) {
+            length = values.length - index;
+        } else if (index >= values.length) {
+            length = index + 1;
+        } else {
+            return false;
+        }
+        return (length > CAPACITY_DEFAULT) && (length > (long) SPARSE_RATIO * (size + 1));
+    }
+
+    /**
+     * @param length the requested length of the backing array
+     * @return "length", if an array of that length may be allocated
+     */
+    private static int checkLength(final long length) {
+        if (length > LENGTH_MAX) {
+            throw new IllegalStateException("key range too large: " + length);
+        }
+        return (int) length;
+    }
+
+    private static final int CAPACITY_DEFAULT = 16;
+    private static final int SPARSE_RATIO = 4;
+    private static final int LENGTH_MAX = Integer.MAX_VALUE - 8;
+}
@@ -0,0 +1,355 @@
+package com.ionic.sdk.addon.jdbc.usecase2.jdbc;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Bulk export and import of the Employee / EmployeeIonic table pair, using the PostgreSQL COPY protocol.
+ * <p>
+ * Table content is streamed to / from the database by the driver {@link CopyManager}, rather than being read and
+ * written a row at a time.  The Ionic-protected columns are carried as-is; no key service access or cryptography is
+ * needed to move protected data between environments.  Memory usage does not depend on the size of the tables.
+ * <p>
+ * The copy is configured using the sample project properties:
+ * <ul>
+ * <li>"copy.format": the COPY data format ("binary", "csv", or "text")</li>
+ * <li>"copy.table.employee": the name of the table holding the Employee records</li>
+ * <li>"copy.table.employeeionic": the name of the table holding the EmployeeIonic records</li>
+ * <li>"sql.copy.sequence.employee": (optional) statement run after an import, to advance the Employee id sequence
+ * past the imported ids</li>
+ * </ul>
+ * <p>
+ * Connections borrowed from the connection pool are unwrapped to reach the underlying PostgreSQL connection.
+ */
+public class EmployeeCopy {
+
+    /**
+     * The COPY data format.
+     */
+    private final String format;
+
+    /**
+     * The name of the table holding the Employee records.
+     */
+    private final String tableEmployee;
+
+    /**
+     * The name of the table holding the EmployeeIonic records.
+     */
+    private final String tableEmployeeIonic;
+
+    /**
+     * The statement run after an import to advance the Employee id sequence; or null.
+     */
+    private final String sqlSequence;
+
+    /**
+     * Constructor.
+     *
+     * @param properties the sample project test properties
+     */
+    public EmployeeCopy(final Properties properties) {
+        this.format = properties.getProperty("copy.format", "binary");
+        this.tableEmployee = properties.getProperty("copy.table.employee", "employee");
+        this.tableEmployeeIonic = properties.getProperty("copy.table.employeeionic", "employeeionic");
+        final String sqlSequenceConfig = properties.getProperty("sql.copy.sequence.employee", "");
+        this.sqlSequence = sqlSequenceConfig.isEmpty() ? null : sqlSequenceConfig;
+    }
+
+    /**
+     * Export the content of the table pair.  Both tables are read in a single read-only REPEATABLE READ transaction,
+     * so that they are exported as of the same moment; an EmployeeIonic row written during the export cannot appear
+     * without its Employee row.
+     *
+     * @param connection    the database connection
+     * @param employee      the destination of the Employee table content
+     * @param employeeIonic the destination of the EmployeeIonic table content
+     * @return the number of rows exported from each table (Employee, EmployeeIonic)
+     * @throws SQLException on database failures
+     * @throws IOException  on failure to write the table content
+     */
+    public long[] exportTables(final Connection connection, final OutputStream employee,
+                               final OutputStream employeeIonic) throws SQLException, IOException {
+        final CopyManager copyManager = getCopyManager(connection);
+        try (Snapshot snapshot = new Snapshot(connection)) {
+            final long rowsEmployee = copyManager.copyOut(getSqlOut(tableEmployee), employee);
+            final long rowsEmployeeIonic = copyManager.copyOut(getSqlOut(tableEmployeeIonic), employeeIonic);
+            snapshot.close();
+            return new long[]{rowsEmployee, rowsEmployeeIonic};
+        }
+    }
+
+    /**
+     * Import the content of the table pair, in a single transaction.  On failure, no rows are stored.
+     *
+     * @param connection    the database connection
+     * @param employee      the source of the Employee table content
+     * @param employeeIonic the source of the EmployeeIonic table content
+     * @return the number of rows imported into each table (Employee, EmployeeIonic)
+     * @throws SQLException on database failures
+     * @throws IOException  on failure to read the table content
+     */
+    public long[] importTables(final Connection connection, final InputStream employee,
+                               final InputStream employeeIonic) throws SQLException, IOException {
+        final CopyManager copyManager = getCopyManager(connection);
+        final boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            // employee records first; employeeionic records reference them
+            final long rowsEmployee = copyManager.copyIn(getSqlIn(tableEmployee), employee);
+            final long rowsEmployeeIonic = copyManager.copyIn(getSqlIn(tableEmployeeIonic), employeeIonic);
+            advanceSequence(connection);
+            connection.commit();
+            return new long[]{rowsEmployee, rowsEmployeeIonic};
+        } catch (SQLException | IOException e) {
+            JdbcUtil.rollback(connection, e);
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Copy the content of the table pair from one database to another, in a single transaction on the target.  Each
+     * table is exported by a background thread into a pipe, from which it is imported as it arrives; the content is
+     * never held in full, in memory or on disk.  As for {@link #exportTables(Connection, OutputStream, OutputStream)},
+     * both tables are read from the source in a single read-only REPEATABLE READ transaction.
+     *
+     * @param source     the connection to the database from which to export
+     * @param targetCopy the table configuration of the target database
+     * @param target     the connection to the database into which to import
+     * @return the number of rows transferred for each table (Employee, EmployeeIonic)
+     * @throws SQLException on database failures
+     * @throws IOException  on failure to transfer the table content
+     * @throws IllegalArgumentException if the COPY data format of "targetCopy" differs from that of this object; the
+     *                                  content is passed through unchanged, so the formats must match
+     */
+    public long[] transfer(final Connection source, final EmployeeCopy targetCopy, final Connection target)
+            throws SQLException, IOException {
+        if (!format.equalsIgnoreCase(targetCopy.format)) {
+            throw new IllegalArgumentException(String.format(
+                    "source COPY format \"%s\" differs from target COPY format \"%s\"", format, targetCopy.format));
+        }
+        final CopyManager copyManagerSource = getCopyManager(source);
+        final CopyManager copyManagerTarget = getCopyManager(target);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final boolean autoCommit = target.getAutoCommit();
+        target.setAutoCommit(false);
+        try (Snapshot snapshot = new Snapshot(source)) {
+            final long rowsEmployee = pipe(executor, copyManagerSource, getSqlOut(tableEmployee),
+                    copyManagerTarget, targetCopy.getSqlIn(targetCopy.tableEmployee));
+            final long rowsEmployeeIonic = pipe(executor, copyManagerSource, getSqlOut(tableEmployeeIonic),
+                    copyManagerTarget, targetCopy.getSqlIn(targetCopy.tableEmployeeIonic));
+            snapshot.close();
+            targetCopy.advanceSequence(target);
+            target.commit();
+            return new long[]{rowsEmployee, rowsEmployeeIonic};
+        } catch (SQLException | IOException e) {
+            JdbcUtil.rollback(target, e);
+            throw e;
+        } finally {
+            target.setAutoCommit(autoCommit);
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Get the COPY interface of the PostgreSQL connection underlying the input connection.
+     *
+     * @param connection the database connection (possibly a pooled connection wrapper)
+     * @return the driver COPY interface
+     * @throws SQLException if the connection is not a PostgreSQL connection
+     */
+    public static CopyManager getCopyManager(final Connection connection) throws SQLException {
+        return connection.unwrap(PGConnection.class).getCopyAPI();
+    }
+
+    /**
+     * Copy the content of a single table through a pipe.
+     *
+     * @param executor          the executor on which to run the export
+     * @param copyManager       the COPY interface of the source database
+     * @param sqlOut            the export statement
+     * @param copyManagerTarget the COPY interface of the target database
+     * @param sqlIn             the import statement
+     * @return the number of rows imported
+     * @throws SQLException on database failures
+     * @throws IOException  on failure to transfer the table content
+     */
+    private static long pipe(final ExecutorService executor, final CopyManager copyManager, final String sqlOut,
+                             final CopyManager copyManagerTarget, final String sqlIn)
+            throws SQLException, IOException {
+        final PipedInputStream is = new PipedInputStream(PIPE_SIZE);
+        final PipedOutputStream os = new PipedOutputStream(is);
+        final Future<Long> futureOut = executor.submit(new Callable<Long>() {
+            @Override
+            public Long call() throws SQLException, IOException {
+                try {
+                    return copyManager.copyOut(sqlOut, os);
+                } finally {
+                    os.close();
+                }
+            }
+        });
+        final long rowsIn;
+        try {
+            rowsIn = copyManagerTarget.copyIn(sqlIn, is);
+        } finally {
+            // if the import has failed, this releases an export blocked on the pipe
+            is.close();
+        }
+        final long rowsOut = getRows(futureOut);
+        if (rowsIn != rowsOut) {
+            throw new SQLException(String.format("exported %d rows, imported %d rows", rowsOut, rowsIn));
+        }
+        return rowsIn;
+    }
+
+    /**
+     * Wait for the completion of a background export.
+     *
+     * @param future the handle to the export
+     * @return the number of rows exported
+     * @throws SQLException on database failures in the export
+     * @throws IOException  on failure to write the table content
+     */
+    private static long getRows(final Future<Long> future) throws SQLException, IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            } else if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else {
+                throw new SQLException(cause);
+            }
+        }
+    }
+
+    /**
+     * Advance the Employee id sequence past the imported ids, if so configured.
+     *
+     * @param connection the database connection
+     * @throws SQLException on database failures
+     */
+    private void advanceSequence(final Connection connection) throws SQLException {
+        if (sqlSequence != null) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(sqlSequence);
+            }
+        }
+    }
+
+    /**
+     * @param table the table to export
+     * @return the COPY statement used to export "table"
+     */
+    private String getSqlOut(final String table) {
+        return String.format("COPY %s TO STDOUT (FORMAT %s)", table, format);
+    }
+
+    /**
+     * @param table the table into which to import
+     * @return the COPY statement used to import into "table"
+     */
+    private String getSqlIn(final String table) {
+        return String.format("COPY %s FROM STDIN (FORMAT %s)", table, format);
+    }
+
+    /**
+     * A read-only REPEATABLE READ transaction on a source connection, so that all statements run in it read the same
+     * snapshot of the database.  The prior settings of the connection are restored on close.
+     */
+    private static class Snapshot implements AutoCloseable {
+
+        /**
+         * The database connection.
+         */
+        private final Connection connection;
+
+        /**
+         * The auto-commit mode of the connection, before the transaction.
+         */
+        private final boolean autoCommit;
+
+        /**
+         * The read-only mode of the connection, before the transaction.
+         */
+        private final boolean readOnly;
+
+        /**
+         * The transaction isolation level of the connection, before the transaction.
+         */
+        private final int isolation;
+
+        /**
+         * True once the transaction has ended.
+         */
+        private boolean closed;
+
+        /**
+         * Constructor.  The transaction begins with the first statement run on the connection.
+         *
+         * @param connection the database connection
+         * @throws SQLException on database failures
+         */
+        Snapshot(final Connection connection) throws SQLException {
+            this.connection = connection;
+            this.autoCommit = connection.getAutoCommit();
+            this.readOnly = connection.isReadOnly();
+            this.isolation = connection.getTransactionIsolation();
+            // the isolation level and read-only mode may only be changed outside of a transaction
+            if (!autoCommit) {
+                connection.commit();
+            }
+            connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            connection.setReadOnly(true);
+            connection.setAutoCommit(false);
+        }
+
+        /**
+         * End the transaction (nothing was written, so it is rolled back), and restore the prior settings of the
+         * connection.  Subsequent calls have no effect.
+         *
+         * @throws SQLException on database failures
+         */
+        @Override
+        public void close() throws SQLException {
+            if (!closed) {
+                closed = true;
+                try {
+                    connection.rollback();
+                } finally {
+                    connection.setAutoCommit(autoCommit);
+                    connection.setReadOnly(readOnly);
+                    connection.setTransactionIsolation(isolation);
+                }
+            }
+        }
+    }
+
+    /**
+     * The size of the buffer connecting the export to the import in a transfer, in bytes.
+     */
+    private static final int PIPE_SIZE = 64 * 1024;
+}
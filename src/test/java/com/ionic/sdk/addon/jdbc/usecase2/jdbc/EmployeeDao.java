@@ -0,0 +1,431 @@
+package com.ionic.sdk.addon.jdbc.usecase2.jdbc;
+
+import com.ionic.sdk.addon.jdbc.usecase2.employee.Employee;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonic;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonicFields;
+import com.ionic.sdk.addon.jdbc.usecase2.key.BlindIndex;
+import com.ionic.sdk.addon.jdbc.usecase2.metrics.Metrics;
+import com.ionic.sdk.addon.jdbc.usecase2.metrics.Stage;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Typed data access to the Employee and EmployeeIonic database tables, over a single database connection.
+ * <p>
+ * Unlike {@link EmployeeIonicJdbcUtil}, which prepares each statement (through a new QueryRunner) on each call, and
+ * passes rows around as Object[], this class prepares each statement once, on first use, and holds it for the
+ * lifetime of the object.  Statement parameters are bound by index using the typed JDBC setters.  Query results are
+ * converted by a {@link RowMapper}, compiled from the result metadata on the first execution of each query.
+ * <p>
+ * The statements are configured using the sample project properties ("sql.insert.employee",
+ * "sql.insert.employeeionic" (or "sql.insert.employeeionic.indexed", if "blindindex.key.id" is configured),
+ * "sql.select.employee",
+ * "sql.select.employeeionic", "sql.select.employee.join", and "sql.select.employee.join.personalidentifier").
+ * <p>
+ * Instances are not safe for concurrent use.  Closing the object closes its statements, but not the connection.
+ */
+public class EmployeeDao implements AutoCloseable {
+
+    /**
+     * The database connection.
+     */
+    private final Connection connection;
+
+    /**
+     * The number of rows to fetch from the database in each round trip.
+     */
+    private final int fetchSize;
+
+    /**
+     * The number of rows to send to the database in each JDBC batch.
+     */
+    private final int batchSize;
+
+    /**
+     * True if the blind index and salary range tag are stored along with the Ionic-protected fields.
+     */
+    private final boolean indexed;
+
+    /**
+     * The insert into table Employee.
+     */
+    private final LazyStatement insertEmployee;
+
+    /**
+     * The insert into table EmployeeIonic.
+     */
+    private final LazyStatement insertEmployeeIonic;
+
+    /**
+     * The query of table Employee.
+     */
+    private final Query<Employee> selectEmployee;
+
+    /**
+     * The query of table EmployeeIonic.
+     */
+    private final Query<EmployeeIonicFields> selectEmployeeIonic;
+
+    /**
+     * The query of the join of table Employee to table EmployeeIonic.
+     */
+    private final Query<EmployeeIonic> selectJoin;
+
+    /**
+     * The query of the join of table Employee to table EmployeeIonic, restricted to a personal identifier blind index.
+     */
+    private final Query<EmployeeIonic> selectJoinByIndex;
+
+    /**
+     * Constructor.  No database access is done until a statement is first used.
+     *
+     * @param connection the database connection
+     * @param properties the sample project test properties
+     */
+    public EmployeeDao(final Connection connection, final Properties properties) {
+        this.connection = connection;
+        this.fetchSize = JdbcUtil.getFetchSize(properties);
+        this.batchSize = JdbcUtil.getBatchSize(properties);
+        this.indexed = BlindIndex.isConfigured(properties);
+        this.insertEmployee = new LazyStatement(properties.getProperty("sql.insert.employee"), true);
+        this.insertEmployeeIonic = new LazyStatement(properties.getProperty(indexed
+                ? "sql.insert.employeeionic.indexed" : "sql.insert.employeeionic"), false);
+        this.selectEmployee = new Query<Employee>(properties.getProperty("sql.select.employee")) {
+            @Override
+            RowMapper<Employee> compile(final ResultSetMetaData metaData) throws SQLException {
+                return RowMappers.employee(metaData);
+            }
+        };
+        this.selectEmployeeIonic = new Query<EmployeeIonicFields>(
+                properties.getProperty("sql.select.employeeionic")) {
+            @Override
+            RowMapper<EmployeeIonicFields> compile(final ResultSetMetaData metaData) throws SQLException {
+                return RowMappers.employeeIonicFields(metaData);
+            }
+        };
+        this.selectJoin = new Query<EmployeeIonic>(properties.getProperty("sql.select.employee.join")) {
+            @Override
+            RowMapper<EmployeeIonic> compile(final ResultSetMetaData metaData) throws SQLException {
+                return RowMappers.employeeIonic(metaData);
+            }
+        };
+        this.selectJoinByIndex = new Query<EmployeeIonic>(
+                properties.getProperty("sql.select.employee.join.personalidentifier")) {
+            @Override
+            RowMapper<EmployeeIonic> compile(final ResultSetMetaData metaData) throws SQLException {
+                return RowMappers.employeeIonic(metaData);
+            }
+        };
+    }
+
+    /**
+     * Store many records into the Employee and EmployeeIonic database tables, in a single transaction.  On failure, no
+     * records are stored.  See {@link EmployeeIonicJdbcUtil#insertEmployees(Connection, Properties, List)}.
+     *
+     * @param employeesIonic the records to store
+     * @return the database ids of the stored records, in the same order as "employeesIonic"
+     * @throws SQLException on database failures
+     * @throws IllegalArgumentException if a blind index HMAC key is configured, and a record has no blind index or
+     *                                  salary range tag
+     */
+    public List<Integer> insert(final List<EmployeeIonic> employeesIonic) throws SQLException {
+        EmployeeIonicJdbcUtil.checkIndexed(employeesIonic, indexed);
+        final PreparedStatement statementEmployee = insertEmployee.prepare();
+        final PreparedStatement statementEmployeeIonic = insertEmployeeIonic.prepare();
+        final List<Integer> ids = new ArrayList<Integer>(employeesIonic.size());
+        final boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            for (int from = 0; (from < employeesIonic.size()); from += batchSize) {
+                final List<EmployeeIonic> batch =
+                        employeesIonic.subList(from, Math.min(employeesIonic.size(), from + batchSize));
+                // store employee records (to get record keys)
+                for (EmployeeIonic ei : batch) {
+                    statementEmployee.setString(PARAM_FIRST_NAME, ei.getFirstName());
+                    statementEmployee.setString(PARAM_LAST_NAME, ei.getLastName());
+                    statementEmployee.setString(PARAM_PERSONAL_IDENTIFIER, ei.getPersonalIdentifier());
+                    statementEmployee.setInt(PARAM_SALARY, ei.getSalary());
+                    statementEmployee.setString(PARAM_COUNTRY, ei.getCountry());
+                    statementEmployee.addBatch();
+                }
+                long start = Metrics.start();
+                statementEmployee.executeBatch();
+                final int[] idsBatch = new int[batch.size()];
+                int count = 0;
+                try (ResultSet resultSet = statementEmployee.getGeneratedKeys()) {
+                    while (resultSet.next() && (count < idsBatch.length)) {
+                        idsBatch[count++] = resultSet.getInt(1);
+                    }
+                }
+                Metrics.stop(Stage.INSERT, start);
+                if (count != batch.size()) {
+                    throw new SQLException(String.format(
+                            "inserted %d records, received %d ids", batch.size(), count));
+                }
+                // store employeeionic records
+                for (int i = 0; (i < idsBatch.length); ++i) {
+                    final EmployeeIonicFields eif = batch.get(i).getIonicFields();
+                    statementEmployeeIonic.setInt(PARAM_FID, idsBatch[i]);
+                    statementEmployeeIonic.setString(PARAM_IONIC_PERSONAL_IDENTIFIER, eif.getPersonalIdentifier());
+                    statementEmployeeIonic.setString(PARAM_IONIC_SALARY, eif.getSalary());
+                    if (indexed) {
+                        statementEmployeeIonic.setString(PARAM_IONIC_BLIND_INDEX, eif.getPersonalIdentifierIndex());
+                        statementEmployeeIonic.setString(PARAM_IONIC_BUCKET, eif.getSalaryBucket());
+                    }
+                    statementEmployeeIonic.addBatch();
+                    ids.add(idsBatch[i]);
+                }
+                start = Metrics.start();
+                statementEmployeeIonic.executeBatch();
+                Metrics.stop(Stage.INSERT, start);
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            JdbcUtil.clearBatch(statementEmployee, e);
+            JdbcUtil.clearBatch(statementEmployeeIonic, e);
+            throw JdbcUtil.rollback(connection, e);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        return ids;
+    }
+
+    /**
+     * Read table Employee, passing each record to the consumer as it is read.
+     *
+     * @param consumer the recipient of each record
+     * @return the number of records processed
+     * @throws SQLException on database failures, or on consumer failure
+     */
+    public int streamEmployees(final RecordConsumer<Employee> consumer) throws SQLException {
+        selectEmployee.prepare();
+        return selectEmployee.stream(consumer);
+    }
+
+    /**
+     * Read table EmployeeIonic, passing each record to the consumer as it is read.
+     *
+     * @param consumer the recipient of each record
+     * @return the number of records processed
+     * @throws SQLException on database failures, or on consumer failure
+     */
+    public int streamIonicFields(final RecordConsumer<EmployeeIonicFields> consumer) throws SQLException {
+        selectEmployeeIonic.prepare();
+        return selectEmployeeIonic.stream(consumer);
+    }
+
+    /**
+     * Read the join of table Employee to table EmployeeIonic, passing each record to the consumer as it is read.
+     *
+     * @param consumer the recipient of each record
+     * @return the number of records processed
+     * @throws SQLException on database failures, or on consumer failure
+     */
+    public int streamEmployeeIonic(final RecordConsumer<EmployeeIonic> consumer) throws SQLException {
+        selectJoin.prepare();
+        return selectJoin.stream(consumer);
+    }
+
+    /**
+     * Find the (still Ionic-protected) records having the requested personal identifier blind index.  As blind
+     * indexes may collide, each hit should be verified after it is unprotected.
+     *
+     * @param personalIdentifierIndex the blind index of the personal identifier to find
+     * @return the records having blind index "personalIdentifierIndex"
+     * @throws SQLException on database failures
+     */
+    public List<EmployeeIonic> findByPersonalIdentifierIndex(final String personalIdentifierIndex)
+            throws SQLException {
+        selectJoinByIndex.prepare().setString(1, personalIdentifierIndex);
+        final List<EmployeeIonic> hits = new ArrayList<EmployeeIonic>();
+        selectJoinByIndex.stream(new RecordConsumer<EmployeeIonic>() {
+            @Override
+            public void accept(final EmployeeIonic employeeIonic) {
+                hits.add(employeeIonic);
+            }
+        });
+        return hits;
+    }
+
+    /**
+     * Close the statements prepared by this object.  The connection is left open.
+     *
+     * @throws SQLException on failure to close a statement
+     */
+    @Override
+    public void close() throws SQLException {
+        SQLException exception = null;
+        for (LazyStatement statement : new LazyStatement[]{insertEmployee, insertEmployeeIonic,
+                selectEmployee, selectEmployeeIonic, selectJoin, selectJoinByIndex}) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                exception = (exception == null) ? e : exception;
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    /**
+     * A statement, prepared on first use and held until the object is closed.
+     */
+    private class LazyStatement {
+
+        /**
+         * The statement text.
+         */
+        private final String sql;
+
+        /**
+         * True if the database should return the generated "id" column of the inserted rows.
+         */
+        private final boolean generatedKeys;
+
+        /**
+         * The prepared statement; or null until first use.
+         */
+        private PreparedStatement statement;
+
+        /**
+         * Constructor.
+         *
+         * @param sql           the statement text
+         * @param generatedKeys true if the database should return the generated "id" column of the inserted rows
+         */
+        LazyStatement(final String sql, final boolean generatedKeys) {
+            this.sql = sql;
+            this.generatedKeys = generatedKeys;
+            this.statement = null;
+        }
+
+        /**
+         * @return the prepared statement
+         * @throws SQLException on failure to prepare the statement
+         */
+        PreparedStatement prepare() throws SQLException {
+            if (statement == null) {
+                if (sql == null) {
+                    throw new SQLException("statement not configured");
+                }
+                statement = generatedKeys
+                        ? connection.prepareStatement(sql, new String[]{COLUMN_ID}) : connection.prepareStatement(sql);
+                statement.setFetchSize(fetchSize);
+            }
+            return statement;
+        }
+
+        /**
+         * @return the prepared statement; only valid after {@link #prepare()}
+         */
+        PreparedStatement get() {
+            return statement;
+        }
+
+        /**
+         * Close the prepared statement, if any.
+         *
+         * @throws SQLException on failure to close the statement
+         */
+        void close() throws SQLException {
+            if (statement != null) {
+                try {
+                    statement.close();
+                } finally {
+                    statement = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * A query, prepared on first use, whose rows are converted by a {@link RowMapper} compiled on first execution.
+     *
+     * @param <T> the type of the record representation
+     */
+    private abstract class Query<T> extends LazyStatement {
+
+        /**
+         * The converter of each row of the query result; or null until first execution.
+         */
+        private RowMapper<T> mapper;
+
+        /**
+         * Constructor.
+         *
+         * @param sql the query text
+         */
+        Query(final String sql) {
+            super(sql, false);
+            this.mapper = null;
+        }
+
+        /**
+         * Compile the converter of the rows of the query result.
+         *
+         * @param metaData the metadata of the query result
+         * @return the converter of each row of the query result
+         * @throws SQLException if an expected column is missing from the query result
+         */
+        abstract RowMapper<T> compile(ResultSetMetaData metaData) throws SQLException;
+
+        /**
+         * Run the (prepared, with its parameters bound) query, passing each row of the result to the consumer as it
+         * is read.  As in {@link JdbcUtil#stream(Connection, String, int, RecordConsumer, Object...)}, autocommit is
+         * disabled for the duration of the query, so that the fetch size is honored.
+         *
+         * @param consumer the recipient of each row
+         * @return the number of rows processed
+         * @throws SQLException on database failures, or on consumer failure
+         */
+        int stream(final RecordConsumer<T> consumer) throws SQLException {
+            final boolean autoCommit = connection.getAutoCommit();
+            if (autoCommit) {
+                connection.setAutoCommit(false);
+            }
+            final long start = Metrics.start();
+            long handlingNano = 0L;
+            try (ResultSet resultSet = get().executeQuery()) {
+                if (mapper == null) {
+                    mapper = compile(resultSet.getMetaData());
+                }
+                int rows = 0;
+                while (resultSet.next()) {
+                    final long startRow = Metrics.start();
+                    final T record = mapper.map(resultSet);
+                    Metrics.stop(Stage.ROW_MAPPING, startRow);
+                    consumer.accept(record);
+                    handlingNano += Metrics.elapsed(startRow);
+                    ++rows;
+                }
+                return rows;
+            } finally {
+                // the handling of the rows is recorded in its own stages
+                Metrics.stop(Stage.SELECT, start, handlingNano);
+                if (autoCommit) {
+                    connection.setAutoCommit(true);
+                }
+            }
+        }
+    }
+
+    private static final String COLUMN_ID = "id";
+    private static final int PARAM_FIRST_NAME = 1;
+    private static final int PARAM_LAST_NAME = 2;
+    private static final int PARAM_PERSONAL_IDENTIFIER = 3;
+    private static final int PARAM_SALARY = 4;
+    private static final int PARAM_COUNTRY = 5;
+    private static final int PARAM_FID = 1;
+    private static final int PARAM_IONIC_PERSONAL_IDENTIFIER = 2;
+    private static final int PARAM_IONIC_SALARY = 3;
+    private static final int PARAM_IONIC_BLIND_INDEX = 4;
+    private static final int PARAM_IONIC_BUCKET = 5;
+}
@@ -1,14 +1,24 @@
 package com.ionic.sdk.addon.jdbc.usecase2.jdbc;
 
+import com.ionic.sdk.addon.jdbc.usecase2.employee.Employee;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonic;
 import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonicFields;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonicUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.key.BlindIndex;
+import com.ionic.sdk.addon.jdbc.usecase2.key.KeySource;
+import com.ionic.sdk.addon.jdbc.usecase2.metrics.Metrics;
+import com.ionic.sdk.addon.jdbc.usecase2.metrics.Stage;
+import com.ionic.sdk.error.IonicException;
+
 import org.apache.commons.dbutils.QueryRunner;
 import org.apache.commons.dbutils.ResultSetHandler;
+import org.apache.commons.dbutils.handlers.ColumnListHandler;
 
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
-import java.util.TreeMap;
 
 /**
  * Load the database table containing Ionic-protected data.
@@ -19,22 +29,265 @@ import java.util.TreeMap;
  * The tests in this code sample cache the Ionic-protected content in memory, in order to simplify the needed logic.
  * In a real-world scenario, this caching strategy may be impractical, due to memory limitations.  An alternate (and
  * more complex) strategy would involve the introduction of stored procedure layer, or of an object-relational mapping
- * tool, in order to present these two database tables as a single logical table.
+ * tool, in order to present these two database tables as a single logical table.  A simpler alternative, available
+ * when reading, is to let the database join the two tables on the foreign key
+ * ({@link #streamEmployeeIonic(Connection, Properties, RecordConsumer)}).
  */
 public class EmployeeIonicJdbcUtil {
 
-    public static Map<Integer, EmployeeIonicFields> getIonicFields(
+    /**
+     * Read the database table containing Ionic-protected data into memory, indexed by the database id of each record.
+     * <p>
+     * The ids generated by the "id serial" column are expected to be contiguous, so the records are indexed by a
+     * {@link DenseIntObjectMap}.  Should the ids turn out to be sparse, the index is switched to an
+     * {@link OpenAddressingIntObjectMap}.  In either case, {@link IntObjectMap#sortedKeys()} provides id order.
+     *
+     * @param connection the database connection
+     * @param properties the sample project test properties
+     * @return the records of the table, indexed by database id
+     * @throws SQLException on database failures
+     */
+    public static IntObjectMap<EmployeeIonicFields> getIonicFields(
             final Connection connection, final Properties properties) throws SQLException {
-        final Map<Integer, EmployeeIonicFields> ionicFields = new TreeMap<Integer, EmployeeIonicFields>();
+        final IonicFieldsIndex index = new IonicFieldsIndex();
+        streamIonicFields(connection, properties, index);
+        return index.ionicFields;
+    }
+
+    /**
+     * Read the database table containing Ionic-protected data, passing each record to the consumer as it is read.  The
+     * table content is not held in memory.
+     *
+     * @param connection the database connection
+     * @param properties the sample project test properties
+     * @param consumer   the recipient of each record
+     * @return the number of records processed
+     * @throws SQLException on database failures, or on consumer failure
+     */
+    public static int streamIonicFields(final Connection connection, final Properties properties,
+                                        final RecordConsumer<EmployeeIonicFields> consumer) throws SQLException {
         final String sqlSelectEmployeeIonic = properties.getProperty("sql.select.employeeionic");
+        return JdbcUtil.stream(connection, sqlSelectEmployeeIonic, JdbcUtil.getFetchSize(properties),
+                new RecordConsumer<Object[]>() {
+                    @Override
+                    public void accept(final Object[] row) throws SQLException {
+                        consumer.accept(new EmployeeIonicFields((Integer) row[0], (String) row[1], (String) row[2],
+                                (row.length > COLUMN_INDEX_BLIND_INDEX) ? (String) row[COLUMN_INDEX_BLIND_INDEX] : null,
+                                (row.length > COLUMN_INDEX_BUCKET) ? (String) row[COLUMN_INDEX_BUCKET] : null));
+                    }
+                });
+    }
+
+    /**
+     * Read the records of the two database tables in a single query, passing each record to the consumer as it is
+     * read.  The configured query joins table Employee to table EmployeeIonic on the foreign key, so that the
+     * correlation of the records is done by the database, rather than in memory.
+     * <p>
+     * The query is expected to return the columns of table Employee (id, firstname, lastname, personalidentifier,
+     * salary, country), followed by the Ionic-protected columns of table EmployeeIonic (personalidentifier, salary).
+     *
+     * @param connection the database connection
+     * @param properties the sample project test properties
+     * @param consumer   the recipient of each record
+     * @return the number of records processed
+     * @throws SQLException on database failures, or on consumer failure
+     */
+    public static int streamEmployeeIonic(final Connection connection, final Properties properties,
+                                          final RecordConsumer<EmployeeIonic> consumer) throws SQLException {
+        final String sqlSelectEmployeeJoin = properties.getProperty("sql.select.employee.join");
+        return JdbcUtil.stream(connection, sqlSelectEmployeeJoin, JdbcUtil.getFetchSize(properties),
+                new RecordConsumer<Object[]>() {
+                    @Override
+                    public void accept(final Object[] row) throws SQLException {
+                        consumer.accept(toEmployeeIonic(row));
+                    }
+                });
+    }
+
+    /**
+     * Find the employee records having the requested personal identifier.
+     * <p>
+     * The blind index of the search term is calculated once, and the database finds the matching records using the
+     * (indexed) blind index column.  Only the matching records are unprotected; each is then verified against the
+     * search term, so that (improbable) blind index collisions are not returned.
+     *
+     * @param connection         the database connection
+     * @param properties         the sample project test properties
+     * @param personalIdentifier the personal identifier to find
+     * @param blindIndex         the blind index calculator for the personal identifier
+     * @param keySource          the key source; used to provide keys for cryptography operations
+     * @return the unprotected records having personal identifier "personalIdentifier"
+     * @throws SQLException   on database failures
+     * @throws IonicException on cryptography failures; if any needed key is not available
+     */
+    public static List<Employee> findByPersonalIdentifier(
+            final Connection connection, final Properties properties, final String personalIdentifier,
+            final BlindIndex blindIndex, final KeySource keySource) throws SQLException, IonicException {
+        final String sqlSelectByIndex = properties.getProperty("sql.select.employee.join.personalidentifier");
+        final List<EmployeeIonic> hits = new ArrayList<EmployeeIonic>();
+        JdbcUtil.stream(connection, sqlSelectByIndex, JdbcUtil.getFetchSize(properties),
+                new RecordConsumer<Object[]>() {
+                    @Override
+                    public void accept(final Object[] row) {
+                        hits.add(toEmployeeIonic(row));
+                    }
+                }, blindIndex.compute(personalIdentifier));
+        final List<Employee> employees = new ArrayList<Employee>(hits.size());
+        for (Employee employee : EmployeeIonicUtil.toEmployees(hits, keySource)) {
+            if (personalIdentifier.equals(employee.getPersonalIdentifier())) {
+                employees.add(employee);
+            }
+        }
+        return employees;
+    }
+
+    /**
+     * Convert a row of the joined Employee / EmployeeIonic query into its object representation.
+     *
+     * @param row the column values of the row
+     * @return the object representation of the row
+     */
+    public static EmployeeIonic toEmployeeIonic(final Object[] row) {
+        final int id = (Integer) row[0];
+        final Employee employee = new Employee(id, (String) row[1], (String) row[2],
+                (String) row[3], (Integer) row[4], (String) row[5]);
+        return new EmployeeIonic(employee, new EmployeeIonicFields(id, (String) row[6], (String) row[7]));
+    }
+
+    /**
+     * Store many records into the Employee and EmployeeIonic database tables.
+     * <p>
+     * The Employee records are inserted using JDBC batches, and the ids generated by the database for the batch are
+     * collected.  The matching EmployeeIonic records are then inserted using JDBC batches.  All inserts are done in a
+     * single transaction; on failure, no records are stored.
+     * <p>
+     * If the sample project properties configure a blind index HMAC key ("blindindex.key.id"), the blind index of
+     * each personal identifier and the salary range tag are stored along with the Ionic-protected fields, using
+     * "sql.insert.employeeionic.indexed".  Each record must then hold both (see
+     * {@link com.ionic.sdk.addon.jdbc.usecase2.employee.ProtectionOptions#get}).
+     *
+     * @param connection     the database connection
+     * @param properties     the sample project test properties
+     * @param employeesIonic the records to store
+     * @return the database ids of the stored records, in the same order as "employeesIonic"
+     * @throws SQLException on database failures
+     * @throws IllegalArgumentException if a blind index HMAC key is configured, and a record has no blind index or
+     *                                  salary range tag
+     */
+    public static List<Integer> insertEmployees(final Connection connection, final Properties properties,
+                                               final List<EmployeeIonic> employeesIonic) throws SQLException {
+        final String sqlInsertEmployee = properties.getProperty("sql.insert.employee");
+        final boolean indexed = BlindIndex.isConfigured(properties);
+        checkIndexed(employeesIonic, indexed);
+        final String sqlInsertEmployeeIonic = properties.getProperty(indexed
+                ? "sql.insert.employeeionic.indexed" : "sql.insert.employeeionic");
+        final int batchSize = JdbcUtil.getBatchSize(properties);
         final QueryRunner queryRunner = new QueryRunner();
-        final ResultSetHandler<RowSet> handler = new SampleResultSetHandler();
-        final RowSet rowSet = queryRunner.query(connection, sqlSelectEmployeeIonic, handler);
-        for (Object[] row : rowSet) {
-            final EmployeeIonicFields eif = new EmployeeIonicFields(
-                    (Integer) row[0], (String) row[1], (String) row[2]);
+        final ResultSetHandler<List<Integer>> handler = new ColumnListHandler<Integer>(COLUMN_ID);
+        final List<Integer> ids = new ArrayList<Integer>(employeesIonic.size());
+        final boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            for (int from = 0; (from < employeesIonic.size()); from += batchSize) {
+                final List<EmployeeIonic> batch =
+                        employeesIonic.subList(from, Math.min(employeesIonic.size(), from + batchSize));
+                // store employee records (to get record keys)
+                final Object[][] paramsEmployee = new Object[batch.size()][];
+                for (int i = 0; (i < paramsEmployee.length); ++i) {
+                    final EmployeeIonic ei = batch.get(i);
+                    paramsEmployee[i] = new Object[]{ei.getFirstName(), ei.getLastName(),
+                            ei.getPersonalIdentifier(), ei.getSalary(), ei.getCountry()};
+                }
+                long start = Metrics.start();
+                final List<Integer> idsBatch =
+                        queryRunner.insertBatch(connection, sqlInsertEmployee, handler, paramsEmployee);
+                Metrics.stop(Stage.INSERT, start);
+                if (idsBatch.size() != batch.size()) {
+                    throw new SQLException(String.format(
+                            "inserted %d records, received %d ids", batch.size(), idsBatch.size()));
+                }
+                // store employeeionic records
+                final Object[][] paramsEmployeeIonic = new Object[batch.size()][];
+                for (int i = 0; (i < paramsEmployeeIonic.length); ++i) {
+                    final EmployeeIonicFields eif = batch.get(i).getIonicFields();
+                    paramsEmployeeIonic[i] = indexed
+                            ? new Object[]{idsBatch.get(i), eif.getPersonalIdentifier(), eif.getSalary(),
+                            eif.getPersonalIdentifierIndex(), eif.getSalaryBucket()}
+                            : new Object[]{idsBatch.get(i), eif.getPersonalIdentifier(), eif.getSalary()};
+                }
+                start = Metrics.start();
+                queryRunner.batch(connection, sqlInsertEmployeeIonic, paramsEmployeeIonic);
+                Metrics.stop(Stage.INSERT, start);
+                ids.addAll(idsBatch);
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            throw JdbcUtil.rollback(connection, e);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        return ids;
+    }
+
+    /**
+     * Check records before they are stored; records stored without their blind index could not be found by personal
+     * identifier, and records stored without their salary range tag would be missed by salary range queries.
+     *
+     * @param employeesIonic the records about to be stored
+     * @param indexed        true, if records are stored with their blind index and salary range tag
+     * @throws IllegalArgumentException if the records should hold their blind index and salary range tag, and any
+     *                                  does not
+     */
+    static void checkIndexed(final List<EmployeeIonic> employeesIonic, final boolean indexed) {
+        for (EmployeeIonic employeeIonic : employeesIonic) {
+            if (indexed && (employeeIonic.getIonicFields().getPersonalIdentifierIndex() == null)) {
+                throw new IllegalArgumentException("blind index not calculated for record " + employeeIonic.getId());
+            }
+            if (indexed && (employeeIonic.getIonicFields().getSalaryBucket() == null)) {
+                throw new IllegalArgumentException("salary range tag not calculated for record "
+                        + employeeIonic.getId());
+            }
+        }
+    }
+
+    /**
+     * Indexes records of table EmployeeIonic by database id as they are read.
+     */
+    private static class IonicFieldsIndex implements RecordConsumer<EmployeeIonicFields> {
+
+        /**
+         * The records read so far, indexed by database id.
+         */
+        private IntObjectMap<EmployeeIonicFields> ionicFields = new DenseIntObjectMap<EmployeeIonicFields>();
+
+        @Override
+        public void accept(final EmployeeIonicFields eif) {
+            // switch before the put; growing the dense array to cover an outlying id could exhaust the heap
+            if ((ionicFields instanceof DenseIntObjectMap)
+                    && ((DenseIntObjectMap<EmployeeIonicFields>) ionicFields).isSparse(eif.getId())) {
+                final IntObjectMap<EmployeeIonicFields> copy =
+                        new OpenAddressingIntObjectMap<EmployeeIonicFields>(ionicFields.size());
+                for (int id : ionicFields.keys()) {
+                    copy.put(id, ionicFields.get(id));
+                }
+                ionicFields = copy;
+            }
             ionicFields.put(eif.getId(), eif);
         }
-        return ionicFields;
     }
+
+    /**
+     * The name of the column holding the database id of an Employee record.
+     */
+    private static final String COLUMN_ID = "id";
+
+    /**
+     * The position of the (optional) blind index column in a record of table EmployeeIonic.
+     */
+    private static final int COLUMN_INDEX_BLIND_INDEX = 3;
+
+    /**
+     * The position of the (optional) salary range tag column in a record of table EmployeeIonic.
+     */
+    private static final int COLUMN_INDEX_BUCKET = 4;
 }
@@ -0,0 +1,48 @@
+package com.ionic.sdk.addon.jdbc.usecase2.jdbc;
+
+/**
+ * A map from primitive int keys (such as database record ids) to object values.  Unlike
+ * {@link java.util.Map Map&lt;Integer, V&gt;}, no key is boxed and no per-entry node is allocated.
+ * <p>
+ * Null values are not supported.  Iteration order is unspecified, unless sorted keys are requested.
+ *
+ * @param <V> the type of the mapped values
+ */
+public interface IntObjectMap<V> {
+
+    /**
+     * @param key the key whose associated value is to be returned
+     * @return the value associated with "key", or null if there is none
+     */
+    V get(int key);
+
+    /**
+     * Associate the value with the key, replacing any previous association.
+     *
+     * @param key   the key with which "value" is to be associated
+     * @param value the (non-null) value to be associated with "key"
+     * @return the value previously associated with "key", or null if there was none
+     */
+    V put(int key, V value);
+
+    /**
+     * @param key the key to look up
+     * @return true if the map contains a value for "key"
+     */
+    boolean containsKey(int key);
+
+    /**
+     * @return the number of key-value associations in the map
+     */
+    int size();
+
+    /**
+     * @return the keys of the map, in unspecified order
+     */
+    int[] keys();
+
+    /**
+     * @return the keys of the map, in ascending order
+     */
+    int[] sortedKeys();
+}
@@ -1,11 +1,19 @@
 package com.ionic.sdk.addon.jdbc.usecase2.jdbc;
 
-import java.nio.ByteBuffer;
+import com.ionic.sdk.core.codec.Transcoder;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Date;
 
 /**
  * The Ionic chunk cipher implementation used by this sample project provides for the reversible encryption of byte
  * arrays and strings.  For non-string types (such as integers), conversion of the data to byte arrays is necessary as
  * a prerequisite step.
+ * <p>
+ * Fixed size types are encoded big-endian.  For each fixed size type, a variant is provided that reads from / writes
+ * to a caller-supplied buffer at an offset, so that the per-record conversion need not allocate.  A buffer held by
+ * each thread ({@link #getScratchBuffer()}) may be used for values which are encrypted or decrypted immediately.
  */
 public class IonicTypes {
 
@@ -17,22 +25,217 @@ public class IonicTypes {
      * @return the byte[] representation of "value"
      */
     public static byte[] toBytes(final int value) {
-        final ByteBuffer byteBuffer = ByteBuffer.allocate(SIZE_INT32);
-        return byteBuffer.putInt(value).array();
+        final byte[] bytes = new byte[SIZE_INT32];
+        putInt(bytes, 0, value);
+        return bytes;
     }
 
     /**
-     * Convert the input byte array to the equivalent integer.
+     * Convert the input byte array to the equivalent integer.  If the input is longer than an integer, the trailing
+     * bytes are used.
      *
      * @param value the byte[] value to be converted
      * @return the int representation of "value"
      */
     public static int toInt(final byte[] value) {
-        int offset = value.length - SIZE_INT32;
-        final ByteBuffer byteBuffer = ByteBuffer.allocate(SIZE_INT32);
-        byteBuffer.put(value, offset, SIZE_INT32);
-        return byteBuffer.getInt(0);
+        return getInt(value, value.length - SIZE_INT32);
+    }
+
+    /**
+     * Convert the leading bytes of the input buffer to the equivalent integer.  If the leading bytes are longer than
+     * an integer, the trailing bytes of those are used.
+     *
+     * @param buffer the source buffer
+     * @param length the number of bytes of "buffer" holding the value
+     * @return the int representation of the value
+     */
+    public static int toInt(final byte[] buffer, final int length) {
+        return getInt(buffer, length - SIZE_INT32);
+    }
+
+    /**
+     * Write the byte[] representation of the input integer into a caller-supplied buffer.
+     *
+     * @param buffer the destination buffer
+     * @param offset the position in "buffer" at which to write
+     * @param value  the int value to be converted
+     * @return the position in "buffer" following the written bytes
+     */
+    public static int putInt(final byte[] buffer, final int offset, final int value) {
+        buffer[offset] = (byte) (value >>> SHIFT_3);
+        buffer[offset + 1] = (byte) (value >>> SHIFT_2);
+        buffer[offset + 2] = (byte) (value >>> SHIFT_1);
+        buffer[offset + 3] = (byte) value;
+        return offset + SIZE_INT32;
+    }
+
+    /**
+     * Read an integer from its byte[] representation in a caller-supplied buffer.
+     *
+     * @param buffer the source buffer
+     * @param offset the position in "buffer" at which to read
+     * @return the int value
+     */
+    public static int getInt(final byte[] buffer, final int offset) {
+        return ((buffer[offset] & MASK_BYTE) << SHIFT_3)
+                | ((buffer[offset + 1] & MASK_BYTE) << SHIFT_2)
+                | ((buffer[offset + 2] & MASK_BYTE) << SHIFT_1)
+                | (buffer[offset + 3] & MASK_BYTE);
+    }
+
+    /**
+     * Convert the input long to a byte array.
+     *
+     * @param value the long value to be converted
+     * @return the byte[] representation of "value"
+     */
+    public static byte[] toBytes(final long value) {
+        final byte[] bytes = new byte[SIZE_INT64];
+        putLong(bytes, 0, value);
+        return bytes;
     }
 
+    /**
+     * Convert the input byte array to the equivalent long.  If the input is longer than a long, the trailing bytes
+     * are used.
+     *
+     * @param value the byte[] value to be converted
+     * @return the long representation of "value"
+     */
+    public static long toLong(final byte[] value) {
+        return getLong(value, value.length - SIZE_INT64);
+    }
+
+    /**
+     * Convert the leading bytes of the input buffer to the equivalent long.  If the leading bytes are longer than a
+     * long, the trailing bytes of those are used.
+     *
+     * @param buffer the source buffer
+     * @param length the number of bytes of "buffer" holding the value
+     * @return the long representation of the value
+     */
+    public static long toLong(final byte[] buffer, final int length) {
+        return getLong(buffer, length - SIZE_INT64);
+    }
+
+    /**
+     * Write the byte[] representation of the input long into a caller-supplied buffer.
+     *
+     * @param buffer the destination buffer
+     * @param offset the position in "buffer" at which to write
+     * @param value  the long value to be converted
+     * @return the position in "buffer" following the written bytes
+     */
+    public static int putLong(final byte[] buffer, final int offset, final long value) {
+        putInt(buffer, offset, (int) (value >>> Integer.SIZE));
+        return putInt(buffer, offset + SIZE_INT32, (int) value);
+    }
+
+    /**
+     * Read a long from its byte[] representation in a caller-supplied buffer.
+     *
+     * @param buffer the source buffer
+     * @param offset the position in "buffer" at which to read
+     * @return the long value
+     */
+    public static long getLong(final byte[] buffer, final int offset) {
+        return (((long) getInt(buffer, offset)) << Integer.SIZE)
+                | (getInt(buffer, offset + SIZE_INT32) & MASK_INT);
+    }
+
+    /**
+     * The buffer is reused by each call on the calling thread; its content must be consumed before the next call.
+     *
+     * @return a buffer held by the calling thread, large enough for the representation of any fixed size type
+     */
+    public static byte[] getScratchBuffer() {
+        return SCRATCH.get();
+    }
+
+    /**
+     * Convert the input date to a byte array.  The date is represented by its millisecond offset from the epoch.
+     *
+     * @param value the date value to be converted
+     * @return the byte[] representation of "value"
+     */
+    public static byte[] toBytes(final Date value) {
+        return toBytes(value.getTime());
+    }
+
+    /**
+     * Convert the input byte array to the equivalent date.
+     *
+     * @param value the byte[] value to be converted
+     * @return the date representation of "value"
+     */
+    public static Date toDate(final byte[] value) {
+        return new Date(toLong(value));
+    }
+
+    /**
+     * Convert the input decimal to a byte array.  The representation is the four byte scale, followed by the two's
+     * complement representation of the unscaled value.
+     *
+     * @param value the decimal value to be converted
+     * @return the byte[] representation of "value"
+     */
+    public static byte[] toBytes(final BigDecimal value) {
+        final byte[] unscaled = value.unscaledValue().toByteArray();
+        final byte[] bytes = new byte[SIZE_INT32 + unscaled.length];
+        final int offset = putInt(bytes, 0, value.scale());
+        System.arraycopy(unscaled, 0, bytes, offset, unscaled.length);
+        return bytes;
+    }
+
+    /**
+     * Convert the input byte array to the equivalent decimal.
+     *
+     * @param value the byte[] value to be converted
+     * @return the decimal representation of "value"
+     */
+    public static BigDecimal toBigDecimal(final byte[] value) {
+        final int scale = getInt(value, 0);
+        final byte[] unscaled = new byte[value.length - SIZE_INT32];
+        System.arraycopy(value, SIZE_INT32, unscaled, 0, unscaled.length);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    /**
+     * Convert the input string to a byte array, using the UTF-8 encoding.
+     *
+     * @param value the string value to be converted
+     * @return the byte[] representation of "value"
+     */
+    public static byte[] toBytes(final String value) {
+        return Transcoder.utf8().decode(value);
+    }
+
+    /**
+     * Convert the input byte array to the equivalent string, using the UTF-8 encoding.
+     *
+     * @param value the byte[] value to be converted
+     * @return the string representation of "value"
+     */
+    public static String toString(final byte[] value) {
+        return Transcoder.utf8().encode(value);
+    }
+
+    /**
+     * The buffer held by each thread, for the conversion of values of fixed size types.
+     */
+    private static final ThreadLocal<byte[]> SCRATCH = new ThreadLocal<byte[]>() {
+        @Override
+        protected byte[] initialValue() {
+            return new byte[SIZE_SCRATCH];
+        }
+    };
+
+    private static final int SIZE_SCRATCH = 16;
     private static final int SIZE_INT32 = Integer.SIZE / Byte.SIZE;
+    private static final int SIZE_INT64 = Long.SIZE / Byte.SIZE;
+    private static final int SHIFT_1 = Byte.SIZE;
+    private static final int SHIFT_2 = Byte.SIZE * 2;
+    private static final int SHIFT_3 = Byte.SIZE * 3;
+    private static final int MASK_BYTE = 0xff;
+    private static final long MASK_INT = 0xffffffffL;
 }
@@ -1,11 +1,19 @@
 package com.ionic.sdk.addon.jdbc.usecase2.jdbc;
 
+import com.ionic.sdk.addon.jdbc.usecase2.metrics.Metrics;
+import com.ionic.sdk.addon.jdbc.usecase2.metrics.Stage;
 import com.ionic.sdk.error.IonicException;
 import com.ionic.sdk.error.SdkError;
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.apache.commons.dbutils.QueryRunner;
+import org.apache.commons.dbutils.StatementConfiguration;
 
 import java.sql.Connection;
 import java.sql.Driver;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
 
 /**
@@ -15,6 +23,9 @@ public class JdbcUtil {
 
     /**
      * Open a connection to the database specified in the sample project properties.
+     * <p>
+     * Unless disabled in the sample project properties ("jdbc.pool.enabled"), connections are borrowed from a pool,
+     * and are returned to the pool when closed.
      *
      * @param propertiesTest the sample project test properties
      * @return a {@link Connection} object, suitable for database table inserts and queries
@@ -22,6 +33,9 @@ public class JdbcUtil {
      * @throws SQLException   on database connectivity failures
      */
     public static Connection getConnection(final Properties propertiesTest) throws IonicException, SQLException {
+        if (Boolean.parseBoolean(propertiesTest.getProperty("jdbc.pool.enabled", Boolean.TRUE.toString()))) {
+            return getDataSource(propertiesTest).getConnection();
+        }
         final String dbUser = propertiesTest.getProperty("jdbc.user");
         final String dbPassword = propertiesTest.getProperty("jdbc.password");
         final String dbDriver = propertiesTest.getProperty("jdbc.driver");
@@ -38,4 +52,205 @@ public class JdbcUtil {
             throw new IonicException(SdkError.ISAGENT_INVALIDVALUE, e);
         }
     }
+
+    /**
+     * Get the connection pool for the database specified in the sample project properties.  A single pool is
+     * maintained for each database url / user combination, and is created on first use.
+     *
+     * @param propertiesTest the sample project test properties
+     * @return the pooled {@link javax.sql.DataSource} for the configured database
+     * @throws IonicException on project misconfiguration
+     */
+    public static BasicDataSource getDataSource(final Properties propertiesTest) throws IonicException {
+        final String dbUser = propertiesTest.getProperty("jdbc.user");
+        final String dbUrl = propertiesTest.getProperty("jdbc.url");
+        final String name = dbUser + "@" + dbUrl;
+        synchronized (DATA_SOURCES) {
+            BasicDataSource dataSource = DATA_SOURCES.get(name);
+            if (dataSource == null) {
+                dataSource = createDataSource(propertiesTest);
+                DATA_SOURCES.put(name, dataSource);
+            }
+            return dataSource;
+        }
+    }
+
+    /**
+     * Describe the current state of the connection pool for the database specified in the sample project properties,
+     * in order to help size the pool.  The same values are available through JMX, when "jdbc.pool.jmx.name" is
+     * configured.
+     *
+     * @param propertiesTest the sample project test properties
+     * @return a text summary of the pool state
+     * @throws IonicException on project misconfiguration
+     */
+    public static String getPoolMetrics(final Properties propertiesTest) throws IonicException {
+        final BasicDataSource dataSource = getDataSource(propertiesTest);
+        return String.format("POOL %s: ACTIVE=%d, IDLE=%d, MIN_IDLE=%d, MAX_TOTAL=%d", dataSource.getUrl(),
+                dataSource.getNumActive(), dataSource.getNumIdle(), dataSource.getMinIdle(), dataSource.getMaxTotal());
+    }
+
+    /**
+     * Close all connection pools, releasing the associated database connections.
+     *
+     * @throws SQLException on failure to close a pool
+     */
+    public static void closeDataSources() throws SQLException {
+        synchronized (DATA_SOURCES) {
+            try {
+                for (BasicDataSource dataSource : DATA_SOURCES.values()) {
+                    dataSource.close();
+                }
+            } finally {
+                DATA_SOURCES.clear();
+            }
+        }
+    }
+
+    /**
+     * Create a connection pool, configured using the sample project properties.
+     *
+     * @param propertiesTest the sample project test properties
+     * @return the new connection pool
+     * @throws IonicException on project misconfiguration
+     */
+    private static BasicDataSource createDataSource(final Properties propertiesTest) throws IonicException {
+        final String dbDriver = propertiesTest.getProperty("jdbc.driver");
+        try {
+            Class.forName(dbDriver);
+        } catch (ClassNotFoundException e) {
+            throw new IonicException(SdkError.ISAGENT_INVALIDVALUE, e);
+        }
+        final BasicDataSource dataSource = new BasicDataSource();
+        dataSource.setDriverClassName(dbDriver);
+        dataSource.setUrl(propertiesTest.getProperty("jdbc.url"));
+        dataSource.setUsername(propertiesTest.getProperty("jdbc.user"));
+        dataSource.setPassword(propertiesTest.getProperty("jdbc.password"));
+        // pool size
+        final int minIdle = Integer.parseInt(propertiesTest.getProperty("jdbc.pool.size.min", "0"));
+        dataSource.setInitialSize(minIdle);
+        dataSource.setMinIdle(minIdle);
+        dataSource.setMaxTotal(Integer.parseInt(propertiesTest.getProperty("jdbc.pool.size.max", "8")));
+        dataSource.setMaxIdle(Integer.parseInt(propertiesTest.getProperty("jdbc.pool.size.max", "8")));
+        dataSource.setMaxWaitMillis(Long.parseLong(propertiesTest.getProperty("jdbc.pool.wait", "30000")));
+        // idle eviction
+        dataSource.setTimeBetweenEvictionRunsMillis(
+                Long.parseLong(propertiesTest.getProperty("jdbc.pool.idle.check", "30000")));
+        dataSource.setMinEvictableIdleTimeMillis(
+                Long.parseLong(propertiesTest.getProperty("jdbc.pool.idle.evict", "60000")));
+        // validation on borrow (if no query is configured, the JDBC4 Connection.isValid() check is used)
+        dataSource.setTestOnBorrow(true);
+        dataSource.setValidationQuery(propertiesTest.getProperty("jdbc.pool.validation.query"));
+        // statement caching
+        final int statementsMax = Integer.parseInt(propertiesTest.getProperty("jdbc.pool.statements.max", "0"));
+        dataSource.setPoolPreparedStatements(statementsMax > 0);
+        dataSource.setMaxOpenPreparedStatements(statementsMax);
+        // metrics
+        dataSource.setJmxName(propertiesTest.getProperty("jdbc.pool.jmx.name"));
+        return dataSource;
+    }
+
+    /**
+     * Run a query, passing each row of the result to the consumer as it is read.
+     * <p>
+     * The JDBC driver is asked to fetch rows from the database "fetchSize" at a time, rather than all at once.  Some
+     * drivers (PostgreSQL among them) only honor the fetch size inside of a transaction; autocommit is therefore
+     * disabled for the duration of the query, and restored afterwards.
+     *
+     * @param connection the database connection
+     * @param sql        the query to run
+     * @param fetchSize  the number of rows to fetch from the database in each round trip
+     * @param consumer   the recipient of each row
+     * @param params     the query parameters
+     * @return the number of rows processed
+     * @throws SQLException on database failures, or on consumer failure
+     */
+    public static int stream(final Connection connection, final String sql, final int fetchSize,
+                             final RecordConsumer<Object[]> consumer, final Object... params) throws SQLException {
+        final StatementConfiguration statementConfiguration =
+                new StatementConfiguration(null, fetchSize, null, null, null);
+        final QueryRunner queryRunner = new QueryRunner(statementConfiguration);
+        final boolean autoCommit = connection.getAutoCommit();
+        if (autoCommit) {
+            connection.setAutoCommit(false);
+        }
+        final StreamingResultSetHandler handler = new StreamingResultSetHandler(consumer);
+        final long start = Metrics.start();
+        try {
+            return queryRunner.query(connection, sql, handler, params);
+        } finally {
+            // the handling of the rows is recorded in its own stages
+            Metrics.stop(Stage.SELECT, start, handler.getHandlingNano());
+            if (autoCommit) {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Roll back the current transaction, after a failure.  A failure of the rollback itself is attached to the
+     * original failure (as a suppressed exception), so that the cause of the original failure is not lost.
+     *
+     * @param connection the database connection
+     * @param cause      the failure which aborted the transaction
+     * @param <T>        the type of the failure
+     * @return "cause", to be rethrown by the caller
+     */
+    public static <T extends Exception> T rollback(final Connection connection, final T cause) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            cause.addSuppressed(e);
+        }
+        return cause;
+    }
+
+    /**
+     * Discard the statements batched on a statement, after a failure.  A failure to discard them is attached to the
+     * original failure (as a suppressed exception), so that the cause of the original failure is not lost.
+     *
+     * @param statement the statement holding the batch
+     * @param cause     the failure which aborted the batch
+     * @param <T>       the type of the failure
+     * @return "cause", to be rethrown by the caller
+     */
+    public static <T extends Exception> T clearBatch(final Statement statement, final T cause) {
+        try {
+            statement.clearBatch();
+        } catch (SQLException e) {
+            cause.addSuppressed(e);
+        }
+        return cause;
+    }
+
+    /**
+     * @param propertiesTest the sample project test properties
+     * @return the configured number of rows to fetch from the database in each round trip
+     */
+    public static int getFetchSize(final Properties propertiesTest) {
+        return Integer.parseInt(propertiesTest.getProperty("jdbc.fetch.size", FETCH_SIZE_DEFAULT));
+    }
+
+    /**
+     * @param propertiesTest the sample project test properties
+     * @return the configured number of rows to send to the database in each JDBC batch
+     */
+    public static int getBatchSize(final Properties propertiesTest) {
+        return Integer.parseInt(propertiesTest.getProperty("jdbc.batch.size", BATCH_SIZE_DEFAULT));
+    }
+
+    /**
+     * The number of rows to fetch from the database in each round trip, if not otherwise configured.
+     */
+    private static final String FETCH_SIZE_DEFAULT = "1000";
+
+    /**
+     * The number of rows to send to the database in each JDBC batch, if not otherwise configured.
+     */
+    private static final String BATCH_SIZE_DEFAULT = "500";
+
+    /**
+     * The connection pools in use, indexed by database user and url.
+     */
+    private static final Map<String, BasicDataSource> DATA_SOURCES = new HashMap<String, BasicDataSource>();
 }
@@ -0,0 +1,98 @@
+package com.ionic.sdk.addon.jdbc.usecase2.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keyset pagination over a table with an integer primary key.
+ * <p>
+ * Each page is read by a separate short query, which resumes after the last key of the previous page, rather than
+ * by a single long-running query (or by an OFFSET, which the database would need to skip over).  The configured query
+ * is expected to take two parameters, the last key already read and the page size; and to return the key as the
+ * first column of each row, in ascending order.  For example:
+ * <pre>
+ * SELECT * FROM employee WHERE id &gt; ? ORDER BY id LIMIT ?
+ * </pre>
+ * The cursor position is the last key of the last page successfully processed.  A long-running read that fails may
+ * be resumed by constructing a new cursor at the saved position.
+ */
+public class KeysetCursor {
+
+    /**
+     * The query used to read each page.
+     */
+    private final String sql;
+
+    /**
+     * The maximum number of rows in each page.
+     */
+    private final int pageSize;
+
+    /**
+     * The key of the last row successfully processed.
+     */
+    private int position;
+
+    /**
+     * True once a page shorter than the page size has been read.
+     */
+    private boolean exhausted;
+
+    /**
+     * Constructor.
+     *
+     * @param sql      the query used to read each page
+     * @param pageSize the maximum number of rows in each page
+     * @param position the key after which to start reading (zero to read all of a table keyed by a serial column)
+     */
+    public KeysetCursor(final String sql, final int pageSize, final int position) {
+        this.sql = sql;
+        this.pageSize = pageSize;
+        this.position = position;
+        this.exhausted = false;
+    }
+
+    /**
+     * Read the next page of rows, and pass it to the consumer.  The cursor position is advanced only if the consumer
+     * completes successfully.
+     *
+     * @param connection the database connection
+     * @param consumer   the recipient of the page
+     * @return the number of rows in the page; zero if there are no more rows
+     * @throws SQLException on database failures, or on consumer failure
+     */
+    public int next(final Connection connection, final RecordConsumer<List<Object[]>> consumer) throws SQLException {
+        if (exhausted) {
+            return 0;
+        }
+        final List<Object[]> page = new ArrayList<Object[]>(pageSize);
+        JdbcUtil.stream(connection, sql, pageSize, new RecordConsumer<Object[]>() {
+            @Override
+            public void accept(final Object[] row) {
+                page.add(row);
+            }
+        }, position, pageSize);
+        if (!page.isEmpty()) {
+            consumer.accept(page);
+            position = ((Number) page.get(page.size() - 1)[0]).intValue();
+        }
+        exhausted = (page.size() < pageSize);
+        return page.size();
+    }
+
+    /**
+     * @return the key of the last row successfully processed; the position from which to resume reading
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * @return true if all rows have been read
+     */
+    public boolean isExhausted() {
+        return exhausted;
+    }
+}
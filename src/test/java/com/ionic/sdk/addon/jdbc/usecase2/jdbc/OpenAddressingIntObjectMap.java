@@ -0,0 +1,152 @@
+package com.ionic.sdk.addon.jdbc.usecase2.jdbc;
+
+import java.util.Arrays;
+
+/**
+ * {@link IntObjectMap} implementation using open addressing with linear probing.  Keys and values are held in two
+ * parallel arrays; a slot is empty when its value is null.  The table is kept at most half full, and is doubled in
+ * size as needed.
+ * <p>
+ * This implementation is suitable for arbitrary keys.  For keys which densely cover a range (such as the ids
+ * generated by a database serial column), {@link DenseIntObjectMap} is more compact.
+ *
+ * @param <V> the type of the mapped values
+ */
+public class OpenAddressingIntObjectMap<V> implements IntObjectMap<V> {
+
+    /**
+     * The key held in each slot of the table.
+     */
+    private int[] keys;
+
+    /**
+     * The value held in each slot of the table; null for an empty slot.
+     */
+    private Object[] values;
+
+    /**
+     * The number of key-value associations in the map.
+     */
+    private int size;
+
+    /**
+     * Constructor.
+     */
+    public OpenAddressingIntObjectMap() {
+        this(CAPACITY_DEFAULT);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param expectedSize the number of associations which the map should hold without resizing
+     */
+    public OpenAddressingIntObjectMap(final int expectedSize) {
+        final int capacity = Integer.highestOneBit(Math.max(CAPACITY_DEFAULT, expectedSize * 2 - 1)) << 1;
+        this.keys = new int[capacity];
+        this.values = new Object[capacity];
+        this.size = 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(final int key) {
+        final int mask = keys.length - 1;
+        for (int slot = hash(key) & mask; (values[slot] != null); slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return (V) values[slot];
+            }
+        }
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(final int key, final V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("null values are not supported");
+        }
+        final int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        for (; (values[slot] != null); slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                final V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(final int key) {
+        return (get(key) != null);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int[] keys() {
+        final int[] keysMap = new int[size];
+        int index = 0;
+        for (int slot = 0; (slot < keys.length); ++slot) {
+            if (values[slot] != null) {
+                keysMap[index++] = keys[slot];
+            }
+        }
+        return keysMap;
+    }
+
+    @Override
+    public int[] sortedKeys() {
+        final int[] keysMap = keys();
+        Arrays.sort(keysMap);
+        return keysMap;
+    }
+
+    /**
+     * Rehash the content of the map into a table of the requested capacity.
+     *
+     * @param capacity the new table size (a power of two)
+     */
+    private void resize(final int capacity) {
+        final int[] keysOld = keys;
+        final Object[] valuesOld = values;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        final int mask = capacity - 1;
+        for (int slotOld = 0; (slotOld < keysOld.length); ++slotOld) {
+            if (valuesOld[slotOld] != null) {
+                int slot = hash(keysOld[slotOld]) & mask;
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = keysOld[slotOld];
+                values[slot] = valuesOld[slotOld];
+            }
+        }
+    }
+
+    /**
+     * Sequential keys would otherwise occupy runs of adjacent slots, lengthening the probe sequences of colliding
+     * keys; the multiplication spreads them across the table.
+     *
+     * @param key the map key
+     * @return the scrambled hash of "key"
+     */
+    private static int hash(final int key) {
+        final int h = key * HASH_MULTIPLIER;
+        return h ^ (h >>> (Integer.SIZE / 2));
+    }
+
+    private static final int CAPACITY_DEFAULT = 16;
+    private static final int HASH_MULTIPLIER = 0x9e3779b9;
+}
@@ -0,0 +1,19 @@
+package com.ionic.sdk.addon.jdbc.usecase2.jdbc;
+
+import java.sql.SQLException;
+
+/**
+ * Callback used to process database records one at a time, as they are read from a {@link java.sql.ResultSet}.
+ *
+ * @param <T> the type of the record representation
+ */
+public interface RecordConsumer<T> {
+
+    /**
+     * Process a single record.
+     *
+     * @param record the record to process
+     * @throws SQLException on failure to process the record
+     */
+    void accept(T record) throws SQLException;
+}
@@ -0,0 +1,22 @@
+package com.ionic.sdk.addon.jdbc.usecase2.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Conversion of the current row of a {@link ResultSet} into its typed object representation.  Implementations are
+ * bound to the column layout of a particular query (see {@link RowMappers}).
+ *
+ * @param <T> the type of the record representation
+ */
+public interface RowMapper<T> {
+
+    /**
+     * Convert the current row.
+     *
+     * @param resultSet the result set, positioned on the row to convert
+     * @return the object representation of the row
+     * @throws SQLException on errors reading from the result set
+     */
+    T map(ResultSet resultSet) throws SQLException;
+}
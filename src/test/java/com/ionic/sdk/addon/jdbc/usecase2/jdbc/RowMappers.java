@@ -0,0 +1,143 @@
+package com.ionic.sdk.addon.jdbc.usecase2.jdbc;
+
+import com.ionic.sdk.addon.jdbc.usecase2.employee.Employee;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonic;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonicFields;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Locale;
+
+/**
+ * Factory of {@link RowMapper} implementations for the sample project records.
+ * <p>
+ * Each mapper is compiled once from the {@link ResultSetMetaData} of its query: the column labels are resolved to
+ * column indexes up front, and are held by the mapper.  Mapping a row is then limited to typed JDBC getter calls
+ * ({@link ResultSet#getInt(int)}, {@link ResultSet#getString(int)}) by index, without label lookups, boxing, or casts.
+ * <p>
+ * Where a query returns the same label more than once (as the join of table Employee to table EmployeeIonic does for
+ * "personalidentifier" and "salary"), the columns of table Employee are expected to come first.
+ */
+public class RowMappers {
+
+    /**
+     * Compile a mapper for the rows of table Employee.
+     *
+     * @param metaData the metadata of the query result
+     * @return a mapper bound to the column layout of the query result
+     * @throws SQLException if an expected column is missing from the query result
+     */
+    public static RowMapper<Employee> employee(final ResultSetMetaData metaData) throws SQLException {
+        final int columnId = getColumn(metaData, COLUMN_ID, 1);
+        final int columnFirstName = getColumn(metaData, COLUMN_FIRST_NAME, 1);
+        final int columnLastName = getColumn(metaData, COLUMN_LAST_NAME, 1);
+        final int columnPersonalIdentifier = getColumn(metaData, COLUMN_PERSONAL_IDENTIFIER, 1);
+        final int columnSalary = getColumn(metaData, COLUMN_SALARY, 1);
+        final int columnCountry = getColumn(metaData, COLUMN_COUNTRY, 1);
+        return new RowMapper<Employee>() {
+            @Override
+            public Employee map(final ResultSet resultSet) throws SQLException {
+                return new Employee(resultSet.getInt(columnId), resultSet.getString(columnFirstName),
+                        resultSet.getString(columnLastName), resultSet.getString(columnPersonalIdentifier),
+                        resultSet.getInt(columnSalary), resultSet.getString(columnCountry));
+            }
+        };
+    }
+
+    /**
+     * Compile a mapper for the rows of table EmployeeIonic.  The blind index and salary range tag columns are
+     * optional; if absent from the query result, the mapped records have null values for these fields.
+     *
+     * @param metaData the metadata of the query result
+     * @return a mapper bound to the column layout of the query result
+     * @throws SQLException if an expected column is missing from the query result
+     */
+    public static RowMapper<EmployeeIonicFields> employeeIonicFields(final ResultSetMetaData metaData)
+            throws SQLException {
+        final int columnId = getColumn(metaData, COLUMN_FID, 1);
+        final int columnPersonalIdentifier = getColumn(metaData, COLUMN_PERSONAL_IDENTIFIER, 1);
+        final int columnSalary = getColumn(metaData, COLUMN_SALARY, 1);
+        final int columnBlindIndex = findColumn(metaData, COLUMN_BLIND_INDEX, 1);
+        final int columnBucket = findColumn(metaData, COLUMN_BUCKET, 1);
+        return new RowMapper<EmployeeIonicFields>() {
+            @Override
+            public EmployeeIonicFields map(final ResultSet resultSet) throws SQLException {
+                return new EmployeeIonicFields(resultSet.getInt(columnId),
+                        resultSet.getString(columnPersonalIdentifier), resultSet.getString(columnSalary),
+                        (columnBlindIndex == 0) ? null : resultSet.getString(columnBlindIndex),
+                        (columnBucket == 0) ? null : resultSet.getString(columnBucket));
+            }
+        };
+    }
+
+    /**
+     * Compile a mapper for the rows of the join of table Employee to table EmployeeIonic.  The query is expected to
+     * return the columns of table Employee, followed by the Ionic-protected columns of table EmployeeIonic.
+     *
+     * @param metaData the metadata of the query result
+     * @return a mapper bound to the column layout of the query result
+     * @throws SQLException if an expected column is missing from the query result
+     */
+    public static RowMapper<EmployeeIonic> employeeIonic(final ResultSetMetaData metaData) throws SQLException {
+        final RowMapper<Employee> mapperEmployee = employee(metaData);
+        final int columnPersonalIdentifier = getColumn(metaData, COLUMN_PERSONAL_IDENTIFIER, 2);
+        final int columnSalary = getColumn(metaData, COLUMN_SALARY, 2);
+        return new RowMapper<EmployeeIonic>() {
+            @Override
+            public EmployeeIonic map(final ResultSet resultSet) throws SQLException {
+                final Employee employee = mapperEmployee.map(resultSet);
+                return new EmployeeIonic(employee, new EmployeeIonicFields(employee.getId(),
+                        resultSet.getString(columnPersonalIdentifier), resultSet.getString(columnSalary)));
+            }
+        };
+    }
+
+    /**
+     * Resolve a column label to its index in a query result.
+     *
+     * @param metaData   the metadata of the query result
+     * @param label      the (case-insensitive) label of the column
+     * @param occurrence which of the columns having the label to resolve (one for the first)
+     * @return the (one-based) index of the column
+     * @throws SQLException if there is no such column
+     */
+    private static int getColumn(final ResultSetMetaData metaData, final String label, final int occurrence)
+            throws SQLException {
+        final int column = findColumn(metaData, label, occurrence);
+        if (column == 0) {
+            throw new SQLException(String.format("column '%s' (%d) not found in query result", label, occurrence));
+        }
+        return column;
+    }
+
+    /**
+     * Resolve a column label to its index in a query result.
+     *
+     * @param metaData   the metadata of the query result
+     * @param label      the (case-insensitive) label of the column
+     * @param occurrence which of the columns having the label to resolve (one for the first)
+     * @return the (one-based) index of the column; or zero if there is no such column
+     * @throws SQLException on failure to read the metadata
+     */
+    private static int findColumn(final ResultSetMetaData metaData, final String label, final int occurrence)
+            throws SQLException {
+        int found = 0;
+        for (int i = 1; (i <= metaData.getColumnCount()); ++i) {
+            if (metaData.getColumnLabel(i).toLowerCase(Locale.ENGLISH).equals(label) && (++found == occurrence)) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    private static final String COLUMN_ID = "id";
+    private static final String COLUMN_FID = "fid";
+    private static final String COLUMN_FIRST_NAME = "firstname";
+    private static final String COLUMN_LAST_NAME = "lastname";
+    private static final String COLUMN_PERSONAL_IDENTIFIER = "personalidentifier";
+    private static final String COLUMN_SALARY = "salary";
+    private static final String COLUMN_COUNTRY = "country";
+    private static final String COLUMN_BLIND_INDEX = "personalidentifierbidx";
+    private static final String COLUMN_BUCKET = "salarybucket";
+}
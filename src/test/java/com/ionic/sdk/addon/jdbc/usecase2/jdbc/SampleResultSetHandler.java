@@ -1,5 +1,7 @@
 package com.ionic.sdk.addon.jdbc.usecase2.jdbc;
 
+import com.ionic.sdk.addon.jdbc.usecase2.metrics.Metrics;
+import com.ionic.sdk.addon.jdbc.usecase2.metrics.Stage;
 import org.apache.commons.dbutils.ResultSetHandler;
 
 import java.sql.ResultSet;
@@ -26,11 +28,13 @@ public class SampleResultSetHandler implements ResultSetHandler<RowSet> {
         final RowSet rowSet = new RowSet(metaData);
         final int columnCount = metaData.getColumnCount();
         while (resultSet.next()) {
+            final long start = Metrics.start();
             final Object[] row = new Object[columnCount];
             for (int i = 0; i < columnCount; ++i) {
                 //final String columnName = metaData.getColumnName(i + 1);
                 row[i] = resultSet.getObject(i + 1);
             }
+            Metrics.stop(Stage.ROW_MAPPING, start);
             rowSet.add(row);
         }
         return rowSet;
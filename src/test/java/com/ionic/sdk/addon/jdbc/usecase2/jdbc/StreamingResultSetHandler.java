@@ -0,0 +1,72 @@
+package com.ionic.sdk.addon.jdbc.usecase2.jdbc;
+
+import com.ionic.sdk.addon.jdbc.usecase2.metrics.Metrics;
+import com.ionic.sdk.addon.jdbc.usecase2.metrics.Stage;
+import org.apache.commons.dbutils.ResultSetHandler;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * Implementation of commons-dbutils interface {@link ResultSetHandler}.
+ * <p>
+ * Unlike {@link SampleResultSetHandler}, rows are not accumulated in memory.  Each row is passed to a
+ * {@link RecordConsumer} as it is read from the {@link ResultSet}, so that memory usage does not depend on the size of
+ * the table.
+ */
+public class StreamingResultSetHandler implements ResultSetHandler<Integer> {
+
+    /**
+     * The recipient of each row.
+     */
+    private final RecordConsumer<Object[]> consumer;
+
+    /**
+     * The time spent mapping rows and in the consumer, in nanoseconds.
+     */
+    private long handlingNano;
+
+    /**
+     * Constructor.
+     *
+     * @param consumer the recipient of each row
+     */
+    public StreamingResultSetHandler(final RecordConsumer<Object[]> consumer) {
+        this.consumer = consumer;
+    }
+
+    /**
+     * Pass each row of the ResultSet to the consumer.
+     *
+     * @param resultSet the JDBC {@link ResultSet} from the database
+     * @return the number of rows processed
+     * @throws SQLException on errors reading from the {@link ResultSet}, or on consumer failure
+     */
+    @Override
+    public Integer handle(final ResultSet resultSet) throws SQLException {
+        final ResultSetMetaData metaData = resultSet.getMetaData();
+        final int columnCount = metaData.getColumnCount();
+        int rows = 0;
+        while (resultSet.next()) {
+            final long start = Metrics.start();
+            final Object[] row = new Object[columnCount];
+            for (int i = 0; i < columnCount; ++i) {
+                row[i] = resultSet.getObject(i + 1);
+            }
+            Metrics.stop(Stage.ROW_MAPPING, start);
+            consumer.accept(row);
+            handlingNano += Metrics.elapsed(start);
+            ++rows;
+        }
+        return rows;
+    }
+
+    /**
+     * @return the time spent mapping rows and in the consumer, in nanoseconds; zero if latencies are not being
+     * recorded
+     */
+    public long getHandlingNano() {
+        return handlingNano;
+    }
+}
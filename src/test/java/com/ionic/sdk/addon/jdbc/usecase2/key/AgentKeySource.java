@@ -0,0 +1,106 @@
+package com.ionic.sdk.addon.jdbc.usecase2.key;
+
+import com.ionic.sdk.addon.jdbc.usecase2.metrics.Metrics;
+import com.ionic.sdk.addon.jdbc.usecase2.metrics.Stage;
+import com.ionic.sdk.agent.Agent;
+import com.ionic.sdk.agent.request.createkey.CreateKeysRequest;
+import com.ionic.sdk.agent.request.createkey.CreateKeysResponse;
+import com.ionic.sdk.agent.request.getkey.GetKeysRequest;
+import com.ionic.sdk.agent.request.getkey.GetKeysResponse;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.error.SdkError;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link KeySource} implementation backed by an Ionic {@link Agent}.  Key requests are grouped into batches, so that
+ * each key service round trip services up to "batchSize" keys.
+ */
+public class AgentKeySource implements KeySource {
+
+    /**
+     * The Ionic key services implementation.
+     */
+    private final Agent agent;
+
+    /**
+     * The maximum number of keys to request in a single key service round trip.
+     */
+    private final int batchSize;
+
+    /**
+     * Constructor.
+     *
+     * @param agent the Ionic key services implementation
+     */
+    public AgentKeySource(final Agent agent) {
+        this(agent, BATCH_SIZE_DEFAULT);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param agent     the Ionic key services implementation
+     * @param batchSize the maximum number of keys to request in a single key service round trip
+     */
+    public AgentKeySource(final Agent agent, final int batchSize) {
+        this.agent = agent;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public List<ProtectionKey> createKeys(final int quantity) throws IonicException {
+        final List<ProtectionKey> keys = new ArrayList<ProtectionKey>(quantity);
+        while (keys.size() < quantity) {
+            final int quantityBatch = Math.min(batchSize, quantity - keys.size());
+            final CreateKeysRequest request = new CreateKeysRequest();
+            request.add(new CreateKeysRequest.Key(REF_ID, quantityBatch));
+            final long start = Metrics.start();
+            final CreateKeysResponse response = agent.createKeys(request);
+            Metrics.stop(Stage.KEY_CREATE, start);
+            final List<CreateKeysResponse.Key> keysBatch = response.getKeys();
+            if (keysBatch.size() != quantityBatch) {
+                throw new IonicException(SdkError.ISAGENT_INVALIDVALUE, String.format(
+                        "requested %d keys, received %d", quantityBatch, keysBatch.size()));
+            }
+            for (CreateKeysResponse.Key key : keysBatch) {
+                keys.add(new ProtectionKey(key.getId(), key.getKey()));
+            }
+        }
+        return keys;
+    }
+
+    @Override
+    public Map<String, ProtectionKey> getKeys(final Collection<String> keyIds) throws IonicException {
+        final Map<String, ProtectionKey> keys = new HashMap<String, ProtectionKey>();
+        final Iterator<String> iterator = keyIds.iterator();
+        while (iterator.hasNext()) {
+            final GetKeysRequest request = new GetKeysRequest();
+            for (int i = 0; (i < batchSize) && iterator.hasNext(); ++i) {
+                request.add(iterator.next());
+            }
+            final long start = Metrics.start();
+            final GetKeysResponse response = agent.getKeys(request);
+            Metrics.stop(Stage.KEY_FETCH, start);
+            for (GetKeysResponse.Key key : response.getKeys()) {
+                keys.put(key.getId(), new ProtectionKey(key.getId(), key.getKey()));
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * The reference id associated with each key creation request.
+     */
+    private static final String REF_ID = "jdbc";
+
+    /**
+     * The default maximum number of keys to request in a single key service round trip.
+     */
+    public static final int BATCH_SIZE_DEFAULT = 1000;
+}
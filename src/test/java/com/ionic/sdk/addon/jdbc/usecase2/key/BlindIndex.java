@@ -0,0 +1,164 @@
+package com.ionic.sdk.addon.jdbc.usecase2.key;
+
+import com.ionic.sdk.core.codec.Transcoder;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.error.SdkError;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Keyed hash ("blind index") of a sensitive value, stored alongside its Ionic-protected representation so that the
+ * database can find records by equality on the value without being able to read it.
+ * <p>
+ * The Ionic-protected representation of a value is randomized (each encryption uses a new IV), so two protections of
+ * the same value differ, and the database cannot compare them.  The blind index is the HMAC-SHA256 of the value,
+ * truncated to 128 bits and base64 encoded without padding (22 characters).  Equal values yield equal blind indexes;
+ * without the HMAC key, the value cannot be recovered from (or tested against) the blind index.
+ * <p>
+ * Each blind index is bound to a context (typically the column name), which is mixed into the hash, so that equal
+ * values in different columns yield different blind indexes.  As truncation admits (improbable) collisions, a lookup
+ * should verify each hit after unprotecting it.  The HMAC key should be dedicated to this purpose, and must be kept for
+ * as long as the blind index column is in use.
+ * <p>
+ * The HMAC key is configured using the sample project property "blindindex.key.id".  Every process which writes or
+ * looks up the blind index column must use the same key.  If no key is configured, no blind index is calculated, and
+ * records are stored without one.
+ */
+public class BlindIndex {
+
+    /**
+     * The id of the HMAC key.
+     */
+    private final String keyId;
+
+    /**
+     * The context mixed into each hash.
+     */
+    private final byte[] context;
+
+    /**
+     * The HMAC calculator of each thread, initialized with the HMAC key.
+     */
+    private final ThreadLocal<Mac> macs;
+
+    /**
+     * Constructor.
+     *
+     * @param key     the HMAC key
+     * @param context the context mixed into each hash (typically the column name)
+     */
+    public BlindIndex(final ProtectionKey key, final String context) {
+        this.keyId = key.getId();
+        this.context = Transcoder.utf8().decode(context);
+        final SecretKeySpec keySpec = new SecretKeySpec(key.getKey(), ALGORITHM);
+        this.macs = new ThreadLocal<Mac>() {
+            @Override
+            protected Mac initialValue() {
+                try {
+                    final Mac mac = Mac.getInstance(ALGORITHM);
+                    mac.init(keySpec);
+                    return mac;
+                } catch (GeneralSecurityException e) {
+                    // every Java platform implementation is required to support HmacSHA256
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Create a blind index calculator, using an existing key as the HMAC key.
+     *
+     * @param keySource the key source; used to provide the HMAC key
+     * @param keyId     the id of the HMAC key
+     * @param context   the context mixed into each hash (typically the column name)
+     * @return the blind index calculator
+     * @throws IonicException if the key is not available
+     */
+    public static BlindIndex get(final KeySource keySource, final String keyId, final String context)
+            throws IonicException {
+        final Map<String, ProtectionKey> keys = keySource.getKeys(Collections.singletonList(keyId));
+        final ProtectionKey key = keys.get(keyId);
+        if (key == null) {
+            throw new IonicException(SdkError.ISAGENT_KEY_DENIED, keyId);
+        }
+        return new BlindIndex(key, context);
+    }
+
+    /**
+     * Create the blind index calculator configured in the sample project properties ("blindindex.key.id").
+     *
+     * @param keySource  the key source; used to provide the HMAC key
+     * @param properties the sample project test properties
+     * @param context    the context mixed into each hash (typically the column name)
+     * @return the blind index calculator; or null, if no HMAC key is configured
+     * @throws IonicException if the key is not available
+     */
+    public static BlindIndex get(final KeySource keySource, final Properties properties, final String context)
+            throws IonicException {
+        return isConfigured(properties)
+                ? get(keySource, properties.getProperty("blindindex.key.id"), context) : null;
+    }
+
+    /**
+     * @param properties the sample project test properties
+     * @return true, if an HMAC key is configured ("blindindex.key.id"); records are then stored with their blind index
+     */
+    public static boolean isConfigured(final Properties properties) {
+        return !properties.getProperty("blindindex.key.id", "").isEmpty();
+    }
+
+    /**
+     * @return the id of the HMAC key
+     */
+    public String getKeyId() {
+        return keyId;
+    }
+
+    /**
+     * Calculate the blind index of a value.  Values should be normalized (for example, trimmed) consistently before
+     * being indexed and before being looked up.
+     *
+     * @param value the sensitive value
+     * @return the blind index of "value"
+     */
+    public String compute(final String value) {
+        return compute(Transcoder.utf8().decode(value));
+    }
+
+    /**
+     * Calculate the blind index of a value.
+     *
+     * @param value the byte[] representation of the sensitive value
+     * @return the blind index of "value"
+     */
+    public String compute(final byte[] value) {
+        final Mac mac = macs.get();
+        mac.update(context);
+        mac.update((byte) 0);
+        final byte[] hash = mac.doFinal(value);
+        final byte[] truncated = new byte[SIZE_INDEX];
+        System.arraycopy(hash, 0, truncated, 0, SIZE_INDEX);
+        // the padding characters are omitted
+        return Transcoder.base64().encode(truncated).substring(0, LENGTH);
+    }
+
+    /**
+     * The context of the blind index of the employee personal identifier (column "personalidentifierbidx").
+     */
+    public static final String CONTEXT_PERSONAL_IDENTIFIER = "personalidentifier";
+
+    /**
+     * The context of the salary range tag of the employee salary (column "salarybucket").
+     */
+    public static final String CONTEXT_SALARY = "salary";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int SIZE_INDEX = 16;
+    private static final int LENGTH = 22;
+}
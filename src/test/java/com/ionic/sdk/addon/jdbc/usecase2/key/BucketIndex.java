@@ -0,0 +1,118 @@
+package com.ionic.sdk.addon.jdbc.usecase2.key;
+
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.IonicTypes;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.error.SdkError;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Keyed tag of the range ("bucket") into which a sensitive integer value falls, stored alongside its Ionic-protected
+ * representation so that the database can narrow a range query to candidate records without being able to read
+ * them.
+ * <p>
+ * Values are divided into buckets of a fixed width; the tag of a value is the {@link BlindIndex} of its bucket
+ * number.  A range query is translated into the set of tags of the buckets overlapping the range; the database
+ * returns the records having one of those tags, which are then unprotected, and filtered on the exact value.
+ * <p>
+ * The tags reveal which records share a bucket, but not the bucket bounds, nor the order of the buckets.  Wider
+ * buckets reveal less, at the cost of more candidate records to unprotect for each query.
+ * <p>
+ * The salary range tag uses the HMAC key of the blind index ("blindindex.key.id"; see {@link BlindIndex}), bound to
+ * its own context, and the bucket width "bucket.salary.width".  Every process which writes or queries the tag column
+ * must use the same key and width.
+ */
+public class BucketIndex {
+
+    /**
+     * The keyed hash applied to each bucket number.
+     */
+    private final BlindIndex blindIndex;
+
+    /**
+     * The width of each bucket.
+     */
+    private final int width;
+
+    /**
+     * Constructor.
+     *
+     * @param blindIndex the keyed hash applied to each bucket number
+     * @param width      the width of each bucket
+     */
+    public BucketIndex(final BlindIndex blindIndex, final int width) {
+        if (width <= 0) {
+            throw new IllegalArgumentException("bucket width must be positive: " + width);
+        }
+        this.blindIndex = blindIndex;
+        this.width = width;
+    }
+
+    /**
+     * Create the salary range tag calculator configured in the sample project properties ("blindindex.key.id",
+     * "bucket.salary.width").
+     *
+     * @param keySource  the key source; used to provide the HMAC key
+     * @param properties the sample project test properties
+     * @return the salary range tag calculator; or null, if no HMAC key is configured
+     * @throws IonicException if the key is not available
+     */
+    public static BucketIndex get(final KeySource keySource, final Properties properties) throws IonicException {
+        final BlindIndex blindIndex = BlindIndex.get(keySource, properties, BlindIndex.CONTEXT_SALARY);
+        return (blindIndex == null) ? null
+                : new BucketIndex(blindIndex, Integer.parseInt(properties.getProperty("bucket.salary.width")));
+    }
+
+    /**
+     * @return the width of each bucket
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @param value the sensitive value
+     * @return the bucket number of "value"
+     */
+    public int getBucket(final int value) {
+        return Math.floorDiv(value, width);
+    }
+
+    /**
+     * @param value the sensitive value
+     * @return the tag of the bucket into which "value" falls
+     */
+    public String tag(final int value) {
+        return blindIndex.compute(IonicTypes.toBytes(getBucket(value)));
+    }
+
+    /**
+     * Calculate the tags of all buckets which overlap a range of values.
+     *
+     * @param low  the lowest value in the range (inclusive)
+     * @param high the highest value in the range (inclusive)
+     * @return the tags of the buckets which may contain values in the range
+     * @throws IonicException if the range spans more than {@link #MAX_BUCKETS} buckets (a full scan would be needed)
+     */
+    public List<String> tags(final int low, final int high) throws IonicException {
+        final int bucketLow = getBucket(low);
+        final int bucketHigh = getBucket(high);
+        final long buckets = (long) bucketHigh - bucketLow + 1;
+        if (buckets > MAX_BUCKETS) {
+            throw new IonicException(SdkError.ISAGENT_INVALIDVALUE, String.format(
+                    "range [%d, %d] spans %d buckets", low, high, buckets));
+        }
+        final List<String> tags = new ArrayList<String>();
+        for (long bucket = bucketLow; (bucket <= bucketHigh); ++bucket) {
+            tags.add(blindIndex.compute(IonicTypes.toBytes((int) bucket)));
+        }
+        return tags;
+    }
+
+    /**
+     * The largest number of buckets which a range query may span.
+     */
+    public static final int MAX_BUCKETS = 1000;
+}
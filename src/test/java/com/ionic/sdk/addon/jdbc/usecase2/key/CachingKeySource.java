@@ -0,0 +1,311 @@
+package com.ionic.sdk.addon.jdbc.usecase2.key;
+
+import com.ionic.sdk.error.IonicException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link KeySource} implementation that remembers keys obtained from another key source, so that repeated reads of
+ * the same Ionic-protected records do not repeat the associated key service round trips.
+ * <p>
+ * The cache is bounded both by size and by time.  Each key is discarded once it has been held for the configured
+ * time to live, regardless of how recently it was used.  When the cache is full, the least recently used key is
+ * discarded.  The cache is divided into independently locked stripes (by key id hash), so that concurrent lookups of
+ * different keys seldom contend.
+ */
+public class CachingKeySource implements KeySource {
+
+    /**
+     * The key source consulted on a cache miss.
+     */
+    private final KeySource keySource;
+
+    /**
+     * The maximum time to hold a key, in nanoseconds.
+     */
+    private final long ttlNanos;
+
+    /**
+     * The independently locked partitions of the cache.
+     */
+    private final Stripe[] stripes;
+
+    /**
+     * The number of key lookups satisfied by the cache.
+     */
+    private final AtomicLong hits;
+
+    /**
+     * The number of key lookups forwarded to the wrapped key source.
+     */
+    private final AtomicLong misses;
+
+    /**
+     * The number of keys discarded from the cache, either due to size constraints or to expiry.
+     */
+    private final AtomicLong evictions;
+
+    /**
+     * Constructor.
+     *
+     * @param keySource the key source consulted on a cache miss
+     * @param maxSize   the maximum number of keys to hold
+     * @param ttlMillis the maximum time to hold a key, in milliseconds
+     */
+    public CachingKeySource(final KeySource keySource, final int maxSize, final long ttlMillis) {
+        this(keySource, maxSize, ttlMillis, STRIPES_DEFAULT);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param keySource   the key source consulted on a cache miss
+     * @param maxSize     the maximum number of keys to hold (at least one)
+     * @param ttlMillis   the maximum time to hold a key, in milliseconds
+     * @param stripeCount the number of independently locked partitions of the cache; reduced to "maxSize" if
+     *                    greater, so that each partition holds at least one key
+     */
+    public CachingKeySource(final KeySource keySource, final int maxSize, final long ttlMillis,
+                            final int stripeCount) {
+        this.keySource = keySource;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        final int maxSizeCache = Math.max(1, maxSize);
+        this.stripes = new Stripe[Math.max(1, Math.min(stripeCount, maxSizeCache))];
+        // the partition sizes add up to "maxSize"
+        for (int i = 0; (i < stripes.length); ++i) {
+            stripes[i] = new Stripe((maxSizeCache / stripes.length) + ((i < maxSizeCache % stripes.length) ? 1 : 0));
+        }
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+        this.evictions = new AtomicLong();
+    }
+
+    /**
+     * Newly created keys are added to the cache, as records are often read back soon after they are written.
+     */
+    @Override
+    public List<ProtectionKey> createKeys(final int quantity) throws IonicException {
+        final List<ProtectionKey> keys = keySource.createKeys(quantity);
+        final long now = System.nanoTime();
+        for (ProtectionKey key : keys) {
+            getStripe(key.getId()).put(key, now);
+        }
+        return keys;
+    }
+
+    @Override
+    public Map<String, ProtectionKey> getKeys(final Collection<String> keyIds) throws IonicException {
+        final Map<String, ProtectionKey> keys = new HashMap<String, ProtectionKey>();
+        final List<String> keyIdsMissing = new ArrayList<String>();
+        final long now = System.nanoTime();
+        for (String keyId : keyIds) {
+            final ProtectionKey key = getStripe(keyId).get(keyId, now);
+            if (key == null) {
+                keyIdsMissing.add(keyId);
+            } else {
+                keys.put(keyId, key);
+            }
+        }
+        hits.addAndGet(keys.size());
+        if (!keyIdsMissing.isEmpty()) {
+            misses.addAndGet(keyIdsMissing.size());
+            final Map<String, ProtectionKey> keysFetched = keySource.getKeys(keyIdsMissing);
+            final long nowFetched = System.nanoTime();
+            for (ProtectionKey key : keysFetched.values()) {
+                getStripe(key.getId()).put(key, nowFetched);
+            }
+            keys.putAll(keysFetched);
+        }
+        return keys;
+    }
+
+    /**
+     * Discard all keys which have been held longer than the configured time to live.  Expired keys are also
+     * discarded as they are encountered during normal use; this method may be called periodically to ensure that
+     * key material for records which are no longer being read is not retained.
+     */
+    public void purgeExpired() {
+        final long now = System.nanoTime();
+        for (Stripe stripe : stripes) {
+            stripe.purgeExpired(now);
+        }
+    }
+
+    /**
+     * Discard all keys held by the cache.
+     */
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    /**
+     * @return the number of keys currently held by the cache
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /**
+     * @return the number of key lookups satisfied by the cache
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of key lookups forwarded to the wrapped key source
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * @return the number of keys discarded from the cache, either due to size constraints or to expiry
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * @param keyId the id of the key of interest
+     * @return the cache partition responsible for the key
+     */
+    private Stripe getStripe(final String keyId) {
+        final int hash = keyId.hashCode();
+        return stripes[((hash ^ (hash >>> HASH_SPREAD)) & Integer.MAX_VALUE) % stripes.length];
+    }
+
+    /**
+     * Cache entry, associating a key with the time it was obtained.
+     */
+    private static class CacheEntry {
+
+        /**
+         * The cached key.
+         */
+        private final ProtectionKey key;
+
+        /**
+         * The time the key was added to the cache ({@link System#nanoTime()}).
+         */
+        private final long created;
+
+        /**
+         * Constructor.
+         *
+         * @param key     the cached key
+         * @param created the time the key was added to the cache
+         */
+        CacheEntry(final ProtectionKey key, final long created) {
+            this.key = key;
+            this.created = created;
+        }
+    }
+
+    /**
+     * An independently locked partition of the cache, with least recently used ordering.
+     */
+    private class Stripe extends LinkedHashMap<String, CacheEntry> {
+
+        /**
+         * The maximum number of keys to hold in this partition.
+         */
+        private final int maxSize;
+
+        /**
+         * Constructor.
+         *
+         * @param maxSize the maximum number of keys to hold in this partition
+         */
+        Stripe(final int maxSize) {
+            super(INITIAL_CAPACITY, LOAD_FACTOR, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, CacheEntry> eldest) {
+            final boolean remove = (size() > maxSize);
+            if (remove) {
+                evictions.incrementAndGet();
+            }
+            return remove;
+        }
+
+        /**
+         * @param keyId the id of the key of interest
+         * @param now   the current time ({@link System#nanoTime()})
+         * @return the cached key, or null if the key is not cached (or has expired)
+         */
+        synchronized ProtectionKey get(final String keyId, final long now) {
+            final CacheEntry entry = super.get(keyId);
+            if (entry == null) {
+                return null;
+            } else if (isExpired(entry, now)) {
+                remove(keyId);
+                evictions.incrementAndGet();
+                return null;
+            } else {
+                return entry.key;
+            }
+        }
+
+        /**
+         * @param key the key to cache
+         * @param now the current time ({@link System#nanoTime()})
+         */
+        synchronized void put(final ProtectionKey key, final long now) {
+            super.put(key.getId(), new CacheEntry(key, now));
+        }
+
+        /**
+         * @param now the current time ({@link System#nanoTime()})
+         */
+        synchronized void purgeExpired(final long now) {
+            final Iterator<CacheEntry> iterator = values().iterator();
+            while (iterator.hasNext()) {
+                if (isExpired(iterator.next(), now)) {
+                    iterator.remove();
+                    evictions.incrementAndGet();
+                }
+            }
+        }
+
+        @Override
+        public synchronized void clear() {
+            super.clear();
+        }
+
+        @Override
+        public synchronized int size() {
+            return super.size();
+        }
+
+        /**
+         * @param entry the cache entry of interest
+         * @param now   the current time ({@link System#nanoTime()})
+         * @return true, if the entry has been held longer than the configured time to live
+         */
+        private boolean isExpired(final CacheEntry entry, final long now) {
+            return (now - entry.created) >= ttlNanos;
+        }
+    }
+
+    private static final int STRIPES_DEFAULT = 16;
+    private static final int HASH_SPREAD = 16;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+}
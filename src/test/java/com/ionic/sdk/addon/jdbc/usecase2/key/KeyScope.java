@@ -0,0 +1,118 @@
+package com.ionic.sdk.addon.jdbc.usecase2.key;
+
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.error.SdkError;
+
+import java.util.Locale;
+
+/**
+ * The extent of data protected using a single key, when many records are Ionic-protected at once.
+ * <ul>
+ * <li>{@link #CELL}: each protected value of each record gets its own key (the default)</li>
+ * <li>{@link #ROW}: all protected values of a record share one key</li>
+ * <li>{@link #batch(int)}: all protected values of each run of N consecutive records share one key</li>
+ * </ul>
+ * <p>
+ * The key id is embedded in each Ionic-protected value in every case, so data protected under any scope is
+ * unprotected in the same way.  Wider scopes reduce the number of keys to be created (and later fetched) by the key
+ * service, at the cost of more data being exposed by the disclosure of any one key.
+ */
+public class KeyScope {
+
+    /**
+     * Each protected value gets its own key.
+     */
+    public static final KeyScope CELL = new KeyScope(0);
+
+    /**
+     * All protected values of a record share one key.
+     */
+    public static final KeyScope ROW = new KeyScope(1);
+
+    /**
+     * The number of records sharing each key, or zero if each protected value gets its own key.
+     */
+    private final int rowsPerKey;
+
+    /**
+     * Constructor.
+     *
+     * @param rowsPerKey the number of records sharing each key, or zero if each protected value gets its own key
+     */
+    private KeyScope(final int rowsPerKey) {
+        this.rowsPerKey = rowsPerKey;
+    }
+
+    /**
+     * @param rows the number of consecutive records sharing each key
+     * @return a scope in which all protected values of each run of "rows" records share one key
+     */
+    public static KeyScope batch(final int rows) {
+        if (rows < 1) {
+            throw new IllegalArgumentException(Integer.toString(rows));
+        }
+        return (rows == 1) ? ROW : new KeyScope(rows);
+    }
+
+    /**
+     * Parse the configured representation of a key scope: "cell", "row", or "batch:N".
+     *
+     * @param value the configured representation
+     * @return the key scope
+     * @throws IonicException if the representation is not recognized
+     */
+    public static KeyScope parse(final String value) throws IonicException {
+        final String valueNormal = value.trim().toLowerCase(Locale.ENGLISH);
+        if ("cell".equals(valueNormal)) {
+            return CELL;
+        } else if ("row".equals(valueNormal)) {
+            return ROW;
+        } else if (valueNormal.startsWith(PREFIX_BATCH)) {
+            try {
+                return batch(Integer.parseInt(valueNormal.substring(PREFIX_BATCH.length())));
+            } catch (IllegalArgumentException e) {
+                throw new IonicException(SdkError.ISAGENT_INVALIDVALUE, value);
+            }
+        } else {
+            throw new IonicException(SdkError.ISAGENT_INVALIDVALUE, value);
+        }
+    }
+
+    /**
+     * @return true, if each protected value gets its own key
+     */
+    public boolean isCell() {
+        return (rowsPerKey == 0);
+    }
+
+    /**
+     * @return the number of consecutive records sharing each key (not meaningful for {@link #CELL})
+     */
+    public int getRowsPerKey() {
+        return rowsPerKey;
+    }
+
+    /**
+     * @param rows         the number of records to be protected
+     * @param valuesNeeded the number of (non-null) values to be protected, across all records
+     * @return the number of keys needed to protect the records
+     */
+    public int getKeyCount(final int rows, final int valuesNeeded) {
+        return isCell() ? valuesNeeded : ((rows + rowsPerKey - 1) / rowsPerKey);
+    }
+
+    /**
+     * @param row the (zero-based) position of a record, within the records being protected
+     * @return the (zero-based) position of the key shared by the record (not meaningful for {@link #CELL})
+     */
+    public int getKeyIndex(final int row) {
+        return row / rowsPerKey;
+    }
+
+    @Override
+    public String toString() {
+        return isCell() ? "cell" : ((rowsPerKey == 1) ? "row" : (PREFIX_BATCH + rowsPerKey));
+    }
+
+    private static final String PREFIX_BATCH = "batch:";
+}
@@ -0,0 +1,36 @@
+package com.ionic.sdk.addon.jdbc.usecase2.key;
+
+import com.ionic.sdk.error.IonicException;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The subset of Ionic key services needed to protect and unprotect database records in bulk.
+ * <p>
+ * {@link com.ionic.sdk.agent.cipher.chunk.ChunkCipherV2} requests a key from the key service on each call to
+ * <code>encrypt()</code> and <code>decrypt()</code>.  When many records are to be processed, it is much more
+ * efficient to request all of the needed keys up front, and to apply them locally.  Implementations of this interface
+ * are expected to service each method call with as few key service round trips as possible.
+ */
+public interface KeySource {
+
+    /**
+     * Create new cryptography keys.
+     *
+     * @param quantity the number of keys needed
+     * @return the newly created keys; the list size is equal to "quantity"
+     * @throws IonicException on failure to create the requested keys
+     */
+    List<ProtectionKey> createKeys(int quantity) throws IonicException;
+
+    /**
+     * Fetch existing cryptography keys.
+     *
+     * @param keyIds the ids of the keys needed
+     * @return the requested keys, indexed by key id; keys which could not be fetched are absent from the map
+     * @throws IonicException on failure to communicate with the key service
+     */
+    Map<String, ProtectionKey> getKeys(Collection<String> keyIds) throws IonicException;
+}
@@ -0,0 +1,163 @@
+package com.ionic.sdk.addon.jdbc.usecase2.key;
+
+import com.ionic.sdk.addon.jdbc.usecase2.metrics.Metrics;
+import com.ionic.sdk.addon.jdbc.usecase2.metrics.Stage;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.error.SdkError;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for the Ionic key service, used to measure the effect of key service round trips without
+ * network access.  Each method call simulates a single round trip, by sleeping for the configured latency.
+ * <p>
+ * Keys are held in memory for the lifetime of the object.  This class is not suitable for protecting real data.
+ */
+public class LocalKeySource implements KeySource {
+
+    /**
+     * The simulated latency of a single key service round trip, in milliseconds.
+     */
+    private final long latencyMillis;
+
+    /**
+     * The keys created by this key source, indexed by key id.
+     */
+    private final Map<String, byte[]> keys;
+
+    /**
+     * The source of key ids and key bytes.
+     */
+    private final SecureRandom random;
+
+    /**
+     * The number of simulated key service round trips.
+     */
+    private final AtomicLong requests;
+
+    /**
+     * The number of simulated key service round trips currently in progress.
+     */
+    private final AtomicInteger inFlight;
+
+    /**
+     * The greatest number of simulated key service round trips which have been in progress at once.
+     */
+    private final AtomicInteger inFlightPeak;
+
+    /**
+     * Constructor.
+     *
+     * @param latencyMillis the simulated latency of a single key service round trip, in milliseconds
+     */
+    public LocalKeySource(final long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+        this.keys = new ConcurrentHashMap<String, byte[]>();
+        this.random = new SecureRandom();
+        this.requests = new AtomicLong();
+        this.inFlight = new AtomicInteger();
+        this.inFlightPeak = new AtomicInteger();
+    }
+
+    /**
+     * @return the number of simulated key service round trips
+     */
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * @return the greatest number of simulated key service round trips which have been in progress at once
+     */
+    public int getPeakInFlight() {
+        return inFlightPeak.get();
+    }
+
+    @Override
+    public List<ProtectionKey> createKeys(final int quantity) throws IonicException {
+        final long start = Metrics.start();
+        roundTrip();
+        Metrics.stop(Stage.KEY_CREATE, start);
+        final List<ProtectionKey> keysCreated = new ArrayList<ProtectionKey>(quantity);
+        for (int i = 0; (i < quantity); ++i) {
+            final String keyId = nextKeyId();
+            final byte[] key = new byte[SIZE_KEY];
+            random.nextBytes(key);
+            keys.put(keyId, key);
+            keysCreated.add(new ProtectionKey(keyId, key));
+        }
+        return keysCreated;
+    }
+
+    @Override
+    public Map<String, ProtectionKey> getKeys(final Collection<String> keyIds) throws IonicException {
+        final long start = Metrics.start();
+        roundTrip();
+        Metrics.stop(Stage.KEY_FETCH, start);
+        final Map<String, ProtectionKey> keysFetched = new HashMap<String, ProtectionKey>();
+        for (String keyId : keyIds) {
+            final byte[] key = keys.get(keyId);
+            if (key != null) {
+                keysFetched.put(keyId, new ProtectionKey(keyId, key));
+            }
+        }
+        return keysFetched;
+    }
+
+    /**
+     * Simulate the cost of a key service round trip.
+     *
+     * @throws IonicException if interrupted while waiting
+     */
+    private void roundTrip() throws IonicException {
+        requests.incrementAndGet();
+        final int inFlightNow = inFlight.incrementAndGet();
+        int peak = inFlightPeak.get();
+        while ((inFlightNow > peak) && !inFlightPeak.compareAndSet(peak, inFlightNow)) {
+            peak = inFlightPeak.get();
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IonicException(SdkError.ISAGENT_ERROR, e);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * @return a new random key id, of the same length and alphabet as an Ionic key id
+     */
+    private String nextKeyId() {
+        final char[] keyId = new char[SIZE_KEY_ID];
+        for (int i = 0; (i < keyId.length); ++i) {
+            keyId[i] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+        }
+        return new String(keyId);
+    }
+
+    /**
+     * The characters used to fabricate key ids.
+     */
+    private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789_-";
+
+    /**
+     * The length of an Ionic key id.
+     */
+    private static final int SIZE_KEY_ID = 11;
+
+    /**
+     * The length of an Ionic AES key, in bytes.
+     */
+    private static final int SIZE_KEY = 32;
+}
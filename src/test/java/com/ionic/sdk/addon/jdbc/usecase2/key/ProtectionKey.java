@@ -0,0 +1,43 @@
+package com.ionic.sdk.addon.jdbc.usecase2.key;
+
+/**
+ * Object representation of a cryptography key obtained from a key source.  No business logic, just typed data values.
+ */
+public class ProtectionKey {
+
+    /**
+     * The key id, as embedded in the {@link com.ionic.sdk.agent.cipher.chunk.ChunkCipherV2} representation of data
+     * protected with this key.
+     */
+    private final String id;
+
+    /**
+     * The AES key bytes.
+     */
+    private final byte[] key;
+
+    /**
+     * Constructor.
+     *
+     * @param id  the key id
+     * @param key the AES key bytes
+     */
+    public ProtectionKey(final String id, final byte[] key) {
+        this.id = id;
+        this.key = key;
+    }
+
+    /**
+     * @return the key id
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return the AES key bytes
+     */
+    public byte[] getKey() {
+        return key;
+    }
+}
@@ -0,0 +1,154 @@
+package com.ionic.sdk.addon.jdbc.usecase2.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent histogram of latencies, in nanoseconds.
+ * <p>
+ * Values are counted in log-linear buckets, in the manner of HdrHistogram: each power of two range is divided into
+ * sixteen equal sub-buckets, so that any recorded value is known to within 1/16 (6.25%), over the full range of long
+ * values, in a fixed footprint of under 8 KB.  Recording is lock-free, and does not allocate.
+ */
+public class LatencyHistogram {
+
+    /**
+     * The number of values recorded in each bucket.
+     */
+    private final AtomicLongArray counts;
+
+    /**
+     * The number of values recorded.
+     */
+    private final LongAdder count;
+
+    /**
+     * The sum of the values recorded.
+     */
+    private final LongAdder sum;
+
+    /**
+     * The largest value recorded.
+     */
+    private final AtomicLong max;
+
+    /**
+     * Constructor.
+     */
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(BUCKETS);
+        this.count = new LongAdder();
+        this.sum = new LongAdder();
+        this.max = new AtomicLong();
+    }
+
+    /**
+     * Record a value.  Negative values are recorded as zero.
+     *
+     * @param nanos the latency to record, in nanoseconds
+     */
+    public void record(final long nanos) {
+        final long value = Math.max(0L, nanos);
+        counts.incrementAndGet(getBucket(value));
+        count.increment();
+        sum.add(value);
+        long maxValue = max.get();
+        while ((value > maxValue) && !max.compareAndSet(maxValue, value)) {
+            maxValue = max.get();
+        }
+    }
+
+    /**
+     * @return the number of values recorded
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return the sum of the values recorded, in nanoseconds
+     */
+    public long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * @return the mean of the values recorded, in nanoseconds; or zero if none have been recorded
+     */
+    public double getMean() {
+        final long countValues = getCount();
+        return (countValues == 0L) ? 0.0 : ((double) getSum()) / countValues;
+    }
+
+    /**
+     * @return the largest value recorded, in nanoseconds
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Estimate the value below which the requested percentage of the recorded values fall.
+     *
+     * @param percentile the requested percentage, in the range [0, 100]
+     * @return the highest value of the bucket holding the requested percentile, in nanoseconds; or zero if no values
+     * have been recorded
+     */
+    public long getPercentile(final double percentile) {
+        final long countValues = getCount();
+        final long rank = Math.max(1L, (long) Math.ceil(countValues * Math.min(100.0, percentile) / 100.0));
+        long seen = 0L;
+        for (int bucket = 0; (bucket < BUCKETS); ++bucket) {
+            seen += counts.get(bucket);
+            if (seen >= rank) {
+                return Math.min(getMax(), getLowestValue(bucket + 1) - 1);
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Discard all recorded values.  Values recorded concurrently with the reset may be partially discarded.
+     */
+    public void reset() {
+        for (int bucket = 0; (bucket < BUCKETS); ++bucket) {
+            counts.set(bucket, 0L);
+        }
+        count.reset();
+        sum.reset();
+        max.set(0L);
+    }
+
+    /**
+     * @param value a (non-negative) value
+     * @return the index of the bucket in which "value" is counted
+     */
+    static int getBucket(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int magnitude = (Long.SIZE - 1) - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return ((magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS) + subBucket;
+    }
+
+    /**
+     * @param bucket the index of a bucket
+     * @return the lowest value counted in the bucket (for the bucket past the last, the largest long value)
+     */
+    static long getLowestValue(final int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        } else if (bucket >= BUCKETS) {
+            return Long.MAX_VALUE;
+        }
+        final int magnitude = (bucket / SUB_BUCKETS) + SUB_BUCKET_BITS - 1;
+        final long subBucket = SUB_BUCKETS + (bucket % SUB_BUCKETS);
+        return subBucket << (magnitude - SUB_BUCKET_BITS);
+    }
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+}
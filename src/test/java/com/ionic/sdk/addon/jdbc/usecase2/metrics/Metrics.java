@@ -0,0 +1,272 @@
+package com.ionic.sdk.addon.jdbc.usecase2.metrics;
+
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.error.SdkError;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Latency instrumentation of the sample project hot paths (key service calls, cryptography, and database calls).
+ * <p>
+ * Each instrumented call is bracketed by {@link #start()} and {@link #stop(Stage, long)}; its latency is recorded in
+ * the {@link LatencyHistogram} of its {@link Stage}.  When disabled (the default), {@link #start()} returns without
+ * reading the clock, and {@link #stop(Stage, long)} returns without recording, so that the instrumentation costs a
+ * single volatile read per call.
+ * <pre>
+ * final long start = Metrics.start();
+ * ... instrumented call ...
+ * Metrics.stop(Stage.INSERT, start);
+ * </pre>
+ * The instrumentation is configured using the sample project properties:
+ * <ul>
+ * <li>"metrics.enabled": true to record latencies</li>
+ * <li>"metrics.jmx.name": (optional) the JMX name under which to publish the statistics ({@link MetricsMXBean})</li>
+ * <li>"metrics.report.interval": (optional) the interval at which to log the statistics, in seconds</li>
+ * </ul>
+ */
+public class Metrics {
+
+    /**
+     * True if latencies are being recorded.
+     */
+    private static volatile boolean enabled = false;
+
+    /**
+     * The latencies recorded for each stage.
+     */
+    private static final Map<Stage, LatencyHistogram> HISTOGRAMS = createHistograms();
+
+    /**
+     * The periodic log reporter; or null if not configured.
+     */
+    private static ScheduledExecutorService reporter = null;
+
+    /**
+     * The JMX name under which the statistics are published; or null if not configured.
+     */
+    private static ObjectName objectName = null;
+
+    /**
+     * Class scoped logger.
+     */
+    private static final Logger LOGGER = Logger.getLogger(Metrics.class.getName());
+
+    /**
+     * Configure the instrumentation using the sample project properties.  The JMX publication and the log reporter
+     * are set up on the first call only.
+     *
+     * @param propertiesTest the sample project test properties
+     * @throws IonicException on project misconfiguration
+     */
+    public static synchronized void configure(final Properties propertiesTest) throws IonicException {
+        enabled = Boolean.parseBoolean(propertiesTest.getProperty("metrics.enabled", Boolean.FALSE.toString()));
+        final String jmxName = propertiesTest.getProperty("metrics.jmx.name", "");
+        if ((objectName == null) && !jmxName.isEmpty()) {
+            try {
+                final ObjectName name = new ObjectName(jmxName);
+                final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                if (!server.isRegistered(name)) {
+                    server.registerMBean(new StandardMBean(new MetricsBean(), MetricsMXBean.class, true), name);
+                }
+                objectName = name;
+            } catch (JMException e) {
+                throw new IonicException(SdkError.ISAGENT_INVALIDVALUE, e);
+            }
+        }
+        final long interval = Long.parseLong(propertiesTest.getProperty("metrics.report.interval", "0"));
+        if ((reporter == null) && (interval > 0L)) {
+            reporter = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    final Thread thread = new Thread(runnable, Metrics.class.getSimpleName());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            reporter.scheduleAtFixedRate(new Runnable() {
+                @Override
+                public void run() {
+                    if (!getStatistics().isEmpty()) {
+                        LOGGER.info(report());
+                    }
+                }
+            }, interval, interval, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Stop the log reporter, and withdraw the JMX publication.
+     *
+     * @throws IonicException on failure to withdraw the JMX publication
+     */
+    public static synchronized void shutdown() throws IonicException {
+        if (reporter != null) {
+            reporter.shutdownNow();
+            reporter = null;
+        }
+        if (objectName != null) {
+            try {
+                final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                if (server.isRegistered(objectName)) {
+                    server.unregisterMBean(objectName);
+                }
+            } catch (JMException e) {
+                throw new IonicException(SdkError.ISAGENT_INVALIDVALUE, e);
+            } finally {
+                objectName = null;
+            }
+        }
+    }
+
+    /**
+     * @return true if latencies are being recorded
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param enabledValue true to record latencies; false to stop recording
+     */
+    public static void setEnabled(final boolean enabledValue) {
+        enabled = enabledValue;
+    }
+
+    /**
+     * Mark the start of an instrumented call.
+     *
+     * @return the current time, in nanoseconds; or zero if latencies are not being recorded
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Mark the end of an instrumented call, and record its latency.
+     *
+     * @param stage the stage of the call
+     * @param start the value returned by {@link #start()} at the start of the call
+     */
+    public static void stop(final Stage stage, final long start) {
+        // a call started while disabled is not recorded
+        if (start != 0L) {
+            HISTOGRAMS.get(stage).record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Mark the end of an instrumented call, and record its latency, less the time spent within the call on work
+     * outside of the stage (such as the handling of each row of a query by its recipient).
+     *
+     * @param stage        the stage of the call
+     * @param start        the value returned by {@link #start()} at the start of the call
+     * @param excludedNano the time spent within the call on work outside of the stage, in nanoseconds, as totalled
+     *                     using {@link #elapsed(long)}
+     */
+    public static void stop(final Stage stage, final long start, final long excludedNano) {
+        // a call started while disabled is not recorded
+        if (start != 0L) {
+            HISTOGRAMS.get(stage).record(System.nanoTime() - start - excludedNano);
+        }
+    }
+
+    /**
+     * @param start the value returned by {@link #start()} at the start of an interval
+     * @return the time elapsed since "start", in nanoseconds; or zero if the interval started while disabled
+     */
+    public static long elapsed(final long start) {
+        return (start == 0L) ? 0L : (System.nanoTime() - start);
+    }
+
+    /**
+     * @param stage the stage of interest
+     * @return the latencies recorded for "stage"
+     */
+    public static LatencyHistogram get(final Stage stage) {
+        return HISTOGRAMS.get(stage);
+    }
+
+    /**
+     * @return a summary of the latencies recorded for each stage having recorded latencies
+     */
+    public static List<StageStatistics> getStatistics() {
+        final List<StageStatistics> statistics = new ArrayList<StageStatistics>();
+        for (Map.Entry<Stage, LatencyHistogram> entry : HISTOGRAMS.entrySet()) {
+            if (entry.getValue().getCount() > 0L) {
+                statistics.add(StageStatistics.of(entry.getKey(), entry.getValue()));
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * Discard all recorded latencies.
+     */
+    public static void reset() {
+        for (LatencyHistogram histogram : HISTOGRAMS.values()) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * @return a text summary of the latencies recorded for each stage, one stage per line
+     */
+    public static String report() {
+        final StringBuilder buffer = new StringBuilder("METRICS");
+        for (StageStatistics statistics : getStatistics()) {
+            buffer.append(System.lineSeparator()).append(statistics.toString());
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * @return a new histogram for each stage
+     */
+    private static Map<Stage, LatencyHistogram> createHistograms() {
+        final Map<Stage, LatencyHistogram> histograms = new EnumMap<Stage, LatencyHistogram>(Stage.class);
+        for (Stage stage : Stage.values()) {
+            histograms.put(stage, new LatencyHistogram());
+        }
+        return histograms;
+    }
+
+    /**
+     * The JMX view of the instrumentation.
+     */
+    private static class MetricsBean implements MetricsMXBean {
+
+        @Override
+        public boolean isEnabled() {
+            return Metrics.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(final boolean enabled) {
+            Metrics.setEnabled(enabled);
+        }
+
+        @Override
+        public List<StageStatistics> getStatistics() {
+            return Metrics.getStatistics();
+        }
+
+        @Override
+        public void reset() {
+            Metrics.reset();
+        }
+    }
+}
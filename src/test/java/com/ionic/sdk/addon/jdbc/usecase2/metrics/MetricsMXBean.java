@@ -0,0 +1,29 @@
+package com.ionic.sdk.addon.jdbc.usecase2.metrics;
+
+import java.util.List;
+
+/**
+ * JMX management interface for the sample project {@link Metrics}.
+ */
+public interface MetricsMXBean {
+
+    /**
+     * @return true if latencies are being recorded
+     */
+    boolean isEnabled();
+
+    /**
+     * @param enabled true to record latencies; false to stop recording
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * @return a summary of the latencies recorded for each stage
+     */
+    List<StageStatistics> getStatistics();
+
+    /**
+     * Discard all recorded latencies.
+     */
+    void reset();
+}
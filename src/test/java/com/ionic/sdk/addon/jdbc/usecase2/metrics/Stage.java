@@ -0,0 +1,41 @@
+package com.ionic.sdk.addon.jdbc.usecase2.metrics;
+
+/**
+ * The stages of record processing for which latencies are recorded by {@link Metrics}.
+ */
+public enum Stage {
+    /**
+     * A key service round trip to create keys.
+     */
+    KEY_CREATE,
+    /**
+     * A key service round trip to fetch existing keys.
+     */
+    KEY_FETCH,
+    /**
+     * The protection of a single value.
+     */
+    ENCRYPT,
+    /**
+     * The unprotection of a single value.
+     */
+    DECRYPT,
+    /**
+     * The protection or unprotection of a single value by the Ionic SDK cipher, including its key service round trip.
+     */
+    KEY_AND_CIPHER,
+    /**
+     * The execution of a single JDBC insert batch.
+     */
+    INSERT,
+    /**
+     * The execution of a single query, and the fetching of its rows.  The mapping of each row ({@link #ROW_MAPPING})
+     * and the handling of each record by its recipient (key fetches and decryption, among others) are excluded, as
+     * they are recorded in their own stages.
+     */
+    SELECT,
+    /**
+     * The mapping of a single {@link java.sql.ResultSet} row into its in-memory representation.
+     */
+    ROW_MAPPING
+}
@@ -0,0 +1,148 @@
+package com.ionic.sdk.addon.jdbc.usecase2.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Point in time summary of the latencies recorded for a single {@link Stage}.  No business logic, just typed data
+ * values.  Latencies are expressed in microseconds.
+ */
+public class StageStatistics {
+
+    /**
+     * The name of the stage.
+     */
+    private final String stage;
+
+    /**
+     * The number of latencies recorded.
+     */
+    private final long count;
+
+    /**
+     * The mean latency.
+     */
+    private final double mean;
+
+    /**
+     * The median latency.
+     */
+    private final double p50;
+
+    /**
+     * The 99th percentile latency.
+     */
+    private final double p99;
+
+    /**
+     * The largest latency.
+     */
+    private final double max;
+
+    /**
+     * The total of the latencies.
+     */
+    private final double total;
+
+    /**
+     * Constructor.
+     *
+     * @param stage the name of the stage
+     * @param count the number of latencies recorded
+     * @param mean  the mean latency, in microseconds
+     * @param p50   the median latency, in microseconds
+     * @param p99   the 99th percentile latency, in microseconds
+     * @param max   the largest latency, in microseconds
+     * @param total the total of the latencies, in microseconds
+     */
+    @ConstructorProperties({"stage", "count", "mean", "p50", "p99", "max", "total"})
+    public StageStatistics(final String stage, final long count, final double mean, final double p50,
+                           final double p99, final double max, final double total) {
+        this.stage = stage;
+        this.count = count;
+        this.mean = mean;
+        this.p50 = p50;
+        this.p99 = p99;
+        this.max = max;
+        this.total = total;
+    }
+
+    /**
+     * Summarize a latency histogram.
+     *
+     * @param stage     the stage whose latencies are recorded in "histogram"
+     * @param histogram the recorded latencies
+     * @return the summary of "histogram"
+     */
+    public static StageStatistics of(final Stage stage, final LatencyHistogram histogram) {
+        return new StageStatistics(stage.name(), histogram.getCount(), toMicros(histogram.getMean()),
+                toMicros(histogram.getPercentile(PERCENTILE_50)), toMicros(histogram.getPercentile(PERCENTILE_99)),
+                toMicros(histogram.getMax()), toMicros(histogram.getSum()));
+    }
+
+    /**
+     * @return the name of the stage
+     */
+    public String getStage() {
+        return stage;
+    }
+
+    /**
+     * @return the number of latencies recorded
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the mean latency, in microseconds
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * @return the median latency, in microseconds
+     */
+    public double getP50() {
+        return p50;
+    }
+
+    /**
+     * @return the 99th percentile latency, in microseconds
+     */
+    public double getP99() {
+        return p99;
+    }
+
+    /**
+     * @return the largest latency, in microseconds
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * @return the total of the latencies, in microseconds
+     */
+    public double getTotal() {
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: COUNT=%d, MEAN=%.1fus, P50=%.1fus, P99=%.1fus, MAX=%.1fus, TOTAL=%.0fus",
+                stage, count, mean, p50, p99, max, total);
+    }
+
+    /**
+     * @param nanos a duration, in nanoseconds
+     * @return the duration, in microseconds
+     */
+    private static double toMicros(final double nanos) {
+        return nanos / NANOS_PER_MICRO;
+    }
+
+    private static final double PERCENTILE_50 = 50.0;
+    private static final double PERCENTILE_99 = 99.0;
+    private static final double NANOS_PER_MICRO = 1000.0;
+}
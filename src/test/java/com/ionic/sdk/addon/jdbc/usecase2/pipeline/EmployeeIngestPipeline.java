@@ -0,0 +1,345 @@
+package com.ionic.sdk.addon.jdbc.usecase2.pipeline;
+
+import com.ionic.sdk.addon.jdbc.usecase2.employee.Employee;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonic;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonicFields;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonicUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.ProtectionOptions;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.EmployeeIonicJdbcUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.JdbcUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.key.BlindIndex;
+import com.ionic.sdk.addon.jdbc.usecase2.key.BucketIndex;
+import com.ionic.sdk.addon.jdbc.usecase2.key.KeyScope;
+import com.ionic.sdk.addon.jdbc.usecase2.key.KeySource;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.error.SdkError;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Staged pipeline for storing large numbers of new employee records.
+ * <p>
+ * Records submitted by the caller (the producer) are grouped into chunks.  Each chunk is Ionic-protected by a pool of
+ * encryption workers, and the protected chunks are then stored by a pool of database writers, each holding its own
+ * database connection.  The stages are connected by bounded queues; when a downstream stage falls behind, the
+ * upstream stage blocks, so that memory usage stays bounded.  This allows the cryptography work, the key service
+ * round trips, and the database round trips to overlap.
+ * <p>
+ * The pipeline is configured using the sample project properties:
+ * <ul>
+ * <li>"ingest.chunk.size": the number of records in each unit of work (defaults to "jdbc.batch.size")</li>
+ * <li>"ingest.encrypt.threads": the number of encryption workers</li>
+ * <li>"ingest.write.threads": the number of database writers</li>
+ * <li>"ingest.queue.capacity": the number of chunks which may wait between stages</li>
+ * <li>"ingest.key.scope": the extent of data protected using a single key (see {@link KeyScope#parse(String)})</li>
+ * <li>"blindindex.key.id": (optional) the HMAC key of the personal identifier blind index (see {@link BlindIndex})
+ * and of the salary range tag (see {@link BucketIndex})</li>
+ * <li>"bucket.salary.width": the width of each salary range, if "blindindex.key.id" is configured</li>
+ * </ul>
+ * <p>
+ * Records are not guaranteed to be stored in submission order.  The caller must call {@link #close()} to store any
+ * buffered records and to release the pipeline resources.
+ */
+public class EmployeeIngestPipeline implements AutoCloseable {
+
+    /**
+     * The key source; used to provide keys for cryptography operations.
+     */
+    private final KeySource keySource;
+
+    /**
+     * The sample project test properties.
+     */
+    private final Properties properties;
+
+    /**
+     * The number of records in each unit of work.
+     */
+    private final int chunkSize;
+
+    /**
+     * The key scope and (if configured) the index calculators used to protect each chunk.
+     */
+    private final ProtectionOptions options;
+
+    /**
+     * Chunks of records waiting to be Ionic-protected.
+     */
+    private final BlockingQueue<List<Employee>> queueEncrypt;
+
+    /**
+     * Chunks of Ionic-protected records waiting to be stored.
+     */
+    private final BlockingQueue<List<EmployeeIonic>> queueWrite;
+
+    /**
+     * The encryption workers.
+     */
+    private final ExecutorService executorEncrypt;
+
+    /**
+     * The database writers.
+     */
+    private final ExecutorService executorWrite;
+
+    /**
+     * Handles to the encryption workers, used to wait for their completion.
+     */
+    private final List<Future<Void>> futuresEncrypt;
+
+    /**
+     * Handles to the database writers, used to wait for their completion.
+     */
+    private final List<Future<Void>> futuresWrite;
+
+    /**
+     * The first failure encountered by any pipeline stage.
+     */
+    private final AtomicReference<Exception> failure;
+
+    /**
+     * The number of records stored.
+     */
+    private final AtomicLong recordsStored;
+
+    /**
+     * Records submitted by the producer, not yet passed to the encryption stage.
+     */
+    private List<Employee> chunk;
+
+    /**
+     * Constructor.  The pipeline workers are started immediately.
+     *
+     * @param keySource  the key source; used to provide keys for cryptography operations
+     * @param properties the sample project test properties
+     * @throws IonicException if the configured key scope is not recognized; if the configured blind index HMAC key is
+     *                        not available
+     */
+    public EmployeeIngestPipeline(final KeySource keySource, final Properties properties) throws IonicException {
+        this.keySource = keySource;
+        this.properties = properties;
+        this.chunkSize = Integer.parseInt(properties.getProperty(
+                "ingest.chunk.size", Integer.toString(JdbcUtil.getBatchSize(properties))));
+        this.options = ProtectionOptions.get(
+                keySource, properties, KeyScope.parse(properties.getProperty("ingest.key.scope", "cell")));
+        final int threadsEncrypt = Integer.parseInt(properties.getProperty("ingest.encrypt.threads", "2"));
+        final int threadsWrite = Integer.parseInt(properties.getProperty("ingest.write.threads", "2"));
+        final int queueCapacity = Integer.parseInt(properties.getProperty("ingest.queue.capacity", "4"));
+        this.queueEncrypt = new ArrayBlockingQueue<List<Employee>>(queueCapacity);
+        this.queueWrite = new ArrayBlockingQueue<List<EmployeeIonic>>(queueCapacity);
+        this.executorEncrypt = Executors.newFixedThreadPool(threadsEncrypt);
+        this.executorWrite = Executors.newFixedThreadPool(threadsWrite);
+        this.failure = new AtomicReference<Exception>();
+        this.recordsStored = new AtomicLong();
+        this.chunk = new ArrayList<Employee>(chunkSize);
+        this.futuresEncrypt = new ArrayList<Future<Void>>();
+        for (int i = 0; (i < threadsEncrypt); ++i) {
+            futuresEncrypt.add(executorEncrypt.submit(new EncryptWorker()));
+        }
+        this.futuresWrite = new ArrayList<Future<Void>>();
+        for (int i = 0; (i < threadsWrite); ++i) {
+            futuresWrite.add(executorWrite.submit(new WriteWorker()));
+        }
+    }
+
+    /**
+     * Add a record to the pipeline.  This call blocks if the pipeline is at capacity.
+     *
+     * @param employee the new record to be Ionic-protected and stored
+     * @throws IonicException       if a pipeline stage has failed
+     * @throws InterruptedException if interrupted while waiting for pipeline capacity
+     */
+    public void submit(final Employee employee) throws IonicException, InterruptedException {
+        chunk.add(employee);
+        if (chunk.size() >= chunkSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Pass any buffered records to the encryption stage.  This call blocks if the pipeline is at capacity.
+     *
+     * @throws IonicException       if a pipeline stage has failed
+     * @throws InterruptedException if interrupted while waiting for pipeline capacity
+     */
+    public void flush() throws IonicException, InterruptedException {
+        if (!chunk.isEmpty()) {
+            put(queueEncrypt, chunk);
+            chunk = new ArrayList<Employee>(chunkSize);
+        }
+    }
+
+    /**
+     * @return the number of records stored so far
+     */
+    public long getRecordsStored() {
+        return recordsStored.get();
+    }
+
+    /**
+     * Store any buffered records, wait for all pipeline stages to finish, and release the pipeline resources.
+     *
+     * @throws IonicException       on cryptography failures in the encryption stage
+     * @throws SQLException         on database failures in the write stage
+     * @throws InterruptedException if interrupted while waiting for the pipeline stages to finish
+     */
+    @Override
+    public void close() throws IonicException, SQLException, InterruptedException {
+        try {
+            if (failure.get() == null) {
+                flush();
+                for (int i = 0; (i < futuresEncrypt.size()); ++i) {
+                    put(queueEncrypt, END_ENCRYPT);
+                }
+                await(futuresEncrypt);
+                for (int i = 0; (i < futuresWrite.size()); ++i) {
+                    put(queueWrite, END_WRITE);
+                }
+                await(futuresWrite);
+            }
+        } catch (IonicException e) {
+            fail(e);  // no effect if a pipeline stage failure has already been recorded
+        } finally {
+            executorEncrypt.shutdownNow();
+            executorWrite.shutdownNow();
+        }
+        final Exception e = failure.get();
+        if (e instanceof IonicException) {
+            throw (IonicException) e;
+        } else if (e instanceof SQLException) {
+            throw (SQLException) e;
+        } else if (e != null) {
+            throw new IonicException(SdkError.ISAGENT_ERROR, e);
+        }
+    }
+
+    /**
+     * Wait for the completion of the workers of a pipeline stage.
+     *
+     * @param futures handles to the workers
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private void await(final List<Future<Void>> futures) throws InterruptedException {
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                fail(e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Pass an item to the next pipeline stage, waiting for queue capacity if needed.  The wait is abandoned if any
+     * pipeline stage fails, so that a stalled downstream stage cannot block the pipeline forever.
+     *
+     * @param queue the queue feeding the next pipeline stage
+     * @param item  the item to pass
+     * @param <T>   the type of the queue items
+     * @throws IonicException       if a pipeline stage has failed
+     * @throws InterruptedException if interrupted while waiting for capacity
+     */
+    private <T> void put(final BlockingQueue<T> queue, final T item) throws IonicException, InterruptedException {
+        while (!queue.offer(item, POLL_INTERVAL, TimeUnit.MILLISECONDS)) {
+            checkFailure();
+        }
+        checkFailure();
+    }
+
+    /**
+     * @throws IonicException if a pipeline stage has failed
+     */
+    private void checkFailure() throws IonicException {
+        final Exception e = failure.get();
+        if (e != null) {
+            throw new IonicException(SdkError.ISAGENT_ERROR, e);
+        }
+    }
+
+    /**
+     * Record the failure of a pipeline stage.  Only the first failure is retained.
+     *
+     * @param t the cause of the failure
+     */
+    private void fail(final Throwable t) {
+        failure.compareAndSet(null, (t instanceof Exception) ? (Exception) t : new Exception(t));
+    }
+
+    /**
+     * Encryption stage worker.  Each chunk of records is Ionic-protected using a single batch of keys.
+     */
+    private class EncryptWorker implements Callable<Void> {
+
+        @Override
+        public Void call() throws Exception {
+            try {
+                List<Employee> employees = queueEncrypt.take();
+                while (employees != END_ENCRYPT) {
+                    final List<EmployeeIonicFields> ionicFields =
+                            EmployeeIonicUtil.toEmployeeIonicFields(employees, keySource, options);
+                    final List<EmployeeIonic> employeesIonic = new ArrayList<EmployeeIonic>(employees.size());
+                    for (int i = 0; (i < employees.size()); ++i) {
+                        employeesIonic.add(new EmployeeIonic(employees.get(i), ionicFields.get(i)));
+                    }
+                    put(queueWrite, employeesIonic);
+                    employees = queueEncrypt.take();
+                }
+            } catch (Exception e) {
+                fail(e);
+                throw e;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Write stage worker.  Each chunk of records is stored using JDBC batches, in a single transaction.
+     */
+    private class WriteWorker implements Callable<Void> {
+
+        @Override
+        public Void call() throws Exception {
+            try (Connection connection = JdbcUtil.getConnection(properties)) {
+                List<EmployeeIonic> employeesIonic = queueWrite.take();
+                while (employeesIonic != END_WRITE) {
+                    EmployeeIonicJdbcUtil.insertEmployees(connection, properties, employeesIonic);
+                    recordsStored.addAndGet(employeesIonic.size());
+                    employeesIonic = queueWrite.take();
+                }
+            } catch (Exception e) {
+                fail(e);
+                throw e;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Marker used to signal the end of input to the encryption stage.
+     */
+    private static final List<Employee> END_ENCRYPT = new ArrayList<Employee>();
+
+    /**
+     * Marker used to signal the end of input to the write stage.
+     */
+    private static final List<EmployeeIonic> END_WRITE = new ArrayList<EmployeeIonic>();
+
+    /**
+     * The interval at which a blocked pipeline stage checks for failure of other stages, in milliseconds.
+     */
+    private static final long POLL_INTERVAL = 100L;
+}
@@ -0,0 +1,328 @@
+package com.ionic.sdk.addon.jdbc.usecase2.pipeline;
+
+import com.ionic.sdk.addon.jdbc.usecase2.cipher.CipherProvider;
+import com.ionic.sdk.addon.jdbc.usecase2.cipher.ChunkCipherV2Local;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.Employee;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonic;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonicUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.EmployeeIonicJdbcUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.JdbcUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.KeysetCursor;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.RecordConsumer;
+import com.ionic.sdk.addon.jdbc.usecase2.key.KeySource;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.error.SdkError;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Full reads of the joined Employee / EmployeeIonic tables, with the Ionic-protected fields unprotected.
+ * <p>
+ * A parallel scan splits the range of the Employee primary key into partitions.  Each partition is read on its own
+ * pooled database connection, and unprotected (using a single batch of keys) on the same worker.  The partitions are
+ * passed to the caller either in key order, or in order of completion.
+ * <p>
+ * An export reads the tables a page at a time, using keyset pagination ({@link KeysetCursor}), so that no database
+ * query or transaction is held open for the duration of the export.  An interrupted export may be resumed from the
+ * cursor position.
+ * <p>
+ * The scan is configured using the sample project properties:
+ * <ul>
+ * <li>"scan.partitions": the number of primary key ranges into which to split a parallel scan</li>
+ * <li>"scan.threads": the number of partitions to read concurrently</li>
+ * <li>"scan.page.size": the number of records in each page of an export (defaults to "jdbc.fetch.size")</li>
+ * <li>"sql.select.employee.idrange": query for the lowest and highest Employee primary key</li>
+ * <li>"sql.select.employee.join.range": the join query, restricted to an (inclusive) primary key range</li>
+ * <li>"sql.select.employee.join.page": the join query, restricted to a page following a primary key</li>
+ * </ul>
+ */
+public class EmployeeScan {
+
+    /**
+     * The key source; used to provide keys for cryptography operations.
+     */
+    private final KeySource keySource;
+
+    /**
+     * The source of the JCE ciphers used for the decryption.
+     */
+    private final CipherProvider cipherProvider;
+
+    /**
+     * The sample project test properties.
+     */
+    private final Properties properties;
+
+    /**
+     * The number of primary key ranges into which to split a parallel scan.
+     */
+    private final int partitions;
+
+    /**
+     * The number of partitions to read concurrently.
+     */
+    private final int threads;
+
+    /**
+     * The number of records in each page of an export.
+     */
+    private final int pageSize;
+
+    /**
+     * Constructor.
+     *
+     * @param keySource  the key source; used to provide keys for cryptography operations
+     * @param properties the sample project test properties
+     */
+    public EmployeeScan(final KeySource keySource, final Properties properties) {
+        this(keySource, ChunkCipherV2Local.getCipherProvider(), properties);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param keySource      the key source; used to provide keys for cryptography operations
+     * @param cipherProvider the source of the JCE ciphers used for the decryption
+     * @param properties     the sample project test properties
+     */
+    public EmployeeScan(final KeySource keySource, final CipherProvider cipherProvider, final Properties properties) {
+        this.keySource = keySource;
+        this.cipherProvider = cipherProvider;
+        this.properties = properties;
+        this.threads = Integer.parseInt(properties.getProperty("scan.threads", "4"));
+        this.partitions = Integer.parseInt(properties.getProperty("scan.partitions", Integer.toString(threads)));
+        this.pageSize = Integer.parseInt(properties.getProperty(
+                "scan.page.size", Integer.toString(JdbcUtil.getFetchSize(properties))));
+    }
+
+    /**
+     * Read all records, using a parallel scan.
+     *
+     * @param ordered true to return the records in primary key order; false to allow any order
+     * @return the unprotected records
+     * @throws IonicException       on cryptography failures; if any needed key is not available
+     * @throws SQLException         on database failures
+     * @throws InterruptedException if interrupted while waiting for the scan to complete
+     */
+    public List<Employee> scan(final boolean ordered) throws IonicException, SQLException, InterruptedException {
+        final List<Employee> employees = new ArrayList<Employee>();
+        scan(ordered, new RecordConsumer<List<Employee>>() {
+            @Override
+            public void accept(final List<Employee> partition) {
+                employees.addAll(partition);
+            }
+        });
+        return employees;
+    }
+
+    /**
+     * Read all records, using a parallel scan.  The records of each partition are passed to the consumer (on the
+     * calling thread) as a unit.
+     *
+     * @param ordered  true to pass the partitions in primary key order; false to pass each as soon as it is ready
+     * @param consumer the recipient of the records of each partition
+     * @return the number of records read
+     * @throws IonicException       on cryptography failures; if any needed key is not available
+     * @throws SQLException         on database failures, or on consumer failure
+     * @throws InterruptedException if interrupted while waiting for the scan to complete
+     */
+    public int scan(final boolean ordered, final RecordConsumer<List<Employee>> consumer)
+            throws IonicException, SQLException, InterruptedException {
+        final int[] idRange = getIdRange();
+        if (idRange == null) {
+            return 0;
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final CompletionService<List<Employee>> completionService =
+                    new ExecutorCompletionService<List<Employee>>(executor);
+            final List<Future<List<Employee>>> futures = new ArrayList<Future<List<Employee>>>();
+            for (int[] range : partition(idRange[0], idRange[1], partitions)) {
+                futures.add(completionService.submit(new PartitionWorker(range[0], range[1])));
+            }
+            int count = 0;
+            for (int i = 0; (i < futures.size()); ++i) {
+                final Future<List<Employee>> future = ordered ? futures.get(i) : completionService.take();
+                final List<Employee> employees = get(future);
+                consumer.accept(employees);
+                count += employees.size();
+            }
+            return count;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Read the next page of records following the cursor position, and pass it to the consumer.  A database
+     * connection is borrowed for the duration of the page read only.  The cursor position is advanced only if the
+     * page is successfully unprotected and consumed.
+     *
+     * @param cursor   the export position
+     * @param consumer the recipient of the records of the page
+     * @return the number of records in the page; zero if the export is complete
+     * @throws IonicException on cryptography failures; if any needed key is not available
+     * @throws SQLException   on database failures, or on consumer failure
+     */
+    public int export(final KeysetCursor cursor, final RecordConsumer<List<Employee>> consumer)
+            throws IonicException, SQLException {
+        try (Connection connection = JdbcUtil.getConnection(properties)) {
+            return cursor.next(connection, new RecordConsumer<List<Object[]>>() {
+                @Override
+                public void accept(final List<Object[]> rows) throws SQLException {
+                    consumer.accept(toEmployees(rows));
+                }
+            });
+        }
+    }
+
+    /**
+     * @param position the primary key after which to start reading (zero to read all records)
+     * @return a cursor for the export of the records following "position"
+     */
+    public KeysetCursor newCursor(final int position) {
+        return new KeysetCursor(properties.getProperty("sql.select.employee.join.page"), pageSize, position);
+    }
+
+    /**
+     * Split an (inclusive) range of primary keys into contiguous partitions of (nearly) equal size.
+     *
+     * @param idMin      the lowest key in the range
+     * @param idMax      the highest key in the range
+     * @param partitions the requested number of partitions
+     * @return the (inclusive) low and high key of each partition, in ascending order; there are fewer partitions
+     * than requested if the range holds fewer keys
+     */
+    public static List<int[]> partition(final int idMin, final int idMax, final int partitions) {
+        final long keys = (long) idMax - idMin + 1;
+        final long count = Math.max(1, Math.min(keys, partitions));
+        final List<int[]> ranges = new ArrayList<int[]>();
+        for (long i = 0; (i < count); ++i) {
+            final long low = idMin + (keys * i / count);
+            final long high = idMin + (keys * (i + 1) / count) - 1;
+            ranges.add(new int[]{(int) low, (int) high});
+        }
+        return ranges;
+    }
+
+    /**
+     * @return the lowest and highest Employee primary key; or null if the table is empty
+     * @throws IonicException on project misconfiguration
+     * @throws SQLException   on database failures
+     */
+    private int[] getIdRange() throws IonicException, SQLException {
+        final List<Object[]> rows = new ArrayList<Object[]>();
+        try (Connection connection = JdbcUtil.getConnection(properties)) {
+            JdbcUtil.stream(connection, properties.getProperty("sql.select.employee.idrange"), 1,
+                    new RecordConsumer<Object[]>() {
+                        @Override
+                        public void accept(final Object[] row) {
+                            rows.add(row);
+                        }
+                    });
+        }
+        final Object[] row = rows.isEmpty() ? null : rows.get(0);
+        return ((row == null) || (row[0] == null)) ? null
+                : new int[]{((Number) row[0]).intValue(), ((Number) row[1]).intValue()};
+    }
+
+    /**
+     * Unprotect a set of rows of the join query.
+     *
+     * @param rows the rows to unprotect
+     * @return the unprotected records, in the same order as "rows"
+     * @throws SQLException on cryptography failures; if any needed key is not available
+     */
+    private List<Employee> toEmployees(final List<Object[]> rows) throws SQLException {
+        final List<EmployeeIonic> employeesIonic = new ArrayList<EmployeeIonic>(rows.size());
+        for (Object[] row : rows) {
+            employeesIonic.add(EmployeeIonicJdbcUtil.toEmployeeIonic(row));
+        }
+        try {
+            return EmployeeIonicUtil.toEmployees(employeesIonic, keySource, cipherProvider);
+        } catch (IonicException e) {
+            throw new SQLException(e);
+        }
+    }
+
+    /**
+     * Wait for the result of a partition worker.
+     *
+     * @param future the handle to the worker
+     * @return the unprotected records of the partition
+     * @throws IonicException       on cryptography failures in the worker
+     * @throws SQLException         on database failures in the worker
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private static List<Employee> get(final Future<List<Employee>> future)
+            throws IonicException, SQLException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if ((cause instanceof SQLException) && (cause.getCause() instanceof IonicException)) {
+                throw (IonicException) cause.getCause();
+            } else if (cause instanceof IonicException) {
+                throw (IonicException) cause;
+            } else if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            } else {
+                throw new IonicException(SdkError.ISAGENT_ERROR, cause);
+            }
+        }
+    }
+
+    /**
+     * Parallel scan worker.  The records of one primary key range are read on a dedicated database connection, and
+     * then unprotected using a single batch of keys.
+     */
+    private class PartitionWorker implements Callable<List<Employee>> {
+
+        /**
+         * The lowest primary key in the partition.
+         */
+        private final int idLow;
+
+        /**
+         * The highest primary key in the partition.
+         */
+        private final int idHigh;
+
+        /**
+         * Constructor.
+         *
+         * @param idLow  the lowest primary key in the partition
+         * @param idHigh the highest primary key in the partition
+         */
+        PartitionWorker(final int idLow, final int idHigh) {
+            this.idLow = idLow;
+            this.idHigh = idHigh;
+        }
+
+        @Override
+        public List<Employee> call() throws IonicException, SQLException {
+            final List<Object[]> rows = new ArrayList<Object[]>();
+            try (Connection connection = JdbcUtil.getConnection(properties)) {
+                JdbcUtil.stream(connection, properties.getProperty("sql.select.employee.join.range"),
+                        JdbcUtil.getFetchSize(properties), new RecordConsumer<Object[]>() {
+                            @Override
+                            public void accept(final Object[] row) {
+                                rows.add(row);
+                            }
+                        }, idLow, idHigh);
+            }
+            return toEmployees(rows);
+        }
+    }
+}
@@ -0,0 +1,403 @@
+package com.ionic.sdk.addon.jdbc.usecase2.pipeline;
+
+import com.ionic.sdk.addon.jdbc.usecase2.cipher.ChunkCipherV2Local;
+import com.ionic.sdk.addon.jdbc.usecase2.cipher.CipherProvider;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.Employee;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonic;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonicFields;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonicUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.ProtectionOptions;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.JdbcUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.RecordConsumer;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.RowMapper;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.RowMappers;
+import com.ionic.sdk.addon.jdbc.usecase2.key.KeyScope;
+import com.ionic.sdk.addon.jdbc.usecase2.key.KeySource;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.error.SdkError;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Re-protection ("rotation") of the Ionic-protected fields of table EmployeeIonic under new keys.
+ * <p>
+ * The table is walked in ranges of the foreign key ("fid"), several ranges at a time.  Each range is read on its own
+ * pooled database connection, and processed in batches: the existing keys of a batch are fetched in a single key
+ * service request, new keys are created in a single request, and the re-protected values are written back in a single
+ * JDBC batch and transaction.  Each update is conditioned on the previous protected values, so that a record changed
+ * by another writer while it is being rotated is left alone (and counted as skipped).
+ * <p>
+ * Progress is recorded in a {@link RotationCheckpoint}; an interrupted or failed rotation resumes from the checkpoint
+ * watermark, rather than from the start of the table.  Work done above the watermark is repeated on resume, which is
+ * harmless, as rotation of a record is idempotent (other than in the keys used).
+ * <p>
+ * The rotation is configured using the sample project properties:
+ * <ul>
+ * <li>"rotation.range.size": the number of foreign key values in each range</li>
+ * <li>"rotation.threads": the number of ranges processed concurrently; this bounds the database connections and
+ * concurrent key service requests used by the rotation</li>
+ * <li>"rotation.rate": the maximum number of records rotated each second, across all threads (zero for no limit)</li>
+ * <li>"rotation.key.scope": the extent of data protected using a single new key (see {@link KeyScope#parse(String)})
+ * </li>
+ * <li>"rotation.checkpoint": (optional) the file in which to save the progress of the rotation</li>
+ * <li>"sql.select.employeeionic.fidrange": query for the lowest and highest foreign key</li>
+ * <li>"sql.select.employeeionic.range": query of the records in an (inclusive) foreign key range</li>
+ * <li>"sql.update.employeeionic.rotate": the conditional update of the protected values of a record</li>
+ * </ul>
+ * The records are written in batches of "jdbc.batch.size".
+ */
+public class KeyRotation {
+
+    /**
+     * The key source; used to fetch the existing keys, and to create the new keys.
+     */
+    private final KeySource keySource;
+
+    /**
+     * The source of the JCE ciphers used for the decryption and encryption.
+     */
+    private final CipherProvider cipherProvider;
+
+    /**
+     * The sample project test properties.
+     */
+    private final Properties properties;
+
+    /**
+     * The number of foreign key values in each range.
+     */
+    private final int rangeSize;
+
+    /**
+     * The number of ranges processed concurrently.
+     */
+    private final int threads;
+
+    /**
+     * The number of records in each batch of key requests, updates, and transactions.
+     */
+    private final int batchSize;
+
+    /**
+     * The extent of data protected using a single new key.
+     */
+    private final KeyScope keyScope;
+
+    /**
+     * The limit on the rate at which records are rotated; or null if unlimited.
+     */
+    private final RateLimiter rateLimiter;
+
+    /**
+     * The number of records rotated.
+     */
+    private final AtomicLong rotated;
+
+    /**
+     * The number of records left alone, as they were changed by another writer while being rotated.
+     */
+    private final AtomicLong skipped;
+
+    /**
+     * Constructor.
+     *
+     * @param keySource  the key source; used to fetch the existing keys, and to create the new keys
+     * @param properties the sample project test properties
+     * @throws IonicException if the configured key scope is not recognized
+     */
+    public KeyRotation(final KeySource keySource, final Properties properties) throws IonicException {
+        this(keySource, ChunkCipherV2Local.getCipherProvider(), properties);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param keySource      the key source; used to fetch the existing keys, and to create the new keys
+     * @param cipherProvider the source of the JCE ciphers used for the decryption and encryption
+     * @param properties     the sample project test properties
+     * @throws IonicException if the configured key scope is not recognized
+     */
+    public KeyRotation(final KeySource keySource, final CipherProvider cipherProvider, final Properties properties)
+            throws IonicException {
+        this.keySource = keySource;
+        this.cipherProvider = cipherProvider;
+        this.properties = properties;
+        this.rangeSize = Integer.parseInt(properties.getProperty(
+                "rotation.range.size", Integer.toString(JdbcUtil.getFetchSize(properties))));
+        this.threads = Integer.parseInt(properties.getProperty("rotation.threads", "2"));
+        this.batchSize = JdbcUtil.getBatchSize(properties);
+        this.keyScope = KeyScope.parse(properties.getProperty("rotation.key.scope", "cell"));
+        final double rate = Double.parseDouble(properties.getProperty("rotation.rate", "0"));
+        this.rateLimiter = (rate > 0.0) ? new RateLimiter(rate) : null;
+        this.rotated = new AtomicLong();
+        this.skipped = new AtomicLong();
+    }
+
+    /**
+     * Open the checkpoint configured in the sample project properties ("rotation.checkpoint").  If no checkpoint
+     * file is configured, progress is held in memory only.
+     *
+     * @return the checkpoint, holding the saved progress of any previous (incomplete) rotation
+     * @throws IOException on failure to read the checkpoint file
+     */
+    public RotationCheckpoint openCheckpoint() throws IOException {
+        final String filename = properties.getProperty("rotation.checkpoint", "");
+        return new RotationCheckpoint(filename.isEmpty() ? null : new File(filename), Long.MIN_VALUE);
+    }
+
+    /**
+     * Rotate the keys of all records above the checkpoint watermark.  On success, the checkpoint covers the whole
+     * table, and should be deleted before the next scheduled rotation.  On failure, the checkpoint holds the progress
+     * made, and a new call resumes from there.
+     *
+     * @param checkpoint the progress of the rotation
+     * @return the number of records rotated by this call
+     * @throws IonicException       on cryptography failures; if any needed key is not available
+     * @throws SQLException         on database failures
+     * @throws IOException          on failure to save the checkpoint
+     * @throws InterruptedException if interrupted while waiting for the rotation to complete
+     */
+    public long rotate(final RotationCheckpoint checkpoint)
+            throws IonicException, SQLException, IOException, InterruptedException {
+        final long rotatedStart = rotated.get();
+        final long[] fidRange = getFidRange();
+        if (fidRange == null) {
+            return 0L;
+        }
+        final long watermark = checkpoint.getWatermark();
+        final List<long[]> ranges = new ArrayList<long[]>();
+        for (long low = Math.max(fidRange[0], watermark + 1); (low <= fidRange[1]); low += rangeSize) {
+            ranges.add(new long[]{low, Math.min(low + rangeSize - 1, fidRange[1])});
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final CompletionService<long[]> completionService = new ExecutorCompletionService<long[]>(executor);
+            int submitted = 0;
+            int pending = 0;
+            while ((submitted < ranges.size()) || (pending > 0)) {
+                // at most "threads" ranges in progress; each completed range is replaced by the next
+                while ((submitted < ranges.size()) && (pending < threads)) {
+                    completionService.submit(new RangeWorker(ranges.get(submitted++)));
+                    ++pending;
+                }
+                final long[] range = get(completionService.take());
+                --pending;
+                // the first range also covers the (empty) keys between the watermark and the lowest key
+                checkpoint.complete((range == ranges.get(0)) ? (watermark + 1) : range[0], range[1]);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return rotated.get() - rotatedStart;
+    }
+
+    /**
+     * @return the number of records rotated by this object
+     */
+    public long getRotated() {
+        return rotated.get();
+    }
+
+    /**
+     * @return the number of records left alone by this object, as they were changed by another writer while being
+     * rotated
+     */
+    public long getSkipped() {
+        return skipped.get();
+    }
+
+    /**
+     * @return the lowest and highest foreign key of table EmployeeIonic; or null if the table is empty
+     * @throws IonicException on project misconfiguration
+     * @throws SQLException   on database failures
+     */
+    private long[] getFidRange() throws IonicException, SQLException {
+        final List<Object[]> rows = new ArrayList<Object[]>();
+        try (Connection connection = JdbcUtil.getConnection(properties)) {
+            JdbcUtil.stream(connection, properties.getProperty("sql.select.employeeionic.fidrange"), 1,
+                    new RecordConsumer<Object[]>() {
+                        @Override
+                        public void accept(final Object[] row) {
+                            rows.add(row);
+                        }
+                    });
+        }
+        final Object[] row = rows.isEmpty() ? null : rows.get(0);
+        return ((row == null) || (row[0] == null)) ? null
+                : new long[]{((Number) row[0]).longValue(), ((Number) row[1]).longValue()};
+    }
+
+    /**
+     * Wait for the result of a range worker.
+     *
+     * @param future the handle to the worker
+     * @return the range processed by the worker
+     * @throws IonicException       on cryptography failures in the worker
+     * @throws SQLException         on database failures in the worker
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private static long[] get(final Future<long[]> future)
+            throws IonicException, SQLException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IonicException) {
+                throw (IonicException) cause;
+            } else if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            } else if (cause instanceof InterruptedException) {
+                throw (InterruptedException) cause;
+            } else {
+                throw new IonicException(SdkError.ISAGENT_ERROR, cause);
+            }
+        }
+    }
+
+    /**
+     * Rotation worker.  The records of one foreign key range are read on a dedicated database connection, then
+     * re-protected and written back a batch at a time.
+     */
+    private class RangeWorker implements Callable<long[]> {
+
+        /**
+         * The (inclusive) lowest and highest foreign key of the range.
+         */
+        private final long[] range;
+
+        /**
+         * Constructor.
+         *
+         * @param range the (inclusive) lowest and highest foreign key of the range
+         */
+        RangeWorker(final long[] range) {
+            this.range = range;
+        }
+
+        @Override
+        public long[] call() throws IonicException, SQLException, InterruptedException {
+            try (Connection connection = JdbcUtil.getConnection(properties);
+                 PreparedStatement select = connection.prepareStatement(
+                         properties.getProperty("sql.select.employeeionic.range"));
+                 PreparedStatement update = connection.prepareStatement(
+                         properties.getProperty("sql.update.employeeionic.rotate"))) {
+                final List<EmployeeIonicFields> records = read(select);
+                for (int from = 0; (from < records.size()); from += batchSize) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedException();
+                    }
+                    final List<EmployeeIonicFields> batch =
+                            records.subList(from, Math.min(records.size(), from + batchSize));
+                    if (rateLimiter != null) {
+                        rateLimiter.acquire(batch.size());
+                    }
+                    write(connection, update, batch, reprotect(batch));
+                }
+            }
+            return range;
+        }
+
+        /**
+         * @param select the (prepared) range query
+         * @return the records in the range
+         * @throws SQLException on database failures
+         */
+        private List<EmployeeIonicFields> read(final PreparedStatement select) throws SQLException {
+            // foreign keys are int values; ranges derived from them fit
+            select.setInt(1, (int) range[0]);
+            select.setInt(2, (int) range[1]);
+            final List<EmployeeIonicFields> records = new ArrayList<EmployeeIonicFields>();
+            try (ResultSet resultSet = select.executeQuery()) {
+                final RowMapper<EmployeeIonicFields> mapper = RowMappers.employeeIonicFields(resultSet.getMetaData());
+                while (resultSet.next()) {
+                    records.add(mapper.map(resultSet));
+                }
+            }
+            return records;
+        }
+
+        /**
+         * Unprotect a batch of records, and protect them again under new keys.  The existing keys are fetched in a
+         * single request, and the new keys are created in a single request.
+         *
+         * @param batch the records to re-protect
+         * @return the re-protected records, in the same order as "batch"
+         * @throws IonicException on cryptography failures; if any needed key is not available
+         */
+        private List<EmployeeIonicFields> reprotect(final List<EmployeeIonicFields> batch) throws IonicException {
+            final List<EmployeeIonic> employeesIonic = new ArrayList<EmployeeIonic>(batch.size());
+            for (EmployeeIonicFields fields : batch) {
+                final Employee employee = new Employee(fields.getId(), null, null, null, 0, null);
+                employeesIonic.add(new EmployeeIonic(employee, fields));
+            }
+            final List<Employee> employees = EmployeeIonicUtil.toEmployees(employeesIonic, keySource, cipherProvider);
+            return EmployeeIonicUtil.toEmployeeIonicFields(employees, keySource,
+                    new ProtectionOptions(keyScope).withCipherProvider(cipherProvider));
+        }
+
+        /**
+         * Write back a batch of re-protected records, in a single transaction.
+         *
+         * @param connection the database connection
+         * @param update     the (prepared) conditional update
+         * @param batch      the records as read
+         * @param rotations  the re-protected records, in the same order as "batch"
+         * @throws SQLException on database failures
+         */
+        private void write(final Connection connection, final PreparedStatement update,
+                           final List<EmployeeIonicFields> batch, final List<EmployeeIonicFields> rotations)
+                throws SQLException {
+            for (int i = 0; (i < batch.size()); ++i) {
+                final EmployeeIonicFields previous = batch.get(i);
+                final EmployeeIonicFields rotation = rotations.get(i);
+                update.setString(PARAM_PERSONAL_IDENTIFIER, rotation.getPersonalIdentifier());
+                update.setString(PARAM_SALARY, rotation.getSalary());
+                update.setInt(PARAM_FID, previous.getId());
+                update.setString(PARAM_PERSONAL_IDENTIFIER_PREVIOUS, previous.getPersonalIdentifier());
+                update.setString(PARAM_SALARY_PREVIOUS, previous.getSalary());
+                update.addBatch();
+            }
+            final boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                final int[] counts = update.executeBatch();
+                connection.commit();
+                for (int count : counts) {
+                    if ((count > 0) || (count == Statement.SUCCESS_NO_INFO)) {
+                        rotated.incrementAndGet();
+                    } else {
+                        skipped.incrementAndGet();
+                    }
+                }
+            } catch (SQLException e) {
+                JdbcUtil.clearBatch(update, e);
+                throw JdbcUtil.rollback(connection, e);
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private static final int PARAM_PERSONAL_IDENTIFIER = 1;
+    private static final int PARAM_SALARY = 2;
+    private static final int PARAM_FID = 3;
+    private static final int PARAM_PERSONAL_IDENTIFIER_PREVIOUS = 4;
+    private static final int PARAM_SALARY_PREVIOUS = 5;
+}
@@ -0,0 +1,66 @@
+package com.ionic.sdk.addon.jdbc.usecase2.pipeline;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limit on the rate at which work is done, shared by any number of worker threads.
+ * <p>
+ * Each worker acquires permits (for example, one per record) before doing a unit of work; the caller is delayed as
+ * needed so that, over time, no more than the configured number of permits are granted each second.  Permits are
+ * granted in order of request.  Each request is charged to the schedule on arrival, so a large request delays the
+ * requests that follow it, rather than itself.
+ */
+public class RateLimiter {
+
+    /**
+     * The interval between successive permits, in nanoseconds.
+     */
+    private final double intervalNanos;
+
+    /**
+     * The time at which the next permit becomes available, in nanoseconds ({@link System#nanoTime()}).
+     */
+    private long nextFree;
+
+    /**
+     * Constructor.
+     *
+     * @param permitsPerSecond the number of permits to grant each second
+     */
+    public RateLimiter(final double permitsPerSecond) {
+        if (!(permitsPerSecond > 0.0)) {
+            throw new IllegalArgumentException("rate must be positive: " + permitsPerSecond);
+        }
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+        this.nextFree = System.nanoTime();
+    }
+
+    /**
+     * Acquire permits, waiting until they are available.
+     *
+     * @param permits the number of permits to acquire
+     * @return the time spent waiting, in nanoseconds
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public long acquire(final int permits) throws InterruptedException {
+        final long wait = reserve(permits);
+        if (wait > 0L) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+        return wait;
+    }
+
+    /**
+     * Charge a request to the schedule.
+     *
+     * @param permits the number of permits requested
+     * @return the time the caller must wait before proceeding, in nanoseconds
+     */
+    private synchronized long reserve(final int permits) {
+        final long now = System.nanoTime();
+        // an idle limiter does not accumulate unused permits
+        final long start = Math.max(now, nextFree);
+        nextFree = start + (long) (permits * intervalNanos);
+        return start - now;
+    }
+}
@@ -0,0 +1,128 @@
+package com.ionic.sdk.addon.jdbc.usecase2.pipeline;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Persistent progress of a long-running job over a range of integer keys (such as {@link KeyRotation}), which is
+ * divided into contiguous sub-ranges processed concurrently.
+ * <p>
+ * Sub-ranges may complete in any order.  The checkpoint records the low watermark: the highest key such that every
+ * sub-range at or below it has completed.  Sub-ranges completed above the watermark are held in memory only, until
+ * the sub-ranges below them complete; after a restart, the job resumes from the watermark, and may repeat some work
+ * done above it.  The watermark is saved to the checkpoint file each time it advances, by replacing the file, so that
+ * a failure while saving leaves the previous checkpoint intact.
+ */
+public class RotationCheckpoint {
+
+    /**
+     * The file holding the watermark; or null if progress is not persisted.
+     */
+    private final File file;
+
+    /**
+     * The highest key such that every sub-range at or below it has completed.
+     */
+    private long watermark;
+
+    /**
+     * The completed sub-ranges above the watermark (high key, indexed by low key).
+     */
+    private final Map<Long, Long> completed;
+
+    /**
+     * Constructor.  If the checkpoint file exists, the saved watermark is loaded from it.
+     *
+     * @param file    the file holding the watermark; or null if progress is not to be persisted
+     * @param initial the watermark to use if no checkpoint has been saved (one less than the lowest key)
+     * @throws IOException on failure to read the checkpoint file
+     */
+    public RotationCheckpoint(final File file, final long initial) throws IOException {
+        this.file = file;
+        this.completed = new TreeMap<Long, Long>();
+        if ((file != null) && file.exists()) {
+            final String text = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).trim();
+            try {
+                this.watermark = Long.parseLong(text);
+            } catch (NumberFormatException e) {
+                throw new IOException("invalid checkpoint: " + file.getPath(), e);
+            }
+        } else {
+            this.watermark = initial;
+        }
+    }
+
+    /**
+     * @return the highest key such that every sub-range at or below it has completed
+     */
+    public synchronized long getWatermark() {
+        return watermark;
+    }
+
+    /**
+     * Record the completion of a sub-range, advancing (and saving) the watermark if possible.
+     *
+     * @param low  the lowest key in the sub-range
+     * @param high the highest key in the sub-range
+     * @return true if the watermark was advanced
+     * @throws IOException on failure to save the checkpoint file
+     */
+    public synchronized boolean complete(final long low, final long high) throws IOException {
+        if (high <= watermark) {
+            return false;
+        }
+        completed.put(low, high);
+        final long watermarkPrevious = watermark;
+        Long next = completed.remove(watermark + 1);
+        while (next != null) {
+            watermark = next;
+            next = completed.remove(watermark + 1);
+        }
+        if (watermark == watermarkPrevious) {
+            return false;
+        }
+        save();
+        return true;
+    }
+
+    /**
+     * Remove the checkpoint file, once the job has completed.
+     *
+     * @throws IOException on failure to remove the checkpoint file
+     */
+    public synchronized void delete() throws IOException {
+        if (file != null) {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    /**
+     * Save the watermark, replacing the checkpoint file.
+     *
+     * @throws IOException on failure to save the checkpoint file
+     */
+    private void save() throws IOException {
+        if (file == null) {
+            return;
+        }
+        final File fileTemp = new File(file.getPath() + SUFFIX_TEMP);
+        Files.write(fileTemp.toPath(), Long.toString(watermark).getBytes(StandardCharsets.UTF_8));
+        try {
+            Files.move(fileTemp.toPath(), file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(fileTemp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * The suffix of the file into which the checkpoint is written, before it replaces the checkpoint file.
+     */
+    private static final String SUFFIX_TEMP = ".tmp";
+}
@@ -0,0 +1,263 @@
+package com.ionic.sdk.addon.jdbc.usecase2.pipeline;
+
+import com.ionic.sdk.addon.jdbc.usecase2.cipher.ChunkCipherV2Local;
+import com.ionic.sdk.addon.jdbc.usecase2.cipher.CipherProvider;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.Employee;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonic;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonicUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.EmployeeIonicJdbcUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.JdbcUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.RecordConsumer;
+import com.ionic.sdk.addon.jdbc.usecase2.key.BucketIndex;
+import com.ionic.sdk.addon.jdbc.usecase2.key.KeySource;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.error.SdkError;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Salary range queries and aggregates over the Ionic-protected salary column, using the salary range tags written
+ * by {@link BucketIndex}.
+ * <p>
+ * The requested range is translated into the tags of the salary buckets which overlap it, and the database returns
+ * only the records having one of those tags (an indexed IN match).  The surviving candidate records are unprotected
+ * in parallel slices, each slice using a single batch of keys, and are then filtered on the exact salary range.
+ * Records stored without a salary range tag (while no blind index HMAC key was configured; see
+ * {@link BucketIndex#get}) are not found.
+ * <p>
+ * The query is configured using the sample project properties:
+ * <ul>
+ * <li>"sql.select.employee.join.salarybucket": the join query, restricted to a set of salary range tags; the
+ * placeholder "%s" is replaced by one parameter marker for each tag</li>
+ * </ul>
+ */
+public class SalaryRangeQuery {
+
+    /**
+     * The key source; used to provide keys for cryptography operations.
+     */
+    private final KeySource keySource;
+
+    /**
+     * The source of the JCE ciphers used for the decryption.
+     */
+    private final CipherProvider cipherProvider;
+
+    /**
+     * The salary range tag calculator.
+     */
+    private final BucketIndex bucketIndex;
+
+    /**
+     * The sample project test properties.
+     */
+    private final Properties properties;
+
+    /**
+     * Constructor.
+     *
+     * @param keySource   the key source; used to provide keys for cryptography operations
+     * @param bucketIndex the salary range tag calculator
+     * @param properties  the sample project test properties
+     */
+    public SalaryRangeQuery(final KeySource keySource, final BucketIndex bucketIndex, final Properties properties) {
+        this(keySource, ChunkCipherV2Local.getCipherProvider(), bucketIndex, properties);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param keySource      the key source; used to provide keys for cryptography operations
+     * @param cipherProvider the source of the JCE ciphers used for the decryption
+     * @param bucketIndex    the salary range tag calculator
+     * @param properties     the sample project test properties
+     */
+    public SalaryRangeQuery(final KeySource keySource, final CipherProvider cipherProvider,
+                            final BucketIndex bucketIndex, final Properties properties) {
+        this.keySource = keySource;
+        this.cipherProvider = cipherProvider;
+        this.bucketIndex = bucketIndex;
+        this.properties = properties;
+    }
+
+    /**
+     * Find the employees whose salary is in the requested range, and calculate the salary aggregates.
+     *
+     * @param connection the database connection
+     * @param low        the lowest salary in the range (inclusive)
+     * @param high       the highest salary in the range (inclusive)
+     * @param executor   the executor on which to unprotect the candidate records
+     * @param slices     the number of slices into which to divide the candidate records
+     * @return the matching employees, and their salary aggregates
+     * @throws SQLException         on database failures
+     * @throws IonicException       on cryptography failures; if any needed key is not available; if the range spans
+     *                              too many salary buckets
+     * @throws InterruptedException if interrupted while waiting for the candidate records to be unprotected
+     */
+    public Report query(final Connection connection, final int low, final int high, final ExecutorService executor,
+                        final int slices) throws SQLException, IonicException, InterruptedException {
+        final List<String> tags = bucketIndex.tags(low, high);
+        if (tags.isEmpty()) {
+            return report(Collections.<EmployeeIonic>emptyList(), low, high, executor, slices);
+        }
+        final StringBuilder markers = new StringBuilder();
+        for (int i = 0; (i < tags.size()); ++i) {
+            markers.append((i == 0) ? "?" : ", ?");
+        }
+        final String sql = String.format(
+                properties.getProperty("sql.select.employee.join.salarybucket"), markers.toString());
+        final List<EmployeeIonic> candidates = new ArrayList<EmployeeIonic>();
+        JdbcUtil.stream(connection, sql, JdbcUtil.getFetchSize(properties), new RecordConsumer<Object[]>() {
+            @Override
+            public void accept(final Object[] row) {
+                candidates.add(EmployeeIonicJdbcUtil.toEmployeeIonic(row));
+            }
+        }, tags.toArray());
+        return report(candidates, low, high, executor, slices);
+    }
+
+    /**
+     * Unprotect the candidate records of a salary range query, filter them on the exact salary range, and calculate
+     * the salary aggregates.  The candidates are divided into slices, which are unprotected concurrently using the
+     * supplied executor.
+     *
+     * @param candidates the records which may have a salary in the requested range
+     * @param low        the lowest salary in the range (inclusive)
+     * @param high       the highest salary in the range (inclusive)
+     * @param executor   the executor on which to unprotect the candidate records
+     * @param slices     the number of slices into which to divide the candidate records
+     * @return the matching employees, and their salary aggregates
+     * @throws IonicException       on cryptography failures; if any needed key is not available
+     * @throws InterruptedException if interrupted while waiting for the candidate records to be unprotected
+     */
+    public Report report(final List<EmployeeIonic> candidates, final int low, final int high,
+                         final ExecutorService executor, final int slices)
+            throws IonicException, InterruptedException {
+        final int sliceSize = Math.max(1, (candidates.size() + slices - 1) / Math.max(1, slices));
+        final List<Future<List<Employee>>> futures = new ArrayList<Future<List<Employee>>>();
+        for (int i = 0; (i < candidates.size()); i += sliceSize) {
+            final List<EmployeeIonic> slice = candidates.subList(i, Math.min(candidates.size(), i + sliceSize));
+            futures.add(executor.submit(new Callable<List<Employee>>() {
+                @Override
+                public List<Employee> call() throws IonicException {
+                    return EmployeeIonicUtil.toEmployees(slice, keySource, cipherProvider);
+                }
+            }));
+        }
+        final List<Employee> employees = new ArrayList<Employee>();
+        for (Future<List<Employee>> future : futures) {
+            try {
+                for (Employee employee : future.get()) {
+                    if ((employee.getSalary() >= low) && (employee.getSalary() <= high)) {
+                        employees.add(employee);
+                    }
+                }
+            } catch (ExecutionException e) {
+                throw (e.getCause() instanceof IonicException)
+                        ? (IonicException) e.getCause() : new IonicException(SdkError.ISAGENT_ERROR, e.getCause());
+            }
+        }
+        return new Report(candidates.size(), employees);
+    }
+
+    /**
+     * The result of a salary range query; the matching employees, and their salary aggregates.
+     */
+    public static class Report {
+
+        /**
+         * The number of candidate records unprotected in order to answer the query.
+         */
+        private final int candidates;
+
+        /**
+         * The employees whose salary is in the requested range.
+         */
+        private final List<Employee> employees;
+
+        /**
+         * Constructor.
+         *
+         * @param candidates the number of candidate records unprotected in order to answer the query
+         * @param employees  the employees whose salary is in the requested range
+         */
+        Report(final int candidates, final List<Employee> employees) {
+            this.candidates = candidates;
+            this.employees = Collections.unmodifiableList(employees);
+        }
+
+        /**
+         * @return the number of candidate records unprotected in order to answer the query
+         */
+        public int getCandidates() {
+            return candidates;
+        }
+
+        /**
+         * @return the employees whose salary is in the requested range
+         */
+        public List<Employee> getEmployees() {
+            return employees;
+        }
+
+        /**
+         * @return the number of employees whose salary is in the requested range
+         */
+        public int getCount() {
+            return employees.size();
+        }
+
+        /**
+         * @return the total salary of the matching employees
+         */
+        public long getSum() {
+            long sum = 0L;
+            for (Employee employee : employees) {
+                sum += employee.getSalary();
+            }
+            return sum;
+        }
+
+        /**
+         * @return the average salary of the matching employees; or NaN if there are none
+         */
+        public double getAverage() {
+            return employees.isEmpty() ? Double.NaN : ((double) getSum()) / employees.size();
+        }
+
+        /**
+         * @return the average salary of the matching employees of each country, indexed by country; employees with no
+         * country are averaged under the null key
+         */
+        public Map<String, Double> getAverageByCountry() {
+            final Comparator<String> order = Comparator.nullsFirst(Comparator.<String>naturalOrder());
+            final Map<String, long[]> sums = new TreeMap<String, long[]>(order);
+            for (Employee employee : employees) {
+                long[] sum = sums.get(employee.getCountry());
+                if (sum == null) {
+                    sum = new long[2];
+                    sums.put(employee.getCountry(), sum);
+                }
+                sum[0] += employee.getSalary();
+                ++sum[1];
+            }
+            final Map<String, Double> averages = new TreeMap<String, Double>(order);
+            for (Map.Entry<String, long[]> entry : sums.entrySet()) {
+                averages.put(entry.getKey(), ((double) entry.getValue()[0]) / entry.getValue()[1]);
+            }
+            return averages;
+        }
+    }
+}
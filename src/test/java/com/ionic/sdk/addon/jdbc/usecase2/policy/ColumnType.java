@@ -0,0 +1,239 @@
+package com.ionic.sdk.addon.jdbc.usecase2.policy;
+
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.IonicTypes;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.error.SdkError;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Types;
+import java.util.Locale;
+
+/**
+ * The data types of database columns which may be Ionic-protected.  Each type knows how to convert a column value to
+ * and from the byte[] representation which is encrypted.  Types whose representation is of fixed size also provide a
+ * {@link FixedSizeConversion}, converting to and from a caller-supplied buffer, so that the per-row conversion need
+ * not allocate.
+ */
+public enum ColumnType {
+
+    /**
+     * Character data (CHAR, VARCHAR), encoded as UTF-8.
+     */
+    STRING {
+        @Override
+        public byte[] toBytes(final Object value) {
+            return IonicTypes.toBytes((String) value);
+        }
+
+        @Override
+        public Object fromBytes(final byte[] bytes) {
+            return IonicTypes.toString(bytes);
+        }
+    },
+
+    /**
+     * Integer data (TINYINT, SMALLINT, INTEGER).
+     */
+    INT {
+        @Override
+        public byte[] toBytes(final Object value) {
+            return IonicTypes.toBytes(((Number) value).intValue());
+        }
+
+        @Override
+        public Object fromBytes(final byte[] bytes) {
+            return IonicTypes.toInt(bytes);
+        }
+
+        @Override
+        public FixedSizeConversion getFixedSizeConversion() {
+            return CONVERSION_INT;
+        }
+    },
+
+    /**
+     * Long integer data (BIGINT).
+     */
+    LONG {
+        @Override
+        public byte[] toBytes(final Object value) {
+            return IonicTypes.toBytes(((Number) value).longValue());
+        }
+
+        @Override
+        public Object fromBytes(final byte[] bytes) {
+            return IonicTypes.toLong(bytes);
+        }
+
+        @Override
+        public FixedSizeConversion getFixedSizeConversion() {
+            return CONVERSION_LONG;
+        }
+    },
+
+    /**
+     * Exact numeric data (DECIMAL, NUMERIC).
+     */
+    DECIMAL {
+        @Override
+        public byte[] toBytes(final Object value) {
+            return IonicTypes.toBytes((BigDecimal) value);
+        }
+
+        @Override
+        public Object fromBytes(final byte[] bytes) {
+            return IonicTypes.toBigDecimal(bytes);
+        }
+    },
+
+    /**
+     * Calendar date data (DATE).
+     */
+    DATE {
+        @Override
+        public byte[] toBytes(final Object value) {
+            return IonicTypes.toBytes((Date) value);
+        }
+
+        @Override
+        public Object fromBytes(final byte[] bytes) {
+            return IonicTypes.toDate(bytes);
+        }
+
+        @Override
+        public FixedSizeConversion getFixedSizeConversion() {
+            return CONVERSION_DATE;
+        }
+    };
+
+    /**
+     * Convert a column value to its byte[] representation.
+     *
+     * @param value the (non-null) column value
+     * @return the byte[] representation of "value"
+     */
+    public abstract byte[] toBytes(Object value);
+
+    /**
+     * Convert the byte[] representation of a column value back to the column value.
+     *
+     * @param bytes the byte[] representation of the column value
+     * @return the column value
+     */
+    public abstract Object fromBytes(byte[] bytes);
+
+    /**
+     * @return the conversion of values of this type to and from a caller-supplied buffer; or null if the size of the
+     * byte[] representation depends on the value
+     */
+    public FixedSizeConversion getFixedSizeConversion() {
+        return null;
+    }
+
+    /**
+     * @param name the case-insensitive name of the type, as used in the protection policy configuration
+     * @return the type with the given name
+     * @throws IonicException if the name does not identify a supported type
+     */
+    public static ColumnType fromName(final String name) throws IonicException {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ENGLISH));
+        } catch (IllegalArgumentException e) {
+            throw new IonicException(SdkError.ISAGENT_INVALIDVALUE, name);
+        }
+    }
+
+    /**
+     * @param sqlType the JDBC type of a column, as reported by {@link java.sql.ResultSetMetaData#getColumnType(int)}
+     * @return the type used to Ionic-protect values of the column
+     * @throws IonicException if values of the JDBC type cannot be Ionic-protected
+     */
+    public static ColumnType fromSqlType(final int sqlType) throws IonicException {
+        switch (sqlType) {
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+                return STRING;
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+                return INT;
+            case Types.BIGINT:
+                return LONG;
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+                return DECIMAL;
+            case Types.DATE:
+                return DATE;
+            default:
+                throw new IonicException(SdkError.ISAGENT_INVALIDVALUE, String.format("SQL type %d", sqlType));
+        }
+    }
+
+    /**
+     * The buffer conversion of {@link #INT} values.
+     */
+    private static final FixedSizeConversion CONVERSION_INT = new FixedSizeConversion() {
+        @Override
+        public int getSize() {
+            return SIZE_INT32;
+        }
+
+        @Override
+        public int putBytes(final Object value, final byte[] buffer, final int offset) {
+            return IonicTypes.putInt(buffer, offset, ((Number) value).intValue());
+        }
+
+        @Override
+        public Object fromBytes(final byte[] buffer, final int length) {
+            return IonicTypes.toInt(buffer, length);
+        }
+    };
+
+    /**
+     * The buffer conversion of {@link #LONG} values.
+     */
+    private static final FixedSizeConversion CONVERSION_LONG = new FixedSizeConversion() {
+        @Override
+        public int getSize() {
+            return SIZE_INT64;
+        }
+
+        @Override
+        public int putBytes(final Object value, final byte[] buffer, final int offset) {
+            return IonicTypes.putLong(buffer, offset, ((Number) value).longValue());
+        }
+
+        @Override
+        public Object fromBytes(final byte[] buffer, final int length) {
+            return IonicTypes.toLong(buffer, length);
+        }
+    };
+
+    /**
+     * The buffer conversion of {@link #DATE} values.
+     */
+    private static final FixedSizeConversion CONVERSION_DATE = new FixedSizeConversion() {
+        @Override
+        public int getSize() {
+            return SIZE_INT64;
+        }
+
+        @Override
+        public int putBytes(final Object value, final byte[] buffer, final int offset) {
+            return IonicTypes.putLong(buffer, offset, ((Date) value).getTime());
+        }
+
+        @Override
+        public Object fromBytes(final byte[] buffer, final int length) {
+            return new Date(IonicTypes.toLong(buffer, length));
+        }
+    };
+
+    private static final int SIZE_INT32 = Integer.SIZE / Byte.SIZE;
+    private static final int SIZE_INT64 = Long.SIZE / Byte.SIZE;
+}
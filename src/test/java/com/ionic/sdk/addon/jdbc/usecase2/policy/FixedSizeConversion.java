@@ -0,0 +1,34 @@
+package com.ionic.sdk.addon.jdbc.usecase2.policy;
+
+/**
+ * The conversion of column values whose byte[] representation is of fixed size, to and from a caller-supplied buffer,
+ * so that the per-row conversion need not allocate.  Provided only by the fixed size column types; see
+ * {@link ColumnType#getFixedSizeConversion()}.
+ */
+public interface FixedSizeConversion {
+
+    /**
+     * @return the size of the byte[] representation of values of the type
+     */
+    int getSize();
+
+    /**
+     * Write the byte[] representation of a column value into a caller-supplied buffer.
+     *
+     * @param value  the (non-null) column value
+     * @param buffer the destination buffer
+     * @param offset the position in "buffer" at which to write
+     * @return the position in "buffer" following the written bytes
+     */
+    int putBytes(Object value, byte[] buffer, int offset);
+
+    /**
+     * Convert the byte[] representation of a column value, held in the leading bytes of a caller-supplied buffer,
+     * back to the column value.
+     *
+     * @param buffer the buffer holding the byte[] representation of the column value
+     * @param length the number of bytes of "buffer" holding the representation
+     * @return the column value
+     */
+    Object fromBytes(byte[] buffer, int length);
+}
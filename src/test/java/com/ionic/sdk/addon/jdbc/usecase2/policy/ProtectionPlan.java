@@ -0,0 +1,221 @@
+package com.ionic.sdk.addon.jdbc.usecase2.policy;
+
+import com.ionic.sdk.addon.jdbc.usecase2.cipher.ChunkCipherV2Local;
+import com.ionic.sdk.addon.jdbc.usecase2.cipher.CipherProvider;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.IonicTypes;
+import com.ionic.sdk.addon.jdbc.usecase2.key.KeyScope;
+import com.ionic.sdk.addon.jdbc.usecase2.key.KeySource;
+import com.ionic.sdk.addon.jdbc.usecase2.key.ProtectionKey;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.error.SdkError;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The compiled Ionic protection policy of a single result set shape.  The positions and types of the protected
+ * columns are resolved once, when the plan is compiled by {@link ProtectionPolicy}; protecting and unprotecting rows
+ * is then a loop over those positions.
+ * <p>
+ * Rows are represented as they are loaded by {@link com.ionic.sdk.addon.jdbc.usecase2.jdbc.SampleResultSetHandler},
+ * as an Object[] with one element per result set column.  Rows are transformed in place; null column values are left
+ * as they are.
+ */
+public class ProtectionPlan {
+
+    /**
+     * The name of the table to which the plan applies.
+     */
+    private final String table;
+
+    /**
+     * The (zero-based) positions of the protected columns in each row.
+     */
+    private final int[] columns;
+
+    /**
+     * The types of the protected columns, parallel to "columns".
+     */
+    private final ColumnType[] types;
+
+    /**
+     * Constructor.
+     *
+     * @param table   the name of the table to which the plan applies
+     * @param columns the (zero-based) positions of the protected columns in each row
+     * @param types   the types of the protected columns
+     */
+    ProtectionPlan(final String table, final int[] columns, final ColumnType[] types) {
+        this.table = table;
+        this.columns = columns;
+        this.types = types;
+    }
+
+    /**
+     * @return the name of the table to which the plan applies
+     */
+    public String getTable() {
+        return table;
+    }
+
+    /**
+     * @return the number of protected columns in each row
+     */
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    /**
+     * @param i the index of the protected column, in policy order
+     * @return the (zero-based) position of the protected column in each row
+     */
+    public int getColumn(final int i) {
+        return columns[i];
+    }
+
+    /**
+     * @param i the index of the protected column, in policy order
+     * @return the type of the protected column
+     */
+    public ColumnType getType(final int i) {
+        return types[i];
+    }
+
+    /**
+     * Ionic-protect the protected columns of many rows at once.  Each plaintext column value is replaced by its
+     * Ionic-protected representation.  All needed keys are requested from the key source in a single call.
+     *
+     * @param rows      the rows to protect
+     * @param keySource the key source; used to provide keys for cryptography operations
+     * @throws IonicException on cryptography failures
+     */
+    public void encrypt(final List<Object[]> rows, final KeySource keySource) throws IonicException {
+        encrypt(rows, keySource, KeyScope.CELL);
+    }
+
+    /**
+     * Ionic-protect the protected columns of many rows at once, sharing keys across the protected columns as
+     * specified by "keyScope".  Each plaintext column value is replaced by its Ionic-protected representation.  All
+     * needed keys are requested from the key source in a single call.
+     *
+     * @param rows      the rows to protect
+     * @param keySource the key source; used to provide keys for cryptography operations
+     * @param keyScope  the extent of data protected using a single key
+     * @throws IonicException on cryptography failures
+     */
+    public void encrypt(final List<Object[]> rows, final KeySource keySource, final KeyScope keyScope)
+            throws IonicException {
+        encrypt(rows, keySource, keyScope, ChunkCipherV2Local.getCipherProvider());
+    }
+
+    /**
+     * Ionic-protect the protected columns of many rows at once, sharing keys across the protected columns as
+     * specified by "keyScope".  Each plaintext column value is replaced by its Ionic-protected representation.  All
+     * needed keys are requested from the key source in a single call.
+     *
+     * @param rows           the rows to protect
+     * @param keySource      the key source; used to provide keys for cryptography operations
+     * @param keyScope       the extent of data protected using a single key
+     * @param cipherProvider the source of the JCE ciphers used for the encryption
+     * @throws IonicException on cryptography failures
+     */
+    public void encrypt(final List<Object[]> rows, final KeySource keySource, final KeyScope keyScope,
+                        final CipherProvider cipherProvider) throws IonicException {
+        int valuesNeeded = 0;
+        for (Object[] row : rows) {
+            for (int column : columns) {
+                if (row[column] != null) {
+                    ++valuesNeeded;
+                }
+            }
+        }
+        final int quantity = keyScope.getKeyCount(rows.size(), valuesNeeded);
+        final List<ProtectionKey> keys = keySource.createKeys(quantity);
+        if (keys.size() != quantity) {
+            throw new IonicException(SdkError.ISAGENT_INVALIDVALUE, String.format(
+                    "requested %d keys, received %d", quantity, keys.size()));
+        }
+        final Iterator<ProtectionKey> iterator = keys.iterator();
+        final byte[] scratch = IonicTypes.getScratchBuffer();
+        int r = 0;
+        for (Object[] row : rows) {
+            final ProtectionKey keyRow = keyScope.isCell() ? null : keys.get(keyScope.getKeyIndex(r));
+            for (int i = 0; (i < columns.length); ++i) {
+                final Object value = row[columns[i]];
+                if (value != null) {
+                    final ProtectionKey key = (keyRow == null) ? iterator.next() : keyRow;
+                    final FixedSizeConversion conversion = types[i].getFixedSizeConversion();
+                    row[columns[i]] = (conversion == null)
+                            ? ChunkCipherV2Local.encrypt(key, types[i].toBytes(value), cipherProvider)
+                            : ChunkCipherV2Local.encrypt(key, scratch, 0, conversion.putBytes(value, scratch, 0),
+                            cipherProvider);
+                }
+            }
+            ++r;
+        }
+    }
+
+    /**
+     * Ionic-unprotect the protected columns of many rows at once.  Each Ionic-protected column value is replaced by
+     * the plaintext value, of the column type.  All needed keys are fetched from the key source in a single call.
+     *
+     * @param rows      the rows to unprotect
+     * @param keySource the key source; used to provide keys for cryptography operations
+     * @throws IonicException on cryptography failures; if any needed key is not available
+     */
+    public void decrypt(final List<Object[]> rows, final KeySource keySource) throws IonicException {
+        decrypt(rows, keySource, ChunkCipherV2Local.getCipherProvider());
+    }
+
+    /**
+     * Ionic-unprotect the protected columns of many rows at once.  Each Ionic-protected column value is replaced by
+     * the plaintext value, of the column type.  All needed keys are fetched from the key source in a single call.
+     *
+     * @param rows           the rows to unprotect
+     * @param keySource      the key source; used to provide keys for cryptography operations
+     * @param cipherProvider the source of the JCE ciphers used for the decryption
+     * @throws IonicException on cryptography failures; if any needed key is not available
+     */
+    public void decrypt(final List<Object[]> rows, final KeySource keySource, final CipherProvider cipherProvider)
+            throws IonicException {
+        final String[] keyIdsCell = new String[rows.size() * columns.length];
+        final Set<String> keyIds = new LinkedHashSet<String>();
+        int cell = 0;
+        for (Object[] row : rows) {
+            for (int column : columns) {
+                final Object value = row[column];
+                if (value != null) {
+                    keyIdsCell[cell] = ChunkCipherV2Local.getKeyId((String) value);
+                    keyIds.add(keyIdsCell[cell]);
+                }
+                ++cell;
+            }
+        }
+        final Map<String, ProtectionKey> keys = keySource.getKeys(keyIds);
+        final byte[] scratch = IonicTypes.getScratchBuffer();
+        cell = 0;
+        for (Object[] row : rows) {
+            for (int i = 0; (i < columns.length); ++i, ++cell) {
+                final Object value = row[columns[i]];
+                if (value != null) {
+                    final ProtectionKey key = keys.get(keyIdsCell[cell]);
+                    if (key == null) {
+                        throw new IonicException(SdkError.ISAGENT_KEY_DENIED, keyIdsCell[cell]);
+                    }
+                    final FixedSizeConversion conversion = types[i].getFixedSizeConversion();
+                    if (conversion == null) {
+                        row[columns[i]] = types[i].fromBytes(
+                                ChunkCipherV2Local.decryptToBytes(key, (String) value, cipherProvider));
+                    } else {
+                        final int length = ChunkCipherV2Local.decryptToBytes(
+                                key, (String) value, scratch, 0, cipherProvider);
+                        row[columns[i]] = conversion.fromBytes(scratch, length);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.ionic.sdk.addon.jdbc.usecase2.policy;
+
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.RowSet;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.error.SdkError;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Configuration of the database columns which are Ionic-protected, for any number of tables.
+ * <p>
+ * The protected columns of a table are listed in the sample project properties, using the key
+ * "policy.protect.[table]".  The value is a comma-separated list of column names, each optionally followed by a colon
+ * and a {@link ColumnType} name; for example, "personalidentifier:string,salary:int".  If no type is given, it is
+ * taken from the {@link ResultSetMetaData} of the result set being processed.  (A type must be given for columns
+ * which hold Ionic-protected values, as the database type of such columns is always character data.)
+ * <p>
+ * Before rows are processed, the policy of a table is compiled against the result set columns into a
+ * {@link ProtectionPlan}.  Compiled plans are remembered, so that this work is done once per result set shape.
+ */
+public class ProtectionPolicy {
+
+    /**
+     * The protected columns of each table; column names are mapped to the configured type, or to null.
+     */
+    private final Map<String, Map<String, ColumnType>> tables;
+
+    /**
+     * Previously compiled plans, indexed by table and result set column labels and types.
+     */
+    private final ConcurrentMap<String, ProtectionPlan> plans;
+
+    /**
+     * Constructor.
+     *
+     * @param properties the sample project test properties
+     * @throws IonicException if a configured column type is not supported
+     */
+    public ProtectionPolicy(final Properties properties) throws IonicException {
+        this.tables = new LinkedHashMap<String, Map<String, ColumnType>>();
+        this.plans = new ConcurrentHashMap<String, ProtectionPlan>();
+        for (String name : properties.stringPropertyNames()) {
+            if (name.startsWith(PREFIX)) {
+                tables.put(normalize(name.substring(PREFIX.length())), parse(properties.getProperty(name)));
+            }
+        }
+    }
+
+    /**
+     * @param table the name of the table of interest
+     * @return the names of the protected columns of the table, in policy order
+     */
+    public Set<String> getProtectedColumns(final String table) {
+        final Map<String, ColumnType> columns = tables.get(normalize(table));
+        return (columns == null) ? Collections.<String>emptySet() : Collections.unmodifiableSet(columns.keySet());
+    }
+
+    /**
+     * @param table  the name of the table from which the rows were read
+     * @param rowSet rows read from the table, along with the associated metadata
+     * @return the compiled plan for the table, as read into "rowSet"
+     * @throws IonicException if a protected column is missing from the rows, or has an unsupported type
+     * @throws SQLException   on failure to read the result set metadata
+     */
+    public ProtectionPlan getPlan(final String table, final RowSet rowSet) throws IonicException, SQLException {
+        return getPlan(table, rowSet.getMetaData());
+    }
+
+    /**
+     * @param table    the name of the table from which the rows are read
+     * @param metaData the metadata of the result set from which the rows are read
+     * @return the compiled plan for the table, as described by "metaData"
+     * @throws IonicException if a protected column is missing from the result set, or has an unsupported type
+     * @throws SQLException   on failure to read the result set metadata
+     */
+    public ProtectionPlan getPlan(final String table, final ResultSetMetaData metaData)
+            throws IonicException, SQLException {
+        final int columnCount = metaData.getColumnCount();
+        final String[] columnLabels = new String[columnCount];
+        final int[] sqlTypes = new int[columnCount];
+        for (int i = 0; (i < columnCount); ++i) {
+            columnLabels[i] = metaData.getColumnLabel(i + 1);
+            sqlTypes[i] = metaData.getColumnType(i + 1);
+        }
+        return getPlan(table, columnLabels, sqlTypes);
+    }
+
+    /**
+     * @param table        the name of the table from which the rows are read
+     * @param columnLabels the labels of the columns of each row
+     * @param sqlTypes     the JDBC types of the columns of each row (see {@link java.sql.Types})
+     * @return the compiled plan for the table, for rows of the given shape
+     * @throws IonicException if a protected column is missing from the rows, or has an unsupported type
+     */
+    public ProtectionPlan getPlan(final String table, final String[] columnLabels, final int[] sqlTypes)
+            throws IonicException {
+        // the column types are part of the shape, as they select the type of the unconfigured protected columns
+        final StringBuilder signature = new StringBuilder(normalize(table));
+        for (int i = 0; (i < columnLabels.length); ++i) {
+            signature.append(',').append(normalize(columnLabels[i])).append(':').append(sqlTypes[i]);
+        }
+        final String planKey = signature.toString();
+        ProtectionPlan plan = plans.get(planKey);
+        if (plan == null) {
+            plan = compile(table, columnLabels, sqlTypes);
+            plans.putIfAbsent(planKey, plan);
+        }
+        return plan;
+    }
+
+    /**
+     * Resolve the positions and types of the protected columns of a table.
+     *
+     * @param table        the name of the table from which the rows are read
+     * @param columnLabels the labels of the columns of each row
+     * @param sqlTypes     the JDBC types of the columns of each row
+     * @return the compiled plan for the table, for rows of the given shape
+     * @throws IonicException if a protected column is missing from the rows, or has an unsupported type
+     */
+    private ProtectionPlan compile(final String table, final String[] columnLabels, final int[] sqlTypes)
+            throws IonicException {
+        final Map<String, ColumnType> columnsPolicy = tables.get(normalize(table));
+        if (columnsPolicy == null) {
+            return new ProtectionPlan(table, new int[0], new ColumnType[0]);
+        }
+        final Map<String, Integer> positions = new LinkedHashMap<String, Integer>();
+        for (int i = 0; (i < columnLabels.length); ++i) {
+            positions.put(normalize(columnLabels[i]), i);
+        }
+        final int[] columns = new int[columnsPolicy.size()];
+        final ColumnType[] types = new ColumnType[columnsPolicy.size()];
+        int i = 0;
+        for (Map.Entry<String, ColumnType> entry : columnsPolicy.entrySet()) {
+            final Integer position = positions.get(entry.getKey());
+            if (position == null) {
+                throw new IonicException(SdkError.ISAGENT_MISSINGVALUE, String.format(
+                        "column %s.%s", table, entry.getKey()));
+            }
+            columns[i] = position;
+            types[i] = (entry.getValue() == null) ? ColumnType.fromSqlType(sqlTypes[position]) : entry.getValue();
+            ++i;
+        }
+        return new ProtectionPlan(table, columns, types);
+    }
+
+    /**
+     * @param value the configured list of protected columns of a table
+     * @return the protected column names, mapped to the configured type (or to null)
+     * @throws IonicException if a configured column type is not supported
+     */
+    private static Map<String, ColumnType> parse(final String value) throws IonicException {
+        final Map<String, ColumnType> columns = new LinkedHashMap<String, ColumnType>();
+        for (String token : value.split(",")) {
+            final String column = token.trim();
+            if (column.length() > 0) {
+                final int colon = column.indexOf(':');
+                if (colon < 0) {
+                    columns.put(normalize(column), null);
+                } else {
+                    columns.put(normalize(column.substring(0, colon)),
+                            ColumnType.fromName(column.substring(colon + 1)));
+                }
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * @param name a table or column name
+     * @return the name, in the form used for comparison (databases differ in the case of reported names)
+     */
+    private static String normalize(final String name) {
+        return name.trim().toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * The prefix of the sample project properties which configure the protected columns of a table.
+     */
+    private static final String PREFIX = "policy.protect.";
+}
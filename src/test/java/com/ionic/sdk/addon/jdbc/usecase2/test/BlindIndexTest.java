@@ -0,0 +1,83 @@
+package com.ionic.sdk.addon.jdbc.usecase2.test;
+
+import com.ionic.sdk.addon.jdbc.usecase2.employee.Employee;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonicFields;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonicUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.ProtectionOptions;
+import com.ionic.sdk.addon.jdbc.usecase2.key.BlindIndex;
+import com.ionic.sdk.addon.jdbc.usecase2.key.BucketIndex;
+import com.ionic.sdk.addon.jdbc.usecase2.key.KeyScope;
+import com.ionic.sdk.addon.jdbc.usecase2.key.LocalKeySource;
+import com.ionic.sdk.addon.jdbc.usecase2.key.ProtectionKey;
+import com.ionic.sdk.error.IonicException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Test cases for the blind index, used to find records by the value of an Ionic-protected field.
+ */
+public class BlindIndexTest {
+
+    /**
+     * The blind index of a personal identifier should be stable for a given key and context, should differ across
+     * keys and contexts, and should be carried by the Ionic-protected representation of the record.
+     *
+     * @throws IonicException on failure to Ionic protect sensitive data
+     */
+    @Test
+    public final void testBlindIndex_1_Compute() throws IonicException {
+        final LocalKeySource keySource = new LocalKeySource(0L);
+        final List<ProtectionKey> keys = keySource.createKeys(2);
+        final BlindIndex blindIndex = BlindIndex.get(keySource, keys.get(0).getId(), "personalidentifier");
+        final Employee employee = EmployeeUtil.generate();
+        final String personalIdentifier = employee.getPersonalIdentifier();
+        final String index = blindIndex.compute(personalIdentifier);
+        Assert.assertEquals(22, index.length());
+        Assert.assertEquals(index, new BlindIndex(keys.get(0), "personalidentifier").compute(personalIdentifier));
+        Assert.assertNotEquals(index, blindIndex.compute(personalIdentifier + "0"));
+        Assert.assertNotEquals(index, new BlindIndex(keys.get(0), "salary").compute(personalIdentifier));
+        Assert.assertNotEquals(index, new BlindIndex(keys.get(1), "personalidentifier").compute(personalIdentifier));
+        final List<EmployeeIonicFields> ionicFields = EmployeeIonicUtil.toEmployeeIonicFields(
+                Collections.singletonList(employee), keySource,
+                new ProtectionOptions(KeyScope.ROW).withBlindIndex(blindIndex));
+        Assert.assertEquals(index, ionicFields.get(0).getPersonalIdentifierIndex());
+        Assert.assertNull(EmployeeIonicUtil.toEmployeeIonicFields(employee, keySource).getPersonalIdentifierIndex());
+    }
+
+    /**
+     * The blind index HMAC key is configured by id, so that the index calculated by one process may be looked up by
+     * another; without a configured key, no blind index (nor salary range tag) is calculated.
+     *
+     * @throws IonicException on failure to fetch the HMAC key
+     */
+    @Test
+    public final void testBlindIndex_2_Configured() throws IonicException {
+        final LocalKeySource keySource = new LocalKeySource(0L);
+        final ProtectionKey key = keySource.createKeys(1).iterator().next();
+        final Properties properties = new Properties();
+        properties.setProperty("bucket.salary.width", "10000");
+        Assert.assertFalse(BlindIndex.isConfigured(properties));
+        Assert.assertNull(BlindIndex.get(keySource, properties, BlindIndex.CONTEXT_PERSONAL_IDENTIFIER));
+        Assert.assertNull(ProtectionOptions.get(keySource, properties, KeyScope.ROW).getBucketIndex());
+        properties.setProperty("blindindex.key.id", key.getId());
+        Assert.assertTrue(BlindIndex.isConfigured(properties));
+        final BlindIndex blindIndex = BlindIndex.get(keySource, properties, BlindIndex.CONTEXT_PERSONAL_IDENTIFIER);
+        Assert.assertEquals(key.getId(), blindIndex.getKeyId());
+        Assert.assertEquals(new BlindIndex(key, BlindIndex.CONTEXT_PERSONAL_IDENTIFIER).compute("123456789"),
+                blindIndex.compute("123456789"));
+        // records written with the configured options hold both of the values stored by the indexed insert
+        final Employee employee = EmployeeUtil.generate();
+        final EmployeeIonicFields ionicFields = EmployeeIonicUtil.toEmployeeIonicFields(
+                Collections.singletonList(employee), keySource, ProtectionOptions.get(keySource, properties,
+                        KeyScope.ROW)).iterator().next();
+        Assert.assertEquals(blindIndex.compute(employee.getPersonalIdentifier()),
+                ionicFields.getPersonalIdentifierIndex());
+        Assert.assertEquals(new BucketIndex(new BlindIndex(key, BlindIndex.CONTEXT_SALARY), 10000).tag(
+                employee.getSalary()), ionicFields.getSalaryBucket());
+    }
+}
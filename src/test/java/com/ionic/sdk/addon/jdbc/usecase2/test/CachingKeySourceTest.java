@@ -0,0 +1,137 @@
+package com.ionic.sdk.addon.jdbc.usecase2.test;
+
+import com.ionic.sdk.addon.jdbc.usecase2.employee.Employee;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonic;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonicFields;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonicUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.key.CachingKeySource;
+import com.ionic.sdk.addon.jdbc.usecase2.key.LocalKeySource;
+import com.ionic.sdk.addon.jdbc.usecase2.key.ProtectionKey;
+import com.ionic.sdk.core.res.Resource;
+import com.ionic.sdk.error.IonicException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Test cases for the local cache of keys obtained from the Ionic key service.
+ */
+public class CachingKeySourceTest {
+
+    /**
+     * Class scoped logger.
+     */
+    private final Logger logger = Logger.getLogger(getClass().getName());
+
+    /**
+     * Test configuration.
+     */
+    private final Properties properties = new Properties();
+
+    /**
+     * Set up for each test case to be run.
+     *
+     * @throws IOException on failure to access test resources
+     */
+    @Before
+    public void setUp() throws IOException {
+        // load test configuration: "src/test/resources/test.properties.xml"
+        final URL urlTestProperties = Resource.resolve("test.properties.xml");
+        Assert.assertNotNull(urlTestProperties);
+        try (InputStream is = urlTestProperties.openStream()) {
+            properties.loadFromXML(is);
+        }
+    }
+
+    /**
+     * Repeated reads of the same records should be serviced from the cache.
+     *
+     * @throws IonicException on failure to Ionic protect / unprotect sensitive data
+     */
+    @Test
+    public final void testCache_1_RepeatedReads() throws IonicException {
+        final LocalKeySource keySourceService = new LocalKeySource(
+                Long.parseLong(properties.getProperty("keysource.local.latency")));
+        final CachingKeySource keySource = new CachingKeySource(keySourceService,
+                Integer.parseInt(properties.getProperty("keysource.cache.size")),
+                Long.parseLong(properties.getProperty("keysource.cache.ttl")));
+        // write with the uncached key source, so that the first read is a cache miss
+        final List<EmployeeIonic> employeesIonic = new ArrayList<EmployeeIonic>();
+        for (int i = 0; (i < RECORDS); ++i) {
+            final Employee employee = EmployeeUtil.generate();
+            final EmployeeIonicFields ionicFields =
+                    EmployeeIonicUtil.toEmployeeIonicFields(employee, keySourceService);
+            employeesIonic.add(new EmployeeIonic(employee, ionicFields));
+        }
+        final long requestsWrite = keySourceService.getRequestCount();
+        for (int i = 0; (i < READS); ++i) {
+            final List<Employee> employees = EmployeeIonicUtil.toEmployees(employeesIonic, keySource);
+            Assert.assertEquals(RECORDS, employees.size());
+        }
+        Assert.assertEquals(1, keySourceService.getRequestCount() - requestsWrite);
+        Assert.assertEquals(RECORDS * FIELDS, keySource.getMissCount());
+        Assert.assertEquals((READS - 1) * RECORDS * FIELDS, keySource.getHitCount());
+        logger.info(String.format("HITS=%d, MISSES=%d, EVICTIONS=%d",
+                keySource.getHitCount(), keySource.getMissCount(), keySource.getEvictionCount()));
+    }
+
+    /**
+     * Keys should be discarded once the cache is full, and once they have been held for the time to live.
+     *
+     * @throws IonicException       on failure to create keys
+     * @throws InterruptedException if interrupted while waiting for keys to expire
+     */
+    @Test
+    public final void testCache_2_Eviction() throws IonicException, InterruptedException {
+        final int maxSize = 10;
+        final long ttlMillis = 100L;
+        final CachingKeySource keySource = new CachingKeySource(new LocalKeySource(0L), maxSize, ttlMillis, 1);
+        final List<ProtectionKey> keys = keySource.createKeys(maxSize * 2);
+        Assert.assertEquals(maxSize, keySource.size());
+        Assert.assertEquals(maxSize, keySource.getEvictionCount());
+        TimeUnit.MILLISECONDS.sleep(ttlMillis * 2);
+        keySource.purgeExpired();
+        Assert.assertEquals(0, keySource.size());
+        Assert.assertEquals(maxSize * 2, keySource.getEvictionCount());
+        // expired keys are fetched again from the wrapped key source
+        final ProtectionKey key = keys.iterator().next();
+        Assert.assertNotNull(keySource.getKeys(Collections.singleton(key.getId())).get(key.getId()));
+        Assert.assertEquals(1, keySource.getMissCount());
+    }
+
+    /**
+     * The cache should hold no more than its maximum size, however many partitions are requested.
+     *
+     * @throws IonicException on failure to create keys
+     */
+    @Test
+    public final void testCache_3_BoundWithStripes() throws IonicException {
+        final int maxSize = 3;
+        final int stripeCount = 16;
+        final CachingKeySource keySource = new CachingKeySource(new LocalKeySource(0L), maxSize, TTL_LONG, stripeCount);
+        keySource.createKeys(stripeCount * 2);
+        Assert.assertEquals(maxSize, keySource.size());
+        // partitions of uneven size still add up to the maximum size
+        final int maxSizeUneven = stripeCount + 1;
+        final CachingKeySource keySourceUneven =
+                new CachingKeySource(new LocalKeySource(0L), maxSizeUneven, TTL_LONG, stripeCount);
+        keySourceUneven.createKeys(maxSizeUneven * 10);
+        Assert.assertTrue(keySourceUneven.size() <= maxSizeUneven);
+    }
+
+    private static final int RECORDS = 100;
+    private static final int READS = 5;
+    private static final int FIELDS = 2;
+    private static final long TTL_LONG = 60000L;
+}
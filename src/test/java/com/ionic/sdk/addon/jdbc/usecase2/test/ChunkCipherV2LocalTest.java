@@ -0,0 +1,99 @@
+package com.ionic.sdk.addon.jdbc.usecase2.test;
+
+import com.ionic.sdk.addon.jdbc.usecase2.cipher.ChunkCipherV2Local;
+import com.ionic.sdk.addon.jdbc.usecase2.key.AgentKeySource;
+import com.ionic.sdk.addon.jdbc.usecase2.key.ProtectionKey;
+import com.ionic.sdk.agent.Agent;
+import com.ionic.sdk.agent.AgentSdk;
+import com.ionic.sdk.agent.cipher.chunk.ChunkCipherV2;
+import com.ionic.sdk.core.res.Resource;
+import com.ionic.sdk.device.profile.persistor.DeviceProfilePersistorPlainText;
+import com.ionic.sdk.device.profile.persistor.ProfilePersistor;
+import com.ionic.sdk.error.IonicException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.net.URL;
+import java.security.Security;
+import java.util.Collections;
+import java.util.Properties;
+
+/**
+ * Test cases for the compatibility of the local ChunkCipherV2 implementation with the Ionic SDK implementation.
+ */
+public class ChunkCipherV2LocalTest {
+
+    /**
+     * Test configuration.
+     */
+    private final Properties properties = new Properties();
+
+    /**
+     * Test Ionic agent, used to obtain keys, and to protect / unprotect data using the SDK implementation.
+     */
+    private final Agent agent = new Agent();
+
+    /**
+     * Set up for each test case to be run.
+     *
+     * @throws Exception on failure to read the test configuration
+     */
+    @Before
+    public void setUp() throws Exception {
+        // load test configuration: "src/test/resources/test.properties.xml"
+        final URL urlTestProperties = Resource.resolve("test.properties.xml");
+        Assert.assertNotNull(urlTestProperties);
+        try (InputStream is = urlTestProperties.openStream()) {
+            properties.loadFromXML(is);
+        }
+        // initialize Ionic agent for use
+        if (!agent.isInitialized()) {
+            final String ionicProfile = properties.getProperty("ionic.profile");
+            Assert.assertNotNull(ionicProfile);
+            AgentSdk.initialize(Security.getProvider("SunJCE"));
+            final URL urlIonicProfile = Resource.resolve(ionicProfile);
+            final ProfilePersistor profilePersistor = new DeviceProfilePersistorPlainText(urlIonicProfile);
+            agent.initialize(profilePersistor);
+        }
+    }
+
+    /**
+     * Values protected by the local implementation should be unprotected by the SDK implementation.
+     *
+     * @throws IonicException on failure to Ionic protect / unprotect the data
+     */
+    @Test
+    public final void testChunkCipher_1_LocalToSdk() throws IonicException {
+        final ProtectionKey key = new AgentKeySource(agent).createKeys(1).iterator().next();
+        for (String plainText : PLAINTEXTS) {
+            final String cipherText = ChunkCipherV2Local.encrypt(key, plainText);
+            Assert.assertEquals(key.getId(), ChunkCipherV2Local.getKeyId(cipherText));
+            Assert.assertEquals(plainText, new ChunkCipherV2(agent).decrypt(cipherText));
+        }
+    }
+
+    /**
+     * Values protected by the SDK implementation should be unprotected by the local implementation.
+     *
+     * @throws IonicException on failure to Ionic protect / unprotect the data
+     */
+    @Test
+    public final void testChunkCipher_2_SdkToLocal() throws IonicException {
+        final AgentKeySource keySource = new AgentKeySource(agent);
+        for (String plainText : PLAINTEXTS) {
+            final String cipherText = new ChunkCipherV2(agent).encrypt(plainText);
+            final String keyId = ChunkCipherV2Local.getKeyId(cipherText);
+            final ProtectionKey key = keySource.getKeys(Collections.singleton(keyId)).get(keyId);
+            Assert.assertNotNull(key);
+            Assert.assertEquals(plainText, ChunkCipherV2Local.decrypt(key, cipherText));
+        }
+    }
+
+    /**
+     * Sample values; of lengths which do / do not need base64 padding, and which do / do not fill an AES block.
+     */
+    private static final String[] PLAINTEXTS = {
+            "1", "12", "123", "123-45-6789", "0123456789abcdef", "0123456789abcdef0", "Gr\u00fc\u00dfe"};
+}
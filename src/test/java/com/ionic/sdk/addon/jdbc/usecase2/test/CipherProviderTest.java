@@ -0,0 +1,80 @@
+package com.ionic.sdk.addon.jdbc.usecase2.test;
+
+import com.ionic.sdk.addon.jdbc.usecase2.cipher.PooledCipherProvider;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.Employee;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonic;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonicUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.ProtectionOptions;
+import com.ionic.sdk.addon.jdbc.usecase2.key.KeyScope;
+import com.ionic.sdk.addon.jdbc.usecase2.key.LocalKeySource;
+import com.ionic.sdk.error.IonicException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+/**
+ * Test cases for the reuse of JCE ciphers across cryptography operations.
+ */
+public class CipherProviderTest {
+
+    /**
+     * Class scoped logger.
+     */
+    private final Logger logger = Logger.getLogger(getClass().getName());
+
+    /**
+     * Protect and unprotect records on several threads at once, sharing a pool of ciphers.  No more ciphers should be
+     * created than there are threads.
+     *
+     * @throws Exception on failure to Ionic protect / unprotect sensitive data
+     */
+    @Test
+    public final void testCipherProvider_1_Pooled() throws Exception {
+        final int threads = Runtime.getRuntime().availableProcessors();
+        final int recordsPerThread = 1000;
+        final LocalKeySource keySource = new LocalKeySource(0L);
+        final PooledCipherProvider cipherProvider = new PooledCipherProvider(threads);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+            final long start = System.nanoTime();
+            for (int t = 0; (t < threads); ++t) {
+                futures.add(executor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws IonicException {
+                        final List<Employee> employees = EmployeeFixture.generate(recordsPerThread);
+                        final List<EmployeeIonic> employeesIonic = EmployeeFixture.join(employees,
+                                EmployeeIonicUtil.toEmployeeIonicFields(employees, keySource,
+                                        new ProtectionOptions(KeyScope.CELL).withCipherProvider(cipherProvider)));
+                        int verified = 0;
+                        for (Employee employee : EmployeeIonicUtil.toEmployees(
+                                employeesIonic, keySource, cipherProvider)) {
+                            Assert.assertEquals(EmployeeUtil.SALARY, employee.getSalary());
+                            ++verified;
+                        }
+                        return verified;
+                    }
+                }));
+            }
+            int verified = 0;
+            for (Future<Integer> future : futures) {
+                verified += future.get();
+            }
+            final long elapsed = System.nanoTime() - start;
+            Assert.assertEquals(threads * recordsPerThread, verified);
+            Assert.assertTrue(cipherProvider.getCreatedCount() <= threads);
+            logger.info(String.format("THREADS=%d, CIPHERS=%d, BULK=%d records/s", threads,
+                    cipherProvider.getCreatedCount(), EmployeeFixture.recordsPerSecond(verified, elapsed)));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
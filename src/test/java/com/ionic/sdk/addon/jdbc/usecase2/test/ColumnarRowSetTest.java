@@ -0,0 +1,89 @@
+package com.ionic.sdk.addon.jdbc.usecase2.test;
+
+import com.ionic.sdk.addon.jdbc.usecase2.employee.Employee;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.ColumnarRowSet;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test cases for the column-oriented in-memory representation of database rows.
+ */
+public class ColumnarRowSetTest {
+
+    /**
+     * Rows read back from the row set should match the rows added; column aggregates should match the equivalent
+     * row-by-row calculations.
+     */
+    @Test
+    public final void testColumnar_1_RowsAndAggregates() {
+        final ColumnarRowSet rowSet = new ColumnarRowSet(LABELS, TYPES);
+        final List<Object[]> rows = new ArrayList<Object[]>();
+        for (int i = 0; (i < RECORDS); ++i) {
+            final Employee e = EmployeeUtil.generate();
+            final Object[] row = {i + 1, e.getFirstName(), e.getLastName(), e.getPersonalIdentifier(),
+                    (i % SALARY_NULL_EVERY == 0) ? null : (e.getSalary() + i), e.getCountry()};
+            rows.add(row);
+            rowSet.addRow(row);
+        }
+        Assert.assertEquals(RECORDS, rowSet.size());
+        for (int i = 0; (i < RECORDS); ++i) {
+            Assert.assertArrayEquals(rows.get(i), rowSet.asRows().get(i));
+        }
+        final int columnSalary = rowSet.getColumnIndex("SALARY");
+        final int columnCountry = rowSet.getColumnIndex("country");
+        long sum = 0L;
+        int count = 0;
+        for (Object[] row : rows) {
+            if (row[columnSalary] != null) {
+                sum += (Integer) row[columnSalary];
+                ++count;
+            }
+        }
+        Assert.assertEquals(sum, rowSet.sum(columnSalary));
+        Assert.assertEquals(count, rowSet.count(columnSalary));
+        Assert.assertEquals(Long.valueOf(EmployeeUtil.SALARY + 1), rowSet.min(columnSalary));
+        Assert.assertEquals(Long.valueOf(EmployeeUtil.SALARY + RECORDS - 1), rowSet.max(columnSalary));
+        int countAll = 0;
+        for (Map.Entry<String, Integer> entry : rowSet.countBy(columnCountry).entrySet()) {
+            countAll += entry.getValue();
+        }
+        Assert.assertEquals(RECORDS, countAll);
+        long sumAll = 0L;
+        for (Map.Entry<String, Long> entry : rowSet.sumBy(columnSalary, columnCountry).entrySet()) {
+            sumAll += entry.getValue();
+        }
+        Assert.assertEquals(sum, sumAll);
+    }
+
+    /**
+     * A character column with many distinct values should revert from dictionary encoding without loss.
+     */
+    @Test
+    public final void testColumnar_2_HighCardinality() {
+        final ColumnarRowSet rowSet = new ColumnarRowSet(
+                new String[]{"id", "value"}, new int[]{Types.BIGINT, Types.VARCHAR});
+        final int records = 10000;
+        for (int i = 0; (i < records); ++i) {
+            rowSet.addRow(new Object[]{(long) i, (i == 1) ? null : Integer.toString(i)});
+        }
+        for (int i = 0; (i < records); ++i) {
+            Assert.assertEquals((long) i, rowSet.get(i, 0));
+            Assert.assertEquals((i == 1) ? null : Integer.toString(i), rowSet.get(i, 1));
+        }
+        Assert.assertEquals(records - 1, rowSet.countBy(1).size());
+        Assert.assertEquals((long) records * (records - 1) / 2, rowSet.sum(0));
+    }
+
+    private static final int RECORDS = 1000;
+    private static final int SALARY_NULL_EVERY = 100;
+    private static final String[] LABELS = {
+            "id", "firstname", "lastname", "personalidentifier", "salary", "country"};
+    private static final int[] TYPES = {
+            Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.INTEGER, Types.VARCHAR};
+}
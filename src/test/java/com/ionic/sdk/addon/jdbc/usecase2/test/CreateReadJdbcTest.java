@@ -5,10 +5,23 @@ import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonic;
 import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonicFields;
 import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonicUtil;
 import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.PersonalIdentifiers;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.ProtectionOptions;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.EmployeeCopy;
 import com.ionic.sdk.addon.jdbc.usecase2.jdbc.EmployeeIonicJdbcUtil;
 import com.ionic.sdk.addon.jdbc.usecase2.jdbc.JdbcUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.KeysetCursor;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.RecordConsumer;
 import com.ionic.sdk.addon.jdbc.usecase2.jdbc.RowSet;
 import com.ionic.sdk.addon.jdbc.usecase2.jdbc.SampleResultSetHandler;
+import com.ionic.sdk.addon.jdbc.usecase2.key.AgentKeySource;
+import com.ionic.sdk.addon.jdbc.usecase2.key.BlindIndex;
+import com.ionic.sdk.addon.jdbc.usecase2.key.KeyScope;
+import com.ionic.sdk.addon.jdbc.usecase2.metrics.Metrics;
+import com.ionic.sdk.addon.jdbc.usecase2.pipeline.EmployeeIngestPipeline;
+import com.ionic.sdk.addon.jdbc.usecase2.pipeline.EmployeeScan;
+import com.ionic.sdk.addon.jdbc.usecase2.policy.ProtectionPlan;
+import com.ionic.sdk.addon.jdbc.usecase2.policy.ProtectionPolicy;
 import com.ionic.sdk.agent.Agent;
 import com.ionic.sdk.agent.AgentSdk;
 import com.ionic.sdk.core.res.Resource;
@@ -16,21 +29,31 @@ import com.ionic.sdk.device.profile.persistor.DeviceProfilePersistorPlainText;
 import com.ionic.sdk.device.profile.persistor.ProfilePersistor;
 import com.ionic.sdk.error.IonicException;
 import org.apache.commons.dbutils.QueryRunner;
-import org.apache.commons.dbutils.ResultSetHandler;
-import org.apache.commons.dbutils.handlers.ScalarHandler;
+import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.FixMethodOrder;
 import org.junit.Test;
 import org.junit.runners.MethodSorters;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URL;
 import java.security.Security;
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.util.Map;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 /**
@@ -67,6 +90,8 @@ public class CreateReadJdbcTest {
         try (InputStream is = urlTestProperties.openStream()) {
             properties.loadFromXML(is);
         }
+        // latency instrumentation ("metrics.*")
+        Metrics.configure(properties);
         // initialize Ionic agent for use
         if (!agent.isInitialized()) {
             final String ionicProfile = properties.getProperty("ionic.profile");
@@ -78,10 +103,27 @@ public class CreateReadJdbcTest {
         }
     }
 
+    /**
+     * Release the resources shared by the test cases: the database connection pools, and the latency reporter and
+     * its JMX publication.
+     *
+     * @throws SQLException   on failure to close a connection pool
+     * @throws IonicException on failure to withdraw the JMX publication
+     */
+    @AfterClass
+    public static void tearDownClass() throws SQLException, IonicException {
+        try {
+            JdbcUtil.closeDataSources();
+        } finally {
+            Metrics.shutdown();
+        }
+    }
+
     /**
      * Store some newly fabricated records into the Employee and EmployeeIonic database tables.  Sensitive data is
      * filtered out of the data written to table Employee.  The Ionic-protected representation of these fields is
-     * written to EmployeeIonic.
+     * written to EmployeeIonic.  Records are protected and stored in batches, to minimize key service and database
+     * round trips.
      *
      * @throws SQLException   on failure to read from/write to the SQL data store
      * @throws IonicException on test case initialization failure; on failure to Ionic protect sensitive data
@@ -92,25 +134,24 @@ public class CreateReadJdbcTest {
         try (Connection connection = JdbcUtil.getConnection(properties)) {
             Assert.assertNotNull(connection);
             final int recordsToCreate = 2;
+            // make employee records
+            final List<Employee> employees = new ArrayList<Employee>();
             for (int i = 0; (i < recordsToCreate); ++i) {
-                // make employee record
                 final Employee e = EmployeeUtil.generate();
                 logger.fine(e.getPersonalIdentifier());
-                final EmployeeIonicFields eif = EmployeeIonicUtil.toEmployeeIonicFields(e, agent);
-                final EmployeeIonic ei = new EmployeeIonic(e, eif);
-                // store employee record (to get record key)
-                final String sqlInsertEmployee = properties.getProperty("sql.insert.employee");
-                final QueryRunner queryRunner = new QueryRunner();
-                final ScalarHandler<Integer> scalarHandler = new ScalarHandler<Integer>();
-                final int idEmployee = queryRunner.insert(connection, sqlInsertEmployee, scalarHandler,
-                        ei.getFirstName(), ei.getLastName(),
-                        ei.getPersonalIdentifier(), ei.getSalary(), ei.getCountry());
-                // store employeeionic record
-                final String sqlInsertEmployeeIonic = properties.getProperty("sql.insert.employeeionic");
-                final int inserts = queryRunner.update(connection, sqlInsertEmployeeIonic,
-                        idEmployee, eif.getPersonalIdentifier(), eif.getSalary());
-                Assert.assertEquals(1, inserts);
+                employees.add(e);
             }
+            // protect all records at once; keys are created in batches
+            final AgentKeySource keySource = new AgentKeySource(agent);
+            final List<EmployeeIonicFields> ionicFields = EmployeeIonicUtil.toEmployeeIonicFields(
+                    employees, keySource, ProtectionOptions.get(keySource, properties, KeyScope.CELL));
+            final List<EmployeeIonic> employeesIonic = new ArrayList<EmployeeIonic>();
+            for (int i = 0; (i < recordsToCreate); ++i) {
+                employeesIonic.add(new EmployeeIonic(employees.get(i), ionicFields.get(i)));
+            }
+            // store employee and employeeionic records, in JDBC batches, in a single transaction
+            final List<Integer> ids = EmployeeIonicJdbcUtil.insertEmployees(connection, properties, employeesIonic);
+            Assert.assertEquals(recordsToCreate, ids.size());
         }
         logger.exiting(null, null);
     }
@@ -126,41 +167,65 @@ public class CreateReadJdbcTest {
     @Test
     public final void testJdbc_2_ReadRecords() throws IonicException, SQLException {
         logger.entering(null, null);
+        final int threads = Runtime.getRuntime().availableProcessors();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
         try (Connection connection = JdbcUtil.getConnection(properties)) {
             Assert.assertNotNull(connection);
-            // retrieve employeeionic records
-            final Map<Integer, EmployeeIonicFields> mapIonicFields =
-                    EmployeeIonicJdbcUtil.getIonicFields(connection, properties);
-            // retrieve employee records
-            final QueryRunner queryRunner = new QueryRunner();
-            final ResultSetHandler<RowSet> handler = new SampleResultSetHandler();
-            final String sqlSelectEmployee = properties.getProperty("sql.select.employee");
-            final RowSet rowSet = queryRunner.query(connection, sqlSelectEmployee, handler);
-            // iterate through records
-            for (Object[] row : rowSet) {
-                // this will hold the values from the database
-                final Employee employeeDB = new Employee(
-                        (Integer) row[0], (String) row[1], (String) row[2],
-                        (String) row[3], (Integer) row[4], (String) row[5]);
-                // we re-derive the personal identifier to verify it against the unwrapped Ionic-protected value
-                final String personalIdentifier = EmployeeUtil.getPersonalIdentifier(
-                        employeeDB.getFirstName(), employeeDB.getLastName());
-                // find ionic data for this employee record
-                final EmployeeIonicFields ionicFields = mapIonicFields.get(employeeDB.getId());
-                Assert.assertNotNull(ionicFields);
-                // merge the two records together
-                final EmployeeIonic employeeIonic = new EmployeeIonic(employeeDB, ionicFields);
-                final Employee employee = EmployeeIonicUtil.toEmployee(employeeIonic, agent);
-                // verify data expectations; we can recover original values from ciphertext
-                Assert.assertEquals(personalIdentifier, employee.getPersonalIdentifier());
-                logger.info(String.format("PERSONAL IDENTIFIER RECOVERED FOR RECORD %d", employee.getId()));
-                Assert.assertEquals(EmployeeUtil.SALARY, employee.getSalary());
-                logger.info(String.format("SALARY RECOVERED FOR RECORD %d", employee.getId()));
-            }
+            // retrieve joined employee / employeeionic records; unprotect them in batches as they stream in
+            final AgentKeySource keySource = new AgentKeySource(agent);
+            final int batchSize = JdbcUtil.getFetchSize(properties);
+            final List<EmployeeIonic> employeesIonic = new ArrayList<EmployeeIonic>();
+            final int records = EmployeeIonicJdbcUtil.streamEmployeeIonic(connection, properties,
+                    new RecordConsumer<EmployeeIonic>() {
+                        @Override
+                        public void accept(final EmployeeIonic employeeIonic) throws SQLException {
+                            employeesIonic.add(employeeIonic);
+                            if (employeesIonic.size() >= batchSize) {
+                                verifyRecords(employeesIonic, keySource, executor, threads);
+                                employeesIonic.clear();
+                            }
+                        }
+                    });
+            verifyRecords(employeesIonic, keySource, executor, threads);
+            logger.info(String.format("RECORDS VERIFIED: %d", records));
+        } finally {
+            executor.shutdown();
         }
         logger.exiting(null, null);
     }
 
+    /**
+     * Unprotect a batch of records read from the SQL data store, and verify that the unprotected data is as expected.
+     *
+     * @param employeesIonic the records to verify
+     * @param keySource      the key source; used to provide keys for cryptography operations
+     * @param executor       the executor on which to verify the personal identifiers of the records
+     * @param threads        the number of threads available to the executor
+     * @throws SQLException on failure to Ionic unprotect sensitive data
+     */
+    private void verifyRecords(final List<EmployeeIonic> employeesIonic, final AgentKeySource keySource,
+                               final ExecutorService executor, final int threads) throws SQLException {
+        final List<Employee> employees;
+        final List<Employee> mismatches;
+        try {
+            // unprotect all records in the batch at once; keys are fetched in batches
+            employees = EmployeeIonicUtil.toEmployees(employeesIonic, keySource);
+            // we re-derive the personal identifiers to verify them against the unwrapped Ionic-protected values
+            mismatches = PersonalIdentifiers.verify(employees, executor, threads);
+        } catch (IonicException e) {
+            throw new SQLException(e);
+        } catch (InterruptedException e) {
+            throw new SQLException(e);
+        }
+        // verify data expectations; we can recover original values from ciphertext
+        Assert.assertTrue(mismatches.isEmpty());
+        logger.info(String.format("PERSONAL IDENTIFIERS RECOVERED FOR %d RECORDS", employees.size()));
+        for (Employee employee : employees) {
+            Assert.assertEquals(EmployeeUtil.SALARY, employee.getSalary());
+        }
+        logger.info(String.format("SALARIES RECOVERED FOR %d RECORDS", employees.size()));
+    }
+
     /**
      * Write the records previously stored in the SQL data store to the console.
      *
@@ -175,19 +240,261 @@ public class CreateReadJdbcTest {
             logger.info("SHOW TABLE EMPLOYEEIONIC");
             readRecords(connection, properties.getProperty("sql.select.employeeionic"));
         }
+        logger.info(JdbcUtil.getPoolMetrics(properties));
+        logger.info(Metrics.report());
     }
 
-    private void readRecords(final Connection connection, final String dbSqlSelect) throws SQLException {
-        final QueryRunner queryRunner = new QueryRunner();
-        final ResultSetHandler<RowSet> handler = new SampleResultSetHandler();
-        final RowSet rowSet = queryRunner.query(connection, dbSqlSelect, handler);
-        for (Object[] row : rowSet) {
-            final StringBuilder buffer = new StringBuilder();
-            for (Object cell : row) {
-                buffer.append(cell);
-                buffer.append(" ");
+    /**
+     * Store a larger number of newly fabricated records, using a staged pipeline.  Record generation, Ionic
+     * protection, and database writes proceed concurrently.
+     *
+     * @throws Exception on failure to Ionic protect sensitive data, or to write to the SQL data store
+     */
+    @Test
+    public final void testJdbc_4_IngestPipeline() throws Exception {
+        final int recordsToCreate = 2000;
+        final long start = System.nanoTime();
+        final EmployeeIngestPipeline pipeline = new EmployeeIngestPipeline(new AgentKeySource(agent), properties);
+        try {
+            for (int i = 0; (i < recordsToCreate); ++i) {
+                pipeline.submit(EmployeeUtil.generate());
+            }
+        } finally {
+            pipeline.close();
+        }
+        final long elapsed = System.nanoTime() - start;
+        Assert.assertEquals(recordsToCreate, pipeline.getRecordsStored());
+        logger.info(String.format("RECORDS STORED: %d in %d ms", pipeline.getRecordsStored(),
+                TimeUnit.NANOSECONDS.toMillis(elapsed)));
+    }
+
+    /**
+     * Read the Ionic-protected table into memory, and unprotect it using the configured column protection policy.
+     *
+     * @throws IonicException on failure to Ionic unprotect sensitive data
+     * @throws SQLException   on failure to read from the SQL data store
+     */
+    @Test
+    public final void testJdbc_5_ReadRecordsByPolicy() throws IonicException, SQLException {
+        final ProtectionPolicy policy = new ProtectionPolicy(properties);
+        try (Connection connection = JdbcUtil.getConnection(properties)) {
+            Assert.assertNotNull(connection);
+            final RowSet rowSet = new QueryRunner().query(connection,
+                    properties.getProperty("sql.select.employeeionic"), new SampleResultSetHandler());
+            final ProtectionPlan plan = policy.getPlan("employeeionic", rowSet);
+            Assert.assertEquals(2, plan.getColumnCount());
+            plan.decrypt(rowSet, new AgentKeySource(agent));
+            final int columnSalary = plan.getColumn(1);
+            for (Object[] row : rowSet) {
+                Assert.assertEquals(EmployeeUtil.SALARY, row[columnSalary]);
+            }
+            logger.info(String.format("RECORDS UNPROTECTED BY POLICY: %d", rowSet.size()));
+        }
+    }
+
+    /**
+     * Read all records using a parallel scan over primary key ranges, in key order and in completion order.  Both
+     * should yield the same records.
+     *
+     * @throws Exception on failure to Ionic unprotect sensitive data, or to read from the SQL data store
+     */
+    @Test
+    public final void testJdbc_6_ParallelScan() throws Exception {
+        final EmployeeScan scan = new EmployeeScan(new AgentKeySource(agent), properties);
+        long start = System.nanoTime();
+        final List<Employee> employeesOrdered = scan.scan(true);
+        logger.info(String.format("RECORDS SCANNED (ORDERED): %d in %d ms", employeesOrdered.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+        for (int i = 1; (i < employeesOrdered.size()); ++i) {
+            Assert.assertTrue(employeesOrdered.get(i - 1).getId() < employeesOrdered.get(i).getId());
+        }
+        start = System.nanoTime();
+        final List<Employee> employeesUnordered = scan.scan(false);
+        logger.info(String.format("RECORDS SCANNED (UNORDERED): %d in %d ms", employeesUnordered.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+        Assert.assertEquals(employeesOrdered.size(), employeesUnordered.size());
+        Assert.assertTrue(PersonalIdentifiers.verify(employeesUnordered).isEmpty());
+    }
+
+    /**
+     * Export all records a page at a time using keyset pagination, interrupting the export partway through and then
+     * resuming it from the saved cursor position.
+     *
+     * @throws IonicException on failure to Ionic unprotect sensitive data
+     * @throws SQLException   on failure to read from the SQL data store
+     */
+    @Test
+    public final void testJdbc_7_KeysetExport() throws IonicException, SQLException {
+        final EmployeeScan scan = new EmployeeScan(new AgentKeySource(agent), properties);
+        final List<Employee> employees = new ArrayList<Employee>();
+        final RecordConsumer<List<Employee>> consumer = new RecordConsumer<List<Employee>>() {
+            @Override
+            public void accept(final List<Employee> page) {
+                employees.addAll(page);
+            }
+        };
+        // read the first page, then abandon the cursor, keeping only its position
+        final KeysetCursor cursorFirst = scan.newCursor(0);
+        scan.export(cursorFirst, consumer);
+        // resume the export
+        final KeysetCursor cursor = scan.newCursor(cursorFirst.getPosition());
+        while (scan.export(cursor, consumer) > 0) {
+            logger.fine(String.format("EXPORT POSITION: %d", cursor.getPosition()));
+        }
+        Assert.assertTrue(cursor.isExhausted());
+        for (int i = 1; (i < employees.size()); ++i) {
+            Assert.assertTrue(employees.get(i - 1).getId() < employees.get(i).getId());
+        }
+        Assert.assertTrue(PersonalIdentifiers.verify(employees).isEmpty());
+        logger.info(String.format("RECORDS EXPORTED: %d", employees.size()));
+    }
+
+    /**
+     * Bulk export the Ionic-protected table pair using the PostgreSQL COPY protocol, then move it into a second table
+     * pair: first through a streaming pipe between two connections, then by import of the exported content.  The
+     * protected values are carried as-is, and remain readable.
+     *
+     * @throws Exception on failure to access the SQL data store, or to Ionic unprotect sensitive data
+     */
+    @Test
+    public final void testJdbc_8_CopyExportImport() throws Exception {
+        final EmployeeCopy copySource = new EmployeeCopy(properties);
+        final Properties propertiesTarget = new Properties();
+        propertiesTarget.putAll(properties);
+        propertiesTarget.setProperty("copy.table.employee", TABLE_EMPLOYEE_COPY);
+        propertiesTarget.setProperty("copy.table.employeeionic", TABLE_EMPLOYEEIONIC_COPY);
+        propertiesTarget.remove("sql.copy.sequence.employee");
+        final EmployeeCopy copyTarget = new EmployeeCopy(propertiesTarget);
+        final File fileEmployee = File.createTempFile("employee", ".copy");
+        final File fileEmployeeIonic = File.createTempFile("employeeionic", ".copy");
+        try (Connection source = JdbcUtil.getConnection(properties);
+             Connection target = JdbcUtil.getConnection(properties)) {
+            try (Statement statement = target.createStatement()) {
+                statement.execute(String.format("CREATE TABLE %s (LIKE employee)", TABLE_EMPLOYEE_COPY));
+                statement.execute(String.format("CREATE TABLE %s (LIKE employeeionic)", TABLE_EMPLOYEEIONIC_COPY));
+            }
+            try {
+                // export to files
+                final long[] rowsExported;
+                try (OutputStream osEmployee = new BufferedOutputStream(new FileOutputStream(fileEmployee));
+                     OutputStream osEmployeeIonic = new BufferedOutputStream(
+                             new FileOutputStream(fileEmployeeIonic))) {
+                    rowsExported = copySource.exportTables(source, osEmployee, osEmployeeIonic);
+                }
+                logger.info(String.format("ROWS EXPORTED: %d, %d", rowsExported[0], rowsExported[1]));
+                // transfer through a pipe
+                long start = System.nanoTime();
+                final long[] rowsTransferred = copySource.transfer(source, copyTarget, target);
+                logger.info(String.format("ROWS TRANSFERRED: %d, %d in %d ms", rowsTransferred[0],
+                        rowsTransferred[1], TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+                Assert.assertArrayEquals(rowsExported, rowsTransferred);
+                // import from files
+                try (Statement statement = target.createStatement()) {
+                    statement.execute(String.format("TRUNCATE %s, %s",
+                            TABLE_EMPLOYEE_COPY, TABLE_EMPLOYEEIONIC_COPY));
+                }
+                start = System.nanoTime();
+                final long[] rowsImported;
+                try (InputStream isEmployee = new BufferedInputStream(new FileInputStream(fileEmployee));
+                     InputStream isEmployeeIonic = new BufferedInputStream(new FileInputStream(fileEmployeeIonic))) {
+                    rowsImported = copyTarget.importTables(target, isEmployee, isEmployeeIonic);
+                }
+                logger.info(String.format("ROWS IMPORTED: %d, %d in %d ms", rowsImported[0], rowsImported[1],
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+                Assert.assertArrayEquals(rowsExported, rowsImported);
+                // the copied ciphertext is usable as-is
+                final List<EmployeeIonic> employeesIonic = new ArrayList<EmployeeIonic>();
+                JdbcUtil.stream(target, String.format(SQL_SELECT_COPY_JOIN,
+                        TABLE_EMPLOYEE_COPY, TABLE_EMPLOYEEIONIC_COPY), JdbcUtil.getFetchSize(properties),
+                        new RecordConsumer<Object[]>() {
+                            @Override
+                            public void accept(final Object[] row) {
+                                employeesIonic.add(EmployeeIonicJdbcUtil.toEmployeeIonic(row));
+                            }
+                        });
+                Assert.assertEquals(rowsExported[1], employeesIonic.size());
+                final List<Employee> employees =
+                        EmployeeIonicUtil.toEmployees(employeesIonic, new AgentKeySource(agent));
+                Assert.assertTrue(PersonalIdentifiers.verify(employees).isEmpty());
+            } finally {
+                try (Statement statement = target.createStatement()) {
+                    statement.execute(String.format("DROP TABLE IF EXISTS %s, %s",
+                            TABLE_EMPLOYEEIONIC_COPY, TABLE_EMPLOYEE_COPY));
+                }
+            }
+        } finally {
+            Assert.assertTrue(fileEmployee.delete());
+            Assert.assertTrue(fileEmployeeIonic.delete());
+        }
+    }
+
+    /**
+     * Store records along with the blind index of their personal identifiers, then find one of them by personal
+     * identifier.  The database finds the record using the blind index; only the hits are unprotected.
+     *
+     * @throws IonicException on failure to Ionic protect / unprotect sensitive data
+     * @throws SQLException   on failure to read from/write to the SQL data store
+     */
+    @Test
+    public final void testJdbc_9_BlindIndexLookup() throws IonicException, SQLException {
+        final AgentKeySource keySource = new AgentKeySource(agent);
+        final ProtectionOptions options = EmployeeFixture.getProtectionOptions(keySource, properties, KeyScope.ROW);
+        final BlindIndex blindIndex = options.getBlindIndex();
+        final int recordsToCreate = 10;
+        final List<Employee> employees = EmployeeFixture.generate(recordsToCreate);
+        final List<EmployeeIonicFields> ionicFields =
+                EmployeeIonicUtil.toEmployeeIonicFields(employees, keySource, options);
+        final List<EmployeeIonic> employeesIonic = EmployeeFixture.join(employees, ionicFields);
+        try (Connection connection = JdbcUtil.getConnection(properties)) {
+            final List<Integer> ids = EmployeeIonicJdbcUtil.insertEmployees(connection, properties, employeesIonic);
+            try {
+                final String personalIdentifier = employees.get(recordsToCreate / 2).getPersonalIdentifier();
+                final long start = System.nanoTime();
+                final List<Employee> found = EmployeeIonicJdbcUtil.findByPersonalIdentifier(
+                        connection, properties, personalIdentifier, blindIndex, keySource);
+                logger.info(String.format("RECORDS FOUND BY PERSONAL IDENTIFIER: %d in %d ms", found.size(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+                Assert.assertFalse(found.isEmpty());
+                boolean foundInserted = false;
+                for (Employee employee : found) {
+                    Assert.assertEquals(personalIdentifier, employee.getPersonalIdentifier());
+                    foundInserted |= (employee.getId() == ids.get(recordsToCreate / 2));
+                }
+                Assert.assertTrue(foundInserted);
+            } finally {
+                EmployeeFixture.deleteRecords(connection, ids);
             }
-            logger.info(buffer.toString());
         }
     }
+
+    private void readRecords(final Connection connection, final String dbSqlSelect) throws SQLException {
+        JdbcUtil.stream(connection, dbSqlSelect, JdbcUtil.getFetchSize(properties), new RecordConsumer<Object[]>() {
+            @Override
+            public void accept(final Object[] row) {
+                final StringBuilder buffer = new StringBuilder();
+                for (Object cell : row) {
+                    buffer.append(cell);
+                    buffer.append(" ");
+                }
+                logger.info(buffer.toString());
+            }
+        });
+    }
+
+    /**
+     * The name of the table into which table Employee is copied.
+     */
+    private static final String TABLE_EMPLOYEE_COPY = "employee_copy";
+
+    /**
+     * The name of the table into which table EmployeeIonic is copied.
+     */
+    private static final String TABLE_EMPLOYEEIONIC_COPY = "employeeionic_copy";
+
+    /**
+     * The join query used to read back the copied table pair.
+     */
+    private static final String SQL_SELECT_COPY_JOIN = "SELECT e.id, e.firstname, e.lastname, "
+            + "e.personalidentifier, e.salary, e.country, ei.personalidentifier, ei.salary "
+            + "FROM %s e JOIN %s ei ON e.id = ei.fid ORDER BY e.id";
 }
@@ -0,0 +1,128 @@
+package com.ionic.sdk.addon.jdbc.usecase2.test;
+
+import com.ionic.sdk.addon.jdbc.usecase2.employee.Employee;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonic;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonicFields;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.ProtectionOptions;
+import com.ionic.sdk.addon.jdbc.usecase2.key.BlindIndex;
+import com.ionic.sdk.addon.jdbc.usecase2.key.KeyScope;
+import com.ionic.sdk.addon.jdbc.usecase2.key.KeySource;
+import com.ionic.sdk.error.IonicException;
+import org.apache.commons.dbutils.QueryRunner;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * Shared test data setup; fabricated employee records, their Ionic-protected representations, and their removal from
+ * the database.
+ */
+public class EmployeeFixture {
+
+    /**
+     * @param count the number of records to fabricate
+     * @return newly fabricated employee records, containing random data
+     */
+    public static List<Employee> generate(final int count) {
+        final List<Employee> employees = new ArrayList<Employee>(count);
+        for (int i = 0; (i < count); ++i) {
+            employees.add(EmployeeUtil.generate());
+        }
+        return employees;
+    }
+
+    /**
+     * @param count      the number of records to fabricate
+     * @param salaryStep the salary increment from one record to the next
+     * @return newly fabricated employee records, with ids counting from 1, and salaries counting from 0
+     */
+    public static List<Employee> generate(final int count, final int salaryStep) {
+        final List<Employee> employees = new ArrayList<Employee>(count);
+        for (int i = 0; (i < count); ++i) {
+            final Employee e = EmployeeUtil.generate();
+            employees.add(new Employee(i + 1, e.getFirstName(), e.getLastName(), e.getPersonalIdentifier(),
+                    i * salaryStep, e.getCountry()));
+        }
+        return employees;
+    }
+
+    /**
+     * @param employees   the plaintext employee records
+     * @param ionicFields the Ionic-protected values of the records, in the same order as "employees"
+     * @return the Ionic-protected representations of the records, in the same order as "employees"
+     */
+    public static List<EmployeeIonic> join(final List<Employee> employees,
+                                           final List<EmployeeIonicFields> ionicFields) {
+        final List<EmployeeIonic> employeesIonic = new ArrayList<EmployeeIonic>(employees.size());
+        for (int i = 0; (i < employees.size()); ++i) {
+            employeesIonic.add(new EmployeeIonic(employees.get(i), ionicFields.get(i)));
+        }
+        return employeesIonic;
+    }
+
+    /**
+     * The protection options of the test configuration, calculating the blind index of the personal identifier and
+     * the salary range tag with the configured HMAC key ("blindindex.key.id").  If none is configured, a key is created
+     * for the test case, and set in the test configuration, so that the records of the test case are stored with their
+     * blind index and salary range tag.
+     *
+     * @param keySource  the key source; used to provide the HMAC key
+     * @param properties the test configuration
+     * @param keyScope   the extent of data protected using a single key
+     * @return the protection options, holding the blind index and salary range tag calculators
+     * @throws IonicException on failure to create or fetch the HMAC key
+     */
+    public static ProtectionOptions getProtectionOptions(
+            final KeySource keySource, final Properties properties, final KeyScope keyScope) throws IonicException {
+        if (!BlindIndex.isConfigured(properties)) {
+            final String keyId = keySource.createKeys(1).iterator().next().getId();
+            Logger.getLogger(EmployeeFixture.class.getName()).info(String.format(
+                    "BLIND INDEX KEY %s; configure \"blindindex.key.id\" to reuse it", keyId));
+            properties.setProperty("blindindex.key.id", keyId);
+        }
+        return ProtectionOptions.get(keySource, properties, keyScope);
+    }
+
+    /**
+     * Remove records stored by a test case from the Employee and EmployeeIonic database tables.
+     *
+     * @param connection the database connection
+     * @param ids        the database ids of the records to remove
+     * @throws SQLException on database failures
+     */
+    public static void deleteRecords(final Connection connection, final List<Integer> ids) throws SQLException {
+        final Object[][] params = new Object[ids.size()][];
+        for (int i = 0; (i < params.length); ++i) {
+            params[i] = new Object[]{ids.get(i)};
+        }
+        final QueryRunner queryRunner = new QueryRunner();
+        queryRunner.batch(connection, SQL_DELETE_EMPLOYEEIONIC, params);
+        queryRunner.batch(connection, SQL_DELETE_EMPLOYEE, params);
+    }
+
+    /**
+     * @param records     the number of records processed
+     * @param elapsedNano the elapsed time, in nanoseconds
+     * @return the throughput, in records per second
+     */
+    public static long recordsPerSecond(final int records, final long elapsedNano) {
+        return (records * NANOS_PER_SECOND) / Math.max(1L, elapsedNano);
+    }
+
+    /**
+     * Removes a record of table EmployeeIonic, by database id.
+     */
+    private static final String SQL_DELETE_EMPLOYEEIONIC = "DELETE FROM employeeionic WHERE fid = ?";
+
+    /**
+     * Removes a record of table Employee, by database id.
+     */
+    private static final String SQL_DELETE_EMPLOYEE = "DELETE FROM employee WHERE id = ?";
+
+    private static final long NANOS_PER_SECOND = 1000000000L;
+}
@@ -0,0 +1,92 @@
+package com.ionic.sdk.addon.jdbc.usecase2.test;
+
+import com.ionic.sdk.addon.jdbc.usecase2.cipher.ChunkCipherV2Local;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.Employee;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonic;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonicAsync;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonicFields;
+import com.ionic.sdk.addon.jdbc.usecase2.key.KeyScope;
+import com.ionic.sdk.addon.jdbc.usecase2.key.LocalKeySource;
+import com.ionic.sdk.core.res.Resource;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.logging.Logger;
+
+/**
+ * Test cases for the asynchronous conversion of employee records to / from their Ionic-protected representation.
+ */
+public class EmployeeIonicAsyncTest {
+
+    /**
+     * Class scoped logger.
+     */
+    private final Logger logger = Logger.getLogger(getClass().getName());
+
+    /**
+     * Test configuration.
+     */
+    private final Properties properties = new Properties();
+
+    /**
+     * Set up for each test case to be run.
+     *
+     * @throws IOException on failure to access test resources
+     */
+    @Before
+    public void setUp() throws IOException {
+        // load test configuration: "src/test/resources/test.properties.xml"
+        final URL urlTestProperties = Resource.resolve("test.properties.xml");
+        Assert.assertNotNull(urlTestProperties);
+        try (InputStream is = urlTestProperties.openStream()) {
+            properties.loadFromXML(is);
+        }
+    }
+
+    /**
+     * Unprotect a page of records one record at a time, asynchronously.  The key service round trips for the records
+     * should overlap, rather than be made in sequence.
+     *
+     * @throws Exception on failure to Ionic protect / unprotect sensitive data
+     */
+    @Test
+    public final void testAsync_1_ToEmployee() throws Exception {
+        final int recordsToCreate = 200;
+        final List<Employee> employees = EmployeeFixture.generate(recordsToCreate);
+        final LocalKeySource keySource =
+                new LocalKeySource(Long.parseLong(properties.getProperty("keysource.local.latency")));
+        final ExecutorService executor = EmployeeIonicAsync.newExecutor(properties);
+        try {
+            final EmployeeIonicAsync async = new EmployeeIonicAsync(
+                    keySource, ChunkCipherV2Local.getCipherProvider(), executor);
+            final List<EmployeeIonicFields> ionicFields = async.toEmployeeIonicFields(employees, KeyScope.ROW).get();
+            final List<EmployeeIonic> employeesIonic = EmployeeFixture.join(employees, ionicFields);
+            final List<CompletableFuture<Employee>> futures = new ArrayList<CompletableFuture<Employee>>();
+            final long start = System.nanoTime();
+            for (EmployeeIonic employeeIonic : employeesIonic) {
+                futures.add(async.toEmployee(employeeIonic));
+            }
+            for (int i = 0; (i < recordsToCreate); ++i) {
+                Assert.assertEquals(employees.get(i).getPersonalIdentifier(),
+                        futures.get(i).get().getPersonalIdentifier());
+            }
+            final long elapsed = System.nanoTime() - start;
+            Assert.assertEquals(recordsToCreate + 1, keySource.getRequestCount());
+            // the round trips overlapped; the elapsed time is logged only, as it depends on the load of the host
+            Assert.assertTrue(keySource.getPeakInFlight() > 1);
+            logger.info(String.format("RECORDS=%d, PEAK IN FLIGHT=%d, ASYNC=%d records/s", recordsToCreate,
+                    keySource.getPeakInFlight(), EmployeeFixture.recordsPerSecond(recordsToCreate, elapsed)));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.ionic.sdk.addon.jdbc.usecase2.test;
+
+import com.ionic.sdk.addon.jdbc.usecase2.cipher.ChunkCipherV2Local;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.Employee;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonic;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonicFields;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonicUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.IonicTypes;
+import com.ionic.sdk.addon.jdbc.usecase2.key.LocalKeySource;
+import com.ionic.sdk.addon.jdbc.usecase2.key.ProtectionKey;
+import com.ionic.sdk.core.res.Resource;
+import com.ionic.sdk.error.IonicException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * Test cases for Ionic protection of many employee records at once.  An in-process stand-in for the Ionic key
+ * service is used, so that the cost of key service round trips may be measured without network access.
+ */
+public class EmployeeIonicBulkTest {
+
+    /**
+     * Class scoped logger.
+     */
+    private final Logger logger = Logger.getLogger(getClass().getName());
+
+    /**
+     * Test configuration.
+     */
+    private final Properties properties = new Properties();
+
+    /**
+     * Set up for each test case to be run.
+     *
+     * @throws IOException on failure to access test resources
+     */
+    @Before
+    public void setUp() throws IOException {
+        // load test configuration: "src/test/resources/test.properties.xml"
+        final URL urlTestProperties = Resource.resolve("test.properties.xml");
+        Assert.assertNotNull(urlTestProperties);
+        try (InputStream is = urlTestProperties.openStream()) {
+            properties.loadFromXML(is);
+        }
+    }
+
+    /**
+     * @return a key source that simulates the configured key service latency
+     */
+    private LocalKeySource getKeySource() {
+        return new LocalKeySource(Long.parseLong(properties.getProperty("keysource.local.latency")));
+    }
+
+    /**
+     * Compare the cost of protecting employee records one at a time with the cost of protecting them in bulk.
+     *
+     * @throws IonicException on failure to Ionic protect sensitive data
+     */
+    @Test
+    public final void testBulk_1_ToEmployeeIonicFields() throws IonicException {
+        final int recordsToCreate = 100;
+        final List<Employee> employees = EmployeeFixture.generate(recordsToCreate);
+        // protect one record at a time
+        final LocalKeySource keySourceSingle = getKeySource();
+        final long startSingle = System.nanoTime();
+        for (Employee employee : employees) {
+            EmployeeIonicUtil.toEmployeeIonicFields(Collections.singletonList(employee), keySourceSingle);
+        }
+        final long elapsedSingle = System.nanoTime() - startSingle;
+        Assert.assertEquals(recordsToCreate, keySourceSingle.getRequestCount());
+        // protect all records at once
+        final LocalKeySource keySourceBulk = getKeySource();
+        final long startBulk = System.nanoTime();
+        final List<EmployeeIonicFields> ionicFields =
+                EmployeeIonicUtil.toEmployeeIonicFields(employees, keySourceBulk);
+        final long elapsedBulk = System.nanoTime() - startBulk;
+        Assert.assertEquals(1, keySourceBulk.getRequestCount());
+        Assert.assertEquals(recordsToCreate, ionicFields.size());
+        logger.info(String.format("RECORDS=%d, SINGLE=%d records/s, BULK=%d records/s", recordsToCreate,
+                EmployeeFixture.recordsPerSecond(recordsToCreate, elapsedSingle),
+                EmployeeFixture.recordsPerSecond(recordsToCreate, elapsedBulk)));
+        // verify data expectations; we can recover original values from ciphertext
+        for (int i = 0; (i < recordsToCreate); ++i) {
+            final EmployeeIonicFields fields = ionicFields.get(i);
+            final String keyIdPersonalIdentifier = ChunkCipherV2Local.getKeyId(fields.getPersonalIdentifier());
+            final String keyIdSalary = ChunkCipherV2Local.getKeyId(fields.getSalary());
+            Assert.assertNotEquals(keyIdPersonalIdentifier, keyIdSalary);
+            final Map<String, ProtectionKey> keys =
+                    keySourceBulk.getKeys(Arrays.asList(keyIdPersonalIdentifier, keyIdSalary));
+            Assert.assertEquals(employees.get(i).getPersonalIdentifier(), ChunkCipherV2Local.decrypt(
+                    keys.get(keyIdPersonalIdentifier), fields.getPersonalIdentifier()));
+            Assert.assertEquals(EmployeeUtil.SALARY, IonicTypes.toInt(ChunkCipherV2Local.decryptToBytes(
+                    keys.get(keyIdSalary), fields.getSalary())));
+        }
+    }
+
+    /**
+     * Unprotect many employee records at once.  All keys needed to unprotect the records should be fetched in a single
+     * key service round trip.
+     *
+     * @throws IonicException on failure to Ionic protect / unprotect sensitive data
+     */
+    @Test
+    public final void testBulk_2_ToEmployees() throws IonicException {
+        final int recordsToCreate = 1000;
+        final List<Employee> employees = EmployeeFixture.generate(recordsToCreate);
+        final LocalKeySource keySource = getKeySource();
+        final List<EmployeeIonic> employeesIonic = EmployeeFixture.join(
+                employees, EmployeeIonicUtil.toEmployeeIonicFields(employees, keySource));
+        final long start = System.nanoTime();
+        final List<Employee> employeesRecovered = EmployeeIonicUtil.toEmployees(employeesIonic, keySource);
+        final long elapsed = System.nanoTime() - start;
+        Assert.assertEquals(2, keySource.getRequestCount());
+        logger.info(String.format("RECORDS=%d, BULK=%d records/s",
+                recordsToCreate, EmployeeFixture.recordsPerSecond(recordsToCreate, elapsed)));
+        // verify data expectations; we can recover original values from ciphertext
+        for (Employee employee : employeesRecovered) {
+            Assert.assertEquals(EmployeeUtil.getPersonalIdentifier(employee.getFirstName(), employee.getLastName()),
+                    employee.getPersonalIdentifier());
+            Assert.assertEquals(EmployeeUtil.SALARY, employee.getSalary());
+        }
+    }
+}
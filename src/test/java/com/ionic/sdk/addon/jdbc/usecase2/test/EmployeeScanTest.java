@@ -0,0 +1,52 @@
+package com.ionic.sdk.addon.jdbc.usecase2.test;
+
+import com.ionic.sdk.addon.jdbc.usecase2.pipeline.EmployeeScan;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * Test cases for the splitting of a primary key range into the partitions of a parallel scan.
+ */
+public class EmployeeScanTest {
+
+    /**
+     * The partitions should be contiguous, should cover the whole range, and should differ in size by at most one key.
+     */
+    @Test
+    public final void testScan_1_Partition() {
+        verify(1, 1000, 16, 16);
+        verify(1, 10, 16, 10);
+        verify(7, 7, 4, 1);
+        verify(Integer.MIN_VALUE, Integer.MAX_VALUE, 3, 3);
+    }
+
+    /**
+     * Split a range, and check the resulting partitions.
+     *
+     * @param idMin      the lowest key in the range
+     * @param idMax      the highest key in the range
+     * @param partitions the requested number of partitions
+     * @param expected   the expected number of partitions
+     */
+    private static void verify(final int idMin, final int idMax, final int partitions, final int expected) {
+        final List<int[]> ranges = EmployeeScan.partition(idMin, idMax, partitions);
+        Assert.assertEquals(expected, ranges.size());
+        Assert.assertEquals(idMin, ranges.get(0)[0]);
+        Assert.assertEquals(idMax, ranges.get(ranges.size() - 1)[1]);
+        long sizeMin = Long.MAX_VALUE;
+        long sizeMax = 0;
+        for (int i = 0; (i < ranges.size()); ++i) {
+            final int[] range = ranges.get(i);
+            Assert.assertTrue(range[0] <= range[1]);
+            if (i > 0) {
+                Assert.assertEquals(ranges.get(i - 1)[1] + 1, range[0]);
+            }
+            final long size = (long) range[1] - range[0] + 1;
+            sizeMin = Math.min(sizeMin, size);
+            sizeMax = Math.max(sizeMax, size);
+        }
+        Assert.assertTrue(sizeMax - sizeMin <= 1);
+    }
+}
@@ -0,0 +1,125 @@
+package com.ionic.sdk.addon.jdbc.usecase2.test;
+
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.DenseIntObjectMap;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.IntObjectMap;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.OpenAddressingIntObjectMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * Test cases for the int-keyed map implementations used to index database records by id.
+ */
+public class IntObjectMapTest {
+
+    /**
+     * Both implementations should behave as {@link TreeMap} for contiguous keys, such as those of a serial column.
+     */
+    @Test
+    public final void testIntObjectMap_1_ContiguousKeys() {
+        final int[] keys = new int[RECORDS];
+        for (int i = 0; (i < keys.length); ++i) {
+            keys[i] = FIRST_ID + i;
+        }
+        verify(new DenseIntObjectMap<String>(), keys);
+        verify(new OpenAddressingIntObjectMap<String>(), keys);
+        Assert.assertFalse(populate(new DenseIntObjectMap<String>(), keys).isSparse());
+    }
+
+    /**
+     * Both implementations should behave as {@link TreeMap} for arbitrary (including negative and repeated) keys.
+     */
+    @Test
+    public final void testIntObjectMap_2_ArbitraryKeys() {
+        final Random random = new Random(RECORDS);
+        final int[] keys = new int[RECORDS];
+        for (int i = 0; (i < keys.length); ++i) {
+            keys[i] = random.nextInt(RECORDS * 2) - RECORDS;
+        }
+        verify(new DenseIntObjectMap<String>(), keys);
+        verify(new OpenAddressingIntObjectMap<String>(), keys);
+        final int[] keysSparse = new int[RECORDS];
+        for (int i = 0; (i < keysSparse.length); ++i) {
+            keysSparse[i] = random.nextInt();
+        }
+        verify(new OpenAddressingIntObjectMap<String>(), keysSparse);
+        final DenseIntObjectMap<String> dense = new DenseIntObjectMap<String>();
+        dense.put(1, "1");
+        dense.put(RECORDS, Integer.toString(RECORDS));
+        Assert.assertTrue(dense.isSparse());
+    }
+
+    /**
+     * A single outlying key should be detected before the dense backing array grows to cover it; keys at the bottom
+     * of the int range should not move the covered range below it.
+     */
+    @Test
+    public final void testIntObjectMap_3_OutlyingKeys() {
+        final int[] keysOutlying = {1, Integer.MAX_VALUE - 1};
+        final DenseIntObjectMap<String> dense = new DenseIntObjectMap<String>();
+        dense.put(keysOutlying[0], Integer.toString(keysOutlying[0]));
+        Assert.assertFalse(dense.isSparse(keysOutlying[0] + 1));
+        Assert.assertTrue(dense.isSparse(keysOutlying[1]));
+        verify(new OpenAddressingIntObjectMap<String>(), keysOutlying);
+        final int[] keysLowest = new int[RECORDS];
+        for (int i = 0; (i < keysLowest.length); ++i) {
+            keysLowest[i] = Integer.MIN_VALUE + RECORDS - i;
+        }
+        final DenseIntObjectMap<String> denseLowest = populate(new DenseIntObjectMap<String>(), keysLowest);
+        Assert.assertNull(denseLowest.put(Integer.MIN_VALUE, Integer.toString(Integer.MIN_VALUE)));
+        Assert.assertEquals(Integer.toString(Integer.MIN_VALUE), denseLowest.get(Integer.MIN_VALUE));
+        Assert.assertEquals(Integer.MIN_VALUE, denseLowest.sortedKeys()[0]);
+        Assert.assertEquals(RECORDS + 1, denseLowest.size());
+    }
+
+    /**
+     * Populate the map under test, checking each put result against a reference map.
+     *
+     * @param map  the map under test
+     * @param keys the keys to insert
+     * @param <M>  the implementation type of the map under test
+     * @return the populated map
+     */
+    private static <M extends IntObjectMap<String>> M populate(final M map, final int[] keys) {
+        final Map<Integer, String> reference = new TreeMap<Integer, String>();
+        for (int key : keys) {
+            final String value = Integer.toString(key);
+            Assert.assertEquals(reference.put(key, value), map.put(key, value));
+        }
+        return map;
+    }
+
+    /**
+     * Populate the map under test, then compare its content with that of a reference map.
+     *
+     * @param map  the map under test
+     * @param keys the keys to insert
+     */
+    private static void verify(final IntObjectMap<String> map, final int[] keys) {
+        populate(map, keys);
+        final TreeMap<Integer, String> reference = new TreeMap<Integer, String>();
+        for (int key : keys) {
+            reference.put(key, Integer.toString(key));
+        }
+        Assert.assertEquals(reference.size(), map.size());
+        for (Map.Entry<Integer, String> entry : reference.entrySet()) {
+            Assert.assertTrue(map.containsKey(entry.getKey()));
+            Assert.assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+        Assert.assertNull(map.get(reference.firstKey() - 1));
+        Assert.assertNull(map.get(reference.lastKey() + 1));
+        Assert.assertFalse(map.containsKey(Integer.MIN_VALUE));
+        final int[] sortedKeys = map.sortedKeys();
+        int i = 0;
+        for (Integer key : reference.keySet()) {
+            Assert.assertEquals(key.intValue(), sortedKeys[i++]);
+        }
+        Assert.assertEquals(reference.size(), map.keys().length);
+    }
+
+    private static final int RECORDS = 10000;
+    private static final int FIRST_ID = 1;
+}
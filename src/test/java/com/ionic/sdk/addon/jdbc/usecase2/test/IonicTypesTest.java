@@ -0,0 +1,94 @@
+package com.ionic.sdk.addon.jdbc.usecase2.test;
+
+import com.ionic.sdk.addon.jdbc.usecase2.cipher.ChunkCipherV2Local;
+import com.ionic.sdk.addon.jdbc.usecase2.cipher.CipherProvider;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.IonicTypes;
+import com.ionic.sdk.addon.jdbc.usecase2.key.LocalKeySource;
+import com.ionic.sdk.addon.jdbc.usecase2.key.ProtectionKey;
+import com.ionic.sdk.error.IonicException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.sql.Date;
+
+/**
+ * Test cases for the conversion of sensitive values to / from the byte[] representation which is Ionic-protected.
+ */
+public class IonicTypesTest {
+
+    /**
+     * The int representation should match the big-endian representation previously produced using
+     * {@link ByteBuffer}, so that existing ciphertext remains readable.
+     */
+    @Test
+    public final void testTypes_1_Int() {
+        final int[] values = {0, 1, -1, EmployeeUtil.SALARY, Integer.MIN_VALUE, Integer.MAX_VALUE};
+        for (int value : values) {
+            final byte[] bytes = IonicTypes.toBytes(value);
+            Assert.assertArrayEquals(ByteBuffer.allocate(Integer.SIZE / Byte.SIZE).putInt(value).array(), bytes);
+            Assert.assertEquals(value, IonicTypes.toInt(bytes));
+        }
+        // longer input; the trailing bytes are used
+        final byte[] bytesLong = {1, 2, 3, 0, 0, (byte) 0xc3, 0x50};
+        Assert.assertEquals(EmployeeUtil.SALARY, IonicTypes.toInt(bytesLong));
+    }
+
+    /**
+     * Values written to a caller-supplied buffer should be recoverable from that buffer.
+     */
+    @Test
+    public final void testTypes_2_Buffer() {
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        int offset = IonicTypes.putInt(buffer, 1, Integer.MIN_VALUE);
+        offset = IonicTypes.putLong(buffer, offset, Long.MIN_VALUE + 1);
+        Assert.assertEquals(BUFFER_SIZE, IonicTypes.putInt(buffer, offset, -1));
+        Assert.assertEquals(0, buffer[0]);
+        Assert.assertEquals(Integer.MIN_VALUE, IonicTypes.getInt(buffer, 1));
+        Assert.assertEquals(Long.MIN_VALUE + 1, IonicTypes.getLong(buffer, 1 + Integer.SIZE / Byte.SIZE));
+        Assert.assertEquals(-1, IonicTypes.getInt(buffer, offset));
+    }
+
+    /**
+     * The remaining column types should survive a round trip through their byte[] representation.
+     */
+    @Test
+    public final void testTypes_3_OtherTypes() {
+        final long valueLong = 0x0123456789abcdefL;
+        Assert.assertEquals(valueLong, IonicTypes.toLong(IonicTypes.toBytes(valueLong)));
+        final BigDecimal valueDecimal = new BigDecimal("-12345.678");
+        Assert.assertEquals(valueDecimal, IonicTypes.toBigDecimal(IonicTypes.toBytes(valueDecimal)));
+        final Date valueDate = Date.valueOf("2019-03-14");
+        Assert.assertEquals(valueDate, IonicTypes.toDate(IonicTypes.toBytes(valueDate)));
+        final String valueString = "Gr\u00fc\u00dfe";
+        Assert.assertEquals(valueString, IonicTypes.toString(IonicTypes.toBytes(valueString)));
+    }
+
+    /**
+     * Values protected from the per-thread buffer should match values protected from a byte[], in both directions.
+     *
+     * @throws IonicException on failure to Ionic protect / unprotect the data
+     */
+    @Test
+    public final void testTypes_4_ScratchBuffer() throws IonicException {
+        final ProtectionKey key = new LocalKeySource(0L).createKeys(1).iterator().next();
+        final CipherProvider cipherProvider = ChunkCipherV2Local.getCipherProvider();
+        final byte[] scratch = IonicTypes.getScratchBuffer();
+        Assert.assertSame(scratch, IonicTypes.getScratchBuffer());
+        final String cipherTextInt = ChunkCipherV2Local.encrypt(
+                key, scratch, 0, IonicTypes.putInt(scratch, 0, EmployeeUtil.SALARY), cipherProvider);
+        Assert.assertEquals(EmployeeUtil.SALARY,
+                IonicTypes.toInt(ChunkCipherV2Local.decryptToBytes(key, cipherTextInt, cipherProvider)));
+        final long valueLong = Long.MIN_VALUE + 1;
+        final String cipherTextLong = ChunkCipherV2Local.encrypt(key, IonicTypes.toBytes(valueLong), cipherProvider);
+        final int length = ChunkCipherV2Local.decryptToBytes(key, cipherTextLong, scratch, 0, cipherProvider);
+        Assert.assertEquals(Long.SIZE / Byte.SIZE, length);
+        Assert.assertEquals(valueLong, IonicTypes.toLong(scratch, length));
+        // the trailing bytes are used, as with toInt(byte[])
+        Assert.assertEquals((int) valueLong, IonicTypes.toInt(scratch, length));
+    }
+
+    private static final int BUFFER_SIZE = 17;
+}
@@ -0,0 +1,92 @@
+package com.ionic.sdk.addon.jdbc.usecase2.test;
+
+import com.ionic.sdk.addon.jdbc.usecase2.cipher.ChunkCipherV2Local;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.Employee;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonicFields;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonicUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.ProtectionOptions;
+import com.ionic.sdk.addon.jdbc.usecase2.key.KeyScope;
+import com.ionic.sdk.addon.jdbc.usecase2.key.LocalKeySource;
+import com.ionic.sdk.core.res.Resource;
+import com.ionic.sdk.error.IonicException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Test cases for the sharing of keys across the protected fields of many records.
+ */
+public class KeyScopeTest {
+
+    /**
+     * Class scoped logger.
+     */
+    private final Logger logger = Logger.getLogger(getClass().getName());
+
+    /**
+     * Test configuration.
+     */
+    private final Properties properties = new Properties();
+
+    /**
+     * Set up for each test case to be run.
+     *
+     * @throws IOException on failure to access test resources
+     */
+    @Before
+    public void setUp() throws IOException {
+        // load test configuration: "src/test/resources/test.properties.xml"
+        final URL urlTestProperties = Resource.resolve("test.properties.xml");
+        Assert.assertNotNull(urlTestProperties);
+        try (InputStream is = urlTestProperties.openStream()) {
+            properties.loadFromXML(is);
+        }
+    }
+
+    /**
+     * Protect many employee records at once, sharing keys across the protected fields.  Fewer keys should be created,
+     * and fetched on unprotect, while the records remain recoverable.
+     *
+     * @throws IonicException on failure to Ionic protect / unprotect sensitive data
+     */
+    @Test
+    public final void testKeyScope_1_Bulk() throws IonicException {
+        final int recordsToCreate = 1000;
+        final List<Employee> employees = EmployeeFixture.generate(recordsToCreate);
+        for (KeyScope keyScope : Arrays.asList(KeyScope.CELL, KeyScope.ROW, KeyScope.parse("batch:100"))) {
+            final LocalKeySource keySource =
+                    new LocalKeySource(Long.parseLong(properties.getProperty("keysource.local.latency")));
+            final long start = System.nanoTime();
+            final List<EmployeeIonicFields> ionicFields =
+                    EmployeeIonicUtil.toEmployeeIonicFields(employees, keySource, new ProtectionOptions(keyScope));
+            final long elapsed = System.nanoTime() - start;
+            final Set<String> keyIds = new HashSet<String>();
+            for (EmployeeIonicFields fields : ionicFields) {
+                keyIds.add(ChunkCipherV2Local.getKeyId(fields.getPersonalIdentifier()));
+                keyIds.add(ChunkCipherV2Local.getKeyId(fields.getSalary()));
+            }
+            Assert.assertEquals(keyScope.getKeyCount(recordsToCreate, recordsToCreate * 2), keyIds.size());
+            final List<Employee> employeesRecovered =
+                    EmployeeIonicUtil.toEmployees(EmployeeFixture.join(employees, ionicFields), keySource);
+            Assert.assertEquals(2, keySource.getRequestCount());
+            for (int i = 0; (i < recordsToCreate); ++i) {
+                Assert.assertEquals(employees.get(i).getPersonalIdentifier(),
+                        employeesRecovered.get(i).getPersonalIdentifier());
+                Assert.assertEquals(EmployeeUtil.SALARY, employeesRecovered.get(i).getSalary());
+            }
+            logger.info(String.format("SCOPE=%s, KEYS=%d, BULK=%d records/s", keyScope, keyIds.size(),
+                    EmployeeFixture.recordsPerSecond(recordsToCreate, elapsed)));
+        }
+    }
+}
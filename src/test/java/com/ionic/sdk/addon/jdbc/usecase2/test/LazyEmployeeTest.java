@@ -0,0 +1,83 @@
+package com.ionic.sdk.addon.jdbc.usecase2.test;
+
+import com.ionic.sdk.addon.jdbc.usecase2.cipher.ChunkCipherV2Local;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.Employee;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonic;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonicUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.LazyEmployee;
+import com.ionic.sdk.addon.jdbc.usecase2.key.LocalKeySource;
+import com.ionic.sdk.error.IonicException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Test cases for the unprotection of sensitive employee fields on first use.
+ */
+public class LazyEmployeeTest {
+
+    /**
+     * Sensitive fields of lazily unprotected records should be unprotected only when used.  A listing which uses no
+     * sensitive fields should need no keys; a report which uses one sensitive field should need keys for that field
+     * only.
+     *
+     * @throws IonicException on failure to Ionic protect / unprotect sensitive data
+     */
+    @Test
+    public final void testLazy_1_Materialize() throws IonicException {
+        final int recordsToCreate = 100;
+        final List<Employee> employees = EmployeeFixture.generate(recordsToCreate);
+        final LocalKeySource keySource = new LocalKeySource(0L);
+        final List<EmployeeIonic> employeesIonic = EmployeeFixture.join(
+                employees, EmployeeIonicUtil.toEmployeeIonicFields(employees, keySource));
+        final List<LazyEmployee> employeesLazy = EmployeeIonicUtil.toLazyEmployees(
+                employeesIonic, keySource, ChunkCipherV2Local.getCipherProvider());
+        // listing; no sensitive fields
+        for (LazyEmployee employee : employeesLazy) {
+            Assert.assertNotNull(employee.getLastName());
+        }
+        Assert.assertEquals(1, keySource.getRequestCount());
+        // report; salary only, keys fetched in bulk
+        LazyEmployee.materialize(employeesLazy, EnumSet.of(LazyEmployee.Field.SALARY),
+                keySource, ChunkCipherV2Local.getCipherProvider());
+        Assert.assertEquals(2, keySource.getRequestCount());
+        for (LazyEmployee employee : employeesLazy) {
+            Assert.assertEquals(EmployeeUtil.SALARY, employee.getSalary());
+            Assert.assertFalse(employee.isMaterialized(LazyEmployee.Field.PERSONAL_IDENTIFIER));
+        }
+        Assert.assertEquals(2, keySource.getRequestCount());
+        // single field access, unprotected on demand and remembered
+        final LazyEmployee employee = employeesLazy.iterator().next();
+        Assert.assertEquals(employees.iterator().next().getPersonalIdentifier(), employee.getPersonalIdentifier());
+        Assert.assertEquals(employees.iterator().next().getPersonalIdentifier(), employee.getPersonalIdentifier());
+        Assert.assertEquals(3, keySource.getRequestCount());
+    }
+
+    /**
+     * The record inserters write the personal identifier and salary accessors of an {@link EmployeeIonic} into table
+     * Employee.  A lazily unprotected record should not be usable in its place, and the record it wraps should still
+     * hold the masked values once the sensitive fields are unprotected.
+     *
+     * @throws IonicException on failure to Ionic protect / unprotect sensitive data
+     */
+    @Test
+    public final void testLazy_2_NotStorable() throws IonicException {
+        Assert.assertFalse(Employee.class.isAssignableFrom(LazyEmployee.class));
+        final List<Employee> employees = EmployeeFixture.generate(1);
+        final LocalKeySource keySource = new LocalKeySource(0L);
+        final List<LazyEmployee> employeesLazy = EmployeeIonicUtil.toLazyEmployees(EmployeeFixture.join(
+                employees, EmployeeIonicUtil.toEmployeeIonicFields(employees, keySource)),
+                keySource, ChunkCipherV2Local.getCipherProvider());
+        final Employee employee = employees.iterator().next();
+        final LazyEmployee employeeLazy = employeesLazy.iterator().next();
+        Assert.assertEquals(employee.getPersonalIdentifier(), employeeLazy.getPersonalIdentifier());
+        Assert.assertEquals(employee.getSalary(), employeeLazy.getSalary());
+        // the record which an inserter would be given
+        final EmployeeIonic employeeIonic = employeeLazy.getEmployeeIonic();
+        Assert.assertNotEquals(employee.getPersonalIdentifier(), employeeIonic.getPersonalIdentifier());
+        Assert.assertNotEquals(employee.getSalary(), employeeIonic.getSalary());
+    }
+}
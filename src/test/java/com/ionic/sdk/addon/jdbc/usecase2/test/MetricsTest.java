@@ -0,0 +1,124 @@
+package com.ionic.sdk.addon.jdbc.usecase2.test;
+
+import com.ionic.sdk.addon.jdbc.usecase2.cipher.ChunkCipherV2Local;
+import com.ionic.sdk.addon.jdbc.usecase2.key.LocalKeySource;
+import com.ionic.sdk.addon.jdbc.usecase2.key.ProtectionKey;
+import com.ionic.sdk.addon.jdbc.usecase2.metrics.LatencyHistogram;
+import com.ionic.sdk.addon.jdbc.usecase2.metrics.Metrics;
+import com.ionic.sdk.addon.jdbc.usecase2.metrics.Stage;
+import com.ionic.sdk.error.IonicException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Test cases for the latency instrumentation of the sample project hot paths.
+ */
+public class MetricsTest {
+
+    /**
+     * Class scoped logger.
+     */
+    private final Logger logger = Logger.getLogger(getClass().getName());
+
+    /**
+     * Leave the instrumentation in its default state for other test cases.
+     */
+    @After
+    public void tearDown() {
+        Metrics.setEnabled(false);
+        Metrics.reset();
+    }
+
+    /**
+     * The histogram percentiles should be within the advertised precision (1/16) of the exact percentiles.
+     */
+    @Test
+    public final void testMetrics_1_HistogramPrecision() {
+        final Random random = new Random(VALUES);
+        final long[] values = new long[VALUES];
+        final LatencyHistogram histogram = new LatencyHistogram();
+        long sum = 0L;
+        for (int i = 0; (i < values.length); ++i) {
+            // latencies spread over several orders of magnitude
+            values[i] = (long) Math.pow(10.0, 2.0 + (random.nextDouble() * 6.0));
+            histogram.record(values[i]);
+            sum += values[i];
+        }
+        Arrays.sort(values);
+        Assert.assertEquals(VALUES, histogram.getCount());
+        Assert.assertEquals(sum, histogram.getSum());
+        Assert.assertEquals(values[VALUES - 1], histogram.getMax());
+        for (double percentile : new double[]{1.0, 50.0, 90.0, 99.0, 99.9, 100.0}) {
+            final long exact = values[(int) Math.ceil(VALUES * percentile / 100.0) - 1];
+            final long estimate = histogram.getPercentile(percentile);
+            logger.fine(String.format("P%.1f: EXACT=%d, ESTIMATE=%d", percentile, exact, estimate));
+            Assert.assertTrue(estimate >= exact);
+            Assert.assertTrue(estimate <= exact + (exact / 16) + 1);
+        }
+        histogram.reset();
+        Assert.assertEquals(0L, histogram.getCount());
+        Assert.assertEquals(0L, histogram.getPercentile(50.0));
+    }
+
+    /**
+     * Instrumented calls should be recorded only while the instrumentation is enabled.
+     *
+     * @throws IonicException on cryptography failures
+     */
+    @Test
+    public final void testMetrics_2_EnableDisable() throws IonicException {
+        final LocalKeySource keySource = new LocalKeySource(0L);
+        final ProtectionKey key = keySource.createKeys(1).iterator().next();
+        Metrics.setEnabled(false);
+        Metrics.reset();
+        ChunkCipherV2Local.decrypt(key, ChunkCipherV2Local.encrypt(key, "disabled"));
+        Assert.assertEquals(0L, Metrics.start());
+        Assert.assertTrue(Metrics.getStatistics().isEmpty());
+
+        Metrics.setEnabled(true);
+        final ProtectionKey keyEnabled = keySource.createKeys(1).iterator().next();
+        for (int i = 0; (i < VALUES); ++i) {
+            ChunkCipherV2Local.decrypt(keyEnabled, ChunkCipherV2Local.encrypt(keyEnabled, "enabled"));
+        }
+        Assert.assertEquals(1L, Metrics.get(Stage.KEY_CREATE).getCount());
+        Assert.assertEquals(VALUES, Metrics.get(Stage.ENCRYPT).getCount());
+        Assert.assertEquals(VALUES, Metrics.get(Stage.DECRYPT).getCount());
+        Assert.assertEquals(0L, Metrics.get(Stage.INSERT).getCount());
+        Assert.assertEquals(3, Metrics.getStatistics().size());
+        logger.info(Metrics.report());
+    }
+
+    /**
+     * Time spent within an instrumented call on work outside of its stage (such as the handling of the rows of a
+     * query) should be left out of the recorded latency.
+     *
+     * @throws InterruptedException if interrupted while simulating work
+     */
+    @Test
+    public final void testMetrics_3_ExcludedTime() throws InterruptedException {
+        Assert.assertEquals(0L, Metrics.elapsed(0L));
+        Metrics.setEnabled(true);
+        Metrics.reset();
+        final long start = Metrics.start();
+        Thread.sleep(WORK_MILLIS);
+        final long startHandling = Metrics.start();
+        Thread.sleep(HANDLING_MILLIS);
+        final long handlingNano = Metrics.elapsed(startHandling);
+        Metrics.stop(Stage.SELECT, start, handlingNano);
+        final LatencyHistogram histogram = Metrics.get(Stage.SELECT);
+        Assert.assertEquals(1L, histogram.getCount());
+        Assert.assertTrue(handlingNano >= TimeUnit.MILLISECONDS.toNanos(HANDLING_MILLIS));
+        Assert.assertTrue(histogram.getMax() >= TimeUnit.MILLISECONDS.toNanos(WORK_MILLIS));
+        Assert.assertTrue(histogram.getMax() < TimeUnit.MILLISECONDS.toNanos(HANDLING_MILLIS));
+    }
+
+    private static final int VALUES = 10000;
+    private static final long WORK_MILLIS = 10L;
+    private static final long HANDLING_MILLIS = 200L;
+}
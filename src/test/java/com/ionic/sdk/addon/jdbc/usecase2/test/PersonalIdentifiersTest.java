@@ -0,0 +1,143 @@
+package com.ionic.sdk.addon.jdbc.usecase2.test;
+
+import com.ionic.sdk.addon.jdbc.usecase2.employee.Employee;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.PersonalIdentifiers;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.IonicTypes;
+import com.ionic.sdk.core.codec.Transcoder;
+import com.ionic.sdk.crypto.CryptoUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+/**
+ * Test cases for the derivation of personal identifiers from employee names.
+ */
+public class PersonalIdentifiersTest {
+
+    /**
+     * Class scoped logger.
+     */
+    private final Logger logger = Logger.getLogger(getClass().getName());
+
+    /**
+     * The derivation should match the hash of the UTF-8 encoding of the concatenated names produced by the Java
+     * platform, for names of any script (including unpaired surrogates, which the platform replaces by '?', and a
+     * surrogate pair split across the two names), and for null names.
+     *
+     * @throws Exception on failure to calculate the reference hash
+     */
+    @Test
+    public final void testIdentifiers_1_Encoding() throws Exception {
+        final String[] names = {"", "Smith", "M\u00fcller", "\u5c71\u7530", "\ud83d\ude00x", "a\ud83db", "\ude00",
+                "x\ud83d", "\u07ff\u0800\uffff", null};
+        for (String firstName : names) {
+            for (String lastName : names) {
+                Assert.assertEquals(reference(firstName, lastName), PersonalIdentifiers.derive(firstName, lastName));
+                Assert.assertEquals(reference(firstName, lastName), PersonalIdentifiers.get(firstName, lastName));
+            }
+        }
+        // a name longer than the initial encoding buffer
+        final StringBuilder buffer = new StringBuilder();
+        for (int i = 0; (i < LONG_NAME); ++i) {
+            buffer.append('\u20ac');
+        }
+        final String longName = buffer.toString();
+        Assert.assertEquals(reference(longName, longName), PersonalIdentifiers.derive(longName, longName));
+    }
+
+    /**
+     * Concurrent lookups should return the derived identifier, whether or not it is already cached.
+     *
+     * @throws Exception on failure of a concurrent lookup
+     */
+    @Test
+    public final void testIdentifiers_2_Concurrent() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>();
+            for (int t = 0; (t < THREADS); ++t) {
+                futures.add(executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() {
+                        boolean match = true;
+                        for (int i = 0; (i < LOOKUPS); ++i) {
+                            final String firstName = "first" + (i % NAMES);
+                            final String lastName = "last" + (i % NAMES);
+                            match &= PersonalIdentifiers.derive(firstName, lastName).equals(
+                                    PersonalIdentifiers.get(firstName, lastName));
+                        }
+                        return match;
+                    }
+                }));
+            }
+            for (Future<Boolean> future : futures) {
+                Assert.assertTrue(future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Verify the personal identifiers of many records at once, concurrently.  The derivation should match the
+     * original calculation (SHA-256 of the concatenated names), and mismatched records should be reported.
+     *
+     * @throws InterruptedException if interrupted while waiting for the verification
+     */
+    @Test
+    public final void testIdentifiers_3_Verify() throws InterruptedException {
+        final int recordsToCreate = 10000;
+        final List<Employee> employees = EmployeeFixture.generate(recordsToCreate);
+        final Employee employee = employees.iterator().next();
+        final byte[] hash = CryptoUtils.sha256ToBytes(
+                Transcoder.utf8().decode(employee.getFirstName() + employee.getLastName()));
+        Assert.assertEquals(Integer.toString((IonicTypes.toInt(hash) & Integer.MAX_VALUE) % MODULUS),
+                PersonalIdentifiers.derive(employee.getFirstName(), employee.getLastName()));
+        final int threads = Runtime.getRuntime().availableProcessors();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final long start = System.nanoTime();
+            Assert.assertTrue(PersonalIdentifiers.verify(employees, executor, threads).isEmpty());
+            final long elapsed = System.nanoTime() - start;
+            logger.info(String.format("RECORDS=%d, VERIFY=%d records/s",
+                    recordsToCreate, EmployeeFixture.recordsPerSecond(recordsToCreate, elapsed)));
+            employees.set(0, new Employee(employee.getId(), employee.getFirstName(), employee.getLastName(),
+                    "0", employee.getSalary(), employee.getCountry()));
+            Assert.assertEquals(1, PersonalIdentifiers.verify(employees, executor, threads).size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * The reference derivation; the original calculation, using the encoding of the Java platform.
+     *
+     * @param firstName input to the identifier hash calculation
+     * @param lastName  input to the identifier hash calculation
+     * @return the expected personal identifier
+     * @throws Exception on failure to calculate the hash
+     */
+    private static String reference(final String firstName, final String lastName) throws Exception {
+        final MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+        final byte[] hash = messageDigest.digest((firstName + lastName).getBytes(StandardCharsets.UTF_8));
+        final int value = ByteBuffer.wrap(hash, hash.length - (Integer.SIZE / Byte.SIZE), Integer.SIZE / Byte.SIZE)
+                .getInt();
+        return Integer.toString((value & Integer.MAX_VALUE) % MODULUS);
+    }
+
+    private static final int LONG_NAME = 100;
+    private static final int THREADS = 8;
+    private static final int LOOKUPS = 20000;
+    private static final int NAMES = 500;
+    private static final int MODULUS = 1000000000;
+}
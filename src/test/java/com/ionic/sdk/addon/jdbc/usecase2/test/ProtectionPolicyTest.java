@@ -0,0 +1,207 @@
+package com.ionic.sdk.addon.jdbc.usecase2.test;
+
+import com.ionic.sdk.addon.jdbc.usecase2.cipher.ChunkCipherV2Local;
+import com.ionic.sdk.addon.jdbc.usecase2.cipher.CipherProvider;
+import com.ionic.sdk.addon.jdbc.usecase2.cipher.PooledCipherProvider;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.Employee;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.IonicTypes;
+import com.ionic.sdk.addon.jdbc.usecase2.key.KeyScope;
+import com.ionic.sdk.addon.jdbc.usecase2.key.LocalKeySource;
+import com.ionic.sdk.addon.jdbc.usecase2.policy.ColumnType;
+import com.ionic.sdk.addon.jdbc.usecase2.policy.FixedSizeConversion;
+import com.ionic.sdk.addon.jdbc.usecase2.policy.ProtectionPlan;
+import com.ionic.sdk.addon.jdbc.usecase2.policy.ProtectionPolicy;
+import com.ionic.sdk.core.res.Resource;
+import com.ionic.sdk.error.IonicException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.sql.Date;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Test cases for Ionic protection of database rows, driven by the configured column protection policy.
+ */
+public class ProtectionPolicyTest {
+
+    /**
+     * Class scoped logger.
+     */
+    private final Logger logger = Logger.getLogger(getClass().getName());
+
+    /**
+     * Test configuration.
+     */
+    private final Properties properties = new Properties();
+
+    /**
+     * Set up for each test case to be run.
+     *
+     * @throws IOException on failure to access test resources
+     */
+    @Before
+    public void setUp() throws IOException {
+        // load test configuration: "src/test/resources/test.properties.xml"
+        final URL urlTestProperties = Resource.resolve("test.properties.xml");
+        Assert.assertNotNull(urlTestProperties);
+        try (InputStream is = urlTestProperties.openStream()) {
+            properties.loadFromXML(is);
+        }
+    }
+
+    /**
+     * Column types not given in the policy should be taken from the result set metadata; compiled plans should be
+     * reused for result sets of the same shape.
+     *
+     * @throws IonicException on failure to compile the policy
+     */
+    @Test
+    public final void testPolicy_1_Compile() throws IonicException {
+        final ProtectionPolicy policy = new ProtectionPolicy(properties);
+        final ProtectionPlan plan = policy.getPlan("EMPLOYEE", COLUMNS_EMPLOYEE, TYPES_EMPLOYEE);
+        Assert.assertEquals(2, plan.getColumnCount());
+        Assert.assertEquals(3, plan.getColumn(0));
+        Assert.assertEquals(ColumnType.STRING, plan.getType(0));
+        Assert.assertEquals(4, plan.getColumn(1));
+        Assert.assertEquals(ColumnType.INT, plan.getType(1));
+        Assert.assertSame(plan, policy.getPlan("employee", COLUMNS_EMPLOYEE, TYPES_EMPLOYEE));
+        final ProtectionPlan planIonic = policy.getPlan("employeeionic", COLUMNS_IONIC, TYPES_IONIC);
+        Assert.assertEquals(ColumnType.INT, planIonic.getType(1));
+        Assert.assertEquals(0, policy.getPlan("other", COLUMNS_IONIC, TYPES_IONIC).getColumnCount());
+        try {
+            policy.getPlan("employeeionic", new String[]{"fid"}, new int[]{Types.INTEGER});
+            Assert.fail("missing protected column should be rejected");
+        } catch (IonicException e) {
+            logger.info(e.getMessage());
+        }
+    }
+
+    /**
+     * Rows protected using the plan of the plaintext table should be recoverable using the plan of the protected
+     * table, using one key service round trip for each.
+     *
+     * @throws IonicException on failure to Ionic protect / unprotect sensitive data
+     */
+    @Test
+    public final void testPolicy_2_RoundTrip() throws IonicException {
+        final ProtectionPolicy policy = new ProtectionPolicy(properties);
+        final LocalKeySource keySource = new LocalKeySource(0L);
+        final List<Object[]> rows = new ArrayList<Object[]>();
+        for (int i = 0; (i < RECORDS); ++i) {
+            final Employee employee = EmployeeUtil.generate();
+            rows.add(new Object[]{i, employee.getFirstName(), employee.getLastName(),
+                    employee.getPersonalIdentifier(), employee.getSalary(), employee.getCountry()});
+        }
+        rows.get(0)[3] = null;
+        policy.getPlan("employee", COLUMNS_EMPLOYEE, TYPES_EMPLOYEE).encrypt(rows, keySource);
+        Assert.assertEquals(1, keySource.getRequestCount());
+        // project the protected rows onto the shape of the protected table
+        final List<Object[]> rowsIonic = new ArrayList<Object[]>();
+        for (Object[] row : rows) {
+            Assert.assertTrue(row[4] instanceof String);
+            rowsIonic.add(new Object[]{row[0], row[3], row[4]});
+        }
+        policy.getPlan("employeeionic", COLUMNS_IONIC, TYPES_IONIC).decrypt(rowsIonic, keySource);
+        Assert.assertEquals(2, keySource.getRequestCount());
+        Assert.assertNull(rowsIonic.get(0)[1]);
+        for (Object[] row : rowsIonic) {
+            Assert.assertEquals(EmployeeUtil.SALARY, row[2]);
+        }
+        for (int i = 1; (i < RECORDS); ++i) {
+            final Object[] row = rows.get(i);
+            Assert.assertEquals(EmployeeUtil.getPersonalIdentifier((String) row[1], (String) row[2]),
+                    rowsIonic.get(i)[1]);
+        }
+    }
+
+    /**
+     * With a key per row, all protected columns of a row should be protected under the same key.
+     *
+     * @throws IonicException on failure to Ionic protect sensitive data
+     */
+    @Test
+    public final void testPolicy_3_KeyPerRow() throws IonicException {
+        final ProtectionPolicy policy = new ProtectionPolicy(properties);
+        final List<Object[]> rows = new ArrayList<Object[]>();
+        for (int i = 0; (i < RECORDS); ++i) {
+            rows.add(new Object[]{i, Integer.toString(i), EmployeeUtil.SALARY});
+        }
+        policy.getPlan("employeeionic", COLUMNS_IONIC, TYPES_IONIC).encrypt(
+                rows, new LocalKeySource(0L), KeyScope.ROW);
+        final Set<String> keyIds = new HashSet<String>();
+        for (Object[] row : rows) {
+            final String keyId = ChunkCipherV2Local.getKeyId((String) row[1]);
+            Assert.assertEquals(keyId, ChunkCipherV2Local.getKeyId((String) row[2]));
+            keyIds.add(keyId);
+        }
+        Assert.assertEquals(RECORDS, keyIds.size());
+    }
+
+    /**
+     * Result sets of the same column labels, but of different column types, should use different plans.  Rows should
+     * round trip using a caller-supplied cipher provider.
+     *
+     * @throws IonicException on failure to compile the policy; on failure to Ionic protect / unprotect sensitive data
+     */
+    @Test
+    public final void testPolicy_4_ColumnTypes() throws IonicException {
+        final ProtectionPolicy policy = new ProtectionPolicy(properties);
+        final int[] typesBigint = TYPES_EMPLOYEE.clone();
+        typesBigint[4] = Types.BIGINT;
+        final ProtectionPlan planInt = policy.getPlan("employee", COLUMNS_EMPLOYEE, TYPES_EMPLOYEE);
+        final ProtectionPlan planLong = policy.getPlan("employee", COLUMNS_EMPLOYEE, typesBigint);
+        Assert.assertNotSame(planInt, planLong);
+        Assert.assertEquals(ColumnType.INT, planInt.getType(1));
+        Assert.assertEquals(ColumnType.LONG, planLong.getType(1));
+        Assert.assertSame(planLong, policy.getPlan("employee", COLUMNS_EMPLOYEE, typesBigint));
+        final LocalKeySource keySource = new LocalKeySource(0L);
+        final CipherProvider cipherProvider = new PooledCipherProvider(1);
+        final List<Object[]> rows = new ArrayList<Object[]>();
+        rows.add(new Object[]{1, "first", "last", "123456789", Long.MAX_VALUE, "US"});
+        planLong.encrypt(rows, keySource, KeyScope.ROW, cipherProvider);
+        planLong.decrypt(rows, keySource, cipherProvider);
+        Assert.assertEquals("123456789", rows.get(0)[3]);
+        Assert.assertEquals(Long.MAX_VALUE, rows.get(0)[4]);
+    }
+
+    /**
+     * The buffer conversion of each fixed size column type should match its byte[] conversion; the variable size
+     * column types should provide none.
+     */
+    @Test
+    public final void testPolicy_5_FixedSizeConversion() {
+        Assert.assertNull(ColumnType.STRING.getFixedSizeConversion());
+        Assert.assertNull(ColumnType.DECIMAL.getFixedSizeConversion());
+        final Object[][] values = {{ColumnType.INT, Integer.MIN_VALUE}, {ColumnType.LONG, Long.MAX_VALUE},
+                {ColumnType.DATE, new Date(System.currentTimeMillis())}};
+        final byte[] buffer = IonicTypes.getScratchBuffer();
+        for (Object[] value : values) {
+            final ColumnType type = (ColumnType) value[0];
+            final FixedSizeConversion conversion = type.getFixedSizeConversion();
+            final int length = conversion.putBytes(value[1], buffer, 0);
+            Assert.assertEquals(conversion.getSize(), length);
+            Assert.assertArrayEquals(type.toBytes(value[1]), Arrays.copyOf(buffer, length));
+            Assert.assertEquals(value[1], conversion.fromBytes(buffer, length));
+        }
+    }
+
+    private static final int RECORDS = 100;
+    private static final String[] COLUMNS_EMPLOYEE = {
+            "id", "firstname", "lastname", "personalidentifier", "salary", "country"};
+    private static final int[] TYPES_EMPLOYEE = {
+            Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.INTEGER, Types.VARCHAR};
+    private static final String[] COLUMNS_IONIC = {"fid", "personalidentifier", "salary"};
+    private static final int[] TYPES_IONIC = {Types.INTEGER, Types.VARCHAR, Types.VARCHAR};
+}
@@ -0,0 +1,73 @@
+package com.ionic.sdk.addon.jdbc.usecase2.test;
+
+import com.ionic.sdk.addon.jdbc.usecase2.pipeline.RateLimiter;
+import com.ionic.sdk.addon.jdbc.usecase2.pipeline.RotationCheckpoint;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test cases for the progress tracking and throttling of the key rotation job.
+ */
+public class RotationCheckpointTest {
+
+    /**
+     * The watermark should advance only over contiguous completed ranges, however they complete, and should survive a
+     * restart.
+     *
+     * @throws IOException on failure to read / write the checkpoint file
+     */
+    @Test
+    public final void testRotation_1_Watermark() throws IOException {
+        final File file = File.createTempFile(getClass().getSimpleName(), ".checkpoint");
+        Assert.assertTrue(file.delete());
+        try {
+            final RotationCheckpoint checkpoint = new RotationCheckpoint(file, 0L);
+            Assert.assertEquals(0L, checkpoint.getWatermark());
+            // ranges complete out of order
+            Assert.assertFalse(checkpoint.complete(RANGE + 1, 2 * RANGE));
+            Assert.assertFalse(checkpoint.complete(3 * RANGE + 1, 4 * RANGE));
+            Assert.assertEquals(0L, checkpoint.getWatermark());
+            Assert.assertFalse(file.exists());
+            Assert.assertTrue(checkpoint.complete(1, RANGE));
+            Assert.assertEquals(2 * RANGE, checkpoint.getWatermark());
+            Assert.assertTrue(file.exists());
+            // a restart resumes from the saved watermark; the range completed above it is forgotten
+            final RotationCheckpoint checkpointRestart = new RotationCheckpoint(file, 0L);
+            Assert.assertEquals(2 * RANGE, checkpointRestart.getWatermark());
+            Assert.assertFalse(checkpointRestart.complete(1, RANGE));
+            Assert.assertTrue(checkpointRestart.complete(2 * RANGE + 1, 3 * RANGE));
+            Assert.assertEquals(3 * RANGE, checkpointRestart.getWatermark());
+            checkpointRestart.delete();
+            Assert.assertFalse(file.exists());
+        } finally {
+            Assert.assertFalse(file.exists() && !file.delete());
+        }
+    }
+
+    /**
+     * The rate limiter should pace requests to the configured rate.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    @Test
+    public final void testRotation_2_RateLimiter() throws InterruptedException {
+        final RateLimiter rateLimiter = new RateLimiter(PERMITS_PER_SECOND);
+        final long start = System.nanoTime();
+        for (int i = 0; (i < REQUESTS); ++i) {
+            rateLimiter.acquire(PERMITS_PER_REQUEST);
+        }
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        // the first request is granted immediately; the others are spaced by the rate
+        final long expectedMillis = (REQUESTS - 1) * PERMITS_PER_REQUEST * 1000L / PERMITS_PER_SECOND;
+        Assert.assertTrue(elapsedMillis >= expectedMillis * 9 / 10);
+    }
+
+    private static final long RANGE = 1000L;
+    private static final int PERMITS_PER_SECOND = 1000;
+    private static final int PERMITS_PER_REQUEST = 50;
+    private static final int REQUESTS = 5;
+}
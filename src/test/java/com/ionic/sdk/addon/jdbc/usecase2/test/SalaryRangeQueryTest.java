@@ -0,0 +1,141 @@
+package com.ionic.sdk.addon.jdbc.usecase2.test;
+
+import com.ionic.sdk.addon.jdbc.usecase2.employee.Employee;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonic;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonicFields;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonicUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.ProtectionOptions;
+import com.ionic.sdk.addon.jdbc.usecase2.key.BlindIndex;
+import com.ionic.sdk.addon.jdbc.usecase2.key.BucketIndex;
+import com.ionic.sdk.addon.jdbc.usecase2.key.KeyScope;
+import com.ionic.sdk.addon.jdbc.usecase2.key.LocalKeySource;
+import com.ionic.sdk.addon.jdbc.usecase2.pipeline.SalaryRangeQuery;
+import com.ionic.sdk.core.res.Resource;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+
+/**
+ * Test cases for salary range reports over Ionic-protected employee records, selected by salary range tag.
+ */
+public class SalaryRangeQueryTest {
+
+    /**
+     * Class scoped logger.
+     */
+    private final Logger logger = Logger.getLogger(getClass().getName());
+
+    /**
+     * Test configuration.
+     */
+    private final Properties properties = new Properties();
+
+    /**
+     * Set up for each test case to be run.
+     *
+     * @throws IOException on failure to access test resources
+     */
+    @Before
+    public void setUp() throws IOException {
+        // load test configuration: "src/test/resources/test.properties.xml"
+        final URL urlTestProperties = Resource.resolve("test.properties.xml");
+        Assert.assertNotNull(urlTestProperties);
+        try (InputStream is = urlTestProperties.openStream()) {
+            properties.loadFromXML(is);
+        }
+    }
+
+    /**
+     * Records selected by salary range tag should include every record in the requested range, and few others; the
+     * aggregates over the unprotected candidates should match those calculated from the plaintext records.
+     *
+     * @throws Exception on failure to Ionic protect / unprotect sensitive data
+     */
+    @Test
+    public final void testSalaryRange_1_Report() throws Exception {
+        final int recordsToCreate = 200;
+        final LocalKeySource keySource = new LocalKeySource(0L);
+        final BucketIndex bucketIndex = new BucketIndex(new BlindIndex(keySource.createKeys(1).iterator().next(),
+                BlindIndex.CONTEXT_SALARY), Integer.parseInt(properties.getProperty("bucket.salary.width")));
+        final List<Employee> employees = EmployeeFixture.generate(recordsToCreate, SALARY_STEP);
+        final List<EmployeeIonicFields> ionicFields = EmployeeIonicUtil.toEmployeeIonicFields(employees, keySource,
+                new ProtectionOptions(KeyScope.ROW).withBucketIndex(bucketIndex));
+        // select candidates by tag, as the database would
+        final Set<String> tags = new HashSet<String>(bucketIndex.tags(LOW, HIGH));
+        final List<EmployeeIonic> candidates = new ArrayList<EmployeeIonic>();
+        for (EmployeeIonic employeeIonic : EmployeeFixture.join(employees, ionicFields)) {
+            if (tags.contains(employeeIonic.getIonicFields().getSalaryBucket())) {
+                candidates.add(employeeIonic);
+            }
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final SalaryRangeQuery.Report report = new SalaryRangeQuery(keySource, bucketIndex, properties)
+                    .report(candidates, LOW, HIGH, executor, Integer.parseInt(properties.getProperty("report.slices")));
+            long sum = 0L;
+            int count = 0;
+            for (Employee employee : employees) {
+                if ((employee.getSalary() >= LOW) && (employee.getSalary() <= HIGH)) {
+                    sum += employee.getSalary();
+                    ++count;
+                }
+            }
+            Assert.assertEquals(count, report.getCount());
+            Assert.assertEquals(sum, report.getSum());
+            Assert.assertEquals(((double) sum) / count, report.getAverage(), 0.001);
+            Assert.assertTrue(report.getCandidates() < recordsToCreate / 4);
+            logger.info(String.format("CANDIDATES UNPROTECTED: %d of %d, MATCHES: %d, AVERAGE BY COUNTRY: %s",
+                    report.getCandidates(), recordsToCreate, report.getCount(), report.getAverageByCountry()));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Employee records need not have a country; the report should average those under the null key, rather than
+     * failing.
+     *
+     * @throws Exception on failure to Ionic protect / unprotect sensitive data
+     */
+    @Test
+    public final void testSalaryRange_2_NoCountry() throws Exception {
+        final LocalKeySource keySource = new LocalKeySource(0L);
+        final BucketIndex bucketIndex = new BucketIndex(new BlindIndex(keySource.createKeys(1).iterator().next(),
+                BlindIndex.CONTEXT_SALARY), Integer.parseInt(properties.getProperty("bucket.salary.width")));
+        final List<Employee> employees = new ArrayList<Employee>();
+        for (Employee e : EmployeeFixture.generate(4, SALARY_STEP)) {
+            employees.add(new Employee(e.getId(), e.getFirstName(), e.getLastName(), e.getPersonalIdentifier(),
+                    LOW + e.getSalary(), (e.getId() % 2 == 0) ? null : "US"));
+        }
+        final List<EmployeeIonicFields> ionicFields = EmployeeIonicUtil.toEmployeeIonicFields(employees, keySource,
+                new ProtectionOptions(KeyScope.ROW).withBucketIndex(bucketIndex));
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final SalaryRangeQuery.Report report = new SalaryRangeQuery(keySource, bucketIndex, properties)
+                    .report(EmployeeFixture.join(employees, ionicFields), LOW, HIGH, executor, 1);
+            final Map<String, Double> averages = report.getAverageByCountry();
+            Assert.assertEquals(2, averages.size());
+            Assert.assertEquals(LOW + 2000.0, averages.get(null), 0.001);
+            Assert.assertEquals(LOW + 1000.0, averages.get("US"), 0.001);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static final int SALARY_STEP = 1000;
+    private static final int LOW = 25000;
+    private static final int HIGH = 54999;
+}
@@ -0,0 +1,284 @@
+package com.ionic.sdk.addon.jdbc.usecase2.test;
+
+import com.ionic.sdk.addon.jdbc.usecase2.cipher.ChunkCipherV2Local;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.Employee;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonic;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonicFields;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.EmployeeIonicUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.employee.ProtectionOptions;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.EmployeeDao;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.EmployeeIonicJdbcUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.JdbcUtil;
+import com.ionic.sdk.addon.jdbc.usecase2.jdbc.RecordConsumer;
+import com.ionic.sdk.addon.jdbc.usecase2.key.AgentKeySource;
+import com.ionic.sdk.addon.jdbc.usecase2.key.BlindIndex;
+import com.ionic.sdk.addon.jdbc.usecase2.key.BucketIndex;
+import com.ionic.sdk.addon.jdbc.usecase2.key.KeyScope;
+import com.ionic.sdk.addon.jdbc.usecase2.metrics.Metrics;
+import com.ionic.sdk.addon.jdbc.usecase2.pipeline.KeyRotation;
+import com.ionic.sdk.addon.jdbc.usecase2.pipeline.RotationCheckpoint;
+import com.ionic.sdk.addon.jdbc.usecase2.pipeline.SalaryRangeQuery;
+import com.ionic.sdk.agent.Agent;
+import com.ionic.sdk.agent.AgentSdk;
+import com.ionic.sdk.core.res.Resource;
+import com.ionic.sdk.device.profile.persistor.DeviceProfilePersistorPlainText;
+import com.ionic.sdk.device.profile.persistor.ProfilePersistor;
+import com.ionic.sdk.error.IonicException;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.security.Security;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Test cases against the sample database which store records of their own, and remove them when done.  Unlike those
+ * of {@link CreateReadJdbcTest}, these test cases do not depend on (or disturb) the records of any other test case,
+ * and may run in any order.
+ */
+public class StandaloneJdbcTest {
+
+    /**
+     * Class scoped logger.
+     */
+    private final Logger logger = Logger.getLogger(getClass().getName());
+
+    /**
+     * Test configuration.
+     */
+    private final Properties properties = new Properties();
+
+    /**
+     * Test Ionic agent, used to protect data on insert into database, and unprotect data on fetch from database.
+     */
+    private final Agent agent = new Agent();
+
+    /**
+     * Set up for each test case to be run.
+     *
+     * @throws Exception on failure to read the test configuration
+     */
+    @Before
+    public void setUp() throws Exception {
+        // load test configuration: "src/test/resources/test.properties.xml"
+        final URL urlTestProperties = Resource.resolve("test.properties.xml");
+        Assert.assertNotNull(urlTestProperties);
+        try (InputStream is = urlTestProperties.openStream()) {
+            properties.loadFromXML(is);
+        }
+        // latency instrumentation ("metrics.*")
+        Metrics.configure(properties);
+        // initialize Ionic agent for use
+        if (!agent.isInitialized()) {
+            final String ionicProfile = properties.getProperty("ionic.profile");
+            Assert.assertNotNull(ionicProfile);
+            AgentSdk.initialize(Security.getProvider("SunJCE"));
+            final URL urlIonicProfile = Resource.resolve(ionicProfile);
+            final ProfilePersistor profilePersistor = new DeviceProfilePersistorPlainText(urlIonicProfile);
+            agent.initialize(profilePersistor);
+        }
+    }
+
+    /**
+     * Release the resources shared by the test cases: the database connection pools, and the latency reporter and
+     * its JMX publication.
+     *
+     * @throws SQLException   on failure to close a connection pool
+     * @throws IonicException on failure to withdraw the JMX publication
+     */
+    @AfterClass
+    public static void tearDownClass() throws SQLException, IonicException {
+        try {
+            JdbcUtil.closeDataSources();
+        } finally {
+            Metrics.shutdown();
+        }
+    }
+
+    /**
+     * Store records with a spread of salaries, along with their salary range tags, then report on a salary range.
+     * The database selects candidate records using the tags; only the candidates are unprotected.
+     *
+     * @throws Exception on failure to Ionic protect / unprotect sensitive data, or to access the SQL data store
+     */
+    @Test
+    public final void testJdbc_1_SalaryRangeQuery() throws Exception {
+        final AgentKeySource keySource = new AgentKeySource(agent);
+        final String keyId = keySource.createKeys(1).iterator().next().getId();
+        // a salary range tag key of this test's own, so that only the records of this test are selected
+        final BucketIndex bucketIndex = new BucketIndex(BlindIndex.get(keySource, keyId, BlindIndex.CONTEXT_SALARY),
+                Integer.parseInt(properties.getProperty("bucket.salary.width")));
+        final int recordsToCreate = 100;
+        final int salaryStep = 1000;
+        final List<Employee> employees = EmployeeFixture.generate(recordsToCreate, salaryStep);
+        final List<EmployeeIonicFields> ionicFields = EmployeeIonicUtil.toEmployeeIonicFields(employees, keySource,
+                EmployeeFixture.getProtectionOptions(keySource, properties, KeyScope.ROW).withBucketIndex(bucketIndex));
+        final List<EmployeeIonic> employeesIonic = EmployeeFixture.join(employees, ionicFields);
+        final int slices = Integer.parseInt(properties.getProperty("report.slices"));
+        final ExecutorService executor = Executors.newFixedThreadPool(slices);
+        try (Connection connection = JdbcUtil.getConnection(properties)) {
+            final List<Integer> ids = EmployeeIonicJdbcUtil.insertEmployees(connection, properties, employeesIonic);
+            // the spread of salaries would break the expectations of CreateReadJdbcTest, so remove the records
+            try {
+                final SalaryRangeQuery query = new SalaryRangeQuery(keySource, bucketIndex, properties);
+                final long start = System.nanoTime();
+                final SalaryRangeQuery.Report report = query.query(connection, 25000, 54999, executor, slices);
+                logger.info(String.format("SALARY RANGE: %d matches, %d candidates unprotected in %d ms; %s",
+                        report.getCount(), report.getCandidates(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), report.getAverageByCountry()));
+                Assert.assertEquals(30, report.getCount());
+                for (Employee employee : report.getEmployees()) {
+                    Assert.assertTrue((employee.getSalary() >= 25000) && (employee.getSalary() <= 54999));
+                }
+            } finally {
+                EmployeeFixture.deleteRecords(connection, ids);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Store records, then read them back, using the typed data access object.  Each statement is prepared once for
+     * the connection, and each query result is mapped by a row mapper compiled from its metadata.
+     *
+     * @throws IonicException on failure to Ionic protect / unprotect sensitive data
+     * @throws SQLException   on failure to read from/write to the SQL data store
+     */
+    @Test
+    public final void testJdbc_2_EmployeeDao() throws IonicException, SQLException {
+        final AgentKeySource keySource = new AgentKeySource(agent);
+        final int recordsToCreate = 10;
+        final List<Employee> employees = EmployeeFixture.generate(recordsToCreate);
+        final List<EmployeeIonicFields> ionicFields = EmployeeIonicUtil.toEmployeeIonicFields(employees, keySource,
+                EmployeeFixture.getProtectionOptions(keySource, properties, KeyScope.ROW));
+        final List<EmployeeIonic> employeesIonic = EmployeeFixture.join(employees, ionicFields);
+        try (Connection connection = JdbcUtil.getConnection(properties);
+             EmployeeDao dao = new EmployeeDao(connection, properties)) {
+            final List<Integer> ids = dao.insert(employeesIonic);
+            try {
+                Assert.assertEquals(recordsToCreate, ids.size());
+                // the same prepared statements and compiled mappers are used for each call
+                final Map<Integer, EmployeeIonic> inserted = new HashMap<Integer, EmployeeIonic>();
+                for (int pass = 0; (pass < 2); ++pass) {
+                    final long start = System.nanoTime();
+                    final int count = dao.streamEmployeeIonic(new RecordConsumer<EmployeeIonic>() {
+                        @Override
+                        public void accept(final EmployeeIonic employeeIonic) {
+                            if (ids.contains(employeeIonic.getId())) {
+                                inserted.put(employeeIonic.getId(), employeeIonic);
+                            }
+                        }
+                    });
+                    logger.info(String.format("DAO PASS %d: %d records in %d ms", pass, count,
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+                }
+                Assert.assertEquals(recordsToCreate, inserted.size());
+                final List<Employee> recovered =
+                        EmployeeIonicUtil.toEmployees(new ArrayList<EmployeeIonic>(inserted.values()), keySource);
+                for (Employee employee : recovered) {
+                    final Employee original = employees.get(ids.indexOf(employee.getId()));
+                    Assert.assertEquals(original.getPersonalIdentifier(), employee.getPersonalIdentifier());
+                    Assert.assertEquals(original.getSalary(), employee.getSalary());
+                }
+                final String personalIdentifierIndex = ionicFields.get(0).getPersonalIdentifierIndex();
+                boolean foundInserted = false;
+                for (EmployeeIonic hit : dao.findByPersonalIdentifierIndex(personalIdentifierIndex)) {
+                    foundInserted |= (hit.getId() == ids.get(0));
+                }
+                Assert.assertTrue(foundInserted);
+            } finally {
+                EmployeeFixture.deleteRecords(connection, ids);
+            }
+        }
+    }
+
+    /**
+     * Store records, then rotate the keys protecting them.  Each rotated record should be protected by a new key,
+     * and should still unprotect to its original values.
+     *
+     * @throws Exception on failure to Ionic protect / unprotect sensitive data; on failure to read from/write to the
+     *                   SQL data store; on failure to read / write the rotation checkpoint
+     */
+    @Test
+    public final void testJdbc_3_KeyRotation() throws Exception {
+        final AgentKeySource keySource = new AgentKeySource(agent);
+        final int recordsToCreate = 10;
+        final List<Employee> employees = EmployeeFixture.generate(recordsToCreate);
+        final List<EmployeeIonicFields> ionicFields = EmployeeIonicUtil.toEmployeeIonicFields(
+                employees, keySource, ProtectionOptions.get(keySource, properties, KeyScope.ROW));
+        final List<EmployeeIonic> employeesIonic = EmployeeFixture.join(employees, ionicFields);
+        final File fileCheckpoint = File.createTempFile("rotation", ".checkpoint");
+        Assert.assertTrue(fileCheckpoint.delete());
+        try (Connection connection = JdbcUtil.getConnection(properties);
+             EmployeeDao dao = new EmployeeDao(connection, properties)) {
+            final List<Integer> ids = dao.insert(employeesIonic);
+            try {
+                // rotate only the new records, tracking progress in a checkpoint of this test's own
+                final Properties propertiesRotation = new Properties();
+                propertiesRotation.putAll(properties);
+                propertiesRotation.setProperty("sql.select.employeeionic.fidrange", String.format(
+                        SQL_SELECT_FIDRANGE_BOUNDED, Collections.min(ids), Collections.max(ids)));
+                propertiesRotation.setProperty("rotation.checkpoint", fileCheckpoint.getPath());
+                final KeyRotation keyRotation = new KeyRotation(keySource, propertiesRotation);
+                final RotationCheckpoint checkpoint = keyRotation.openCheckpoint();
+                final long start = System.nanoTime();
+                final long rotated = keyRotation.rotate(checkpoint);
+                logger.info(String.format("ROTATED %d records (%d skipped) in %d ms", rotated,
+                        keyRotation.getSkipped(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+                Assert.assertEquals(recordsToCreate, rotated);
+                Assert.assertEquals((long) Collections.max(ids), checkpoint.getWatermark());
+                checkpoint.delete();
+                final Map<Integer, EmployeeIonic> reread = new HashMap<Integer, EmployeeIonic>();
+                dao.streamEmployeeIonic(new RecordConsumer<EmployeeIonic>() {
+                    @Override
+                    public void accept(final EmployeeIonic employeeIonic) {
+                        if (ids.contains(employeeIonic.getId())) {
+                            reread.put(employeeIonic.getId(), employeeIonic);
+                        }
+                    }
+                });
+                Assert.assertEquals(recordsToCreate, reread.size());
+                for (EmployeeIonic employeeIonic : reread.values()) {
+                    final EmployeeIonicFields fieldsBefore = ionicFields.get(ids.indexOf(employeeIonic.getId()));
+                    Assert.assertNotEquals(ChunkCipherV2Local.getKeyId(fieldsBefore.getSalary()),
+                            ChunkCipherV2Local.getKeyId(employeeIonic.getIonicFields().getSalary()));
+                }
+                final List<Employee> recovered =
+                        EmployeeIonicUtil.toEmployees(new ArrayList<EmployeeIonic>(reread.values()), keySource);
+                for (Employee employee : recovered) {
+                    final Employee original = employees.get(ids.indexOf(employee.getId()));
+                    Assert.assertEquals(original.getPersonalIdentifier(), employee.getPersonalIdentifier());
+                    Assert.assertEquals(original.getSalary(), employee.getSalary());
+                }
+            } finally {
+                EmployeeFixture.deleteRecords(connection, ids);
+            }
+        } finally {
+            Files.deleteIfExists(fileCheckpoint.toPath());
+        }
+    }
+
+    /**
+     * The lowest and highest foreign key of table EmployeeIonic, within bounds; limits a key rotation to the records
+     * of a single test case.
+     */
+    private static final String SQL_SELECT_FIDRANGE_BOUNDED =
+            "SELECT MIN(fid), MAX(fid) FROM employeeionic WHERE fid >= %d AND fid <= %d";
+}